@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -73,6 +73,15 @@ import org.springframework.util.StringUtils;
  * <p>Naturally, as this is to be processed by Spring AOP's proxy-based model,
  * only method execution pointcuts are supported.
  *
+ * <p>Pointcuts with a {@link #setMatchCache match cache} share their match
+ * results with the equivalent pointcuts using the same cache, i.e. pointcuts
+ * with the same expression, declaration scope and parameters which are resolved
+ * against the same ClassLoader: class matches as well as method shadow matches
+ * are then evaluated by the AspectJ weaver once per target class and method,
+ * not once per advisor and bean. Pointcuts using the Spring-specific
+ * {@code bean()} designator do not share their match results, since these
+ * depend on the name of the bean being proxied.
+ *
  * @author Rob Harrop
  * @author Adrian Colyer
  * @author Rod Johnson
@@ -121,6 +130,14 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 
 	private transient Map<Method, ShadowMatch> shadowMatchCache = new ConcurrentHashMap<>(32);
 
+	private transient volatile boolean beanDesignatorUsed;
+
+	@Nullable
+	private transient AspectJPointcutMatchCache matchCache;
+
+	@Nullable
+	private transient volatile AspectJPointcutMatchCache.PointcutMatches sharedMatches;
+
 
 	/**
 	 * Create a new default AspectJExpressionPointcut.
@@ -171,6 +188,16 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		this.beanFactory = beanFactory;
 	}
 
+	/**
+	 * Set the cache through which this pointcut shares its match results
+	 * with equivalent pointcuts, e.g. with the other pointcuts created by
+	 * the same advisor factory.
+	 * @since 5.0.17
+	 */
+	public void setMatchCache(@Nullable AspectJPointcutMatchCache matchCache) {
+		this.matchCache = matchCache;
+	}
+
 
 	@Override
 	public ClassFilter getClassFilter() {
@@ -270,6 +297,19 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 	@Override
 	public boolean matches(Class<?> targetClass) {
 		PointcutExpression pointcutExpression = obtainPointcutExpression();
+		AspectJPointcutMatchCache.PointcutMatches sharedMatches = obtainSharedMatches();
+		if (sharedMatches == null) {
+			return couldMatchJoinPointsInType(pointcutExpression, targetClass);
+		}
+		Boolean matches = sharedMatches.classMatches.get(targetClass);
+		if (matches == null) {
+			matches = couldMatchJoinPointsInType(pointcutExpression, targetClass);
+			sharedMatches.classMatches.put(targetClass, matches);
+		}
+		return matches;
+	}
+
+	private boolean couldMatchJoinPointsInType(PointcutExpression pointcutExpression, Class<?> targetClass) {
 		try {
 			try {
 				return pointcutExpression.couldMatchJoinPointsInType(targetClass);
@@ -452,6 +492,17 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		// Avoid lock contention for known Methods through concurrent access...
 		ShadowMatch shadowMatch = this.shadowMatchCache.get(targetMethod);
 		if (shadowMatch == null) {
+			// Check for a shadow match computed by an equivalent pointcut...
+			AspectJPointcutMatchCache.PointcutMatches sharedMatches = obtainSharedMatches();
+			if (sharedMatches != null) {
+				shadowMatch = sharedMatches.shadowMatches.get(targetMethod);
+				if (shadowMatch != null) {
+					this.shadowMatchCache.put(targetMethod, shadowMatch);
+					return shadowMatch;
+				}
+			}
+			// The AspectJ weaver needs to be called with the lock held, since
+			// the ReflectionWorld behind the pointcut expression is not thread-safe.
 			synchronized (this.shadowMatchCache) {
 				// Not found - now check again with full lock...
 				PointcutExpression fallbackExpression = null;
@@ -512,12 +563,31 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 								fallbackExpression.matchesMethodExecution(methodToMatch));
 					}
 					this.shadowMatchCache.put(targetMethod, shadowMatch);
+					if (sharedMatches != null) {
+						sharedMatches.shadowMatches.put(targetMethod, shadowMatch);
+					}
 				}
 			}
 		}
 		return shadowMatch;
 	}
 
+	/**
+	 * Obtain the match results shared by the pointcuts equivalent to this one,
+	 * resolving them against the match cache on first access.
+	 * @return the shared match results, or {@code null} if there is no match
+	 * cache or this pointcut's results cannot be shared
+	 */
+	@Nullable
+	private AspectJPointcutMatchCache.PointcutMatches obtainSharedMatches() {
+		AspectJPointcutMatchCache.PointcutMatches sharedMatches = this.sharedMatches;
+		if (sharedMatches == null && this.matchCache != null && !this.beanDesignatorUsed) {
+			sharedMatches = this.matchCache.getPointcutMatches(new PointcutKey(this));
+			this.sharedMatches = sharedMatches;
+		}
+		return sharedMatches;
+	}
+
 
 	@Override
 	public boolean equals(Object other) {
@@ -600,6 +670,7 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 
 		@Override
 		public ContextBasedMatcher parse(String expression) {
+			beanDesignatorUsed = true;
 			return new BeanContextMatcher(expression);
 		}
 	}
@@ -676,6 +747,63 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 	}
 
 
+	/**
+	 * Key identifying equivalent pointcuts, i.e. pointcuts which are guaranteed
+	 * to produce the same match results.
+	 */
+	private static final class PointcutKey {
+
+		private final Class<?> pointcutClass;
+
+		@Nullable
+		private final String expression;
+
+		@Nullable
+		private final Class<?> declarationScope;
+
+		private final String[] parameterNames;
+
+		private final Class<?>[] parameterTypes;
+
+		@Nullable
+		private final ClassLoader classLoader;
+
+		public PointcutKey(AspectJExpressionPointcut pointcut) {
+			this.pointcutClass = pointcut.getClass();
+			this.expression = pointcut.getExpression();
+			this.declarationScope = pointcut.pointcutDeclarationScope;
+			this.parameterNames = pointcut.pointcutParameterNames.clone();
+			this.parameterTypes = pointcut.pointcutParameterTypes.clone();
+			this.classLoader = pointcut.pointcutClassLoader;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof PointcutKey)) {
+				return false;
+			}
+			PointcutKey otherKey = (PointcutKey) other;
+			return (this.pointcutClass == otherKey.pointcutClass &&
+					ObjectUtils.nullSafeEquals(this.expression, otherKey.expression) &&
+					this.declarationScope == otherKey.declarationScope &&
+					Arrays.equals(this.parameterNames, otherKey.parameterNames) &&
+					Arrays.equals(this.parameterTypes, otherKey.parameterTypes) &&
+					this.classLoader == otherKey.classLoader);
+		}
+
+		@Override
+		public int hashCode() {
+			int hashCode = ObjectUtils.nullSafeHashCode(this.expression);
+			hashCode = 31 * hashCode + ObjectUtils.nullSafeHashCode(this.declarationScope);
+			hashCode = 31 * hashCode + Arrays.hashCode(this.parameterNames);
+			return hashCode;
+		}
+	}
+
+
 	private static class DefensiveShadowMatch implements ShadowMatch {
 
 		private final ShadowMatch primary;
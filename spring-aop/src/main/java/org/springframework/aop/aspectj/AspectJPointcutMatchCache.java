@@ -0,0 +1,72 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.aspectj;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.weaver.tools.ShadowMatch;
+
+/**
+ * Cache for the match results of {@link AspectJExpressionPointcut} instances,
+ * shared by all equivalent pointcuts that use the same cache: the AspectJ
+ * weaver evaluates such pointcuts once per target class and method rather
+ * than once per pointcut.
+ *
+ * <p>A cache is meant to be held by the component that creates the pointcuts,
+ * e.g. a {@link org.springframework.aop.aspectj.annotation.ReflectiveAspectJAdvisorFactory},
+ * and is released together with that component.
+ *
+ * @author agent
+ * @since 5.0.17
+ * @see AspectJExpressionPointcut#setMatchCache
+ */
+public class AspectJPointcutMatchCache {
+
+	private final Map<Object, PointcutMatches> pointcutMatches = new ConcurrentHashMap<>(64);
+
+
+	/**
+	 * Return the match results shared by the pointcuts with the given key,
+	 * creating them if necessary.
+	 */
+	PointcutMatches getPointcutMatches(Object pointcutKey) {
+		return this.pointcutMatches.computeIfAbsent(pointcutKey, key -> new PointcutMatches());
+	}
+
+	/**
+	 * Return the number of distinct pointcuts held by this cache.
+	 */
+	int size() {
+		return this.pointcutMatches.size();
+	}
+
+
+	/**
+	 * Match results shared by a set of equivalent pointcuts.
+	 */
+	static final class PointcutMatches {
+
+		/** Class match results, per target class */
+		final Map<Class<?>, Boolean> classMatches = new ConcurrentHashMap<>(64);
+
+		/** Shadow matches, per target method */
+		final Map<Method, ShadowMatch> shadowMatches = new ConcurrentHashMap<>(256);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -44,6 +44,10 @@ import org.springframework.util.ObjectUtils;
  */
 public abstract class AopProxyUtils {
 
+	/** Shared argument array for methods without arguments (effectively immutable) */
+	private static final Object[] EMPTY_ARGUMENTS = new Object[0];
+
+
 	/**
 	 * Obtain the singleton target object behind the given proxy, if any.
 	 * @param candidate the (potential) proxy to check
@@ -222,7 +226,7 @@ public abstract class AopProxyUtils {
 	 */
 	static Object[] adaptArgumentsIfNecessary(Method method, @Nullable Object[] arguments) {
 		if (ObjectUtils.isEmpty(arguments)) {
-			return new Object[0];
+			return EMPTY_ARGUMENTS;
 		}
 		if (method.isVarArgs()) {
 			Class<?>[] paramTypes = method.getParameterTypes();
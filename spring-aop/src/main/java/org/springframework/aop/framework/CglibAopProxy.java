@@ -20,6 +20,7 @@ import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -67,6 +68,15 @@ import org.springframework.util.ObjectUtils;
  * proxies if necessary, for example in case of proxying a target class
  * (see the {@link DefaultAopProxyFactory attendant javadoc} for details).
  *
+ * <p>For a {@linkplain AdvisedSupport#setFrozen frozen} configuration with a
+ * {@linkplain TargetSource#isStatic() static} target, the advice chain of each
+ * advised method gets resolved once at proxy creation time: the generated
+ * proxy class routes such a method to a callback holding its fixed chain and
+ * the target, which in turn gets invoked through CGLIB's generated fast-class
+ * invoker rather than through reflection (for public methods). Unless the
+ * proxy is to be exposed, no per-invocation lookup of the advice chain
+ * takes place then.
+ *
  * <p>Proxies created using this class are thread-safe if the underlying
  * (target) class is thread-safe.
  *
@@ -321,24 +331,28 @@ class CglibAopProxy implements AopProxy, Serializable {
 		// then we can make some optimizations by sending the AOP calls
 		// direct to the target using the fixed chain for that method.
 		if (isStatic && isFrozen) {
+			Object target = this.advised.getTargetSource().getTarget();
+			Class<?> targetClass = this.advised.getTargetClass();
 			Method[] methods = rootClass.getMethods();
-			Callback[] fixedCallbacks = new Callback[methods.length];
+			List<Callback> fixedCallbacks = new ArrayList<>(methods.length);
 			this.fixedInterceptorMap = new HashMap<>(methods.length);
 
-			// TODO: small memory optimization here (can skip creation for methods with no advice)
-			for (int x = 0; x < methods.length; x++) {
-				Method method = methods[x];
+			for (Method method : methods) {
 				List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, rootClass);
-				fixedCallbacks[x] = new FixedChainStaticTargetInterceptor(
-						chain, this.advised.getTargetSource().getTarget(), this.advised.getTargetClass());
-				this.fixedInterceptorMap.put(methods.toString(), x);
+				// Unadvised methods get routed to the target without any interceptor.
+				if (!chain.isEmpty()) {
+					this.fixedInterceptorMap.put(method.toString(), fixedCallbacks.size());
+					fixedCallbacks.add(new FixedChainStaticTargetInterceptor(chain, target, targetClass));
+				}
 			}
 
 			// Now copy both the callbacks from mainCallbacks
 			// and fixedCallbacks into the callbacks array.
-			callbacks = new Callback[mainCallbacks.length + fixedCallbacks.length];
+			callbacks = new Callback[mainCallbacks.length + fixedCallbacks.size()];
 			System.arraycopy(mainCallbacks, 0, callbacks, 0, mainCallbacks.length);
-			System.arraycopy(fixedCallbacks, 0, callbacks, mainCallbacks.length, fixedCallbacks.length);
+			for (int x = 0; x < fixedCallbacks.size(); x++) {
+				callbacks[mainCallbacks.length + x] = fixedCallbacks.get(x);
+			}
 			this.fixedInterceptorOffset = mainCallbacks.length;
 		}
 		else {
@@ -612,11 +626,17 @@ class CglibAopProxy implements AopProxy, Serializable {
 
 	/**
 	 * Interceptor used specifically for advised methods on a frozen, static proxy.
+	 * Holds the advice chain for its method, as resolved at proxy creation time.
+	 * <p>If the chain contains no dynamic method matchers, it is also kept as an
+	 * array of interceptors which is walked without any per-element type checks.
 	 */
 	private static class FixedChainStaticTargetInterceptor implements MethodInterceptor, Serializable {
 
 		private final List<Object> adviceChain;
 
+		@Nullable
+		private final org.aopalliance.intercept.MethodInterceptor[] staticChain;
+
 		@Nullable
 		private final Object target;
 
@@ -627,15 +647,34 @@ class CglibAopProxy implements AopProxy, Serializable {
 				List<Object> adviceChain, @Nullable Object target, @Nullable Class<?> targetClass) {
 
 			this.adviceChain = adviceChain;
+			this.staticChain = toStaticChain(adviceChain);
 			this.target = target;
 			this.targetClass = targetClass;
 		}
 
+		@Nullable
+		private static org.aopalliance.intercept.MethodInterceptor[] toStaticChain(List<Object> adviceChain) {
+			org.aopalliance.intercept.MethodInterceptor[] interceptors =
+					new org.aopalliance.intercept.MethodInterceptor[adviceChain.size()];
+			for (int i = 0; i < interceptors.length; i++) {
+				Object interceptor = adviceChain.get(i);
+				if (!(interceptor instanceof org.aopalliance.intercept.MethodInterceptor)) {
+					// Dynamic method matcher: needs evaluation for every invocation.
+					return null;
+				}
+				interceptors[i] = (org.aopalliance.intercept.MethodInterceptor) interceptor;
+			}
+			return interceptors;
+		}
+
 		@Override
 		@Nullable
 		public Object intercept(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
-			MethodInvocation invocation = new CglibMethodInvocation(
-					proxy, this.target, method, args, this.targetClass, this.adviceChain, methodProxy);
+			MethodInvocation invocation = (this.staticChain != null ?
+					new StaticChainMethodInvocation(
+							proxy, this.target, method, args, this.targetClass, this.adviceChain, this.staticChain, methodProxy) :
+					new CglibMethodInvocation(
+							proxy, this.target, method, args, this.targetClass, this.adviceChain, methodProxy));
 			// If we get here, we need to create a MethodInvocation.
 			Object retVal = invocation.proceed();
 			retVal = processReturnType(proxy, this.target, method, retVal);
@@ -753,6 +792,36 @@ class CglibAopProxy implements AopProxy, Serializable {
 	}
 
 
+	/**
+	 * CglibMethodInvocation for a fixed chain without dynamic method matchers,
+	 * as used by frozen proxies with a static target.
+	 */
+	private static class StaticChainMethodInvocation extends CglibMethodInvocation {
+
+		private final org.aopalliance.intercept.MethodInterceptor[] interceptors;
+
+		private int currentInterceptorIndex = -1;
+
+		public StaticChainMethodInvocation(Object proxy, @Nullable Object target, Method method,
+				Object[] arguments, @Nullable Class<?> targetClass, List<Object> adviceChain,
+				org.aopalliance.intercept.MethodInterceptor[] interceptors, MethodProxy methodProxy) {
+
+			super(proxy, target, method, arguments, targetClass, adviceChain, methodProxy);
+			this.interceptors = interceptors;
+		}
+
+		@Override
+		@Nullable
+		public Object proceed() throws Throwable {
+			// We start with an index of -1 and increment early.
+			if (this.currentInterceptorIndex == this.interceptors.length - 1) {
+				return invokeJoinpoint();
+			}
+			return this.interceptors[++this.currentInterceptorIndex].invoke(this);
+		}
+	}
+
+
 	/**
 	 * CallbackFilter to assign Callbacks to methods.
 	 */
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -134,6 +134,9 @@ public class ProxyConfig implements Serializable {
 	 * <p>When a config is frozen, no advice changes can be made. This is
 	 * useful for optimization, and useful when we don't want callers to
 	 * be able to manipulate configuration after casting to Advised.
+	 * <p>For example, a CGLIB proxy for a frozen configuration with a static
+	 * target resolves the advice chain of each advised method once at proxy
+	 * creation time, instead of looking it up on each invocation.
 	 */
 	public void setFrozen(boolean frozen) {
 		this.frozen = frozen;
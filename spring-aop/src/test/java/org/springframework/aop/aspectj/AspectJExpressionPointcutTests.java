@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,6 +31,8 @@ import org.springframework.aop.MethodMatcher;
 import org.springframework.aop.Pointcut;
 import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.tests.sample.beans.IOther;
 import org.springframework.tests.sample.beans.ITestBean;
 import org.springframework.tests.sample.beans.TestBean;
@@ -306,12 +308,48 @@ public class AspectJExpressionPointcutTests {
 		assertEquals("execution(* *(..)) && args(String) && this(Object)",expr.getPointcutExpression());
 	}
 
+	@Test
+	public void testEquivalentPointcutsShareMatchResults() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		AspectJPointcutMatchCache matchCache = new AspectJPointcutMatchCache();
+		String expression = "execution(int org.springframework.tests.sample.beans.TestBean.getAge())";
+		Pointcut pointcut1 = getPointcut(expression, beanFactory, matchCache);
+		Pointcut pointcut2 = getPointcut(expression, beanFactory, matchCache);
+
+		assertMatchesTestBeanClass(pointcut1.getClassFilter());
+		assertMatchesGetAge(pointcut1.getMethodMatcher());
+		assertFalse(pointcut1.getMethodMatcher().matches(setAge, TestBean.class));
+		assertEquals(1, matchCache.size());
+
+		assertMatchesTestBeanClass(pointcut2.getClassFilter());
+		assertMatchesGetAge(pointcut2.getMethodMatcher());
+		assertFalse(pointcut2.getMethodMatcher().matches(setAge, TestBean.class));
+		assertEquals(1, matchCache.size());
+
+		Pointcut otherPointcut = getPointcut(
+				"execution(void org.springframework.tests.sample.beans.TestBean.setAge(int))", beanFactory, matchCache);
+		assertFalse(otherPointcut.getMethodMatcher().matches(getAge, TestBean.class));
+		assertTrue(otherPointcut.getMethodMatcher().matches(setAge, TestBean.class));
+		assertEquals(2, matchCache.size());
+
+		// Match results are not exposed through the BeanFactory
+		assertEquals(0, beanFactory.getSingletonCount());
+	}
+
 	private Pointcut getPointcut(String expression) {
 		AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
 		pointcut.setExpression(expression);
 		return pointcut;
 	}
 
+	private Pointcut getPointcut(String expression, BeanFactory beanFactory, AspectJPointcutMatchCache matchCache) {
+		AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+		pointcut.setExpression(expression);
+		pointcut.setBeanFactory(beanFactory);
+		pointcut.setMatchCache(matchCache);
+		return pointcut;
+	}
+
 
 	public static class OtherIOther implements IOther {
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,8 @@ package org.springframework.aop.aspectj;
 
 import org.junit.Test;
 
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.tests.sample.beans.TestBean;
 
 import static org.junit.Assert.*;
@@ -78,6 +80,18 @@ public class BeanNamePointcutMatchingTests {
 	}
 
 
+	@Test
+	public void testMatchResultsNotSharedAcrossBeans() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		AspectJPointcutMatchCache matchCache = new AspectJPointcutMatchCache();
+
+		// Equivalent pointcuts, evaluated for the same class but for different beans
+		assertTrue(new BeanNamePointcut("someName", "bean(someName)", beanFactory, matchCache).matches(TestBean.class));
+		assertFalse(new BeanNamePointcut("someOtherName", "bean(someName)", beanFactory, matchCache).matches(TestBean.class));
+		assertTrue(new BeanNamePointcut("someName", "bean(someName)", beanFactory, matchCache).matches(TestBean.class));
+		assertEquals(0, matchCache.size());
+	}
+
 	private void assertMatch(String beanName, String pcExpression) {
 		assertTrue("Unexpected mismatch for bean \"" + beanName + "\" for pcExpression \"" + pcExpression + "\"",
 				matches(beanName, pcExpression));
@@ -100,4 +114,25 @@ public class BeanNamePointcutMatchingTests {
 		return pointcut.matches(TestBean.class);
 	}
 
+
+	@SuppressWarnings("serial")
+	private static class BeanNamePointcut extends AspectJExpressionPointcut {
+
+		private final String beanName;
+
+		public BeanNamePointcut(String beanName, String pcExpression,
+				BeanFactory beanFactory, AspectJPointcutMatchCache matchCache) {
+
+			this.beanName = beanName;
+			setExpression(pcExpression);
+			setBeanFactory(beanFactory);
+			setMatchCache(matchCache);
+		}
+
+		@Override
+		protected String getCurrentProxiedBeanName() {
+			return this.beanName;
+		}
+	}
+
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.Test;
+
+import org.springframework.aop.MethodBeforeAdvice;
+import org.springframework.tests.Assume;
+import org.springframework.tests.TestGroup;
+import org.springframework.tests.aop.interceptor.NopInterceptor;
+import org.springframework.tests.sample.beans.ITestBean;
+import org.springframework.tests.sample.beans.TestBean;
+import org.springframework.util.StopWatch;
+
+import static org.junit.Assert.*;
+
+/**
+ * Benchmarks for invocations through JDK proxies, CGLIB proxies and
+ * frozen CGLIB proxies with a fixed advice chain.
+ *
+ * NOTE: No assertions on timing!
+ *
+ * @author agent
+ */
+public class ProxyInvocationBenchmarkTests {
+
+	/** Increase this if you want meaningful results! */
+	private static final int INVOCATIONS = 100000;
+
+	private static final Log logger = LogFactory.getLog(ProxyInvocationBenchmarkTests.class);
+
+
+	@Test
+	public void timeManyInvocations() {
+		Assume.group(TestGroup.PERFORMANCE);
+
+		StopWatch sw = new StopWatch();
+
+		TestBean target = new TestBean();
+		target.setAge(27);
+		ITestBean jdkProxy = createProxy(target, false, false);
+		ITestBean cglibProxy = createProxy(target, true, false);
+		ITestBean frozenCglibProxy = createProxy(target, true, true);
+
+		invoke("target", target, sw);
+		invoke("JDK proxy", jdkProxy, sw);
+		invoke("CGLIB proxy", cglibProxy, sw);
+		invoke("frozen CGLIB proxy", frozenCglibProxy, sw);
+
+		if (logger.isDebugEnabled()) {
+			logger.debug(sw.prettyPrint());
+		}
+	}
+
+	private ITestBean createProxy(TestBean target, boolean proxyTargetClass, boolean frozen) {
+		ProxyFactory pf = new ProxyFactory(target);
+		pf.setProxyTargetClass(proxyTargetClass);
+		pf.addAdvice(new NopInterceptor());
+		pf.addAdvice((MethodBeforeAdvice) (method, args, object) -> {});
+		pf.setFrozen(frozen);
+		return (ITestBean) pf.getProxy();
+	}
+
+	private void invoke(String name, ITestBean bean, StopWatch sw) {
+		// Warm up, letting the JIT compiler kick in before measuring
+		for (int i = 0; i < INVOCATIONS; i++) {
+			bean.getAge();
+		}
+
+		sw.start(INVOCATIONS + " invocations on " + name);
+		int total = 0;
+		for (int i = 0; i < INVOCATIONS; i++) {
+			total += bean.getAge();
+		}
+		sw.stop();
+
+		assertEquals(27 * INVOCATIONS, total);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.beans.factory.config;
 
 import java.beans.PropertyEditor;
 import java.security.AccessControlContext;
+import java.util.concurrent.Executor;
 
 import org.springframework.beans.PropertyEditorRegistrar;
 import org.springframework.beans.PropertyEditorRegistry;
@@ -27,6 +28,7 @@ import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.HierarchicalBeanFactory;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.core.convert.ConversionService;
+import org.springframework.core.metrics.ApplicationStartup;
 import org.springframework.lang.Nullable;
 import org.springframework.util.StringValueResolver;
 
@@ -283,6 +285,40 @@ public interface ConfigurableBeanFactory extends HierarchicalBeanFactory, Single
 	 */
 	AccessControlContext getAccessControlContext();
 
+	/**
+	 * Set the {@code ApplicationStartup} for this bean factory.
+	 * <p>This allows the application context to record metrics during application startup,
+	 * e.g. for the creation of individual beans.
+	 * @param applicationStartup the new application startup
+	 * @since 5.0.17
+	 */
+	void setApplicationStartup(ApplicationStartup applicationStartup);
+
+	/**
+	 * Return the {@code ApplicationStartup} for this bean factory.
+	 * @since 5.0.17
+	 */
+	ApplicationStartup getApplicationStartup();
+
+	/**
+	 * Set the {@link Executor} to use for initializing singletons in the background,
+	 * as indicated by their bean definitions.
+	 * <p>By default, there is no bootstrap executor, and all non-lazy singletons
+	 * are created on startup on the thread that triggers their pre-instantiation.
+	 * @param bootstrapExecutor the executor to use, or {@code null} for none
+	 * @since 5.0.17
+	 * @see org.springframework.beans.factory.support.AbstractBeanDefinition#setBackgroundInit
+	 */
+	void setBootstrapExecutor(@Nullable Executor bootstrapExecutor);
+
+	/**
+	 * Return the {@link Executor} to use for initializing singletons in the
+	 * background, if any.
+	 * @since 5.0.17
+	 */
+	@Nullable
+	Executor getBootstrapExecutor();
+
 	/**
 	 * Copy all relevant configuration from the given other factory.
 	 * <p>Should include all standard configuration settings as well as
@@ -154,6 +154,8 @@ public abstract class AbstractBeanDefinition extends BeanMetadataAttributeAccess
 	//默认不是懒加载
 	private boolean lazyInit = false;
 
+	private boolean backgroundInit = false;
+
 	//自动注入模式，默认为no，也就是不注入
 	private int autowireMode = AUTOWIRE_NO;
 
@@ -259,6 +261,7 @@ public abstract class AbstractBeanDefinition extends BeanMetadataAttributeAccess
 			if (originalAbd.hasMethodOverrides()) {
 				setMethodOverrides( new MethodOverrides( originalAbd.getMethodOverrides() ) );
 			}
+			setBackgroundInit( originalAbd.isBackgroundInit() );
 			setAutowireMode( originalAbd.getAutowireMode() );
 			setDependencyCheck( originalAbd.getDependencyCheck() );
 			setDependsOn( originalAbd.getDependsOn() );
@@ -332,6 +335,7 @@ public abstract class AbstractBeanDefinition extends BeanMetadataAttributeAccess
 			if (otherAbd.hasMethodOverrides()) {
 				getMethodOverrides().addOverrides( otherAbd.getMethodOverrides() );
 			}
+			setBackgroundInit( otherAbd.isBackgroundInit() );
 			setAutowireMode( otherAbd.getAutowireMode() );
 			setDependencyCheck( otherAbd.getDependencyCheck() );
 			setDependsOn( otherAbd.getDependsOn() );
@@ -544,6 +548,31 @@ public abstract class AbstractBeanDefinition extends BeanMetadataAttributeAccess
 		return this.lazyInit;
 	}
 
+	/**
+	 * Specify whether this bean should be initialized in the background,
+	 * i.e. not as part of the regular startup of the containing factory.
+	 * <p>A non-lazy singleton marked this way gets instantiated on the
+	 * factory's {@link org.springframework.beans.factory.config.ConfigurableBeanFactory#setBootstrapExecutor
+	 * bootstrap executor} once all other non-lazy singletons have been created,
+	 * unless another bean needs it earlier. Without a bootstrap executor,
+	 * the bean is instantiated on startup like any other non-lazy singleton.
+	 *
+	 * @see DefaultListableBeanFactory#preInstantiateSingletons()
+	 * @since 5.0.17
+	 */
+	public void setBackgroundInit(boolean backgroundInit) {
+		this.backgroundInit = backgroundInit;
+	}
+
+	/**
+	 * Return whether this bean should be initialized in the background.
+	 *
+	 * @since 5.0.17
+	 */
+	public boolean isBackgroundInit() {
+		return this.backgroundInit;
+	}
+
 	/**
 	 * Set the autowire mode. This determines whether any automagical detection
 	 * and setting of bean references will happen. Default is AUTOWIRE_NO
@@ -1163,6 +1192,7 @@ public abstract class AbstractBeanDefinition extends BeanMetadataAttributeAccess
 		if (!ObjectUtils.nullSafeEquals( this.scope, that.scope )) return false;
 		if (this.abstractFlag != that.abstractFlag) return false;
 		if (this.lazyInit != that.lazyInit) return false;
+		if (this.backgroundInit != that.backgroundInit) return false;
 
 		if (this.autowireMode != that.autowireMode) return false;
 		if (this.dependencyCheck != that.dependencyCheck) return false;
@@ -1209,6 +1239,9 @@ public abstract class AbstractBeanDefinition extends BeanMetadataAttributeAccess
 		sb.append( "; scope=" ).append( this.scope );
 		sb.append( "; abstract=" ).append( this.abstractFlag );
 		sb.append( "; lazyInit=" ).append( this.lazyInit );
+		if (this.backgroundInit) {
+			sb.append( "; backgroundInit=true" );
+		}
 		sb.append( "; autowireMode=" ).append( this.autowireMode );
 		sb.append( "; dependencyCheck=" ).append( this.dependencyCheck );
 		sb.append( "; autowireCandidate=" ).append( this.autowireCandidate );
@@ -23,6 +23,8 @@ import org.springframework.core.DecoratingClassLoader;
 import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.convert.ConversionService;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
 import org.springframework.util.*;
 
@@ -31,6 +33,7 @@ import java.security.*;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 
 /**
  * Abstract base class for {@link org.springframework.beans.factory.BeanFactory}
@@ -151,6 +154,17 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
 	@Nullable
 	private SecurityContextProvider securityContextProvider;
 
+	/**
+	 * Application startup metrics
+	 */
+	private ApplicationStartup applicationStartup = ApplicationStartup.DEFAULT;
+
+	/**
+	 * Executor for initializing singletons in the background
+	 */
+	@Nullable
+	private Executor bootstrapExecutor;
+
 	/**
 	 * Map from bean name to merged RootBeanDefinition
 	 * BeanDefinition合并以后都存放在mergedBeanDefinitions中
@@ -315,7 +329,12 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
 				markBeanAsCreated( beanName );
 			}
 
+			StartupStep beanCreation = this.applicationStartup.start( "spring.beans.instantiate" )
+					.tag( "beanName", name );
 			try {
+				if (requiredType != null) {
+					beanCreation.tag( "beanType", requiredType::toString );
+				}
 				/*
 				 * 从容器中获取beanName相应的GenericBeanDefinition对象，并将其转化为RootBeanDefinition对象
 				 */
@@ -396,8 +415,12 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
 					}
 				}
 			} catch (BeansException ex) {
+				beanCreation.tag( "exception", ex.getClass().toString() );
+				beanCreation.tag( "message", String.valueOf( ex.getMessage() ) );
 				cleanupAfterBeanCreationFailure( beanName );
 				throw ex;
+			} finally {
+				beanCreation.end();
 			}
 		}
 
@@ -975,6 +998,28 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
 				AccessController.getContext());
 	}
 
+	@Override
+	public void setApplicationStartup(ApplicationStartup applicationStartup) {
+		Assert.notNull( applicationStartup, "ApplicationStartup must not be null" );
+		this.applicationStartup = applicationStartup;
+	}
+
+	@Override
+	public ApplicationStartup getApplicationStartup() {
+		return this.applicationStartup;
+	}
+
+	@Override
+	public void setBootstrapExecutor(@Nullable Executor bootstrapExecutor) {
+		this.bootstrapExecutor = bootstrapExecutor;
+	}
+
+	@Override
+	@Nullable
+	public Executor getBootstrapExecutor() {
+		return this.bootstrapExecutor;
+	}
+
 	@Override
 	public void copyConfigurationFrom(ConfigurableBeanFactory otherFactory) {
 		Assert.notNull( otherFactory, "BeanFactory must not be null" );
@@ -982,6 +1027,7 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
 		setCacheBeanMetadata( otherFactory.isCacheBeanMetadata() );
 		setBeanExpressionResolver( otherFactory.getBeanExpressionResolver() );
 		setConversionService( otherFactory.getConversionService() );
+		setBootstrapExecutor( otherFactory.getBootstrapExecutor() );
 		if (otherFactory instanceof AbstractBeanFactory) {
 			AbstractBeanFactory otherAbstractFactory = (AbstractBeanFactory) otherFactory;
 			this.propertyEditorRegistrars.addAll( otherAbstractFactory.propertyEditorRegistrars );
@@ -994,6 +1040,7 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
 					otherAbstractFactory.hasDestructionAwareBeanPostProcessors;
 			this.scopes.putAll( otherAbstractFactory.scopes );
 			this.securityContextProvider = otherAbstractFactory.securityContextProvider;
+			this.applicationStartup = otherAbstractFactory.applicationStartup;
 		} else {
 			setTypeConverter( otherFactory.getTypeConverter() );
 			String[] otherScopeNames = otherFactory.getRegisteredScopeNames();
@@ -1285,73 +1332,25 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
 	protected RootBeanDefinition getMergedBeanDefinition(
 			String beanName, BeanDefinition bd, @Nullable BeanDefinition containingBd)
 			throws BeanDefinitionStoreException {
+
+		if (containingBd != null) {
+			// Merged inner bean definitions are not cached, so there is no merged instance
+			// to enforce: no need to lock, e.g. for inner beans of prototypes.
+			return mergeBeanDefinition( beanName, bd, containingBd );
+		}
 		//需要同步方式合并
 		synchronized (this.mergedBeanDefinitions) {
-			RootBeanDefinition mbd = null;
-
 			// Check with full lock now in order to enforce the same merged instance.
-			if (containingBd == null) {
-				mbd = this.mergedBeanDefinitions.get( beanName );
-			}
+			RootBeanDefinition mbd = this.mergedBeanDefinitions.get( beanName );
 
 			if (mbd == null) {
-				//没有父类
-				if (bd.getParentName() == null) {
-					// Use copy of given root bean definition.
-					//没有父类bean，就复制一份当前的bean的BeanDefinition用于后续处理
-					if (bd instanceof RootBeanDefinition) {
-						mbd = ((RootBeanDefinition) bd).cloneBeanDefinition();
-					} else {
-						mbd = new RootBeanDefinition( bd );
-					}
-				} else {
-					// Child bean definition: needs to be merged with parent.
-					//如果有父类BeanDefinition：需要与父类BeanDefinition合并
-					BeanDefinition pbd;
-					try {
-						//获取父bean的原生名称
-						String parentBeanName = transformedBeanName( bd.getParentName() );
-						//当前bean的名称与父类bean名称不是同一个，则合并
-						if (!beanName.equals( parentBeanName )) {
-							pbd = getMergedBeanDefinition( parentBeanName );
-						} else {
-							//当前bean名称与父类bean名称相同
-							BeanFactory parent = getParentBeanFactory();
-							if (parent instanceof ConfigurableBeanFactory) {
-								pbd = ((ConfigurableBeanFactory) parent).getMergedBeanDefinition( parentBeanName );
-							} else {
-								throw new NoSuchBeanDefinitionException( parentBeanName,
-										"Parent name '" + parentBeanName + "' is equal to bean name '" + beanName +
-												"': cannot be resolved without a ConfigurableBeanFactory parent" );
-							}
-						}
-					} catch (NoSuchBeanDefinitionException ex) {
-						throw new BeanDefinitionStoreException( bd.getResourceDescription(), beanName,
-								"Could not resolve parent bean definition '" + bd.getParentName() + "'", ex );
-					}
-					// Deep copy with overridden values.
-					mbd = new RootBeanDefinition( pbd );
-					mbd.overrideFrom( bd );
-				}
-
-				// Set default singleton scope, if not configured before.
-				if (!StringUtils.hasLength( mbd.getScope() )) {
-					mbd.setScope( SCOPE_SINGLETON );
-				}
-
-				// A bean contained in a non-singleton bean cannot be a singleton itself.
-				// Let's correct this on the fly here, since this might be the result of
-				// parent-child merging for the outer bean, in which case the original inner bean
-				// definition will not have inherited the merged outer bean's singleton status.
-				if (containingBd != null && !containingBd.isSingleton() && mbd.isSingleton()) {
-					mbd.setScope( containingBd.getScope() );
-				}
+				mbd = mergeBeanDefinition( beanName, bd, null );
 
 				// Cache the merged bean definition for the time being
 				// (it might still get re-merged later on in order to pick up metadata changes)
 				//把合并后的bean存入mergedBeanDefinitions(已合并BeanDefinition)中
 				//可能会由于元数据的改变，在后续过程中再合并
-				if (containingBd == null && isCacheBeanMetadata()) {
+				if (isCacheBeanMetadata()) {
 					this.mergedBeanDefinitions.put( beanName, mbd );
 				}
 			}
@@ -1360,6 +1359,77 @@ public abstract class AbstractBeanFactory extends FactoryBeanRegistrySupport imp
 		}
 	}
 
+	/**
+	 * Merge the given bean definition with its parent definition, if any,
+	 * without caching the result.
+	 *
+	 * @param beanName     the name of the bean definition
+	 * @param bd           the original bean definition (Root/ChildBeanDefinition)
+	 * @param containingBd the containing bean definition in case of inner bean,
+	 *                     or {@code null} in case of a top-level bean
+	 * @return a (potentially merged) RootBeanDefinition for the given bean
+	 * @throws BeanDefinitionStoreException in case of an invalid bean definition
+	 */
+	private RootBeanDefinition mergeBeanDefinition(
+			String beanName, BeanDefinition bd, @Nullable BeanDefinition containingBd)
+			throws BeanDefinitionStoreException {
+
+		RootBeanDefinition mbd;
+		//没有父类
+		if (bd.getParentName() == null) {
+			// Use copy of given root bean definition.
+			//没有父类bean，就复制一份当前的bean的BeanDefinition用于后续处理
+			if (bd instanceof RootBeanDefinition) {
+				mbd = ((RootBeanDefinition) bd).cloneBeanDefinition();
+			} else {
+				mbd = new RootBeanDefinition( bd );
+			}
+		} else {
+			// Child bean definition: needs to be merged with parent.
+			//如果有父类BeanDefinition：需要与父类BeanDefinition合并
+			BeanDefinition pbd;
+			try {
+				//获取父bean的原生名称
+				String parentBeanName = transformedBeanName( bd.getParentName() );
+				//当前bean的名称与父类bean名称不是同一个，则合并
+				if (!beanName.equals( parentBeanName )) {
+					pbd = getMergedBeanDefinition( parentBeanName );
+				} else {
+					//当前bean名称与父类bean名称相同
+					BeanFactory parent = getParentBeanFactory();
+					if (parent instanceof ConfigurableBeanFactory) {
+						pbd = ((ConfigurableBeanFactory) parent).getMergedBeanDefinition( parentBeanName );
+					} else {
+						throw new NoSuchBeanDefinitionException( parentBeanName,
+								"Parent name '" + parentBeanName + "' is equal to bean name '" + beanName +
+										"': cannot be resolved without a ConfigurableBeanFactory parent" );
+					}
+				}
+			} catch (NoSuchBeanDefinitionException ex) {
+				throw new BeanDefinitionStoreException( bd.getResourceDescription(), beanName,
+						"Could not resolve parent bean definition '" + bd.getParentName() + "'", ex );
+			}
+			// Deep copy with overridden values.
+			mbd = new RootBeanDefinition( pbd );
+			mbd.overrideFrom( bd );
+		}
+
+		// Set default singleton scope, if not configured before.
+		if (!StringUtils.hasLength( mbd.getScope() )) {
+			mbd.setScope( SCOPE_SINGLETON );
+		}
+
+		// A bean contained in a non-singleton bean cannot be a singleton itself.
+		// Let's correct this on the fly here, since this might be the result of
+		// parent-child merging for the outer bean, in which case the original inner bean
+		// definition will not have inherited the merged outer bean's singleton status.
+		if (containingBd != null && !containingBd.isSingleton() && mbd.isSingleton()) {
+			mbd.setScope( containingBd.getScope() );
+		}
+
+		return mbd;
+	}
+
 	/**
 	 * Check the given merged bean definition,
 	 * potentially throwing validation exceptions.
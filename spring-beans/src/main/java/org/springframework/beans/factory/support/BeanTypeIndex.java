@@ -0,0 +1,196 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Index of bean names by type, used by {@link DefaultListableBeanFactory} to
+ * narrow down the beans to check against a requested type, instead of
+ * checking every bean in the factory.
+ *
+ * <p>A bean name may be indexed under a type that has been determined for
+ * good, e.g. the class of a fully initialized singleton instance, in which
+ * case the name is filed under that class and all of its superclasses and
+ * interfaces. All other bean names remain untyped and are candidates for any
+ * type. Candidate names are therefore a superset of the actual matches and
+ * still need to be checked against the requested type.
+ *
+ * <p>This class is thread-safe. Candidate lookups only hold the index lock
+ * for copying the candidate names.
+ *
+ * @author agent
+ * @since 5.0.17
+ */
+final class BeanTypeIndex {
+
+	private final Map<String, IndexEntry> entries = new HashMap<>(256);
+
+	private final Set<String> untypedNames = new LinkedHashSet<>(256);
+
+	private final Map<Class<?>, Set<String>> namesByType = new HashMap<>(256);
+
+	private long sequence = 0;
+
+
+	/**
+	 * Register the given bean name, if not registered already.
+	 * Candidate names are returned in the order of their registration.
+	 * @param beanName the name of the bean
+	 * @param beanType the type of the bean, if determined for good already
+	 */
+	public synchronized void register(String beanName, @Nullable Class<?> beanType) {
+		if (!this.entries.containsKey(beanName)) {
+			this.untypedNames.add(beanName);
+			this.entries.put(beanName, new IndexEntry(beanName, this.sequence++));
+		}
+		setBeanType(beanName, beanType);
+	}
+
+	/**
+	 * Remove the given bean name from the index.
+	 * @param beanName the name of the bean
+	 */
+	public synchronized void remove(String beanName) {
+		IndexEntry entry = this.entries.remove(beanName);
+		if (entry != null) {
+			this.untypedNames.remove(beanName);
+			removeFromTypes(beanName, entry);
+		}
+	}
+
+	/**
+	 * Index the given bean name under the given type, or leave it untyped.
+	 * Has no effect if the bean name has not been registered.
+	 * @param beanName the name of the bean
+	 * @param beanType the type of the bean, or {@code null} if not determined for good
+	 */
+	public synchronized void setBeanType(String beanName, @Nullable Class<?> beanType) {
+		IndexEntry entry = this.entries.get(beanName);
+		if (entry == null || entry.beanType == beanType) {
+			return;
+		}
+		removeFromTypes(beanName, entry);
+		entry.beanType = beanType;
+		if (beanType != null) {
+			for (Class<?> type : getTypesToIndex(beanType)) {
+				this.namesByType.computeIfAbsent(type, key -> new LinkedHashSet<>()).add(beanName);
+			}
+			this.untypedNames.remove(beanName);
+		}
+		else {
+			this.untypedNames.add(beanName);
+		}
+	}
+
+	/**
+	 * Leave all registered bean names untyped.
+	 */
+	public synchronized void clearBeanTypes() {
+		this.untypedNames.addAll(this.entries.keySet());
+		this.namesByType.clear();
+		for (IndexEntry entry : this.entries.values()) {
+			entry.beanType = null;
+		}
+	}
+
+	/**
+	 * Return the names of all beans that may match the given type,
+	 * in registration order.
+	 * @param type the type to match
+	 * @return the candidate bean names (never {@code null})
+	 */
+	public List<String> getCandidateNames(Class<?> type) {
+		List<IndexEntry> candidates;
+		synchronized (this) {
+			Set<String> typedNames = this.namesByType.get(type);
+			candidates = new ArrayList<>(this.untypedNames.size() + (typedNames != null ? typedNames.size() : 0));
+			for (String beanName : this.untypedNames) {
+				candidates.add(this.entries.get(beanName));
+			}
+			if (typedNames != null) {
+				for (String beanName : typedNames) {
+					candidates.add(this.entries.get(beanName));
+				}
+			}
+		}
+		candidates.sort(Comparator.comparingLong(entry -> entry.sequence));
+		List<String> result = new ArrayList<>(candidates.size());
+		for (IndexEntry candidate : candidates) {
+			result.add(candidate.beanName);
+		}
+		return result;
+	}
+
+	private void removeFromTypes(String beanName, IndexEntry entry) {
+		if (entry.beanType != null) {
+			for (Class<?> type : getTypesToIndex(entry.beanType)) {
+				Set<String> names = this.namesByType.get(type);
+				if (names != null) {
+					names.remove(beanName);
+					if (names.isEmpty()) {
+						this.namesByType.remove(type);
+					}
+				}
+			}
+		}
+	}
+
+	private static Set<Class<?>> getTypesToIndex(Class<?> beanType) {
+		Set<Class<?>> types = new LinkedHashSet<>();
+		Class<?> current = beanType;
+		while (current != null && current != Object.class) {
+			types.add(current);
+			addInterfaces(current, types);
+			current = current.getSuperclass();
+		}
+		return types;
+	}
+
+	private static void addInterfaces(Class<?> type, Set<Class<?>> types) {
+		for (Class<?> ifc : type.getInterfaces()) {
+			if (types.add(ifc)) {
+				addInterfaces(ifc, types);
+			}
+		}
+	}
+
+
+	private static class IndexEntry {
+
+		private final String beanName;
+
+		private final long sequence;
+
+		@Nullable
+		private Class<?> beanType;
+
+		public IndexEntry(String beanName, long sequence) {
+			this.beanName = beanName;
+			this.sequence = sequence;
+		}
+	}
+
+}
@@ -18,12 +18,14 @@ package org.springframework.beans.factory.support;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyValue;
 import org.springframework.beans.TypeConverter;
 import org.springframework.beans.factory.*;
 import org.springframework.beans.factory.config.*;
 import org.springframework.core.OrderComparator;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
 import org.springframework.util.*;
 
@@ -33,10 +35,17 @@ import java.lang.annotation.Annotation;
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Spring中最重要的工厂，Spring容器的最全实现
@@ -158,6 +167,16 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	 */
 	private volatile Set<String> manualSingletonNames = new LinkedHashSet<>( 16 );
 
+	/**
+	 * Index of bean definition names and manually registered singleton names by type
+	 */
+	private final BeanTypeIndex beanTypeIndex = new BeanTypeIndex();
+
+	/**
+	 * Map of singletons scheduled for initialization in the background, keyed by bean name
+	 */
+	private final Map<String, BackgroundInitTask> backgroundInitTasks = new ConcurrentHashMap<>( 16 );
+
 	/**
 	 * Cached array of bean definition names in case of frozen configuration
 	 */
@@ -169,6 +188,11 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	 */
 	private volatile boolean configurationFrozen = false;
 
+	/**
+	 * Number of threads to pre-instantiate singletons with
+	 */
+	private int preInstantiationParallelism = 1;
+
 
 	/**
 	 * Create a new DefaultListableBeanFactory.
@@ -306,6 +330,40 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return this.autowireCandidateResolver;
 	}
 
+	/**
+	 * Set the number of threads to pre-instantiate non-lazy singletons with.
+	 * <p>Default is 1, creating all singletons one after another on the thread
+	 * calling {@link #preInstantiateSingletons()}. With a higher value, singletons
+	 * are partitioned into groups that are independent of each other as far as
+	 * known upfront (through "depends-on" declarations, factory beans, explicit
+	 * bean references and dependencies registered so far), and the groups are
+	 * created in parallel on a dedicated {@link ForkJoinPool}. Dependencies only
+	 * discovered during creation, e.g. through autowiring, remain safe: a thread
+	 * needing a singleton that another thread is creating waits for it.
+	 * {@link SmartInitializingSingleton} callbacks are invoked on the calling
+	 * thread once all singletons have been created.
+	 * <p>Consider this for applications with many singletons that perform
+	 * expensive initialization such as opening connection pools or warming
+	 * up caches, and that do not rely on a specific creation order beyond
+	 * their declared dependencies.
+	 *
+	 * @see #preInstantiateSingletons()
+	 * @since 5.0.17
+	 */
+	public void setPreInstantiationParallelism(int preInstantiationParallelism) {
+		Assert.isTrue( preInstantiationParallelism > 0, "Pre-instantiation parallelism must be greater than 0" );
+		this.preInstantiationParallelism = preInstantiationParallelism;
+	}
+
+	/**
+	 * Return the number of threads to pre-instantiate non-lazy singletons with.
+	 *
+	 * @since 5.0.17
+	 */
+	public int getPreInstantiationParallelism() {
+		return this.preInstantiationParallelism;
+	}
+
 
 	@Override
 	public void copyConfigurationFrom(ConfigurableBeanFactory otherFactory) {
@@ -315,6 +373,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			this.allowBeanDefinitionOverriding = otherListableFactory.allowBeanDefinitionOverriding;
 			this.allowEagerClassLoading = otherListableFactory.allowEagerClassLoading;
 			this.dependencyComparator = otherListableFactory.dependencyComparator;
+			this.preInstantiationParallelism = otherListableFactory.preInstantiationParallelism;
 			// A clone of the AutowireCandidateResolver since it is potentially BeanFactoryAware...
 			setAutowireCandidateResolver(
 					BeanUtils.instantiateClass( otherListableFactory.getAutowireCandidateResolver().getClass() ) );
@@ -378,6 +437,11 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 
 	@Override
 	public String[] getBeanNamesForType(ResolvableType type) {
+		Class<?> resolved = type.resolve();
+		if (resolved != null && !type.hasGenerics()) {
+			// Plain class lookup: may use the by-type cache.
+			return getBeanNamesForType( resolved, true, true );
+		}
 		return doGetBeanNamesForType( type, true, true );
 	}
 
@@ -408,8 +472,24 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	private String[] doGetBeanNamesForType(ResolvableType type, boolean includeNonSingletons, boolean allowEagerInit) {
 		List<String> result = new ArrayList<>();
 
+		Collection<String> beanDefinitionNames = this.beanDefinitionNames;
+		Collection<String> manualSingletonNames = this.manualSingletonNames;
+		Class<?> typeToIndex = getTypeToIndex( type );
+		if (typeToIndex != null) {
+			// Only check beans which are not known to be of a different type.
+			beanDefinitionNames = new ArrayList<>();
+			manualSingletonNames = new ArrayList<>();
+			for (String beanName : this.beanTypeIndex.getCandidateNames( typeToIndex )) {
+				if (this.beanDefinitionMap.containsKey( beanName )) {
+					beanDefinitionNames.add( beanName );
+				} else if (this.manualSingletonNames.contains( beanName )) {
+					manualSingletonNames.add( beanName );
+				}
+			}
+		}
+
 		// Check all bean definitions.
-		for (String beanName : this.beanDefinitionNames) {
+		for (String beanName : beanDefinitionNames) {
 			// Only consider bean as eligible if the bean name
 			// is not defined as alias for some other bean.
 			if (!isAlias( beanName )) {
@@ -460,7 +540,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		}
 
 		// Check manually registered singletons too.
-		for (String beanName : this.manualSingletonNames) {
+		for (String beanName : manualSingletonNames) {
 			try {
 				// In case of FactoryBean, match object created by FactoryBean.
 				if (isFactoryBean( beanName )) {
@@ -487,6 +567,37 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return StringUtils.toStringArray( result );
 	}
 
+	/**
+	 * Determine the raw class to look up candidate beans for in the type index,
+	 * if the given type can be matched against singleton instances by raw class.
+	 *
+	 * @param type the type to match
+	 * @return the raw class, or {@code null} if all beans need to be checked
+	 */
+	@Nullable
+	private static Class<?> getTypeToIndex(ResolvableType type) {
+		Class<?> resolved = type.resolve();
+		if (resolved == null || resolved == Object.class || resolved.isArray() ||
+				!(type.getType() instanceof Class || type.getType() instanceof ParameterizedType)) {
+			return null;
+		}
+		// Instances of primitive types are wrapper objects.
+		return ClassUtils.resolvePrimitiveIfNecessary( resolved );
+	}
+
+	/**
+	 * Return the type to index a singleton under: its class, unless it is a
+	 * FactoryBean or a null bean whose type is determined differently.
+	 *
+	 * @param singletonObject the singleton instance
+	 * @return the type to index, or {@code null} to leave it untyped
+	 */
+	@Nullable
+	private static Class<?> getTypeToIndex(Object singletonObject) {
+		return (singletonObject instanceof FactoryBean || singletonObject instanceof NullBean ?
+				null : singletonObject.getClass());
+	}
+
 	/**
 	 * Check whether the specified bean would need to be eagerly initialized
 	 * in order to determine its type.
@@ -734,55 +845,291 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 
 		// Trigger initialization of all non-lazy singleton beans...
 		//触发所有非延迟加载单例beans的初始化，主要步骤为调用getBean
-		for (String beanName : beanNames) {
-			//合并BeanDefinition(与父BeanDefinition合并，如果有的话，很少会有，在spring2.5以前有)
-			RootBeanDefinition bd = getMergedLocalBeanDefinition( beanName );
-			//根据bean定义 判断 非抽象，单例，非懒加载
-			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
-				//判断工厂bean,如果是工厂bean，首先
-				if (isFactoryBean( beanName )) {
-					//工厂bean，bean名称前面需要添加“&”，因此获取工厂bean名称时需要添加“&”
-					Object bean = getBean( FACTORY_BEAN_PREFIX + beanName );
-					//实例化工厂bean
-					if (bean instanceof FactoryBean) {
-						final FactoryBean<?> factory = (FactoryBean<?>) bean;
-						//这里判断的是什么
-						boolean isEagerInit;
-						if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
-							isEagerInit = AccessController.doPrivileged( (PrivilegedAction<Boolean>)
-											((SmartFactoryBean<?>) factory)::isEagerInit,
-									getAccessControlContext() );
-						} else {
-							isEagerInit = (factory instanceof SmartFactoryBean &&
-									((SmartFactoryBean<?>) factory).isEagerInit());
-						}
-						if (isEagerInit) {
-							getBean( beanName );
-						}
-					}
+		//标记为后台初始化的单例在有bootstrapExecutor时延后到后台线程创建
+		Set<String> backgroundInitNames = new LinkedHashSet<>();
+		List<String> eagerInitNames = beanNames;
+		Executor bootstrapExecutor = getBootstrapExecutor();
+		if (bootstrapExecutor != null) {
+			eagerInitNames = new ArrayList<>( beanNames.size() );
+			for (String beanName : beanNames) {
+				RootBeanDefinition bd = getMergedLocalBeanDefinition( beanName );
+				if (bd.isBackgroundInit() && !bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+					backgroundInitNames.add( beanName );
 				} else {
-					//普通bean，进行实例化
-					getBean( beanName );
+					eagerInitNames.add( beanName );
 				}
 			}
 		}
+		if (this.preInstantiationParallelism > 1) {
+			preInstantiateSingletonsInParallel( eagerInitNames );
+		} else {
+			for (String beanName : eagerInitNames) {
+				preInstantiateSingleton( beanName );
+			}
+		}
+		// Background singletons that eager singletons depended on exist already.
+		for (Iterator<String> it = backgroundInitNames.iterator(); it.hasNext(); ) {
+			if (containsSingleton( it.next() )) {
+				it.remove();
+			}
+		}
 		//执行初始化后回调函数
 		// Trigger post-initialization callback for all applicable beans...
 		for (String beanName : beanNames) {
-			//获取单例bean
-			Object singletonInstance = getSingleton( beanName );
-			if (singletonInstance instanceof SmartInitializingSingleton) {
-				final SmartInitializingSingleton smartSingleton = (SmartInitializingSingleton) singletonInstance;
-				if (System.getSecurityManager() != null) {
-					AccessController.doPrivileged( (PrivilegedAction<Object>) () -> {
-						smartSingleton.afterSingletonsInstantiated();
-						return null;
-					}, getAccessControlContext() );
-				} else {
+			if (!backgroundInitNames.contains( beanName )) {
+				invokeAfterSingletonsInstantiated( beanName );
+			}
+		}
+		if (!backgroundInitNames.isEmpty()) {
+			preInstantiateSingletonsInBackground( backgroundInitNames, bootstrapExecutor );
+		}
+	}
+
+	/**
+	 * Invoke the {@link SmartInitializingSingleton} callback on the given singleton,
+	 * if it has been created and implements that interface.
+	 *
+	 * @param beanName the name of the bean
+	 */
+	private void invokeAfterSingletonsInstantiated(String beanName) {
+		//获取单例bean
+		Object singletonInstance = getSingleton( beanName );
+		if (singletonInstance instanceof SmartInitializingSingleton) {
+			StartupStep smartInitialize = getApplicationStartup().start( "spring.beans.smart-initialize" )
+					.tag( "beanName", beanName );
+			final SmartInitializingSingleton smartSingleton = (SmartInitializingSingleton) singletonInstance;
+			if (System.getSecurityManager() != null) {
+				AccessController.doPrivileged( (PrivilegedAction<Object>) () -> {
 					smartSingleton.afterSingletonsInstantiated();
+					return null;
+				}, getAccessControlContext() );
+			} else {
+				smartSingleton.afterSingletonsInstantiated();
+			}
+			smartInitialize.end();
+		}
+	}
+
+	/**
+	 * Pre-instantiate the given singleton if it is a non-abstract, non-lazy
+	 * singleton, including the object exposed by an eager {@link SmartFactoryBean}.
+	 *
+	 * @param beanName the name of the bean
+	 */
+	private void preInstantiateSingleton(String beanName) {
+		//合并BeanDefinition(与父BeanDefinition合并，如果有的话，很少会有，在spring2.5以前有)
+		RootBeanDefinition bd = getMergedLocalBeanDefinition( beanName );
+		//根据bean定义 判断 非抽象，单例，非懒加载
+		if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+			//判断工厂bean,如果是工厂bean，首先
+			if (isFactoryBean( beanName )) {
+				//工厂bean，bean名称前面需要添加“&”，因此获取工厂bean名称时需要添加“&”
+				Object bean = getBean( FACTORY_BEAN_PREFIX + beanName );
+				//实例化工厂bean
+				if (bean instanceof FactoryBean) {
+					final FactoryBean<?> factory = (FactoryBean<?>) bean;
+					//这里判断的是什么
+					boolean isEagerInit;
+					if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
+						isEagerInit = AccessController.doPrivileged( (PrivilegedAction<Boolean>)
+										((SmartFactoryBean<?>) factory)::isEagerInit,
+								getAccessControlContext() );
+					} else {
+						isEagerInit = (factory instanceof SmartFactoryBean &&
+								((SmartFactoryBean<?>) factory).isEagerInit());
+					}
+					if (isEagerInit) {
+						getBean( beanName );
+					}
+				}
+			} else {
+				//普通bean，进行实例化
+				getBean( beanName );
+			}
+		}
+	}
+
+	/**
+	 * Pre-instantiate the given singletons on a {@link ForkJoinPool}, creating
+	 * groups of singletons that do not know about each other in parallel.
+	 * Returns once all groups have completed, rethrowing the first failure.
+	 *
+	 * @param beanNames the names of all beans, in registration order
+	 * @see #setPreInstantiationParallelism
+	 */
+	private void preInstantiateSingletonsInParallel(List<String> beanNames) {
+		List<List<String>> groups = groupSingletonsByKnownDependencies( beanNames );
+		long startTime = System.nanoTime();
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+		ForkJoinPool pool = new ForkJoinPool( this.preInstantiationParallelism );
+		try {
+			List<ForkJoinTask<?>> tasks = new ArrayList<>( groups.size() );
+			for (List<String> group : groups) {
+				tasks.add( pool.submit( () -> {
+					Thread thread = Thread.currentThread();
+					ClassLoader originalClassLoader = thread.getContextClassLoader();
+					thread.setContextClassLoader( classLoader );
+					try {
+						for (String beanName : group) {
+							if (!failures.isEmpty()) {
+								// Another group failed already - no point in continuing.
+								return;
+							}
+							preInstantiateSingleton( beanName );
+						}
+					} catch (Throwable ex) {
+						failures.add( ex );
+					} finally {
+						thread.setContextClassLoader( originalClassLoader );
+					}
+				} ) );
+			}
+			for (ForkJoinTask<?> task : tasks) {
+				task.join();
+			}
+		} finally {
+			pool.shutdown();
+		}
+		Throwable failure = failures.peek();
+		if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		} else if (failure instanceof Error) {
+			throw (Error) failure;
+		} else if (failure != null) {
+			throw new BeanCreationException( "Unexpected failure during parallel singleton pre-instantiation", failure );
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug( "Pre-instantiated singletons in " + groups.size() + " groups on up to " +
+					this.preInstantiationParallelism + " threads in " + (System.nanoTime() - startTime) / 1000000 + " ms" );
+		}
+	}
+
+	/**
+	 * Schedule the given singletons for creation on the given executor, one task
+	 * per singleton, in registration order. Each task creates the singleton through
+	 * {@link #getBean} - along with any dependencies not created yet - and then
+	 * invokes its {@link SmartInitializingSingleton} callback, if any.
+	 * <p>Returns without waiting for the tasks. A thread asking for such a singleton
+	 * while a task is creating it waits for that creation to complete, while a
+	 * thread asking for it before its task has started simply creates it, in which
+	 * case the task does not create it again.
+	 *
+	 * @param beanNames the names of the singletons to create, in registration order
+	 * @param executor  the bootstrap executor to create them on
+	 * @see #setBootstrapExecutor
+	 */
+	private void preInstantiateSingletonsInBackground(Collection<String> beanNames, Executor executor) {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		for (String beanName : beanNames) {
+			BackgroundInitTask task = new BackgroundInitTask( beanName, classLoader );
+			this.backgroundInitTasks.put( beanName, task );
+			executor.execute( task );
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug( "Scheduled background initialization of singletons " + beanNames );
+		}
+	}
+
+	/**
+	 * Return a future for the background initialization of the given singleton,
+	 * as long as it has not completed yet.
+	 *
+	 * @param beanName the name of the bean
+	 * @return the future, or {@code null} if the singleton has not been scheduled
+	 * for background initialization or if its initialization has completed already
+	 * @see AbstractBeanDefinition#setBackgroundInit
+	 * @since 5.0.17
+	 */
+	@Nullable
+	public CompletableFuture<Void> getBackgroundInitFuture(String beanName) {
+		BackgroundInitTask task = this.backgroundInitTasks.get( beanName );
+		return (task != null ? task.future : null);
+	}
+
+	/**
+	 * Partition the non-lazy singletons among the given beans into groups that
+	 * do not depend on each other as far as known before their creation: through
+	 * "depends-on" declarations, factory bean names, bean references in constructor
+	 * arguments and property values, and dependencies registered so far.
+	 *
+	 * @param beanNames the names of all beans, in registration order
+	 * @return the groups of singletons to create, each in registration order
+	 */
+	private List<List<String>> groupSingletonsByKnownDependencies(List<String> beanNames) {
+		Map<String, String> representatives = new HashMap<>();
+		List<String> singletonNames = new ArrayList<>( beanNames.size() );
+		for (String beanName : beanNames) {
+			RootBeanDefinition bd = getMergedLocalBeanDefinition( beanName );
+			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+				singletonNames.add( beanName );
+				Set<String> dependencies = new LinkedHashSet<>();
+				collectKnownDependencies( bd, dependencies );
+				dependencies.addAll( Arrays.asList( getDependenciesForBean( beanName ) ) );
+				for (String dependency : dependencies) {
+					String root = findRepresentative( representatives, beanName );
+					String dependencyRoot = findRepresentative( representatives, transformedBeanName( dependency ) );
+					if (!root.equals( dependencyRoot )) {
+						representatives.put( dependencyRoot, root );
+					}
 				}
 			}
 		}
+		Map<String, List<String>> groups = new LinkedHashMap<>();
+		for (String beanName : singletonNames) {
+			groups.computeIfAbsent( findRepresentative( representatives, beanName ), key -> new ArrayList<>() ).add( beanName );
+		}
+		return new ArrayList<>( groups.values() );
+	}
+
+	private static String findRepresentative(Map<String, String> representatives, String beanName) {
+		String representative = beanName;
+		String next;
+		while ((next = representatives.get( representative )) != null) {
+			representative = next;
+		}
+		if (!representative.equals( beanName )) {
+			representatives.put( beanName, representative );
+		}
+		return representative;
+	}
+
+	private static void collectKnownDependencies(BeanDefinition bd, Set<String> dependencies) {
+		String[] dependsOn = bd.getDependsOn();
+		if (dependsOn != null) {
+			dependencies.addAll( Arrays.asList( dependsOn ) );
+		}
+		if (bd.getFactoryBeanName() != null) {
+			dependencies.add( bd.getFactoryBeanName() );
+		}
+		for (ConstructorArgumentValues.ValueHolder valueHolder : bd.getConstructorArgumentValues().getIndexedArgumentValues().values()) {
+			collectKnownDependencies( valueHolder.getValue(), dependencies );
+		}
+		for (ConstructorArgumentValues.ValueHolder valueHolder : bd.getConstructorArgumentValues().getGenericArgumentValues()) {
+			collectKnownDependencies( valueHolder.getValue(), dependencies );
+		}
+		for (PropertyValue pv : bd.getPropertyValues().getPropertyValues()) {
+			collectKnownDependencies( pv.getValue(), dependencies );
+		}
+	}
+
+	private static void collectKnownDependencies(@Nullable Object value, Set<String> dependencies) {
+		if (value instanceof BeanReference) {
+			dependencies.add( ((BeanReference) value).getBeanName() );
+		} else if (value instanceof BeanDefinitionHolder) {
+			collectKnownDependencies( ((BeanDefinitionHolder) value).getBeanDefinition(), dependencies );
+		} else if (value instanceof BeanDefinition) {
+			collectKnownDependencies( (BeanDefinition) value, dependencies );
+		} else if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				collectKnownDependencies( element, dependencies );
+			}
+		} else if (value instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				collectKnownDependencies( entry.getKey(), dependencies );
+				collectKnownDependencies( entry.getValue(), dependencies );
+			}
+		}
 	}
 
 
@@ -856,6 +1203,9 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 				this.manualSingletonNames.remove( beanName );
 			}
 			this.frozenBeanDefinitionNames = null;
+			// Re-register in case of a former manual singleton, in line with the bean definition order
+			this.beanTypeIndex.remove( beanName );
+			this.beanTypeIndex.register( beanName, null );
 		}
 
 
@@ -888,6 +1238,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			this.beanDefinitionNames.remove( beanName );
 		}
 		this.frozenBeanDefinitionNames = null;
+		this.beanTypeIndex.remove( beanName );
 
 		resetBeanDefinition( beanName );
 	}
@@ -948,23 +1299,88 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			}
 		}
 
-		clearByTypeCache();
+		if (!this.beanDefinitionMap.containsKey( beanName )) {
+			this.beanTypeIndex.register( beanName, getTypeToIndex( singletonObject ) );
+		}
+		if (this.beanDefinitionMap.containsKey( beanName ) || singletonObject instanceof FactoryBean) {
+			clearByTypeCache();
+		} else {
+			// Only affects the beans of the types that the new singleton is an instance of.
+			this.allBeanNamesByType.keySet().removeIf( type -> type.isInstance( singletonObject ) );
+			this.singletonBeanNamesByType.keySet().removeIf( type -> type.isInstance( singletonObject ) );
+		}
 	}
 
 	@Override
 	public void destroySingleton(String beanName) {
 		super.destroySingleton( beanName );
 		this.manualSingletonNames.remove( beanName );
+		if (!this.beanDefinitionMap.containsKey( beanName )) {
+			this.beanTypeIndex.remove( beanName );
+		}
 		clearByTypeCache();
 	}
 
 	@Override
 	public void destroySingletons() {
+		cancelBackgroundInitTasks();
 		super.destroySingletons();
+		for (String beanName : this.manualSingletonNames) {
+			this.beanTypeIndex.remove( beanName );
+		}
 		this.manualSingletonNames.clear();
 		clearByTypeCache();
 	}
 
+	/**
+	 * Cancel the background initialization of singletons that has not started yet,
+	 * and wait for any initialization in progress to complete.
+	 */
+	private void cancelBackgroundInitTasks() {
+		// Cancel all pending tasks first, not letting them start while waiting
+		List<BackgroundInitTask> startedTasks = new ArrayList<>();
+		for (BackgroundInitTask task : this.backgroundInitTasks.values()) {
+			if (!task.cancel()) {
+				startedTasks.add( task );
+			}
+		}
+		for (BackgroundInitTask task : startedTasks) {
+			try {
+				task.future.join();
+			} catch (RuntimeException ex) {
+				// Failure logged by the task already.
+			}
+		}
+		this.backgroundInitTasks.clear();
+	}
+
+	/**
+	 * Overridden to index the singleton by its type.
+	 */
+	@Override
+	protected void addSingleton(String beanName, Object singletonObject) {
+		super.addSingleton( beanName, singletonObject );
+		this.beanTypeIndex.setBeanType( beanName, getTypeToIndex( singletonObject ) );
+	}
+
+	/**
+	 * Overridden to remove the singleton's type from the index as well.
+	 */
+	@Override
+	protected void removeSingleton(String beanName) {
+		super.removeSingleton( beanName );
+		this.beanTypeIndex.setBeanType( beanName, null );
+	}
+
+	/**
+	 * Overridden to remove all singleton types from the index as well.
+	 */
+	@Override
+	protected void clearSingletonCache() {
+		super.clearSingletonCache();
+		this.beanTypeIndex.clearBeanTypes();
+	}
+
 	/**
 	 * Remove any assumptions about by-type mappings.
 	 */
@@ -1798,4 +2214,67 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		}
 	}
 
+
+	/**
+	 * Task for initializing a singleton in the background.
+	 */
+	private class BackgroundInitTask implements Runnable {
+
+		private final String beanName;
+
+		private final ClassLoader classLoader;
+
+		private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+		private final AtomicBoolean started = new AtomicBoolean();
+
+		public BackgroundInitTask(String beanName, ClassLoader classLoader) {
+			this.beanName = beanName;
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		public void run() {
+			if (!this.started.compareAndSet( false, true )) {
+				// Cancelled in the meantime.
+				return;
+			}
+			Thread thread = Thread.currentThread();
+			ClassLoader originalClassLoader = thread.getContextClassLoader();
+			thread.setContextClassLoader( this.classLoader );
+			Throwable failure = null;
+			try {
+				preInstantiateSingleton( this.beanName );
+				invokeAfterSingletonsInstantiated( this.beanName );
+			} catch (Throwable ex) {
+				if (logger.isWarnEnabled()) {
+					logger.warn( "Background initialization of singleton '" + this.beanName + "' failed", ex );
+				}
+				failure = ex;
+			} finally {
+				thread.setContextClassLoader( originalClassLoader );
+				// Remove before completing, so that callers waiting on the future do not see this task anymore
+				backgroundInitTasks.remove( this.beanName, this );
+			}
+			if (failure != null) {
+				this.future.completeExceptionally( failure );
+			} else {
+				this.future.complete( null );
+			}
+		}
+
+		/**
+		 * Cancel this task unless it has started already.
+		 *
+		 * @return {@code true} if cancelled, {@code false} if started already
+		 */
+		public boolean cancel() {
+			if (this.started.compareAndSet( false, true )) {
+				this.future.cancel( false );
+				return true;
+			}
+			return false;
+		}
+	}
+
 }
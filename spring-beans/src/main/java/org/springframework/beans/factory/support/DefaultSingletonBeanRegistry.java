@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.beans.factory.support;
 
 import org.springframework.beans.factory.*;
 import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.SimpleAliasRegistry;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -50,6 +51,14 @@ import java.util.concurrent.ConcurrentHashMap;
  * (which inherit from it). Can alternatively also be used as a nested
  * helper to delegate to.
  *
+ * <p>Fully initialized singletons are retrieved without locking. Singleton
+ * creation does not hold a registry-wide lock either: each singleton is created
+ * by the first thread requesting it, while other threads requesting the same
+ * singleton wait for it to be fully initialized. Early references to a singleton
+ * in creation are only exposed to other threads when resolving a circular wait
+ * between threads, just like they are exposed to the creating thread itself for
+ * resolving a circular reference.
+ *
  * @author Juergen Hoeller
  * @see #registerSingleton
  * @see #registerDisposableBean
@@ -78,7 +87,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	//早期单例对象缓存集合
 	// (提前曝光对象->单例对象(SpringBean)解决循环依赖时会把Bean对象创建(new)出来后（可能还没来得及填充属性和初始化）提前曝光)
 	// 对象（Object）是Java的类实例化的对象，SpringBean是经过Object实例化、属性填充、初始化等Spring对象生命周期完成后交给Spring容器管理的对象
-	private final Map<String, Object> earlySingletonObjects = new HashMap<>(16);
+	private final Map<String, Object> earlySingletonObjects = new ConcurrentHashMap<>(16);
 
 	/**
 	 * Set of registered singletons, containing the bean names in registration order
@@ -100,16 +109,21 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 			Collections.newSetFromMap(new ConcurrentHashMap<>(16));
 
 	/**
-	 * List of suppressed Exceptions, available for associating related causes
+	 * Suppressed Exceptions per creating thread, available for associating related causes
 	 */
-	@Nullable
-	private Set<Exception> suppressedExceptions;
+	private final ThreadLocal<Set<Exception>> suppressedExceptions =
+			new NamedThreadLocal<>("Suppressed exceptions of singleton creation");
 
 	/**
 	 * Flag that indicates whether we're currently within destroySingletons
 	 */
 	private boolean singletonsCurrentlyInDestruction = false;
 
+	/**
+	 * Number of destroySingletons calls, for detecting singletons created across a destruction
+	 */
+	private int singletonDestructionCount = 0;
+
 	/**
 	 * Disposable bean instances: bean name --> disposable instance
 	 */
@@ -130,6 +144,17 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	private final Map<String, Set<String>> dependenciesForBeanMap = new ConcurrentHashMap<>(64);
 
+	/**
+	 * Singletons currently created: bean name --> creation in progress,
+	 * modified within synchronization on the singleton mutex only
+	 */
+	private final Map<String, SingletonCreation> singletonCreations = new ConcurrentHashMap<>(16);
+
+	/**
+	 * Singletons awaited by threads while created by other threads: thread --> bean name
+	 */
+	private final Map<Thread, String> singletonsAwaitedByThreads = new HashMap<>(16);
+
 
 	@Override
 	public void registerSingleton(String beanName, Object singletonObject) throws IllegalStateException {
@@ -214,20 +239,16 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		Object singletonObject = this.singletonObjects.get(beanName);
 		//如果在一级缓存中没有获取到对象，并且在 singletonsCurrentlyInCreation 这个list中包含该beanName
 		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName)) {
-			synchronized (this.singletonObjects) {
-				//从二级缓存(早期单例对象)中获取bean对象
+			SingletonCreation creation = this.singletonCreations.get(beanName);
+			if (creation != null && creation.thread != Thread.currentThread()) {
+				// Rather wait for a singleton created by another thread than expose its early reference
+				singletonObject = awaitSingleton(beanName, creation, allowEarlyReference);
+			} else {
+				// Circular reference within the creating thread: quick check for an early reference.
 				singletonObject = this.earlySingletonObjects.get(beanName);
-				//二级缓存中没有，并且允许循环依赖
-				//allowEarlyReference 是否允许从singletonFactories中通过getObject拿到对象
-				if (singletonObject == null && allowEarlyReference) {
-					//从三级缓存(单例工厂  singletonFactories)中获取？为什么要使用三级缓存单例工厂
-					ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
-					//bean定义存在于三级缓存(单例工厂中)
-					if (singletonFactory != null) {
-						singletonObject = singletonFactory.getObject();
-						//把bean定义添加到二级缓存中，并从三级缓存中移除（为了解决循环依赖问题，把正在创建的Object实例存入早期单例对象集合中）
-						this.earlySingletonObjects.put(beanName, singletonObject);
-						this.singletonFactories.remove(beanName);
+				if (singletonObject == null) {
+					synchronized (this.singletonObjects) {
+						singletonObject = getEarlySingleton(beanName, allowEarlyReference);
 					}
 				}
 			}
@@ -235,9 +256,47 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		return singletonObject;
 	}
 
+	/**
+	 * Return an early reference to the given singleton, if available.
+	 * Needs to be called within full synchronization on the singleton mutex.
+	 *
+	 * @param beanName            the name of the bean to look for
+	 * @param allowEarlyReference whether early references should be created or not
+	 * @return the early singleton object, or {@code null} if none available
+	 */
+	@Nullable
+	private Object getEarlySingleton(String beanName, boolean allowEarlyReference) {
+		Object singletonObject = this.singletonObjects.get(beanName);
+		if (singletonObject != null) {
+			return singletonObject;
+		}
+		//从二级缓存(早期单例对象)中获取bean对象
+		singletonObject = this.earlySingletonObjects.get(beanName);
+		//二级缓存中没有，并且允许循环依赖
+		//allowEarlyReference 是否允许从singletonFactories中通过getObject拿到对象
+		if (singletonObject == null && allowEarlyReference) {
+			//从三级缓存(单例工厂  singletonFactories)中获取？为什么要使用三级缓存单例工厂
+			ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
+			//bean定义存在于三级缓存(单例工厂中)
+			if (singletonFactory != null) {
+				singletonObject = singletonFactory.getObject();
+				//把bean定义添加到二级缓存中，并从三级缓存中移除（为了解决循环依赖问题，把正在创建的Object实例存入早期单例对象集合中）
+				this.earlySingletonObjects.put(beanName, singletonObject);
+				this.singletonFactories.remove(beanName);
+			}
+		}
+		return singletonObject;
+	}
+
 	/**
 	 * Return the (raw) singleton object registered under the given name,
 	 * creating and registering a new one if none registered yet.
+	 * <p>The singleton factory is invoked outside of the singleton mutex.
+	 * A thread requesting a singleton that is currently being created by
+	 * another thread waits for it to be fully initialized, rather than being
+	 * exposed to its early reference. Only if waiting would lead to a deadlock
+	 * between threads, the circular reference is resolved through an early
+	 * reference, as it would be within a single thread.
 	 *
 	 * @param beanName         the name of the bean
 	 * @param singletonFactory the ObjectFactory to lazily create the singleton
@@ -246,58 +305,225 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
 		Assert.notNull(beanName, "Bean name must not be null");
-		synchronized (this.singletonObjects) {
-			Object singletonObject = this.singletonObjects.get(beanName);
-			if (singletonObject == null) {
-				if (this.singletonsCurrentlyInDestruction) {
-					throw new BeanCreationNotAllowedException(beanName,
-							"Singleton bean creation not allowed while singletons of this factory are in destruction " +
-									"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+		Object singletonObject = this.singletonObjects.get(beanName);
+		if (singletonObject != null) {
+			return singletonObject;
+		}
+		int destructionCount;
+		while (true) {
+			SingletonCreation creation;
+			synchronized (this.singletonObjects) {
+				singletonObject = this.singletonObjects.get(beanName);
+				if (singletonObject != null) {
+					return singletonObject;
 				}
-				if (logger.isDebugEnabled()) {
-					logger.debug("Creating shared instance of singleton bean '" + beanName + "'");
+				creation = this.singletonCreations.get(beanName);
+				if (creation == null || creation.thread == Thread.currentThread()) {
+					if (this.singletonsCurrentlyInDestruction) {
+						throw new BeanCreationNotAllowedException(beanName,
+								"Singleton bean creation not allowed while singletons of this factory are in destruction " +
+										"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+					}
+					if (logger.isDebugEnabled()) {
+						logger.debug("Creating shared instance of singleton bean '" + beanName + "'");
+					}
+					/**
+					 * 经过以上验证完成以后，开始正式实例化，把beanName添加到singletonsCurrentlyInCreation 这个Set集合中
+					 */
+					beforeSingletonCreation(beanName);
+					destructionCount = this.singletonDestructionCount;
+					break;
 				}
-				/**
-				 * 经过以上验证完成以后，开始正式实例化，把beanName添加到singletonsCurrentlyInCreation 这个Set集合中
-				 */
-				beforeSingletonCreation(beanName);
-
-				boolean newSingleton = false;
-				boolean recordSuppressedExceptions = (this.suppressedExceptions == null);
-				if (recordSuppressedExceptions) {
-					this.suppressedExceptions = new LinkedHashSet<>();
+			}
+			singletonObject = awaitSingleton(beanName, creation, true);
+			if (singletonObject != null) {
+				return singletonObject;
+			}
+			synchronized (this.singletonObjects) {
+				if (this.singletonCreations.get(beanName) == creation) {
+					// Circular wait between threads without an early reference to resolve it
+					throw new BeanCurrentlyInCreationException(beanName);
 				}
-				try {
-					singletonObject = singletonFactory.getObject();
-					newSingleton = true;
-				} catch (IllegalStateException ex) {
-					// Has the singleton object implicitly appeared in the meantime ->
-					// if yes, proceed with it since the exception indicates that state.
-					singletonObject = this.singletonObjects.get(beanName);
-					if (singletonObject == null) {
-						throw ex;
-					}
-				} catch (BeanCreationException ex) {
-					if (recordSuppressedExceptions) {
-						for (Exception suppressedException : this.suppressedExceptions) {
-							ex.addRelatedCause(suppressedException);
-						}
+			}
+			// Creation failed in the other thread: let the current thread try again.
+		}
+
+		Set<Exception> suppressedExceptions = this.suppressedExceptions.get();
+		boolean recordSuppressedExceptions = (suppressedExceptions == null);
+		if (recordSuppressedExceptions) {
+			suppressedExceptions = new LinkedHashSet<>();
+			this.suppressedExceptions.set(suppressedExceptions);
+		}
+		long startTime = System.nanoTime();
+		try {
+			singletonObject = singletonFactory.getObject();
+			// Register before leaving the creation phase, for waiting threads to find it
+			if (!addCreatedSingleton(beanName, singletonObject, destructionCount)) {
+				// Singletons destroyed in the meantime: do not register the late instance
+				destroySingleton(beanName);
+				throw new BeanCreationNotAllowedException(beanName,
+						"Singleton bean creation not allowed while singletons of this factory are in destruction " +
+								"or have been destroyed during its creation");
+			}
+		} catch (IllegalStateException ex) {
+			// Has the singleton object implicitly appeared in the meantime ->
+			// if yes, proceed with it since the exception indicates that state.
+			singletonObject = this.singletonObjects.get(beanName);
+			if (singletonObject == null) {
+				throw ex;
+			}
+		} catch (BeanCreationException ex) {
+			if (recordSuppressedExceptions) {
+				for (Exception suppressedException : suppressedExceptions) {
+					ex.addRelatedCause(suppressedException);
+				}
+			}
+			throw ex;
+		} finally {
+			if (recordSuppressedExceptions) {
+				this.suppressedExceptions.remove();
+			}
+			afterSingletonCreation(beanName);
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Created singleton bean '" + beanName + "' in " +
+					(System.nanoTime() - startTime) / 1000000 + " ms on thread '" + Thread.currentThread().getName() + "'");
+		}
+		return singletonObject;
+	}
+
+	/**
+	 * Register the given newly created singleton, unless the singletons of this
+	 * registry are in destruction or have been destroyed since its creation began.
+	 *
+	 * @param beanName         the name of the bean
+	 * @param singletonObject  the singleton object
+	 * @param destructionCount the destruction count when the creation began
+	 * @return {@code true} if registered, {@code false} if to be discarded
+	 */
+	private boolean addCreatedSingleton(String beanName, Object singletonObject, int destructionCount) {
+		synchronized (this.singletonObjects) {
+			if (this.singletonsCurrentlyInDestruction || this.singletonDestructionCount != destructionCount) {
+				return false;
+			}
+			addSingleton(beanName, singletonObject);
+			return true;
+		}
+	}
+
+	/**
+	 * Wait for the given singleton to be fully initialized by the thread currently
+	 * creating it. Needs to be called without holding the singleton mutex: the
+	 * current thread only waits on the creation of the given singleton.
+	 *
+	 * @param beanName            the name of the bean to wait for
+	 * @param creation            the creation of the bean by another thread
+	 * @param allowEarlyReference whether an early reference may be created when
+	 *                            resolving a circular wait between threads
+	 * @return the fully initialized singleton, the early reference if the current
+	 * thread is chosen to resolve a circular wait involving the given bean, or
+	 * {@code null} if the creation failed or no early reference is available
+	 * @see #isCircularWaitToResolve
+	 */
+	@Nullable
+	private Object awaitSingleton(String beanName, SingletonCreation creation, boolean allowEarlyReference) {
+		Thread currentThread = Thread.currentThread();
+		synchronized (this.singletonObjects) {
+			this.singletonsAwaitedByThreads.put(currentThread, beanName);
+			// Wake up the other threads of a circular wait closed by the current thread
+			List<String> circularWait = getCircularWait(beanName);
+			if (circularWait != null) {
+				for (String awaitedBeanName : circularWait) {
+					this.singletonCreations.get(awaitedBeanName).signal();
+				}
+			}
+		}
+		try {
+			while (true) {
+				int signalCount;
+				synchronized (this.singletonObjects) {
+					Object singletonObject = this.singletonObjects.get(beanName);
+					if (singletonObject != null || this.singletonCreations.get(beanName) != creation) {
+						return singletonObject;
 					}
-					throw ex;
-				} finally {
-					if (recordSuppressedExceptions) {
-						this.suppressedExceptions = null;
+					if (isCircularWaitToResolve(beanName)) {
+						return getEarlySingleton(beanName, allowEarlyReference);
 					}
-					afterSingletonCreation(beanName);
+					signalCount = creation.getSignalCount();
 				}
-				if (newSingleton) {
-					addSingleton(beanName, singletonObject);
+				try {
+					creation.await(signalCount);
+				} catch (InterruptedException ex) {
+					currentThread.interrupt();
+					throw new BeanCreationException(beanName,
+							"Interrupted while waiting for singleton bean to be created by another thread", ex);
 				}
 			}
-			return singletonObject;
+		} finally {
+			synchronized (this.singletonObjects) {
+				this.singletonsAwaitedByThreads.remove(currentThread);
+			}
+		}
+	}
+
+	/**
+	 * Determine the circular wait between threads that the current thread,
+	 * waiting for the given singleton, is part of.
+	 * Needs to be called within full synchronization on the singleton mutex.
+	 *
+	 * @param beanName the name of the singleton the current thread is waiting for
+	 * @return the names of the singletons awaited in the cycle, starting with the
+	 * given bean name, or {@code null} if the current thread is not part of a cycle
+	 */
+	@Nullable
+	private List<String> getCircularWait(String beanName) {
+		Thread currentThread = Thread.currentThread();
+		List<String> awaitedBeanNames = new ArrayList<>();
+		Set<Thread> visitedThreads = new HashSet<>();
+		String awaitedBeanName = beanName;
+		while (true) {
+			SingletonCreation creation = this.singletonCreations.get(awaitedBeanName);
+			if (creation == null || !visitedThreads.add(creation.thread)) {
+				return null;
+			}
+			awaitedBeanNames.add(awaitedBeanName);
+			if (creation.thread == currentThread) {
+				return awaitedBeanNames;
+			}
+			awaitedBeanName = this.singletonsAwaitedByThreads.get(creation.thread);
+			if (awaitedBeanName == null) {
+				return null;
+			}
 		}
 	}
 
+	/**
+	 * Check whether the current thread, waiting for the given singleton, is part
+	 * of a circular wait between threads and is the one to resolve it.
+	 * <p>All threads in such a cycle consistently choose the same waiting thread:
+	 * the one waiting for the lowest bean name among the singletons that expose
+	 * an early reference, or among all singletons in the cycle if none does.
+	 *
+	 * @param beanName the name of the singleton the current thread is waiting for
+	 */
+	private boolean isCircularWaitToResolve(String beanName) {
+		List<String> awaitedBeanNames = getCircularWait(beanName);
+		if (awaitedBeanNames == null) {
+			return false;
+		}
+		String beanNameToResolve = null;
+		for (String candidate : awaitedBeanNames) {
+			if ((this.earlySingletonObjects.containsKey(candidate) || this.singletonFactories.containsKey(candidate)) &&
+					(beanNameToResolve == null || candidate.compareTo(beanNameToResolve) < 0)) {
+				beanNameToResolve = candidate;
+			}
+		}
+		if (beanNameToResolve == null) {
+			beanNameToResolve = Collections.min(awaitedBeanNames);
+		}
+		return beanName.equals(beanNameToResolve);
+	}
+
 	/**
 	 * Register an Exception that happened to get suppressed during the creation of a
 	 * singleton bean instance, e.g. a temporary circular reference resolution problem.
@@ -305,10 +531,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * @param ex the Exception to register
 	 */
 	protected void onSuppressedException(Exception ex) {
-		synchronized (this.singletonObjects) {
-			if (this.suppressedExceptions != null) {
-				this.suppressedExceptions.add(ex);
-			}
+		Set<Exception> suppressedExceptions = this.suppressedExceptions.get();
+		if (suppressedExceptions != null) {
+			suppressedExceptions.add(ex);
 		}
 	}
 
@@ -385,8 +610,13 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * 判断正在创建，并添加到singletonsCurrentlyInCreation 这个Set集合中
 	 */
 	protected void beforeSingletonCreation(String beanName) {
-		if (!this.inCreationCheckExclusions.contains(beanName) && !this.singletonsCurrentlyInCreation.add(beanName)) {
-			throw new BeanCurrentlyInCreationException(beanName);
+		if (!this.inCreationCheckExclusions.contains(beanName)) {
+			synchronized (this.singletonObjects) {
+				if (!this.singletonsCurrentlyInCreation.add(beanName)) {
+					throw new BeanCurrentlyInCreationException(beanName);
+				}
+				this.singletonCreations.put(beanName, new SingletonCreation(Thread.currentThread()));
+			}
 		}
 	}
 
@@ -398,8 +628,16 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * @see #isSingletonCurrentlyInCreation
 	 */
 	protected void afterSingletonCreation(String beanName) {
-		if (!this.inCreationCheckExclusions.contains(beanName) && !this.singletonsCurrentlyInCreation.remove(beanName)) {
-			throw new IllegalStateException("Singleton '" + beanName + "' isn't currently in creation");
+		if (!this.inCreationCheckExclusions.contains(beanName)) {
+			synchronized (this.singletonObjects) {
+				if (!this.singletonsCurrentlyInCreation.remove(beanName)) {
+					throw new IllegalStateException("Singleton '" + beanName + "' isn't currently in creation");
+				}
+				SingletonCreation creation = this.singletonCreations.remove(beanName);
+				if (creation != null) {
+					creation.signal();
+				}
+			}
 		}
 	}
 
@@ -552,6 +790,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		}
 		synchronized (this.singletonObjects) {
 			this.singletonsCurrentlyInDestruction = true;
+			this.singletonDestructionCount++;
 		}
 
 		String[] disposableBeanNames;
@@ -669,10 +908,45 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * any sort of extended singleton creation phase. In particular, subclasses
 	 * should <i>not</i> have their own mutexes involved in singleton creation,
 	 * to avoid the potential for deadlocks in lazy-init situations.
+	 * <p>Note that the mutex is only held for registry bookkeeping, not while
+	 * a singleton is being created, and not while waiting for a singleton that
+	 * is currently being created by another thread.
 	 */
 	@Override
 	public final Object getSingletonMutex() {
 		return this.singletonObjects;
 	}
 
+
+	/**
+	 * The creation of a singleton by a specific thread, serving as monitor for
+	 * the threads waiting for it. Signalled when the creation ends and when a
+	 * circular wait between threads involving the singleton has been closed.
+	 */
+	private static final class SingletonCreation {
+
+		final Thread thread;
+
+		private int signalCount;
+
+		SingletonCreation(Thread thread) {
+			this.thread = thread;
+		}
+
+		synchronized int getSignalCount() {
+			return this.signalCount;
+		}
+
+		synchronized void signal() {
+			this.signalCount++;
+			notifyAll();
+		}
+
+		synchronized void await(int seenSignalCount) throws InterruptedException {
+			while (this.signalCount == seenSignalCount) {
+				wait();
+			}
+		}
+	}
+
 }
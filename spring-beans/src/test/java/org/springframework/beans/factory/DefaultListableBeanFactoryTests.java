@@ -2831,6 +2831,50 @@ public class DefaultListableBeanFactoryTests {
 		}
 	}
 
+	@Test(timeout = 1000)
+	public void testGenericByTypeLookupIsFastEnough() {
+		Assume.group(TestGroup.PERFORMANCE);
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+
+		for (int i = 0; i < 1000; i++) {
+			bf.registerBeanDefinition("a" + i, new RootBeanDefinition(A.class));
+		}
+		bf.registerBeanDefinition("b", new RootBeanDefinition(B.class));
+		bf.preInstantiateSingletons();
+
+		ResolvableType type = ResolvableType.forClassWithGenerics(Comparable.class, B.class);
+		for (int i = 0; i < 10000; i++) {
+			assertEquals(0, bf.getBeanNamesForType(type).length);
+			bf.getBeansOfType(B.class);
+		}
+	}
+
+	@Test
+	public void testByTypeLookupWithInstantiatedSingletons() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.registerBeanDefinition("a1", new RootBeanDefinition(A.class));
+		lbf.registerBeanDefinition("b", new RootBeanDefinition(B.class));
+		lbf.registerBeanDefinition("a2", new RootBeanDefinition(A.class));
+		lbf.registerSingleton("a3", new A());
+		lbf.registerSingleton("b2", new B());
+		lbf.getBean("a1");
+		lbf.getBean("b");
+
+		assertArrayEquals(new String[] {"a1", "a2", "a3"}, lbf.getBeanNamesForType(A.class));
+		assertArrayEquals(new String[] {"b", "b2"}, lbf.getBeanNamesForType(ResolvableType.forClass(B.class)));
+		assertEquals(2, lbf.getBeansOfType(B.class).size());
+
+		lbf.registerBeanDefinition("b2", new RootBeanDefinition(B.class));
+		lbf.destroySingleton("b");
+		lbf.registerBeanDefinition("a1", new RootBeanDefinition(B.class));
+		assertArrayEquals(new String[] {"a2", "a3"}, lbf.getBeanNamesForType(A.class));
+		assertArrayEquals(new String[] {"a1", "b", "b2"}, lbf.getBeanNamesForType(B.class));
+
+		lbf.destroySingletons();
+		assertArrayEquals(new String[] {"a2"}, lbf.getBeanNamesForType(A.class));
+		assertArrayEquals(new String[] {"a1", "b", "b2"}, lbf.getBeanNamesForType(B.class));
+	}
+
 
 	static class A { }
 
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for background initialization of singletons in {@link DefaultListableBeanFactory}.
+ *
+ * @author agent
+ */
+public class BackgroundPreInstantiationTests {
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private final AtomicInteger creationCount = new AtomicInteger();
+
+
+	@After
+	public void shutdown() {
+		this.release.countDown();
+		this.executor.shutdownNow();
+	}
+
+
+	@Test(timeout = 10000)
+	public void backgroundSingletonIsCreatedOnBootstrapExecutor() throws Exception {
+		registerBlockingBean("background");
+		this.beanFactory.registerBeanDefinition("regular", new RootBeanDefinition(Object.class));
+		this.beanFactory.setBootstrapExecutor(this.executor);
+		this.beanFactory.preInstantiateSingletons();
+
+		assertTrue(this.beanFactory.containsSingleton("regular"));
+		CompletableFuture<Void> future = this.beanFactory.getBackgroundInitFuture("background");
+		assertNotNull(future);
+		assertFalse(future.isDone());
+
+		this.release.countDown();
+		future.get();
+		BlockingBean bean = this.beanFactory.getBean("background", BlockingBean.class);
+		assertNotSame(Thread.currentThread(), bean.creationThread);
+		assertSame(bean.creationThread, bean.callbackThread);
+		assertEquals(1, this.creationCount.get());
+		assertNull(this.beanFactory.getBackgroundInitFuture("background"));
+	}
+
+	@Test(timeout = 10000)
+	public void requestForSingletonInBackgroundCreationWaitsForIt() throws Exception {
+		CountDownLatch started = registerBlockingBean("background");
+		this.beanFactory.setBootstrapExecutor(this.executor);
+		this.beanFactory.preInstantiateSingletons();
+		started.await();
+
+		CompletableFuture<Object> request =
+				CompletableFuture.supplyAsync(() -> this.beanFactory.getBean("background"));
+		Thread.sleep(100);
+		assertFalse(request.isDone());
+
+		this.release.countDown();
+		assertSame(this.beanFactory.getBean("background"), request.get());
+		assertEquals(1, this.creationCount.get());
+	}
+
+	@Test(timeout = 10000)
+	public void requestForSingletonNotStartedYetCreatesIt() throws Exception {
+		registerBlockingBean("first");
+		RootBeanDefinition bd = new RootBeanDefinition(CallbackBean.class);
+		bd.setBackgroundInit(true);
+		this.beanFactory.registerBeanDefinition("second", bd);
+		this.beanFactory.setBootstrapExecutor(this.executor);
+		this.beanFactory.preInstantiateSingletons();
+
+		CompletableFuture<Void> future = this.beanFactory.getBackgroundInitFuture("second");
+		CallbackBean second = this.beanFactory.getBean("second", CallbackBean.class);
+		assertEquals(0, second.callbackCount.get());
+
+		this.release.countDown();
+		future.get();
+		assertSame(second, this.beanFactory.getBean("second"));
+		assertEquals(1, second.callbackCount.get());
+	}
+
+	@Test
+	public void backgroundSingletonNeededByRegularSingletonIsCreatedRightAway() {
+		RootBeanDefinition bd = new RootBeanDefinition(CallbackBean.class);
+		bd.setBackgroundInit(true);
+		this.beanFactory.registerBeanDefinition("background", bd);
+		RootBeanDefinition regular = new RootBeanDefinition(RegularBean.class);
+		regular.getPropertyValues().add("collaborator", new RuntimeBeanReference("background"));
+		this.beanFactory.registerBeanDefinition("regular", regular);
+		this.beanFactory.setBootstrapExecutor(this.executor);
+		this.beanFactory.preInstantiateSingletons();
+
+		assertNull(this.beanFactory.getBackgroundInitFuture("background"));
+		CallbackBean bean = this.beanFactory.getBean("background", CallbackBean.class);
+		assertSame(bean, this.beanFactory.getBean("regular", RegularBean.class).collaborator);
+		assertEquals(1, bean.callbackCount.get());
+	}
+
+	@Test
+	public void backgroundSingletonWithoutBootstrapExecutorIsCreatedOnStartup() {
+		RootBeanDefinition bd = new RootBeanDefinition(CallbackBean.class);
+		bd.setBackgroundInit(true);
+		this.beanFactory.registerBeanDefinition("background", bd);
+		this.beanFactory.preInstantiateSingletons();
+
+		assertTrue(this.beanFactory.containsSingleton("background"));
+		assertEquals(1, this.beanFactory.getBean("background", CallbackBean.class).callbackCount.get());
+	}
+
+	@Test(timeout = 10000)
+	public void destroySingletonsCancelsPendingInitialization() throws Exception {
+		CountDownLatch started = registerBlockingBean("first");
+		registerBlockingBean("second");
+		this.beanFactory.setBootstrapExecutor(this.executor);
+		this.beanFactory.preInstantiateSingletons();
+		CompletableFuture<Void> second = this.beanFactory.getBackgroundInitFuture("second");
+		CountDownLatch cancelled = new CountDownLatch(1);
+		second.whenComplete((result, ex) -> cancelled.countDown());
+		started.await();
+
+		// Keep the first bean in creation until the second one has been cancelled
+		CompletableFuture<Void> destruction = CompletableFuture.runAsync(this.beanFactory::destroySingletons);
+		cancelled.await();
+		assertTrue(second.isCancelled());
+		assertFalse(destruction.isDone());
+		this.release.countDown();
+		destruction.get();
+		this.executor.shutdown();
+		assertTrue(this.executor.awaitTermination(5, TimeUnit.SECONDS));
+		assertEquals(1, this.creationCount.get());
+		assertEquals(0, this.beanFactory.getSingletonCount());
+	}
+
+	private CountDownLatch registerBlockingBean(String beanName) {
+		CountDownLatch started = new CountDownLatch(1);
+		RootBeanDefinition bd = new RootBeanDefinition(BlockingBean.class);
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(0, started);
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(1, this.release);
+		bd.getConstructorArgumentValues().addIndexedArgumentValue(2, this.creationCount);
+		bd.setBackgroundInit(true);
+		this.beanFactory.registerBeanDefinition(beanName, bd);
+		return started;
+	}
+
+
+	public static class BlockingBean implements SmartInitializingSingleton {
+
+		private final Thread creationThread = Thread.currentThread();
+
+		private volatile Thread callbackThread;
+
+		public BlockingBean(CountDownLatch started, CountDownLatch release, AtomicInteger creationCount)
+				throws InterruptedException {
+
+			creationCount.incrementAndGet();
+			started.countDown();
+			release.await();
+		}
+
+		@Override
+		public void afterSingletonsInstantiated() {
+			this.callbackThread = Thread.currentThread();
+		}
+	}
+
+
+	public static class CallbackBean implements SmartInitializingSingleton {
+
+		private final AtomicInteger callbackCount = new AtomicInteger();
+
+		@Override
+		public void afterSingletonsInstantiated() {
+			this.callbackCount.incrementAndGet();
+		}
+	}
+
+
+	public static class RegularBean {
+
+		private Object collaborator;
+
+		public void setCollaborator(Object collaborator) {
+			this.collaborator = collaborator;
+		}
+	}
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link BeanTypeIndex}.
+ *
+ * @author agent
+ */
+public class BeanTypeIndexTests {
+
+	private final BeanTypeIndex index = new BeanTypeIndex();
+
+
+	@Test
+	public void untypedNamesAreCandidatesForAnyType() {
+		this.index.register("a", null);
+		this.index.register("b", null);
+
+		assertEquals(Arrays.asList("a", "b"), this.index.getCandidateNames(String.class));
+		assertEquals(Arrays.asList("a", "b"), this.index.getCandidateNames(Runnable.class));
+	}
+
+	@Test
+	public void typedNamesAreCandidatesForSuperclassesAndInterfaces() {
+		this.index.register("list", ArrayList.class);
+		this.index.register("other", null);
+		this.index.register("linked", LinkedList.class);
+		this.index.register("string", String.class);
+
+		assertEquals(Arrays.asList("list", "other", "linked"), this.index.getCandidateNames(List.class));
+		assertEquals(Arrays.asList("list", "other", "linked"), this.index.getCandidateNames(Collection.class));
+		assertEquals(Arrays.asList("list", "other"), this.index.getCandidateNames(ArrayList.class));
+		assertEquals(Arrays.asList("list", "other", "linked", "string"), this.index.getCandidateNames(Serializable.class));
+		assertEquals(Arrays.asList("other"), this.index.getCandidateNames(Runnable.class));
+	}
+
+	@Test
+	public void changeBeanType() {
+		this.index.register("a", ArrayList.class);
+		this.index.register("b", String.class);
+
+		this.index.setBeanType("a", null);
+		assertEquals(Arrays.asList("a"), this.index.getCandidateNames(Runnable.class));
+		this.index.setBeanType("a", LinkedList.class);
+		assertEquals(Arrays.asList("a"), this.index.getCandidateNames(List.class));
+		assertEquals(Arrays.asList(), this.index.getCandidateNames(ArrayList.class));
+
+		this.index.clearBeanTypes();
+		assertEquals(Arrays.asList("a", "b"), this.index.getCandidateNames(Runnable.class));
+	}
+
+	@Test
+	public void registrationOrderIsKept() {
+		this.index.register("a", String.class);
+		this.index.register("b", String.class);
+		this.index.register("a", null);
+		assertEquals(Arrays.asList("a", "b"), this.index.getCandidateNames(String.class));
+
+		this.index.remove("a");
+		this.index.setBeanType("a", String.class);
+		this.index.register("a", String.class);
+		assertEquals(Arrays.asList("b", "a"), this.index.getCandidateNames(String.class));
+	}
+
+}
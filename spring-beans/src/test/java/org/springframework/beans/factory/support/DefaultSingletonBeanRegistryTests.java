@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,9 +16,18 @@
 
 package org.springframework.beans.factory.support;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.Test;
 
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanCreationNotAllowedException;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.tests.sample.beans.DerivedTestBean;
 import org.springframework.tests.sample.beans.TestBean;
@@ -101,4 +110,109 @@ public class DefaultSingletonBeanRegistryTests {
 		assertTrue(beanRegistry.isDependent("c", "c"));
 	}
 
+	@Test
+	public void testDifferentSingletonsCreatedConcurrently() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			// Both factories only return once both singletons are in creation at the same time
+			Future<Object> tb2 = executor.submit(() -> beanRegistry.getSingleton("tb2", () -> {
+				awaitQuietly(barrier);
+				return new TestBean();
+			}));
+			Object tb = beanRegistry.getSingleton("tb", () -> {
+				awaitQuietly(barrier);
+				return new TestBean();
+			});
+			assertSame(tb, beanRegistry.getSingleton("tb"));
+			assertSame(tb2.get(5, TimeUnit.SECONDS), beanRegistry.getSingleton("tb2"));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testSingletonInCreationAwaitedByOtherThread() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		CountDownLatch inCreation = new CountDownLatch(1);
+		CountDownLatch proceed = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Object> tb = executor.submit(() -> beanRegistry.getSingleton("tb", () -> {
+				inCreation.countDown();
+				try {
+					proceed.await(5, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				return new TestBean();
+			}));
+			assertTrue(inCreation.await(5, TimeUnit.SECONDS));
+			assertTrue(beanRegistry.isSingletonCurrentlyInCreation("tb"));
+
+			Future<Object> awaited = executor.submit(() -> beanRegistry.getSingleton("tb", () -> {
+				throw new IllegalStateException("Should not be created twice");
+			}));
+			Thread.sleep(100);
+			assertFalse(awaited.isDone());
+			proceed.countDown();
+			assertSame(tb.get(5, TimeUnit.SECONDS), awaited.get(5, TimeUnit.SECONDS));
+			assertSame(tb.get(), beanRegistry.getSingleton("tb"));
+			assertFalse(beanRegistry.isSingletonCurrentlyInCreation("tb"));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testSingletonCreatedDuringDestructionIsDestroyed() throws Exception {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		DerivedTestBean tb = new DerivedTestBean();
+		CountDownLatch inCreation = new CountDownLatch(1);
+		CountDownLatch destroyed = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Object> late = executor.submit(() -> beanRegistry.getSingleton("tb", () -> {
+				inCreation.countDown();
+				try {
+					destroyed.await(5, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				beanRegistry.registerDisposableBean("tb", tb);
+				return tb;
+			}));
+			assertTrue(inCreation.await(5, TimeUnit.SECONDS));
+			beanRegistry.destroySingletons();
+			destroyed.countDown();
+			try {
+				late.get(5, TimeUnit.SECONDS);
+				fail("Should have thrown BeanCreationNotAllowedException");
+			}
+			catch (ExecutionException ex) {
+				assertTrue(ex.getCause() instanceof BeanCreationNotAllowedException);
+			}
+			assertTrue(tb.wasDestroyed());
+			assertNull(beanRegistry.getSingleton("tb"));
+			assertEquals(0, beanRegistry.getSingletonCount());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static void awaitQuietly(CyclicBarrier barrier) {
+		try {
+			barrier.await(5, TimeUnit.SECONDS);
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException("Singletons not created concurrently", ex);
+		}
+	}
+
 }
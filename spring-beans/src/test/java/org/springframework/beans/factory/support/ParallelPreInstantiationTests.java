@@ -0,0 +1,237 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.BeanCurrentlyInCreationException;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for parallel pre-instantiation of singletons in {@link DefaultListableBeanFactory}.
+ *
+ * @author agent
+ */
+public class ParallelPreInstantiationTests {
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+
+	@Test(timeout = 10000)
+	public void independentSingletonsAreCreatedInParallel() {
+		CyclicBarrier barrier = new CyclicBarrier(3);
+		for (String beanName : new String[] {"bean1", "bean2", "bean3"}) {
+			RootBeanDefinition bd = new RootBeanDefinition(BarrierBean.class);
+			bd.getConstructorArgumentValues().addGenericArgumentValue(barrier);
+			this.beanFactory.registerBeanDefinition(beanName, bd);
+		}
+		this.beanFactory.setPreInstantiationParallelism(3);
+		this.beanFactory.preInstantiateSingletons();
+
+		assertEquals(3, this.beanFactory.getSingletonCount());
+		assertTrue(this.beanFactory.getBean("bean1", BarrierBean.class).passed);
+		assertTrue(this.beanFactory.getBean("bean2", BarrierBean.class).passed);
+		assertTrue(this.beanFactory.getBean("bean3", BarrierBean.class).passed);
+	}
+
+	@Test(timeout = 10000)
+	public void dependenciesAndSmartInitializingSingletonCallbacks() {
+		List<String> events = Collections.synchronizedList(new ArrayList<>());
+		RootBeanDefinition bd1 = new RootBeanDefinition(RecordingBean.class);
+		bd1.getConstructorArgumentValues().addGenericArgumentValue(events);
+		bd1.setDependsOn("bean2");
+		this.beanFactory.registerBeanDefinition("bean1", bd1);
+		RootBeanDefinition bd2 = new RootBeanDefinition(RecordingBean.class);
+		bd2.getConstructorArgumentValues().addGenericArgumentValue(events);
+		bd2.getPropertyValues().add("collaborator", new RuntimeBeanReference("bean3"));
+		this.beanFactory.registerBeanDefinition("bean2", bd2);
+		RootBeanDefinition bd3 = new RootBeanDefinition(RecordingBean.class);
+		bd3.getConstructorArgumentValues().addGenericArgumentValue(events);
+		this.beanFactory.registerBeanDefinition("bean3", bd3);
+		this.beanFactory.setPreInstantiationParallelism(4);
+		this.beanFactory.preInstantiateSingletons();
+
+		RecordingBean bean1 = this.beanFactory.getBean("bean1", RecordingBean.class);
+		RecordingBean bean2 = this.beanFactory.getBean("bean2", RecordingBean.class);
+		RecordingBean bean3 = this.beanFactory.getBean("bean3", RecordingBean.class);
+		assertSame(bean3, bean2.collaborator);
+		assertTrue(events.indexOf("created") < events.indexOf("afterSingletonsInstantiated"));
+		assertEquals(6, events.size());
+		assertTrue(events.subList(0, 3).stream().allMatch("created"::equals));
+		assertSame(Thread.currentThread(), bean1.callbackThread);
+		assertSame(Thread.currentThread(), bean2.callbackThread);
+		assertSame(Thread.currentThread(), bean3.callbackThread);
+		assertTrue(bean2.creationTime < bean1.creationTime);
+	}
+
+	@Test(timeout = 10000)
+	public void circularReferenceBetweenThreads() {
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		RootBeanDefinition bd1 = new RootBeanDefinition(PartnerA.class);
+		bd1.getConstructorArgumentValues().addGenericArgumentValue(barrier);
+		bd1.setAutowireMode(AutowireCapableBeanFactory.AUTOWIRE_BY_TYPE);
+		this.beanFactory.registerBeanDefinition("a", bd1);
+		RootBeanDefinition bd2 = new RootBeanDefinition(PartnerB.class);
+		bd2.getConstructorArgumentValues().addGenericArgumentValue(barrier);
+		bd2.setAutowireMode(AutowireCapableBeanFactory.AUTOWIRE_BY_TYPE);
+		this.beanFactory.registerBeanDefinition("b", bd2);
+		this.beanFactory.setPreInstantiationParallelism(2);
+		this.beanFactory.preInstantiateSingletons();
+
+		PartnerA a = this.beanFactory.getBean(PartnerA.class);
+		PartnerB b = this.beanFactory.getBean(PartnerB.class);
+		assertSame(b, a.partner);
+		assertSame(a, b.partner);
+		assertTrue(a.passed);
+		assertTrue(b.passed);
+	}
+
+	@Test(timeout = 10000)
+	public void constructorCircularReferenceBetweenThreads() {
+		RootBeanDefinition bd1 = new RootBeanDefinition(ConstructorPartnerA.class);
+		bd1.setAutowireMode(AutowireCapableBeanFactory.AUTOWIRE_CONSTRUCTOR);
+		this.beanFactory.registerBeanDefinition("a", bd1);
+		RootBeanDefinition bd2 = new RootBeanDefinition(ConstructorPartnerB.class);
+		bd2.setAutowireMode(AutowireCapableBeanFactory.AUTOWIRE_CONSTRUCTOR);
+		this.beanFactory.registerBeanDefinition("b", bd2);
+		this.beanFactory.setPreInstantiationParallelism(2);
+		try {
+			this.beanFactory.preInstantiateSingletons();
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			assertTrue(ex.contains(BeanCurrentlyInCreationException.class));
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void failureIsPropagated() {
+		for (int i = 0; i < 10; i++) {
+			this.beanFactory.registerBeanDefinition("bean" + i, new RootBeanDefinition(RecordingBean.class,
+					() -> new RecordingBean(new ArrayList<>())));
+		}
+		this.beanFactory.registerBeanDefinition("failing", new RootBeanDefinition(FailingBean.class));
+		this.beanFactory.setPreInstantiationParallelism(4);
+		try {
+			this.beanFactory.preInstantiateSingletons();
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			assertEquals("failing", ex.getBeanName());
+		}
+	}
+
+
+	public static class BarrierBean {
+
+		boolean passed;
+
+		public BarrierBean(CyclicBarrier barrier) throws Exception {
+			barrier.await(5, TimeUnit.SECONDS);
+			this.passed = true;
+		}
+	}
+
+
+	public static class RecordingBean implements SmartInitializingSingleton {
+
+		private final List<String> events;
+
+		final long creationTime = System.nanoTime();
+
+		RecordingBean collaborator;
+
+		Thread callbackThread;
+
+		public RecordingBean(List<String> events) {
+			this.events = events;
+			events.add("created");
+		}
+
+		public void setCollaborator(RecordingBean collaborator) {
+			this.collaborator = collaborator;
+		}
+
+		@Override
+		public void afterSingletonsInstantiated() {
+			this.callbackThread = Thread.currentThread();
+			this.events.add("afterSingletonsInstantiated");
+		}
+	}
+
+
+	public static class PartnerA extends BarrierBean {
+
+		PartnerB partner;
+
+		public PartnerA(CyclicBarrier barrier) throws Exception {
+			super(barrier);
+		}
+
+		public void setPartner(PartnerB partner) {
+			this.partner = partner;
+		}
+	}
+
+
+	public static class PartnerB extends BarrierBean {
+
+		PartnerA partner;
+
+		public PartnerB(CyclicBarrier barrier) throws Exception {
+			super(barrier);
+		}
+
+		public void setPartner(PartnerA partner) {
+			this.partner = partner;
+		}
+	}
+
+
+	public static class ConstructorPartnerA {
+
+		public ConstructorPartnerA(ConstructorPartnerB partner) {
+		}
+	}
+
+
+	public static class ConstructorPartnerB {
+
+		public ConstructorPartnerB(ConstructorPartnerA partner) {
+		}
+	}
+
+
+	public static class FailingBean {
+
+		public FailingBean() {
+			throw new IllegalStateException("Expected failure");
+		}
+	}
+
+}
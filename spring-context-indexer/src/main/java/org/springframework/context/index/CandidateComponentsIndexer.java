@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,8 +20,11 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import javax.annotation.processing.Completion;
 import javax.annotation.processing.ProcessingEnvironment;
@@ -34,17 +37,29 @@ import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
 
 /**
  * Annotation {@link Processor} that writes {@link CandidateComponentsMetadata}
  * file for spring components.
  *
+ * <p>If the {@value #METADATA_INDEX_OPTION} option is set to {@code true}, the
+ * processor also writes a binary index of the class metadata of all compiled
+ * types, which allows for reading their annotation metadata at runtime
+ * without parsing the class files.
+ *
  * @author Stephane Nicoll
  * @author Juergen Hoeller
  * @since 5.0
  */
 public class CandidateComponentsIndexer implements Processor {
 
+	/**
+	 * Name of the processor option that enables the class metadata index.
+	 * @since 5.0.17
+	 */
+	public static final String METADATA_INDEX_OPTION = "spring.index.metadata";
+
 	private static final Set<ElementKind> TYPE_KINDS =
 			Collections.unmodifiableSet(EnumSet.of(ElementKind.CLASS, ElementKind.INTERFACE));
 
@@ -56,10 +71,22 @@ public class CandidateComponentsIndexer implements Processor {
 
 	private List<StereotypesProvider> stereotypesProviders;
 
+	private Elements elementUtils;
+
+	private ClassMetadataStore classMetadataStore;
+
+	private ClassMetadataEncoder classMetadataEncoder;
+
+	private Map<String, byte[]> previousClassMetadata;
+
+	private final Map<String, byte[]> classMetadata = new LinkedHashMap<>();
+
+	private final Set<String> processedClassNames = new HashSet<>();
+
 
 	@Override
 	public Set<String> getSupportedOptions() {
-		return Collections.emptySet();
+		return Collections.singleton(METADATA_INDEX_OPTION);
 	}
 
 	@Override
@@ -78,12 +105,21 @@ public class CandidateComponentsIndexer implements Processor {
 		this.typeHelper = new TypeHelper(env);
 		this.metadataStore = new MetadataStore(env);
 		this.metadataCollector = new MetadataCollector(env, this.metadataStore.readMetadata());
+		if (Boolean.parseBoolean(env.getOptions().get(METADATA_INDEX_OPTION))) {
+			this.elementUtils = env.getElementUtils();
+			this.classMetadataStore = new ClassMetadataStore(env);
+			this.classMetadataEncoder = new ClassMetadataEncoder(env);
+			this.previousClassMetadata = this.classMetadataStore.readMetadata();
+		}
 	}
 
 	@Override
 	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
 		this.metadataCollector.processing(roundEnv);
 		roundEnv.getRootElements().forEach(this::processElement);
+		if (this.classMetadataEncoder != null) {
+			roundEnv.getRootElements().forEach(this::addClassMetadataFor);
+		}
 		if (roundEnv.processingOver()) {
 			writeMetaData();
 		}
@@ -120,6 +156,19 @@ public class CandidateComponentsIndexer implements Processor {
 		}
 	}
 
+	private void addClassMetadataFor(Element element) {
+		if (element instanceof TypeElement) {
+			TypeElement type = (TypeElement) element;
+			String className = this.classMetadataEncoder.getBinaryName(type);
+			this.processedClassNames.add(className);
+			byte[] metadata = this.classMetadataEncoder.encode(type);
+			if (metadata != null) {
+				this.classMetadata.put(className, metadata);
+			}
+			type.getEnclosedElements().forEach(this::addClassMetadataFor);
+		}
+	}
+
 	private void writeMetaData() {
 		CandidateComponentsMetadata metadata = this.metadataCollector.getMetadata();
 		if (!metadata.getItems().isEmpty()) {
@@ -130,6 +179,30 @@ public class CandidateComponentsIndexer implements Processor {
 				throw new IllegalStateException("Failed to write metadata", ex);
 			}
 		}
+		if (this.classMetadataStore != null) {
+			writeClassMetadata();
+		}
+	}
+
+	private void writeClassMetadata() {
+		Map<String, byte[]> entries = new LinkedHashMap<>(this.classMetadata);
+		if (this.previousClassMetadata != null) {
+			this.previousClassMetadata.forEach((className, metadata) -> {
+				if (!this.processedClassNames.contains(className) && !deletedInCurrentBuild(className)) {
+					entries.putIfAbsent(className, metadata);
+				}
+			});
+		}
+		try {
+			this.classMetadataStore.writeMetadata(entries);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to write class metadata", ex);
+		}
+	}
+
+	private boolean deletedInCurrentBuild(String className) {
+		return (this.elementUtils.getTypeElement(className.replace('$', '.')) == null);
 	}
 
 	private static List<TypeElement> staticTypesIn(Iterable<? extends Element> elements) {
@@ -0,0 +1,457 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.context.index;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Encode the class-level metadata of a {@link TypeElement} in the binary
+ * format of the {@link ClassMetadataStore metadata index}, so that it can be
+ * read at runtime without opening the class file.
+ *
+ * <p>The encoded form mirrors what an ASM {@code ClassVisitor} gets to see:
+ * <ul>
+ * <li>the class access flags, internal name, super class and interfaces</li>
+ * <li>the enclosing class and inner class flags, as well as member classes</li>
+ * <li>the annotations with {@code CLASS} or {@code RUNTIME} retention along
+ * with their explicitly specified attribute values</li>
+ * <li>the annotated methods and constructors, with their access flags,
+ * descriptor and annotations</li>
+ * </ul>
+ *
+ * <p>Attribute values are written with a one-byte tag: {@code BCDFIJSZ} for
+ * primitives, {@code s} for strings, {@code c} for class descriptors,
+ * {@code e} for enum constants, {@code @} for nested annotations and
+ * {@code [} for arrays, followed by the element tag and the element count.
+ *
+ * @author agent
+ * @since 5.0.17
+ */
+class ClassMetadataEncoder {
+
+	private static final int ACC_PUBLIC = 0x0001;
+
+	private static final int ACC_PRIVATE = 0x0002;
+
+	private static final int ACC_PROTECTED = 0x0004;
+
+	private static final int ACC_STATIC = 0x0008;
+
+	private static final int ACC_FINAL = 0x0010;
+
+	private static final int ACC_SUPER = 0x0020;
+
+	private static final int ACC_SYNCHRONIZED = 0x0020;
+
+	private static final int ACC_VARARGS = 0x0080;
+
+	private static final int ACC_NATIVE = 0x0100;
+
+	private static final int ACC_INTERFACE = 0x0200;
+
+	private static final int ACC_ABSTRACT = 0x0400;
+
+	private static final int ACC_ANNOTATION = 0x2000;
+
+	private final Elements elements;
+
+	private final Types types;
+
+
+	public ClassMetadataEncoder(ProcessingEnvironment env) {
+		this.elements = env.getElementUtils();
+		this.types = env.getTypeUtils();
+	}
+
+
+	/**
+	 * Return the binary name of the specified type, e.g. {@code com.example.Outer$Inner}.
+	 */
+	public String getBinaryName(TypeElement type) {
+		return this.elements.getBinaryName(type).toString();
+	}
+
+	/**
+	 * Encode the specified type.
+	 * @param type the type to encode
+	 * @return the encoded metadata, or {@code null} if the type cannot be
+	 * represented faithfully, in which case it should not be indexed
+	 */
+	public byte[] encode(TypeElement type) {
+		if (type.getKind() == ElementKind.ENUM || hasRepeatedAnnotations(type)) {
+			// Class file flags of enums depend on constant bodies, and repeated
+			// annotations are stored in their container: leave those to ASM
+			return null;
+		}
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+			DataOutputStream out = new DataOutputStream(bytes);
+			writeClass(out, type);
+			out.flush();
+			return bytes.toByteArray();
+		}
+		catch (IllegalArgumentException | IOException ex) {
+			return null;
+		}
+	}
+
+	private void writeClass(DataOutputStream out, TypeElement type) throws IOException {
+		out.writeInt(getClassAccess(type));
+		out.writeUTF(getInternalName(type));
+		TypeMirror superclass = type.getSuperclass();
+		out.writeUTF(superclass.getKind() == TypeKind.DECLARED ?
+				getInternalName((TypeElement) this.types.asElement(superclass)) : "");
+		List<String> interfaces = new ArrayList<>();
+		for (TypeMirror ifc : type.getInterfaces()) {
+			interfaces.add(getInternalName(asTypeElement(ifc)));
+		}
+		if (type.getKind() == ElementKind.ANNOTATION_TYPE && interfaces.isEmpty()) {
+			interfaces.add("java/lang/annotation/Annotation");
+		}
+		writeStrings(out, interfaces);
+		Element enclosing = type.getEnclosingElement();
+		if (enclosing instanceof TypeElement) {
+			out.writeUTF(getInternalName((TypeElement) enclosing));
+			out.writeInt(isStatic(type) ? ACC_STATIC : 0);
+		}
+		else {
+			out.writeUTF("");
+			out.writeInt(0);
+		}
+		List<String> memberClasses = new ArrayList<>();
+		for (Element member : type.getEnclosedElements()) {
+			if (member instanceof TypeElement) {
+				memberClasses.add(getInternalName((TypeElement) member));
+			}
+		}
+		writeStrings(out, memberClasses);
+		writeAnnotations(out, type.getAnnotationMirrors());
+		List<ExecutableElement> methods = new ArrayList<>();
+		for (Element member : type.getEnclosedElements()) {
+			if ((member.getKind() == ElementKind.METHOD || member.getKind() == ElementKind.CONSTRUCTOR) &&
+					!getRetainedAnnotations(member.getAnnotationMirrors()).isEmpty()) {
+				methods.add((ExecutableElement) member);
+			}
+		}
+		out.writeInt(methods.size());
+		for (ExecutableElement method : methods) {
+			out.writeInt(getMethodAccess(type, method));
+			out.writeUTF(method.getKind() == ElementKind.CONSTRUCTOR ? "<init>" : method.getSimpleName().toString());
+			out.writeUTF(getMethodDescriptor(method));
+			writeAnnotations(out, method.getAnnotationMirrors());
+		}
+	}
+
+	private void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+		out.writeInt(values.size());
+		for (String value : values) {
+			out.writeUTF(value);
+		}
+	}
+
+	private void writeAnnotations(DataOutputStream out, List<? extends AnnotationMirror> annotations)
+			throws IOException {
+
+		List<AnnotationMirror> retained = getRetainedAnnotations(annotations);
+		out.writeInt(retained.size());
+		for (AnnotationMirror annotation : retained) {
+			writeAnnotation(out, annotation);
+		}
+	}
+
+	private void writeAnnotation(DataOutputStream out, AnnotationMirror annotation) throws IOException {
+		out.writeUTF(getDescriptor(annotation.getAnnotationType()));
+		Map<? extends ExecutableElement, ? extends AnnotationValue> values = annotation.getElementValues();
+		out.writeInt(values.size());
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+			out.writeUTF(entry.getKey().getSimpleName().toString());
+			writeValue(out, entry.getKey().getReturnType(), entry.getValue().getValue());
+		}
+	}
+
+	private void writeValue(DataOutputStream out, TypeMirror type, Object value) throws IOException {
+		if (type.getKind() == TypeKind.ARRAY) {
+			TypeMirror componentType = ((ArrayType) type).getComponentType();
+			List<?> elements = (value instanceof List ? (List<?>) value : Collections.singletonList(value));
+			out.writeByte('[');
+			out.writeByte(getTag(componentType));
+			out.writeInt(elements.size());
+			for (Object element : elements) {
+				writeElement(out, componentType,
+						(element instanceof AnnotationValue ? ((AnnotationValue) element).getValue() : element));
+			}
+		}
+		else {
+			out.writeByte(getTag(type));
+			writeElement(out, type, value);
+		}
+	}
+
+	private void writeElement(DataOutputStream out, TypeMirror type, Object value) throws IOException {
+		switch (getTag(type)) {
+			case 'B':
+				out.writeByte((Byte) value);
+				break;
+			case 'C':
+				out.writeChar((Character) value);
+				break;
+			case 'D':
+				out.writeDouble((Double) value);
+				break;
+			case 'F':
+				out.writeFloat((Float) value);
+				break;
+			case 'I':
+				out.writeInt((Integer) value);
+				break;
+			case 'J':
+				out.writeLong((Long) value);
+				break;
+			case 'S':
+				out.writeShort((Short) value);
+				break;
+			case 'Z':
+				out.writeBoolean((Boolean) value);
+				break;
+			case 's':
+				out.writeUTF((String) value);
+				break;
+			case 'c':
+				out.writeUTF(getDescriptor((TypeMirror) value));
+				break;
+			case 'e':
+				VariableElement constant = (VariableElement) value;
+				out.writeUTF(getDescriptor(constant.getEnclosingElement().asType()));
+				out.writeUTF(constant.getSimpleName().toString());
+				break;
+			default:
+				writeAnnotation(out, (AnnotationMirror) value);
+		}
+	}
+
+	private char getTag(TypeMirror type) {
+		switch (type.getKind()) {
+			case BYTE:
+				return 'B';
+			case CHAR:
+				return 'C';
+			case DOUBLE:
+				return 'D';
+			case FLOAT:
+				return 'F';
+			case INT:
+				return 'I';
+			case LONG:
+				return 'J';
+			case SHORT:
+				return 'S';
+			case BOOLEAN:
+				return 'Z';
+			case DECLARED:
+				TypeElement element = asTypeElement(type);
+				if (element.getKind() == ElementKind.ENUM) {
+					return 'e';
+				}
+				if (element.getKind() == ElementKind.ANNOTATION_TYPE) {
+					return '@';
+				}
+				String name = element.getQualifiedName().toString();
+				if (String.class.getName().equals(name)) {
+					return 's';
+				}
+				if (Class.class.getName().equals(name)) {
+					return 'c';
+				}
+				throw new IllegalArgumentException("Unsupported attribute type: " + type);
+			default:
+				throw new IllegalArgumentException("Unsupported attribute type: " + type);
+		}
+	}
+
+	private List<AnnotationMirror> getRetainedAnnotations(List<? extends AnnotationMirror> annotations) {
+		List<AnnotationMirror> retained = new ArrayList<>(annotations.size());
+		for (AnnotationMirror annotation : annotations) {
+			Retention retention = annotation.getAnnotationType().asElement().getAnnotation(Retention.class);
+			if (retention == null || retention.value() != RetentionPolicy.SOURCE) {
+				retained.add(annotation);
+			}
+		}
+		return retained;
+	}
+
+	private boolean hasRepeatedAnnotations(TypeElement type) {
+		if (hasRepeatedAnnotations(type.getAnnotationMirrors())) {
+			return true;
+		}
+		for (Element member : type.getEnclosedElements()) {
+			if (hasRepeatedAnnotations(member.getAnnotationMirrors())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean hasRepeatedAnnotations(List<? extends AnnotationMirror> annotations) {
+		Set<String> annotationTypes = new HashSet<>();
+		for (AnnotationMirror annotation : annotations) {
+			if (!annotationTypes.add(annotation.getAnnotationType().toString())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int getClassAccess(TypeElement type) {
+		Set<Modifier> modifiers = type.getModifiers();
+		int access = (modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.PROTECTED) ? ACC_PUBLIC : 0);
+		if (type.getKind() == ElementKind.INTERFACE) {
+			return access | ACC_INTERFACE | ACC_ABSTRACT;
+		}
+		if (type.getKind() == ElementKind.ANNOTATION_TYPE) {
+			return access | ACC_INTERFACE | ACC_ABSTRACT | ACC_ANNOTATION;
+		}
+		access |= ACC_SUPER;
+		if (modifiers.contains(Modifier.ABSTRACT)) {
+			access |= ACC_ABSTRACT;
+		}
+		if (modifiers.contains(Modifier.FINAL)) {
+			access |= ACC_FINAL;
+		}
+		return access;
+	}
+
+	private boolean isStatic(TypeElement type) {
+		return (type.getModifiers().contains(Modifier.STATIC) || type.getKind() != ElementKind.CLASS ||
+				type.getEnclosingElement().getKind().isInterface());
+	}
+
+	private int getMethodAccess(TypeElement type, ExecutableElement method) {
+		Set<Modifier> modifiers = method.getModifiers();
+		int access = 0;
+		if (modifiers.contains(Modifier.PUBLIC)) {
+			access |= ACC_PUBLIC;
+		}
+		if (modifiers.contains(Modifier.PRIVATE)) {
+			access |= ACC_PRIVATE;
+		}
+		if (modifiers.contains(Modifier.PROTECTED)) {
+			access |= ACC_PROTECTED;
+		}
+		if (modifiers.contains(Modifier.STATIC)) {
+			access |= ACC_STATIC;
+		}
+		if (modifiers.contains(Modifier.FINAL)) {
+			access |= ACC_FINAL;
+		}
+		if (modifiers.contains(Modifier.SYNCHRONIZED)) {
+			access |= ACC_SYNCHRONIZED;
+		}
+		if (modifiers.contains(Modifier.NATIVE)) {
+			access |= ACC_NATIVE;
+		}
+		if (modifiers.contains(Modifier.ABSTRACT)) {
+			access |= ACC_ABSTRACT;
+		}
+		if (method.isVarArgs()) {
+			access |= ACC_VARARGS;
+		}
+		if (type.getKind().isInterface() && !modifiers.contains(Modifier.PRIVATE)) {
+			access |= ACC_PUBLIC;
+			if (!modifiers.contains(Modifier.DEFAULT) && !modifiers.contains(Modifier.STATIC)) {
+				access |= ACC_ABSTRACT;
+			}
+		}
+		return access;
+	}
+
+	private String getMethodDescriptor(ExecutableElement method) {
+		StringBuilder descriptor = new StringBuilder("(");
+		for (VariableElement parameter : method.getParameters()) {
+			descriptor.append(getDescriptor(parameter.asType()));
+		}
+		return descriptor.append(')').append(getDescriptor(method.getReturnType())).toString();
+	}
+
+	private String getDescriptor(TypeMirror type) {
+		switch (type.getKind()) {
+			case BYTE:
+				return "B";
+			case CHAR:
+				return "C";
+			case DOUBLE:
+				return "D";
+			case FLOAT:
+				return "F";
+			case INT:
+				return "I";
+			case LONG:
+				return "J";
+			case SHORT:
+				return "S";
+			case BOOLEAN:
+				return "Z";
+			case VOID:
+				return "V";
+			case ARRAY:
+				return "[" + getDescriptor(((ArrayType) type).getComponentType());
+			case DECLARED:
+				return "L" + getInternalName(asTypeElement(type)) + ";";
+			case TYPEVAR:
+				return getDescriptor(this.types.erasure(type));
+			default:
+				throw new IllegalArgumentException("Unsupported type: " + type);
+		}
+	}
+
+	private String getInternalName(TypeElement type) {
+		return getBinaryName(type).replace('.', '/');
+	}
+
+	private TypeElement asTypeElement(TypeMirror type) {
+		if (type.getKind() != TypeKind.DECLARED) {
+			throw new IllegalArgumentException("Unsupported type: " + type);
+		}
+		return (TypeElement) ((DeclaredType) type).asElement();
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.context.index;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Store the binary class metadata index on the filesystem.
+ *
+ * <p>The index starts with a magic number, a format version and the number
+ * of entries. Each entry consists of the binary class name and the metadata
+ * produced by {@link ClassMetadataEncoder}, prefixed with its length.
+ *
+ * @author agent
+ * @since 5.0.17
+ */
+class ClassMetadataStore {
+
+	static final String METADATA_PATH = "META-INF/spring.metadata";
+
+	static final int MAGIC = 0x53504d49;
+
+	static final int VERSION = 1;
+
+	private final ProcessingEnvironment environment;
+
+
+	public ClassMetadataStore(ProcessingEnvironment environment) {
+		this.environment = environment;
+	}
+
+
+	/**
+	 * Read the entries of a previous build, keyed by binary class name.
+	 * @return the previous entries, or {@code null} if none could be read
+	 */
+	public Map<String, byte[]> readMetadata() {
+		try {
+			return readMetadata(getMetadataResource().openInputStream());
+		}
+		catch (IOException ex) {
+			// Failed to read metadata -> ignore.
+			return null;
+		}
+	}
+
+	public void writeMetadata(Map<String, byte[]> entries) throws IOException {
+		if (!entries.isEmpty()) {
+			try (OutputStream outputStream = createMetadataResource().openOutputStream()) {
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(entries.size());
+				for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+					out.writeUTF(entry.getKey());
+					out.writeInt(entry.getValue().length);
+					out.write(entry.getValue());
+				}
+				out.flush();
+			}
+		}
+	}
+
+
+	private Map<String, byte[]> readMetadata(InputStream is) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(is))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				return null;
+			}
+			int count = in.readInt();
+			Map<String, byte[]> entries = new LinkedHashMap<>(count);
+			for (int i = 0; i < count; i++) {
+				String className = in.readUTF();
+				byte[] metadata = new byte[in.readInt()];
+				in.readFully(metadata);
+				entries.put(className, metadata);
+			}
+			return entries;
+		}
+	}
+
+	private FileObject getMetadataResource() throws IOException {
+		return this.environment.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", METADATA_PATH);
+	}
+
+	private FileObject createMetadataResource() throws IOException {
+		return this.environment.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", METADATA_PATH);
+	}
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.context.index;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.index.sample.SampleComponent;
+import org.springframework.context.index.sample.metadata.SampleMetadataAnnotation;
+import org.springframework.context.index.sample.metadata.SampleMetadataConfiguration;
+import org.springframework.context.index.test.TestCompiler;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.ClassMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
+import org.springframework.util.ObjectUtils;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the class metadata index written by {@link CandidateComponentsIndexer}
+ * and read through {@link SimpleMetadataReaderFactory}.
+ *
+ * @author agent
+ */
+public class ClassMetadataIndexTests {
+
+	private static final List<String> INDEX_OPTIONS =
+			Collections.singletonList("-A" + CandidateComponentsIndexer.METADATA_INDEX_OPTION + "=true");
+
+	private static final List<Class<?>> METHOD_ANNOTATION_TYPES = Arrays.asList(
+			Bean.class, Autowired.class, Deprecated.class, SampleMetadataAnnotation.class);
+
+	private TestCompiler compiler;
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+	@Before
+	public void createCompiler() throws IOException {
+		this.compiler = new TestCompiler(this.temporaryFolder);
+	}
+
+
+	@Test
+	public void indexIsNotWrittenByDefault() {
+		this.compiler.getTask(SampleMetadataConfiguration.class).call(new CandidateComponentsIndexer());
+		assertFalse(getIndexFile().exists());
+	}
+
+	@Test
+	public void indexedMetadataMatchesClassFiles() throws IOException {
+		this.compiler.getTask(INDEX_OPTIONS, SampleMetadataConfiguration.class).call(new CandidateComponentsIndexer());
+		assertThat(readIndexedClassNames(), containsInAnyOrder(
+				SampleMetadataConfiguration.class.getName(),
+				SampleMetadataConfiguration.NestedConfiguration.class.getName(),
+				SampleMetadataConfiguration.InnerClass.class.getName(),
+				SampleMetadataConfiguration.MemberInterface.class.getName(),
+				SampleMetadataConfiguration.class.getName() + "$AbstractMember",
+				SampleMetadataConfiguration.class.getName() + "$FinalMember"));
+
+		MetadataReaderFactory indexedReaderFactory = createIndexedReaderFactory();
+		MetadataReaderFactory classFileReaderFactory = new SimpleMetadataReaderFactory(getClass().getClassLoader());
+		for (File classFile : getClassFiles(SampleMetadataConfiguration.class)) {
+			FileSystemResource resource = new FileSystemResource(classFile);
+			assertSameMetadata(classFileReaderFactory.getMetadataReader(resource),
+					indexedReaderFactory.getMetadataReader(resource));
+		}
+	}
+
+	@Test
+	public void indexedMetadataDoesNotRequireClassFile() throws IOException {
+		this.compiler.getTask(INDEX_OPTIONS, SampleMetadataConfiguration.class).call(new CandidateComponentsIndexer());
+		File classFile = new File(this.compiler.getOutputLocation(),
+				SampleMetadataConfiguration.class.getName().replace('.', '/') + ".class");
+		assertTrue(classFile.delete());
+
+		MetadataReader reader = createIndexedReaderFactory().getMetadataReader(new FileSystemResource(classFile));
+		AnnotationMetadata metadata = reader.getAnnotationMetadata();
+		assertEquals(SampleMetadataConfiguration.class.getName(), metadata.getClassName());
+		assertTrue(metadata.isAnnotated("org.springframework.stereotype.Component"));
+		assertEquals(3, metadata.getAnnotatedMethods(Bean.class.getName()).size());
+		assertThat(metadata.getMemberClassNames(), hasItemInArray(
+				SampleMetadataConfiguration.class.getName() + "$MemberEnum"));
+	}
+
+	@Test
+	public void incrementalBuildKeepsPreviousEntries() throws IOException {
+		this.compiler.getTask(INDEX_OPTIONS, SampleMetadataConfiguration.class).call(new CandidateComponentsIndexer());
+		this.compiler.getTask(INDEX_OPTIONS, SampleComponent.class).call(new CandidateComponentsIndexer());
+		assertThat(readIndexedClassNames(), hasItems(
+				SampleMetadataConfiguration.class.getName(), SampleComponent.class.getName()));
+	}
+
+
+	private MetadataReaderFactory createIndexedReaderFactory() throws IOException {
+		URL[] urls = new URL[] {this.compiler.getOutputLocation().toURI().toURL()};
+		return new SimpleMetadataReaderFactory(new URLClassLoader(urls, getClass().getClassLoader()));
+	}
+
+	private File getIndexFile() {
+		return new File(this.compiler.getOutputLocation(), ClassMetadataStore.METADATA_PATH);
+	}
+
+	private List<String> readIndexedClassNames() throws IOException {
+		try (DataInputStream in = new DataInputStream(new FileInputStream(getIndexFile()))) {
+			assertEquals(ClassMetadataStore.MAGIC, in.readInt());
+			assertEquals(ClassMetadataStore.VERSION, in.readInt());
+			int count = in.readInt();
+			List<String> classNames = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				classNames.add(in.readUTF());
+				in.skipBytes(in.readInt());
+			}
+			return classNames;
+		}
+	}
+
+	private List<File> getClassFiles(Class<?> type) {
+		File directory = new File(this.compiler.getOutputLocation(), type.getPackage().getName().replace('.', '/'));
+		File[] files = directory.listFiles((dir, name) -> name.startsWith(type.getSimpleName()));
+		assertNotNull(files);
+		return Arrays.asList(files);
+	}
+
+	private void assertSameMetadata(MetadataReader expected, MetadataReader actual) {
+		ClassMetadata expectedClass = expected.getClassMetadata();
+		ClassMetadata actualClass = actual.getClassMetadata();
+		String className = expectedClass.getClassName();
+		assertEquals(className, actualClass.getClassName());
+		assertEquals(className, expectedClass.getSuperClassName(), actualClass.getSuperClassName());
+		assertArrayEquals(className, expectedClass.getInterfaceNames(), actualClass.getInterfaceNames());
+		assertEquals(className, expectedClass.isInterface(), actualClass.isInterface());
+		assertEquals(className, expectedClass.isAnnotation(), actualClass.isAnnotation());
+		assertEquals(className, expectedClass.isAbstract(), actualClass.isAbstract());
+		assertEquals(className, expectedClass.isFinal(), actualClass.isFinal());
+		assertEquals(className, expectedClass.isIndependent(), actualClass.isIndependent());
+		assertEquals(className, expectedClass.getEnclosingClassName(), actualClass.getEnclosingClassName());
+		assertEquals(className, new HashSet<>(Arrays.asList(expectedClass.getMemberClassNames())),
+				new HashSet<>(Arrays.asList(actualClass.getMemberClassNames())));
+
+		AnnotationMetadata expectedAnnotations = expected.getAnnotationMetadata();
+		AnnotationMetadata actualAnnotations = actual.getAnnotationMetadata();
+		assertEquals(className, expectedAnnotations.getAnnotationTypes(), actualAnnotations.getAnnotationTypes());
+		for (String annotationType : expectedAnnotations.getAnnotationTypes()) {
+			assertEquals(className, expectedAnnotations.getMetaAnnotationTypes(annotationType),
+					actualAnnotations.getMetaAnnotationTypes(annotationType));
+			assertEquals(className, describe(expectedAnnotations.getAnnotationAttributes(annotationType, true)),
+					describe(actualAnnotations.getAnnotationAttributes(annotationType, true)));
+		}
+		for (Class<?> annotationType : METHOD_ANNOTATION_TYPES) {
+			assertEquals(className, describeMethods(expectedAnnotations, annotationType.getName()),
+					describeMethods(actualAnnotations, annotationType.getName()));
+		}
+	}
+
+	private static List<String> describeMethods(AnnotationMetadata metadata, String annotationType) {
+		return metadata.getAnnotatedMethods(annotationType).stream()
+				.map(method -> describe(method) + describe(method.getAnnotationAttributes(annotationType, true)))
+				.collect(Collectors.toList());
+	}
+
+	private static String describe(MethodMetadata method) {
+		return method.getDeclaringClassName() + "." + method.getMethodName() + ":" + method.getReturnTypeName() +
+				" abstract=" + method.isAbstract() + " static=" + method.isStatic() + " final=" + method.isFinal() +
+				" overridable=" + method.isOverridable();
+	}
+
+	private static String describe(Map<String, Object> attributes) {
+		if (attributes == null) {
+			return "null";
+		}
+		return attributes.entrySet().stream().map(entry -> entry.getKey() + "=" + describe(entry.getValue()))
+				.collect(Collectors.joining(", ", "{", "}"));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static String describe(Object value) {
+		if (value instanceof Map) {
+			return describe((Map<String, Object>) value);
+		}
+		if (value instanceof Object[]) {
+			return Arrays.stream((Object[]) value).map(ClassMetadataIndexTests::describe)
+					.collect(Collectors.joining(", ", "[", "]"));
+		}
+		return ObjectUtils.nullSafeToString(value);
+	}
+
+}
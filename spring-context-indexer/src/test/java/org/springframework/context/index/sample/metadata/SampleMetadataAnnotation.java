@@ -0,0 +1,65 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.context.index.sample.metadata;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sample annotation with class file retention, covering all attribute types.
+ *
+ * @author agent
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Documented
+public @interface SampleMetadataAnnotation {
+
+	byte byteValue() default 0;
+
+	char charValue() default 'a';
+
+	double doubleValue() default 0;
+
+	float floatValue() default 0;
+
+	int intValue() default 0;
+
+	long longValue() default 0;
+
+	short shortValue() default 0;
+
+	boolean booleanValue() default false;
+
+	int[] intValues() default {};
+
+	boolean[] booleanValues() default {};
+
+	String[] names() default {};
+
+	Class<?>[] types() default {};
+
+	ElementType[] elementTypes() default {};
+
+	Retention retention() default @Retention(RetentionPolicy.CLASS);
+
+	Target[] targets() default {};
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.context.index.sample.metadata;
+
+import java.io.Serializable;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.annotation.ScopedProxyMode;
+import org.springframework.context.index.sample.SampleComponent;
+import org.springframework.context.index.sample.SampleService;
+
+/**
+ * Test candidate for the class metadata index, covering nested types,
+ * annotated methods and all kinds of annotation attribute values.
+ *
+ * @author agent
+ */
+@Configuration
+@ComponentScan(basePackageClasses = SampleComponent.class, lazyInit = true,
+		excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = SampleService.class))
+@SampleMetadataAnnotation(byteValue = 1, charValue = 'x', doubleValue = 1.5, floatValue = 2.5f, intValue = 3,
+		longValue = 4L, shortValue = 5, booleanValue = true, intValues = {1, 2}, booleanValues = {},
+		names = "single", types = {String.class, int[].class, void.class},
+		elementTypes = {ElementType.TYPE, ElementType.METHOD}, retention = @Retention(RetentionPolicy.RUNTIME),
+		targets = {@Target(ElementType.FIELD), @Target({})})
+@SuppressWarnings("serial")
+public class SampleMetadataConfiguration implements Serializable {
+
+	@Deprecated
+	public SampleMetadataConfiguration() {
+	}
+
+	@Bean(name = {"first", "alias"}, initMethod = "toString")
+	@Lazy
+	@Scope(proxyMode = ScopedProxyMode.TARGET_CLASS)
+	public SampleComponent sampleComponent() {
+		return new SampleComponent();
+	}
+
+	@Bean
+	@SuppressWarnings("unchecked")
+	static <T extends Number> T number() {
+		return (T) Integer.valueOf(1);
+	}
+
+	@Bean
+	@SampleMetadataAnnotation(intValues = 1)
+	protected final String[] names(int count) {
+		return new String[count];
+	}
+
+	public String notAnnotated() {
+		return "";
+	}
+
+
+	@Configuration
+	public static class NestedConfiguration {
+
+		@Bean
+		public Object nested() {
+			return new Object();
+		}
+	}
+
+
+	public class InnerClass {
+
+		@Autowired
+		public void setName(String name) {
+		}
+	}
+
+
+	public interface MemberInterface {
+
+		@SampleMetadataAnnotation
+		void abstractMethod();
+
+		@SampleMetadataAnnotation
+		default void defaultMethod() {
+		}
+	}
+
+
+	abstract static class AbstractMember {
+	}
+
+
+	static final class FinalMember {
+	}
+
+
+	enum MemberEnum {
+
+		VALUE
+	}
+
+}
@@ -16,6 +16,8 @@
 
 package org.springframework.context;
 
+import java.util.Collection;
+
 /**
  * Interface that encapsulates event publication functionality.
  * Serves as super-interface for {@link ApplicationContext}.
@@ -53,4 +55,22 @@ public interface ApplicationEventPublisher {
 	 */
 	void publishEvent(Object event);
 
+	/**
+	 * Notify all <strong>matching</strong> listeners registered with this
+	 * application of the given events, in order.
+	 * <p>Events that are not {@link ApplicationEvent ApplicationEvents} are
+	 * wrapped in {@link PayloadApplicationEvent PayloadApplicationEvents}.
+	 * The default implementation publishes each event individually;
+	 * an application context resolves the listeners for consecutive
+	 * events of the same type only once.
+	 * @param events the events to publish
+	 * @since 5.0.17
+	 * @see #publishEvent(Object)
+	 */
+	default void publishEvents(Collection<?> events) {
+		for (Object event : events) {
+			publishEvent(event);
+		}
+	}
+
 }
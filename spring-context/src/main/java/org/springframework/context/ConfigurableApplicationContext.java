@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,7 @@ import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.Environment;
 import org.springframework.core.io.ProtocolResolver;
+import org.springframework.core.metrics.ApplicationStartup;
 import org.springframework.lang.Nullable;
 
 /**
@@ -86,6 +87,22 @@ public interface ConfigurableApplicationContext extends ApplicationContext, Life
 	 */
 	String SYSTEM_ENVIRONMENT_BEAN_NAME = "systemEnvironment";
 
+	/**
+	 * Name of the {@link ApplicationStartup} bean in the factory.
+	 * @since 5.0.17
+	 */
+	String APPLICATION_STARTUP_BEAN_NAME = "applicationStartup";
+
+	/**
+	 * Name of the {@link java.util.concurrent.Executor} bean in the factory
+	 * for initializing singletons in the background. If none is supplied,
+	 * all non-lazy singletons get initialized during {@link #refresh()}.
+	 * @since 5.0.17
+	 * @see org.springframework.beans.factory.config.ConfigurableBeanFactory#setBootstrapExecutor
+	 * @see org.springframework.context.annotation.Bean#bootstrap()
+	 */
+	String BOOTSTRAP_EXECUTOR_BEAN_NAME = "bootstrapExecutor";
+
 
 	/**
 	 * Set the unique id of this application context.
@@ -118,6 +135,22 @@ public interface ConfigurableApplicationContext extends ApplicationContext, Life
 	@Override
 	ConfigurableEnvironment getEnvironment();
 
+	/**
+	 * Set the {@link ApplicationStartup} for this application context.
+	 * <p>This allows the application context to record metrics
+	 * during startup, e.g. for its refresh phases and for the creation
+	 * of individual beans. Needs to be set before {@link #refresh()}.
+	 * @param applicationStartup the new application startup
+	 * @since 5.0.17
+	 */
+	void setApplicationStartup(ApplicationStartup applicationStartup);
+
+	/**
+	 * Return the {@link ApplicationStartup} for this application context.
+	 * @since 5.0.17
+	 */
+	ApplicationStartup getApplicationStartup();
+
 	/**
 	 * Add a new BeanFactoryPostProcessor that will get applied to the internal
 	 * bean factory of this application context on refresh, before any of the
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,14 +16,20 @@
 
 package org.springframework.context.annotation;
 
+import org.springframework.beans.factory.BeanDefinitionStoreException;
 import org.springframework.beans.factory.config.BeanDefinitionCustomizer;
 import org.springframework.beans.factory.support.BeanNameGenerator;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
 import java.util.function.Supplier;
 
 
@@ -208,7 +214,10 @@ public class AnnotationConfigApplicationContext extends GenericApplicationContex
 	@Override
 	public void register(Class<?>... annotatedClasses) {
 		Assert.notEmpty( annotatedClasses, "At least one annotated class must be specified" );
+		StartupStep registerComponentClass = getApplicationStartup().start( "spring.context.component-classes.register" )
+				.tag( "classes", () -> Arrays.toString( annotatedClasses ) );
 		this.reader.register( annotatedClasses );
+		registerComponentClass.end();
 	}
 
 	/**
@@ -226,6 +235,46 @@ public class AnnotationConfigApplicationContext extends GenericApplicationContex
 		this.scanner.scan( basePackages );
 	}
 
+	/**
+	 * Register the bean definitions from the given {@link BeanDefinitionSnapshot}
+	 * resource, if it exists and is still current for this context's class path
+	 * and active profiles, instead of processing configuration classes again.
+	 * <p>Any call to this method must occur prior to calls to {@link #register(Class...)}
+	 * and/or {@link #scan(String...)}, which are typically only necessary if no
+	 * current snapshot could be loaded.
+	 *
+	 * @param resource the snapshot resource, as written by {@link BeanDefinitionSnapshot#write}
+	 * @return {@code true} if the snapshot has been loaded, or {@code false}
+	 * if it does not exist or is outdated
+	 * @throws BeanDefinitionStoreException if the snapshot cannot be read
+	 * @see BeanDefinitionSnapshot#capture(org.springframework.context.ConfigurableApplicationContext)
+	 * @since 5.0.17
+	 */
+	public boolean loadBeanDefinitionSnapshot(Resource resource) {
+		if (!resource.exists()) {
+			return false;
+		}
+		BeanDefinitionSnapshot snapshot;
+		try (InputStream is = resource.getInputStream()) {
+			snapshot = BeanDefinitionSnapshot.read( is );
+		}
+		catch (IOException ex) {
+			throw new BeanDefinitionStoreException( "Failed to read bean definition snapshot from " + resource, ex );
+		}
+		ClassLoader beanClassLoader = getDefaultListableBeanFactory().getBeanClassLoader();
+		if (!snapshot.isCurrent( beanClassLoader, getEnvironment() )) {
+			if (logger.isInfoEnabled()) {
+				logger.info( "Ignoring outdated bean definition snapshot " + resource );
+			}
+			return false;
+		}
+		int count = snapshot.registerBeanDefinitions( getDefaultListableBeanFactory(), beanClassLoader );
+		if (logger.isDebugEnabled()) {
+			logger.debug( "Loaded " + count + " bean definitions from snapshot " + resource );
+		}
+		return true;
+	}
+
 
 	//---------------------------------------------------------------------
 	// Convenient methods for registering individual beans
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -286,4 +286,43 @@ public @interface Bean {
 	 */
 	String destroyMethod() default AbstractBeanDefinition.INFER_METHOD;
 
+	/**
+	 * The bootstrap mode for this bean: initialized on startup by default,
+	 * or in the background for singletons that are not needed right away.
+	 * <p>Background initialization requires a
+	 * {@link org.springframework.context.ConfigurableApplicationContext#BOOTSTRAP_EXECUTOR_BEAN_NAME
+	 * "bootstrapExecutor"} bean to be defined; without it, the bean is
+	 * initialized on startup like any other non-lazy singleton. The context
+	 * refresh then completes once all regular singletons are ready, while the
+	 * background singletons are created on the bootstrap executor, unless a
+	 * regular singleton needs one of them right away. To avoid that, declare
+	 * the corresponding injection point with {@link Lazy @Lazy}, resolving the
+	 * target bean on first access only.
+	 * @since 5.0.17
+	 * @see Bootstrap#BACKGROUND
+	 */
+	Bootstrap bootstrap() default Bootstrap.DEFAULT;
+
+
+	/**
+	 * Local enumeration for the bootstrap mode of a bean.
+	 * @since 5.0.17
+	 * @see #bootstrap()
+	 */
+	enum Bootstrap {
+
+		/**
+		 * Initialize the bean on startup, as part of the context refresh
+		 * (unless the bean is lazy).
+		 */
+		DEFAULT,
+
+		/**
+		 * Initialize the bean on the bootstrap executor after the context
+		 * refresh, if a bootstrap executor is available.
+		 * @see org.springframework.beans.factory.support.AbstractBeanDefinition#setBackgroundInit
+		 */
+		BACKGROUND
+	}
+
 }
@@ -0,0 +1,1133 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.CannotLoadBeanClassException;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.AutowireCandidateQualifier;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.beans.factory.support.ManagedArray;
+import org.springframework.beans.factory.support.ManagedList;
+import org.springframework.beans.factory.support.ManagedMap;
+import org.springframework.beans.factory.support.ManagedProperties;
+import org.springframework.beans.factory.support.ManagedSet;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ConfigurationClassEnhancer.EnhancedConfiguration;
+import org.springframework.core.Conventions;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.core.type.StandardAnnotationMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Snapshot of the bean definitions of an application context as they stand
+ * once all {@link Configuration @Configuration} classes have been processed,
+ * i.e. after component scanning, {@link Conditional @Conditional} evaluation
+ * and {@link Bean @Bean} method registration, but before any regular
+ * {@link org.springframework.beans.factory.config.BeanFactoryPostProcessor}
+ * such as a placeholder configurer has modified them.
+ *
+ * <p>A snapshot is meant to be {@link #capture(ConfigurableApplicationContext)
+ * captured} and {@link #write written} at build time, and to be registered
+ * with a {@link BeanDefinitionRegistry} at startup instead of parsing the
+ * configuration again, for example through
+ * {@link AnnotationConfigApplicationContext#loadBeanDefinitionSnapshot}:
+ *
+ * <pre class="code">
+ * AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+ * if (!context.loadBeanDefinitionSnapshot(new ClassPathResource("META-INF/spring-beans.snapshot"))) {
+ *     context.register(AppConfig.class);
+ * }
+ * context.refresh();
+ * </pre>
+ *
+ * <p>Each snapshot carries a {@link #fingerprint fingerprint} of the class
+ * path and of the active profiles it was captured with, and should only be
+ * registered as long as the fingerprint matches. Conditions evaluated against
+ * other parts of the {@code Environment}, e.g. properties, are not reflected
+ * in the fingerprint and remain as captured.
+ *
+ * <p>Restored definitions are regular {@link RootBeanDefinition RootBeanDefinitions}
+ * (or {@link GenericBeanDefinition GenericBeanDefinitions} for child definitions)
+ * with their bean classes resolved; they do not expose
+ * {@link AnnotatedBeanDefinition annotation metadata}. Bean definitions with
+ * an instance supplier, method overrides, or property values, constructor
+ * arguments or attributes of types other than the common bean metadata
+ * elements (strings, primitive wrappers, classes, enums, references, inner
+ * bean definitions and managed collections) cannot be captured.
+ *
+ * @author agent
+ * @since 5.0.17
+ * @see AnnotationConfigApplicationContext#loadBeanDefinitionSnapshot
+ */
+public final class BeanDefinitionSnapshot {
+
+	/**
+	 * Marker attribute for bean definitions restored from a snapshot, which
+	 * are not subject to configuration class processing any further.
+	 */
+	static final String RESTORED_ATTRIBUTE =
+			Conventions.getQualifiedAttributeName(BeanDefinitionSnapshot.class, "restored");
+
+	private static final int MAGIC = 0x53424453;
+
+	private static final int VERSION = 1;
+
+
+	private final String fingerprint;
+
+	private final byte[] content;
+
+
+	private BeanDefinitionSnapshot(String fingerprint, byte[] content) {
+		this.fingerprint = fingerprint;
+		this.content = content;
+	}
+
+
+	/**
+	 * Return the fingerprint of the environment the snapshot was captured in.
+	 * @see #fingerprint(ClassLoader, Environment)
+	 */
+	public String getFingerprint() {
+		return this.fingerprint;
+	}
+
+	/**
+	 * Check whether this snapshot was captured in an environment with the
+	 * given class path and active profiles.
+	 * @param classLoader the bean class loader to check
+	 * @param environment the environment to check
+	 * @see #fingerprint(ClassLoader, Environment)
+	 */
+	public boolean isCurrent(@Nullable ClassLoader classLoader, Environment environment) {
+		return this.fingerprint.equals(fingerprint(classLoader, environment));
+	}
+
+	/**
+	 * Register the bean definitions and aliases of this snapshot with the
+	 * given registry, resolving bean classes against the given class loader.
+	 * <p>Bean definitions already registered under the same name take
+	 * precedence over the ones in the snapshot.
+	 * @param registry the registry to register the bean definitions with,
+	 * e.g. a {@link org.springframework.context.support.GenericApplicationContext}
+	 * @param classLoader the class loader to resolve bean classes with,
+	 * or {@code null} to keep bean class names unresolved
+	 * @return the number of bean definitions registered
+	 */
+	public int registerBeanDefinitions(BeanDefinitionRegistry registry, @Nullable ClassLoader classLoader) {
+		SnapshotReader reader = new SnapshotReader(this.content, classLoader);
+		Map<String, BeanDefinitionHolder> holders = new LinkedHashMap<>();
+		Map<String, String> importingClasses = new HashMap<>();
+		try {
+			int count = reader.readInt();
+			for (int i = 0; i < count; i++) {
+				BeanDefinitionHolder holder = reader.readBeanDefinitionHolder();
+				holders.put(holder.getBeanName(), holder);
+			}
+			count = reader.readInt();
+			for (int i = 0; i < count; i++) {
+				importingClasses.put(reader.readString(), reader.readString());
+			}
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Corrupt bean definition snapshot", ex);
+		}
+
+		// Resolve all bean classes before registering anything
+		for (BeanDefinitionHolder holder : holders.values()) {
+			AbstractBeanDefinition bd = (AbstractBeanDefinition) holder.getBeanDefinition();
+			if (classLoader != null && bd.getBeanClassName() != null) {
+				try {
+					bd.resolveBeanClass(classLoader);
+				}
+				catch (ClassNotFoundException ex) {
+					throw new CannotLoadBeanClassException(bd.getResourceDescription(),
+							holder.getBeanName(), bd.getBeanClassName(), ex);
+				}
+				catch (LinkageError err) {
+					throw new CannotLoadBeanClassException(bd.getResourceDescription(),
+							holder.getBeanName(), bd.getBeanClassName(), err);
+				}
+			}
+			bd.setAttribute(RESTORED_ATTRIBUTE, Boolean.TRUE);
+		}
+
+		int registered = 0;
+		for (BeanDefinitionHolder holder : holders.values()) {
+			String beanName = holder.getBeanName();
+			if (!registry.containsBeanDefinition(beanName)) {
+				registry.registerBeanDefinition(beanName, holder.getBeanDefinition());
+				registered++;
+			}
+			for (String alias : holder.getAliases()) {
+				if (!registry.isAlias(alias) && !registry.containsBeanDefinition(alias)) {
+					registry.registerAlias(beanName, alias);
+				}
+			}
+		}
+
+		SingletonBeanRegistry sbr = getSingletonBeanRegistry(registry);
+		if (sbr != null && !importingClasses.isEmpty() &&
+				!sbr.containsSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME)) {
+			sbr.registerSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME,
+					new SnapshotImportRegistry(importingClasses, classLoader));
+		}
+		return registered;
+	}
+
+	@Nullable
+	private static SingletonBeanRegistry getSingletonBeanRegistry(BeanDefinitionRegistry registry) {
+		if (registry instanceof SingletonBeanRegistry) {
+			return (SingletonBeanRegistry) registry;
+		}
+		if (registry instanceof ConfigurableApplicationContext) {
+			return ((ConfigurableApplicationContext) registry).getBeanFactory();
+		}
+		return null;
+	}
+
+	/**
+	 * Write this snapshot to the given stream, leaving it open.
+	 * @param out the stream to write to
+	 * @throws IOException in case of I/O errors
+	 */
+	public void write(OutputStream out) throws IOException {
+		DataOutputStream dos = new DataOutputStream(out);
+		dos.writeInt(MAGIC);
+		dos.writeInt(VERSION);
+		dos.writeUTF(this.fingerprint);
+		dos.writeInt(this.content.length);
+		dos.write(this.content);
+		dos.flush();
+	}
+
+
+	/**
+	 * Read a snapshot {@link #write written} before from the given stream,
+	 * leaving it open. Bean definitions are not parsed until they are
+	 * {@link #registerBeanDefinitions registered}.
+	 * @param in the stream to read from
+	 * @return the snapshot
+	 * @throws IOException in case of I/O errors, or if the stream does not
+	 * contain a snapshot in a supported format
+	 */
+	public static BeanDefinitionSnapshot read(InputStream in) throws IOException {
+		DataInputStream dis = new DataInputStream(in);
+		if (dis.readInt() != MAGIC) {
+			throw new IOException("Not a bean definition snapshot");
+		}
+		int version = dis.readInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported bean definition snapshot version " + version);
+		}
+		String fingerprint = dis.readUTF();
+		byte[] content = new byte[dis.readInt()];
+		dis.readFully(content);
+		return new BeanDefinitionSnapshot(fingerprint, content);
+	}
+
+	/**
+	 * Capture a snapshot of the given context's bean definitions by refreshing
+	 * it once, right after its configuration classes have been processed.
+	 * <p>Singletons are not pre-instantiated and the context is closed
+	 * afterwards, but the context's bean factory post-processors and bean
+	 * post-processors are initialized as usual. This is therefore meant to
+	 * be invoked at build time, against a configuration that can be started
+	 * in the build environment.
+	 * @param context the context to capture, not refreshed yet
+	 * @return the snapshot
+	 * @throws IllegalStateException if any bean definition cannot be captured
+	 */
+	public static BeanDefinitionSnapshot capture(ConfigurableApplicationContext context) {
+		Assert.state(!context.isActive(), "ApplicationContext must not be refreshed yet");
+		AtomicReference<BeanDefinitionSnapshot> snapshot = new AtomicReference<>();
+		context.addBeanFactoryPostProcessor(beanFactory -> {
+			snapshot.set(capture(beanFactory, fingerprint(beanFactory.getBeanClassLoader(), context.getEnvironment())));
+			// The bean definitions are all we're after: skip singleton pre-instantiation
+			for (String beanName : beanFactory.getBeanDefinitionNames()) {
+				beanFactory.getBeanDefinition(beanName).setLazyInit(true);
+			}
+		});
+		try {
+			context.refresh();
+		}
+		finally {
+			context.close();
+		}
+		Assert.state(snapshot.get() != null, "Bean definition snapshot not captured");
+		return snapshot.get();
+	}
+
+	/**
+	 * Capture a snapshot of the bean definitions currently registered with
+	 * the given bean factory.
+	 * @param beanFactory the bean factory to capture, with its configuration
+	 * classes processed already
+	 * @param fingerprint the fingerprint to record
+	 * @return the snapshot
+	 * @throws IllegalStateException if any bean definition cannot be captured
+	 * @see #capture(ConfigurableApplicationContext)
+	 */
+	public static BeanDefinitionSnapshot capture(ConfigurableListableBeanFactory beanFactory, String fingerprint) {
+		SnapshotWriter writer = new SnapshotWriter();
+		Set<String> beanClassNames = new LinkedHashSet<>();
+		try {
+			String[] beanNames = beanFactory.getBeanDefinitionNames();
+			writer.writeInt(beanNames.length);
+			for (String beanName : beanNames) {
+				BeanDefinition bd = beanFactory.getBeanDefinition(beanName);
+				String beanClassName = getUserBeanClassName(bd);
+				if (beanClassName != null) {
+					beanClassNames.add(beanClassName);
+				}
+				writer.writeBeanDefinitionHolder(beanName, beanFactory.getAliases(beanName), bd, beanClassName);
+			}
+
+			Map<String, String> importingClasses = new LinkedHashMap<>();
+			if (beanFactory.containsSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME)) {
+				ImportRegistry importRegistry = (ImportRegistry)
+						beanFactory.getSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME);
+				if (importRegistry != null) {
+					for (String beanClassName : beanClassNames) {
+						AnnotationMetadata importingClass = importRegistry.getImportingClassFor(beanClassName);
+						if (importingClass != null) {
+							importingClasses.put(beanClassName, importingClass.getClassName());
+						}
+					}
+				}
+			}
+			writer.writeInt(importingClasses.size());
+			for (Map.Entry<String, String> entry : importingClasses.entrySet()) {
+				writer.writeString(entry.getKey());
+				writer.writeString(entry.getValue());
+			}
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to write bean definition snapshot", ex);
+		}
+		return new BeanDefinitionSnapshot(fingerprint, writer.toByteArray());
+	}
+
+	/**
+	 * Return the bean class name to record for the given top-level bean
+	 * definition, i.e. the user class for an enhanced configuration class.
+	 */
+	@Nullable
+	private static String getUserBeanClassName(BeanDefinition bd) {
+		if (bd instanceof AbstractBeanDefinition && ((AbstractBeanDefinition) bd).hasBeanClass()) {
+			Class<?> beanClass = ((AbstractBeanDefinition) bd).getBeanClass();
+			if (EnhancedConfiguration.class.isAssignableFrom(beanClass)) {
+				return beanClass.getSuperclass().getName();
+			}
+		}
+		return bd.getBeanClassName();
+	}
+
+	/**
+	 * Compute a fingerprint of the class path visible to the given class loader,
+	 * i.e. of its entries with their sizes and modification times, and of the
+	 * active and default profiles of the given environment.
+	 * @param classLoader the class loader whose class path to take into account
+	 * @param environment the environment whose profiles to take into account
+	 * @return the fingerprint as hex string
+	 */
+	public static String fingerprint(@Nullable ClassLoader classLoader, Environment environment) {
+		StringBuilder sb = new StringBuilder();
+		for (String entry : getClassPathEntries(classLoader)) {
+			sb.append(entry).append(';');
+			File file = new File(entry);
+			if (file.isDirectory()) {
+				Path dir = file.toPath();
+				try (Stream<Path> paths = Files.walk(dir)) {
+					paths.filter(Files::isRegularFile).sorted().forEach(path -> {
+						File child = path.toFile();
+						sb.append(dir.relativize(path)).append(':').append(child.length()).append(':')
+								.append(child.lastModified()).append(';');
+					});
+				}
+				catch (IOException ex) {
+					sb.append("unreadable;");
+				}
+			}
+			else if (file.exists()) {
+				sb.append(file.length()).append(':').append(file.lastModified()).append(';');
+			}
+		}
+		sb.append("profiles:");
+		sb.append(StringUtils.arrayToCommaDelimitedString(environment.getActiveProfiles())).append(';');
+		sb.append(StringUtils.arrayToCommaDelimitedString(environment.getDefaultProfiles()));
+		return DigestUtils.md5DigestAsHex(sb.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static Set<String> getClassPathEntries(@Nullable ClassLoader classLoader) {
+		Set<String> entries = new LinkedHashSet<>();
+		List<ClassLoader> classLoaders = new ArrayList<>();
+		for (ClassLoader cl = classLoader; cl != null; cl = cl.getParent()) {
+			classLoaders.add(cl);
+		}
+		// Parents first, as in the default class loading order
+		Collections.reverse(classLoaders);
+		for (ClassLoader cl : classLoaders) {
+			if (cl instanceof URLClassLoader) {
+				for (URL url : ((URLClassLoader) cl).getURLs()) {
+					entries.add(toClassPathEntry(url));
+				}
+			}
+		}
+		String classPath = System.getProperty("java.class.path");
+		if (classPath != null) {
+			Collections.addAll(entries, StringUtils.tokenizeToStringArray(classPath, File.pathSeparator));
+		}
+		return entries;
+	}
+
+	private static String toClassPathEntry(URL url) {
+		if ("file".equals(url.getProtocol())) {
+			try {
+				return new File(url.toURI()).getPath();
+			}
+			catch (URISyntaxException | IllegalArgumentException ex) {
+				// fall through to the URL itself
+			}
+		}
+		return url.toString();
+	}
+
+
+	/**
+	 * Writes bean definitions in the snapshot format, storing each distinct
+	 * string once.
+	 */
+	private static class SnapshotWriter {
+
+		private static final int NEW_STRING = -2;
+
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+
+		private final DataOutputStream out = new DataOutputStream(this.bytes);
+
+		private final Map<String, Integer> strings = new HashMap<>();
+
+		public void writeInt(int value) throws IOException {
+			this.out.writeInt(value);
+		}
+
+		public void writeBoolean(boolean value) throws IOException {
+			this.out.writeBoolean(value);
+		}
+
+		public void writeString(@Nullable String value) throws IOException {
+			if (value == null) {
+				this.out.writeInt(-1);
+				return;
+			}
+			Integer index = this.strings.get(value);
+			if (index != null) {
+				this.out.writeInt(index);
+				return;
+			}
+			this.strings.put(value, this.strings.size());
+			byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+			this.out.writeInt(NEW_STRING);
+			this.out.writeInt(utf8.length);
+			this.out.write(utf8);
+		}
+
+		public void writeStrings(@Nullable String[] values) throws IOException {
+			if (values == null) {
+				this.out.writeInt(-1);
+				return;
+			}
+			this.out.writeInt(values.length);
+			for (String value : values) {
+				writeString(value);
+			}
+		}
+
+		public void writeBeanDefinitionHolder(String beanName, @Nullable String[] aliases,
+				BeanDefinition bd, @Nullable String beanClassName) throws IOException {
+
+			writeString(beanName);
+			writeStrings(aliases);
+			writeBeanDefinition(beanName, bd, beanClassName);
+		}
+
+		public void writeBeanDefinition(String beanName, BeanDefinition bd, @Nullable String beanClassName)
+				throws IOException {
+
+			if (!(bd instanceof AbstractBeanDefinition)) {
+				throw new IllegalStateException("Cannot capture bean definition '" + beanName +
+						"' since it is not stored in an AbstractBeanDefinition subclass");
+			}
+			AbstractBeanDefinition abd = (AbstractBeanDefinition) bd;
+			if (abd.getInstanceSupplier() != null) {
+				throw new IllegalStateException(
+						"Cannot capture bean definition '" + beanName + "' with an instance supplier");
+			}
+			if (abd.hasMethodOverrides()) {
+				throw new IllegalStateException(
+						"Cannot capture bean definition '" + beanName + "' with method overrides");
+			}
+
+			MethodMetadata factoryMethodMetadata = (abd instanceof AnnotatedBeanDefinition ?
+					((AnnotatedBeanDefinition) abd).getFactoryMethodMetadata() : null);
+			boolean beanMethod = (factoryMethodMetadata != null && abd.getFactoryMethodName() != null);
+
+			writeString(abd.getParentName());
+			writeString(beanClassName);
+			writeBoolean(beanMethod);
+			writeBoolean(beanMethod && !factoryMethodMetadata.isStatic());
+			writeString(abd.getScope());
+			writeBoolean(abd.isAbstract());
+			writeBoolean(abd.isLazyInit());
+			writeInt(abd.getAutowireMode());
+			writeInt(abd.getDependencyCheck());
+			writeStrings(abd.getDependsOn());
+			writeBoolean(abd.isAutowireCandidate());
+			writeBoolean(abd.isPrimary());
+			writeInt(abd.getQualifiers().size());
+			for (AutowireCandidateQualifier qualifier : abd.getQualifiers()) {
+				writeString(qualifier.getTypeName());
+				writeAttributes(beanName, qualifier.attributeNames(), qualifier::getAttribute);
+			}
+			writeBoolean(abd.isNonPublicAccessAllowed());
+			writeBoolean(abd.isLenientConstructorResolution());
+			writeString(abd.getFactoryBeanName());
+			writeString(abd.getFactoryMethodName());
+
+			ConstructorArgumentValues args = abd.getConstructorArgumentValues();
+			writeInt(args.getIndexedArgumentValues().size());
+			for (Map.Entry<Integer, ConstructorArgumentValues.ValueHolder> entry :
+					args.getIndexedArgumentValues().entrySet()) {
+				writeInt(entry.getKey());
+				writeValueHolder(beanName, entry.getValue());
+			}
+			writeInt(args.getGenericArgumentValues().size());
+			for (ConstructorArgumentValues.ValueHolder valueHolder : args.getGenericArgumentValues()) {
+				writeValueHolder(beanName, valueHolder);
+			}
+			PropertyValue[] pvs = abd.getPropertyValues().getPropertyValues();
+			writeInt(pvs.length);
+			for (PropertyValue pv : pvs) {
+				writeString(pv.getName());
+				writeValue(beanName, pv.getValue());
+				writeBoolean(pv.isOptional());
+			}
+
+			writeString(abd.getInitMethodName());
+			writeBoolean(abd.isEnforceInitMethod());
+			writeString(abd.getDestroyMethodName());
+			writeBoolean(abd.isEnforceDestroyMethod());
+			writeBoolean(abd.isSynthetic());
+			writeInt(abd.getRole());
+			writeString(abd.getDescription());
+			writeString(abd.getResourceDescription());
+
+			RootBeanDefinition rbd = (abd instanceof RootBeanDefinition ? (RootBeanDefinition) abd : null);
+			Class<?> targetType = (rbd != null ? rbd.getTargetType() : null);
+			writeString(targetType != null ? targetType.getName() : null);
+			BeanDefinitionHolder decorated = (rbd != null ? rbd.getDecoratedDefinition() : null);
+			writeBoolean(decorated != null);
+			if (decorated != null) {
+				writeValue(beanName, decorated);
+			}
+			writeAttributes(beanName, abd.attributeNames(), abd::getAttribute);
+		}
+
+		private void writeValueHolder(String beanName, ConstructorArgumentValues.ValueHolder valueHolder)
+				throws IOException {
+
+			writeValue(beanName, valueHolder.getValue());
+			writeString(valueHolder.getType());
+			writeString(valueHolder.getName());
+		}
+
+		private void writeAttributes(String beanName, String[] names, AttributeSource source) throws IOException {
+			List<String> attributeNames = new ArrayList<>(names.length);
+			for (String name : names) {
+				if (!RESTORED_ATTRIBUTE.equals(name)) {
+					attributeNames.add(name);
+				}
+			}
+			writeInt(attributeNames.size());
+			for (String name : attributeNames) {
+				writeString(name);
+				writeValue(beanName, source.getAttribute(name));
+			}
+		}
+
+		public void writeValue(String beanName, @Nullable Object value) throws IOException {
+			if (value == null) {
+				this.out.writeByte(ValueType.NULL);
+			}
+			else if (value instanceof String) {
+				this.out.writeByte(ValueType.STRING);
+				writeString((String) value);
+			}
+			else if (value instanceof Boolean) {
+				this.out.writeByte(ValueType.BOOLEAN);
+				writeBoolean((Boolean) value);
+			}
+			else if (value instanceof Integer) {
+				this.out.writeByte(ValueType.INTEGER);
+				writeInt((Integer) value);
+			}
+			else if (value instanceof Long) {
+				this.out.writeByte(ValueType.LONG);
+				this.out.writeLong((Long) value);
+			}
+			else if (value instanceof Class) {
+				this.out.writeByte(ValueType.CLASS);
+				writeString(((Class<?>) value).getName());
+			}
+			else if (value instanceof Enum) {
+				this.out.writeByte(ValueType.ENUM);
+				writeString(((Enum<?>) value).getDeclaringClass().getName());
+				writeString(((Enum<?>) value).name());
+			}
+			else if (value instanceof TypedStringValue) {
+				TypedStringValue typedValue = (TypedStringValue) value;
+				this.out.writeByte(ValueType.TYPED_STRING);
+				writeString(typedValue.getValue());
+				writeString(typedValue.getTargetTypeName());
+				writeString(typedValue.getSpecifiedTypeName());
+				writeBoolean(typedValue.isDynamic());
+			}
+			else if (value instanceof RuntimeBeanReference) {
+				RuntimeBeanReference reference = (RuntimeBeanReference) value;
+				this.out.writeByte(ValueType.BEAN_REFERENCE);
+				writeString(reference.getBeanName());
+				writeBoolean(reference.isToParent());
+			}
+			else if (value instanceof RuntimeBeanNameReference) {
+				this.out.writeByte(ValueType.BEAN_NAME_REFERENCE);
+				writeString(((RuntimeBeanNameReference) value).getBeanName());
+			}
+			else if (value instanceof BeanDefinitionHolder) {
+				BeanDefinitionHolder holder = (BeanDefinitionHolder) value;
+				this.out.writeByte(ValueType.BEAN_DEFINITION_HOLDER);
+				writeBeanDefinitionHolder(holder.getBeanName(), holder.getAliases(),
+						holder.getBeanDefinition(), holder.getBeanDefinition().getBeanClassName());
+			}
+			else if (value instanceof BeanDefinition) {
+				this.out.writeByte(ValueType.BEAN_DEFINITION);
+				writeBeanDefinition(beanName, (BeanDefinition) value, ((BeanDefinition) value).getBeanClassName());
+			}
+			else if (value instanceof ManagedArray) {
+				ManagedArray array = (ManagedArray) value;
+				this.out.writeByte(ValueType.ARRAY);
+				writeString(array.getElementTypeName());
+				writeBoolean(array.isMergeEnabled());
+				writeElements(beanName, array);
+			}
+			else if (value instanceof ManagedList) {
+				ManagedList<?> list = (ManagedList<?>) value;
+				this.out.writeByte(ValueType.LIST);
+				writeString(list.getElementTypeName());
+				writeBoolean(list.isMergeEnabled());
+				writeElements(beanName, list);
+			}
+			else if (value instanceof ManagedSet) {
+				ManagedSet<?> set = (ManagedSet<?>) value;
+				this.out.writeByte(ValueType.SET);
+				writeString(set.getElementTypeName());
+				writeBoolean(set.isMergeEnabled());
+				writeElements(beanName, set);
+			}
+			else if (value instanceof ManagedMap) {
+				ManagedMap<?, ?> map = (ManagedMap<?, ?>) value;
+				this.out.writeByte(ValueType.MAP);
+				writeString(map.getKeyTypeName());
+				writeString(map.getValueTypeName());
+				writeBoolean(map.isMergeEnabled());
+				writeEntries(beanName, map);
+			}
+			else if (value instanceof ManagedProperties) {
+				ManagedProperties properties = (ManagedProperties) value;
+				this.out.writeByte(ValueType.PROPERTIES);
+				writeBoolean(properties.isMergeEnabled());
+				writeEntries(beanName, properties);
+			}
+			else {
+				throw new IllegalStateException("Cannot capture bean definition '" + beanName +
+						"' with value of type [" + value.getClass().getName() + "]: " + value);
+			}
+		}
+
+		private void writeElements(String beanName, Collection<?> elements) throws IOException {
+			writeInt(elements.size());
+			for (Object element : elements) {
+				writeValue(beanName, element);
+			}
+		}
+
+		private void writeEntries(String beanName, Map<?, ?> map) throws IOException {
+			writeInt(map.size());
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				writeValue(beanName, entry.getKey());
+				writeValue(beanName, entry.getValue());
+			}
+		}
+
+		public byte[] toByteArray() {
+			return this.bytes.toByteArray();
+		}
+	}
+
+
+	/**
+	 * Reads bean definitions written by {@link SnapshotWriter}.
+	 */
+	private static class SnapshotReader {
+
+		private final DataInputStream in;
+
+		@Nullable
+		private final ClassLoader classLoader;
+
+		private final List<String> strings = new ArrayList<>();
+
+		public SnapshotReader(byte[] content, @Nullable ClassLoader classLoader) {
+			this.in = new DataInputStream(new ByteArrayInputStream(content));
+			this.classLoader = classLoader;
+		}
+
+		public int readInt() throws IOException {
+			return this.in.readInt();
+		}
+
+		public boolean readBoolean() throws IOException {
+			return this.in.readBoolean();
+		}
+
+		@Nullable
+		public String readString() throws IOException {
+			int index = this.in.readInt();
+			if (index == -1) {
+				return null;
+			}
+			if (index == SnapshotWriter.NEW_STRING) {
+				byte[] utf8 = new byte[this.in.readInt()];
+				this.in.readFully(utf8);
+				String value = new String(utf8, StandardCharsets.UTF_8);
+				this.strings.add(value);
+				return value;
+			}
+			return this.strings.get(index);
+		}
+
+		private String readRequiredString() throws IOException {
+			String value = readString();
+			if (value == null) {
+				throw new IOException("Unexpected null value");
+			}
+			return value;
+		}
+
+		@Nullable
+		public String[] readStrings() throws IOException {
+			int length = this.in.readInt();
+			if (length == -1) {
+				return null;
+			}
+			String[] values = new String[length];
+			for (int i = 0; i < length; i++) {
+				values[i] = readString();
+			}
+			return values;
+		}
+
+		public BeanDefinitionHolder readBeanDefinitionHolder() throws IOException {
+			String beanName = readRequiredString();
+			String[] aliases = readStrings();
+			return new BeanDefinitionHolder(readBeanDefinition(), beanName, aliases);
+		}
+
+		public AbstractBeanDefinition readBeanDefinition() throws IOException {
+			String parentName = readString();
+			String beanClassName = readString();
+			boolean beanMethod = readBoolean();
+			boolean uniqueFactoryMethod = readBoolean();
+
+			AbstractBeanDefinition bd;
+			if (parentName != null) {
+				bd = new GenericBeanDefinition();
+				bd.setParentName(parentName);
+			}
+			else {
+				bd = new SnapshotBeanDefinition(beanMethod);
+			}
+			bd.setBeanClassName(beanClassName);
+			bd.setScope(readString());
+			bd.setAbstract(readBoolean());
+			bd.setLazyInit(readBoolean());
+			bd.setAutowireMode(readInt());
+			bd.setDependencyCheck(readInt());
+			bd.setDependsOn(readStrings());
+			bd.setAutowireCandidate(readBoolean());
+			bd.setPrimary(readBoolean());
+			int count = readInt();
+			for (int i = 0; i < count; i++) {
+				AutowireCandidateQualifier qualifier = new AutowireCandidateQualifier(readRequiredString());
+				readAttributes(qualifier::setAttribute);
+				bd.addQualifier(qualifier);
+			}
+			bd.setNonPublicAccessAllowed(readBoolean());
+			bd.setLenientConstructorResolution(readBoolean());
+			bd.setFactoryBeanName(readString());
+			String factoryMethodName = readString();
+			if (factoryMethodName != null && uniqueFactoryMethod) {
+				((RootBeanDefinition) bd).setUniqueFactoryMethodName(factoryMethodName);
+			}
+			else {
+				bd.setFactoryMethodName(factoryMethodName);
+			}
+
+			ConstructorArgumentValues args = bd.getConstructorArgumentValues();
+			count = readInt();
+			for (int i = 0; i < count; i++) {
+				int index = readInt();
+				args.addIndexedArgumentValue(index, readValueHolder());
+			}
+			count = readInt();
+			for (int i = 0; i < count; i++) {
+				args.addGenericArgumentValue(readValueHolder());
+			}
+			MutablePropertyValues pvs = bd.getPropertyValues();
+			count = readInt();
+			for (int i = 0; i < count; i++) {
+				PropertyValue pv = new PropertyValue(readRequiredString(), readValue());
+				pv.setOptional(readBoolean());
+				pvs.addPropertyValue(pv);
+			}
+
+			bd.setInitMethodName(readString());
+			bd.setEnforceInitMethod(readBoolean());
+			bd.setDestroyMethodName(readString());
+			bd.setEnforceDestroyMethod(readBoolean());
+			bd.setSynthetic(readBoolean());
+			bd.setRole(readInt());
+			bd.setDescription(readString());
+			bd.setResourceDescription(readString());
+
+			String targetTypeName = readString();
+			BeanDefinitionHolder decorated = (readBoolean() ? (BeanDefinitionHolder) readValue() : null);
+			if (bd instanceof RootBeanDefinition) {
+				RootBeanDefinition rbd = (RootBeanDefinition) bd;
+				if (targetTypeName != null) {
+					rbd.setTargetType(resolveClass(targetTypeName));
+				}
+				if (decorated != null) {
+					rbd.setDecoratedDefinition(decorated);
+					rbd.setOriginatingBeanDefinition(decorated.getBeanDefinition());
+				}
+			}
+			readAttributes(bd::setAttribute);
+			return bd;
+		}
+
+		private ConstructorArgumentValues.ValueHolder readValueHolder() throws IOException {
+			Object value = readValue();
+			return new ConstructorArgumentValues.ValueHolder(value, readString(), readString());
+		}
+
+		private void readAttributes(AttributeTarget target) throws IOException {
+			int count = readInt();
+			for (int i = 0; i < count; i++) {
+				target.setAttribute(readRequiredString(), readValue());
+			}
+		}
+
+		@Nullable
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		public Object readValue() throws IOException {
+			byte type = this.in.readByte();
+			switch (type) {
+				case ValueType.NULL:
+					return null;
+				case ValueType.STRING:
+					return readString();
+				case ValueType.BOOLEAN:
+					return readBoolean();
+				case ValueType.INTEGER:
+					return readInt();
+				case ValueType.LONG:
+					return this.in.readLong();
+				case ValueType.CLASS:
+					return resolveClass(readRequiredString());
+				case ValueType.ENUM:
+					Class enumType = resolveClass(readRequiredString());
+					return Enum.valueOf(enumType, readRequiredString());
+				case ValueType.TYPED_STRING:
+					TypedStringValue typedValue = new TypedStringValue(readString());
+					typedValue.setTargetTypeName(readString());
+					typedValue.setSpecifiedTypeName(readString());
+					if (readBoolean()) {
+						typedValue.setDynamic();
+					}
+					return typedValue;
+				case ValueType.BEAN_REFERENCE:
+					return new RuntimeBeanReference(readRequiredString(), readBoolean());
+				case ValueType.BEAN_NAME_REFERENCE:
+					return new RuntimeBeanNameReference(readRequiredString());
+				case ValueType.BEAN_DEFINITION_HOLDER:
+					return readBeanDefinitionHolder();
+				case ValueType.BEAN_DEFINITION:
+					return readBeanDefinition();
+				case ValueType.ARRAY:
+					String elementTypeName = readRequiredString();
+					boolean mergeEnabled = readBoolean();
+					int size = readInt();
+					ManagedArray array = new ManagedArray(elementTypeName, size);
+					array.setMergeEnabled(mergeEnabled);
+					readElements(array, size);
+					return array;
+				case ValueType.LIST:
+					ManagedList<Object> list = new ManagedList<>();
+					list.setElementTypeName(readString());
+					list.setMergeEnabled(readBoolean());
+					readElements(list, readInt());
+					return list;
+				case ValueType.SET:
+					ManagedSet<Object> set = new ManagedSet<>();
+					set.setElementTypeName(readString());
+					set.setMergeEnabled(readBoolean());
+					readElements(set, readInt());
+					return set;
+				case ValueType.MAP:
+					ManagedMap<Object, Object> map = new ManagedMap<>();
+					map.setKeyTypeName(readString());
+					map.setValueTypeName(readString());
+					map.setMergeEnabled(readBoolean());
+					readEntries(map);
+					return map;
+				case ValueType.PROPERTIES:
+					ManagedProperties properties = new ManagedProperties();
+					properties.setMergeEnabled(readBoolean());
+					readEntries(properties);
+					return properties;
+				default:
+					throw new IOException("Unknown value type " + type);
+			}
+		}
+
+		private void readElements(Collection<Object> elements, int size) throws IOException {
+			for (int i = 0; i < size; i++) {
+				elements.add(readValue());
+			}
+		}
+
+		private void readEntries(Map<Object, Object> map) throws IOException {
+			int size = readInt();
+			for (int i = 0; i < size; i++) {
+				map.put(readValue(), readValue());
+			}
+		}
+
+		private Class<?> resolveClass(String className) {
+			try {
+				return ClassUtils.forName(className, this.classLoader);
+			}
+			catch (ClassNotFoundException | LinkageError ex) {
+				throw new IllegalStateException("Cannot load class [" + className + "] from bean definition snapshot", ex);
+			}
+		}
+	}
+
+
+	private static final class ValueType {
+
+		static final byte NULL = 0;
+
+		static final byte STRING = 1;
+
+		static final byte BOOLEAN = 2;
+
+		static final byte INTEGER = 3;
+
+		static final byte LONG = 4;
+
+		static final byte CLASS = 5;
+
+		static final byte ENUM = 6;
+
+		static final byte TYPED_STRING = 7;
+
+		static final byte BEAN_REFERENCE = 8;
+
+		static final byte BEAN_NAME_REFERENCE = 9;
+
+		static final byte BEAN_DEFINITION_HOLDER = 10;
+
+		static final byte BEAN_DEFINITION = 11;
+
+		static final byte ARRAY = 12;
+
+		static final byte LIST = 13;
+
+		static final byte SET = 14;
+
+		static final byte MAP = 15;
+
+		static final byte PROPERTIES = 16;
+	}
+
+
+	@FunctionalInterface
+	private interface AttributeSource {
+
+		@Nullable
+		Object getAttribute(String name);
+	}
+
+
+	@FunctionalInterface
+	private interface AttributeTarget {
+
+		void setAttribute(String name, @Nullable Object value);
+	}
+
+
+	/**
+	 * Restored bean definition, retaining the {@link Bean @Bean} method
+	 * check for factory method candidates of a restored bean method.
+	 */
+	@SuppressWarnings("serial")
+	private static class SnapshotBeanDefinition extends RootBeanDefinition {
+
+		private final boolean beanMethod;
+
+		public SnapshotBeanDefinition(boolean beanMethod) {
+			this.beanMethod = beanMethod;
+		}
+
+		private SnapshotBeanDefinition(SnapshotBeanDefinition original) {
+			super(original);
+			this.beanMethod = original.beanMethod;
+		}
+
+		@Override
+		public boolean isFactoryMethod(Method candidate) {
+			return (super.isFactoryMethod(candidate) &&
+					(!this.beanMethod || BeanAnnotationHelper.isBeanAnnotated(candidate)));
+		}
+
+		@Override
+		public SnapshotBeanDefinition cloneBeanDefinition() {
+			return new SnapshotBeanDefinition(this);
+		}
+	}
+
+
+	/**
+	 * {@link ImportRegistry} for restored configuration classes, introspecting
+	 * the importing classes on demand.
+	 */
+	static class SnapshotImportRegistry implements ImportRegistry {
+
+		private final Map<String, String> importingClasses;
+
+		@Nullable
+		private final ClassLoader classLoader;
+
+		@Nullable
+		private ImportRegistry parent;
+
+		public SnapshotImportRegistry(Map<String, String> importingClasses, @Nullable ClassLoader classLoader) {
+			this.importingClasses = new HashMap<>(importingClasses);
+			this.classLoader = classLoader;
+		}
+
+		/**
+		 * Set the registry for configuration classes processed in addition
+		 * to the restored ones.
+		 */
+		public void setParent(@Nullable ImportRegistry parent) {
+			this.parent = parent;
+		}
+
+		@Override
+		@Nullable
+		public AnnotationMetadata getImportingClassFor(String importedClass) {
+			String importingClass = this.importingClasses.get(importedClass);
+			if (importingClass == null) {
+				return (this.parent != null ? this.parent.getImportingClassFor(importedClass) : null);
+			}
+			try {
+				return new StandardAnnotationMetadata(ClassUtils.forName(importingClass, this.classLoader), true);
+			}
+			catch (ClassNotFoundException | LinkageError ex) {
+				throw new IllegalStateException("Cannot load importing class [" + importingClass + "]", ex);
+			}
+		}
+
+		@Override
+		public void removeImportingClass(String importingClass) {
+			this.importingClasses.values().removeIf(importingClass::equals);
+			if (this.parent != null) {
+				this.parent.removeImportingClass(importingClass);
+			}
+		}
+	}
+
+}
@@ -26,18 +26,21 @@ import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.context.index.CandidateComponentsIndex;
 import org.springframework.context.index.CandidateComponentsIndexLoader;
+import org.springframework.core.SpringProperties;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.EnvironmentCapable;
 import org.springframework.core.env.StandardEnvironment;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ParallelScanner;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternUtils;
 import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
 import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderCache;
 import org.springframework.core.type.classreading.MetadataReaderFactory;
 import org.springframework.core.type.filter.AnnotationTypeFilter;
 import org.springframework.core.type.filter.AssignableTypeFilter;
@@ -103,6 +106,12 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	@Nullable
 	private CandidateComponentsIndex componentsIndex;
 
+	private boolean parallelScanning =
+			SpringProperties.getFlag(PathMatchingResourcePatternResolver.PARALLEL_SCANNING_PROPERTY_NAME);
+
+	@Nullable
+	private ParallelScanner parallelScanner;
+
 
 	/**
 	 * Protected constructor for flexible subclass initialization.
@@ -257,7 +266,7 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	@Override
 	public void setResourceLoader(@Nullable ResourceLoader resourceLoader) {
 		this.resourcePatternResolver = ResourcePatternUtils.getResourcePatternResolver(resourceLoader);
-		this.metadataReaderFactory = new CachingMetadataReaderFactory(resourceLoader);
+		this.metadataReaderFactory = withSharedCache(new CachingMetadataReaderFactory(resourceLoader));
 		this.componentsIndex = CandidateComponentsIndexLoader.loadIndex(this.resourcePatternResolver.getClassLoader());
 	}
 
@@ -278,7 +287,8 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	/**
 	 * Set the {@link MetadataReaderFactory} to use.
 	 * <p>Default is a {@link CachingMetadataReaderFactory} for the specified
-	 * {@linkplain #setResourceLoader resource loader}.
+	 * {@linkplain #setResourceLoader resource loader}, backed by the
+	 * {@linkplain MetadataReaderCache#getSharedInstance() shared metadata cache}.
 	 * <p>Call this setter method <i>after</i> {@link #setResourceLoader} in order
 	 * for the given MetadataReaderFactory to override the default factory.
 	 */
@@ -286,12 +296,53 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		this.metadataReaderFactory = metadataReaderFactory;
 	}
 
+	/**
+	 * Set whether to evaluate the scanned classes in parallel, through the
+	 * {@linkplain #setParallelScanner parallel scanner}, with candidate components
+	 * still being returned in the order of the scanned resources. Default is "false",
+	 * unless the {@value PathMatchingResourcePatternResolver#PARALLEL_SCANNING_PROPERTY_NAME}
+	 * system property is set.
+	 * <p>Note that the {@link MetadataReaderFactory}, the type filters and any
+	 * {@link Conditional @Conditional} conditions need to be thread-safe for this mode.
+	 * @since 5.0.17
+	 */
+	public void setParallelScanning(boolean parallelScanning) {
+		this.parallelScanning = parallelScanning;
+	}
+
+	/**
+	 * Return whether the scanned classes are evaluated in parallel.
+	 * @since 5.0.17
+	 */
+	public boolean isParallelScanning() {
+		return this.parallelScanning;
+	}
+
+	/**
+	 * Set the {@link ParallelScanner} to evaluate the scanned classes with in
+	 * parallel scanning mode. Default is the {@linkplain ParallelScanner#getSharedInstance()
+	 * shared scanner}.
+	 * @since 5.0.17
+	 */
+	public void setParallelScanner(@Nullable ParallelScanner parallelScanner) {
+		this.parallelScanner = parallelScanner;
+	}
+
+	/**
+	 * Return the {@link ParallelScanner} to evaluate the scanned classes with
+	 * in parallel scanning mode.
+	 * @since 5.0.17
+	 */
+	public ParallelScanner getParallelScanner() {
+		return (this.parallelScanner != null ? this.parallelScanner : ParallelScanner.getSharedInstance());
+	}
+
 	/**
 	 * Return the MetadataReaderFactory used by this component provider.
 	 */
 	public final MetadataReaderFactory getMetadataReaderFactory() {
 		if (this.metadataReaderFactory == null) {
-			this.metadataReaderFactory = new CachingMetadataReaderFactory();
+			this.metadataReaderFactory = withSharedCache(new CachingMetadataReaderFactory());
 		}
 		return this.metadataReaderFactory;
 	}
@@ -417,52 +468,79 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 					resolveBasePackage(basePackage) + '/' + this.resourcePattern;
 			//asm读取class文件
 			Resource[] resources = getResourcePatternResolver().getResources(packageSearchPath);
-			boolean traceEnabled = logger.isTraceEnabled();
-			boolean debugEnabled = logger.isDebugEnabled();
-			for (Resource resource : resources) {
-				if (traceEnabled) {
-					logger.trace("Scanning " + resource);
+			if (isParallelScanning()) {
+				//并行读取和判断每个class，按resources的顺序收集结果
+				List<ScannedGenericBeanDefinition> results =
+						getParallelScanner().map(Arrays.asList(resources), this::scanCandidateComponent);
+				for (ScannedGenericBeanDefinition sbd : results) {
+					if (sbd != null) {
+						candidates.add(sbd);
+					}
+				}
+			} else {
+				for (Resource resource : resources) {
+					ScannedGenericBeanDefinition sbd = scanCandidateComponent(resource);
+					if (sbd != null) {
+						//每扫描一个类，存其BeanDefinition到candidates这个set集合中
+						candidates.add(sbd);
+					}
 				}
-				if (resource.isReadable()) {
-					try {
-						MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
-						//判断是否在excludeFilter、includeFilter
-						if (isCandidateComponent(metadataReader)) {
-							//被扫描的注入到Spring容器的bean，使用ScannedGenericBeanDefinition来定义其BeanDefinition
-							//被扫描的类在此时才会创建BeanDefinition
-							ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
-							sbd.setResource(resource);
-							sbd.setSource(resource);
-							if (isCandidateComponent(sbd)) {
-								if (debugEnabled) {
-									logger.debug("Identified candidate component class: " + resource);
-								}
-								//每扫描一个类，存其BeanDefinition到candidates这个set集合中
-								candidates.add(sbd);
-							} else {
-								if (debugEnabled) {
-									logger.debug("Ignored because not a concrete top-level class: " + resource);
-								}
-							}
-						} else {
-							if (traceEnabled) {
-								logger.trace("Ignored because not matching any filter: " + resource);
-							}
+			}
+		} catch (IOException ex) {
+			throw new BeanDefinitionStoreException("I/O failure during classpath scanning", ex);
+		}
+		return candidates;
+	}
+
+	/**
+	 * Read and evaluate the given class resource.
+	 *
+	 * @param resource the class resource found by classpath scanning
+	 * @return the bean definition for the class, or {@code null} if it
+	 * does not qualify as a candidate component
+	 */
+	@Nullable
+	private ScannedGenericBeanDefinition scanCandidateComponent(Resource resource) {
+		boolean traceEnabled = logger.isTraceEnabled();
+		boolean debugEnabled = logger.isDebugEnabled();
+		if (traceEnabled) {
+			logger.trace("Scanning " + resource);
+		}
+		if (resource.isReadable()) {
+			try {
+				MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
+				//判断是否在excludeFilter、includeFilter
+				if (isCandidateComponent(metadataReader)) {
+					//被扫描的注入到Spring容器的bean，使用ScannedGenericBeanDefinition来定义其BeanDefinition
+					//被扫描的类在此时才会创建BeanDefinition
+					ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
+					sbd.setResource(resource);
+					sbd.setSource(resource);
+					if (isCandidateComponent(sbd)) {
+						if (debugEnabled) {
+							logger.debug("Identified candidate component class: " + resource);
+						}
+						return sbd;
+					} else {
+						if (debugEnabled) {
+							logger.debug("Ignored because not a concrete top-level class: " + resource);
 						}
-					} catch (Throwable ex) {
-						throw new BeanDefinitionStoreException(
-								"Failed to read candidate component class: " + resource, ex);
 					}
 				} else {
 					if (traceEnabled) {
-						logger.trace("Ignored because not readable: " + resource);
+						logger.trace("Ignored because not matching any filter: " + resource);
 					}
 				}
+			} catch (Throwable ex) {
+				throw new BeanDefinitionStoreException(
+						"Failed to read candidate component class: " + resource, ex);
+			}
+		} else {
+			if (traceEnabled) {
+				logger.trace("Ignored because not readable: " + resource);
 			}
-		} catch (IOException ex) {
-			throw new BeanDefinitionStoreException("I/O failure during classpath scanning", ex);
 		}
-		return candidates;
+		return null;
 	}
 
 
@@ -542,4 +620,10 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		}
 	}
 
+
+	private static CachingMetadataReaderFactory withSharedCache(CachingMetadataReaderFactory metadataReaderFactory) {
+		metadataReaderFactory.setSharedCache(MetadataReaderCache.getSharedInstance());
+		return metadataReaderFactory;
+	}
+
 }
@@ -41,8 +41,11 @@ import org.springframework.core.env.Environment;
 import org.springframework.core.env.StandardEnvironment;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReaderCache;
 import org.springframework.core.type.classreading.MetadataReaderFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -74,7 +77,7 @@ import static org.springframework.context.annotation.AnnotationConfigUtils.CONFI
 public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPostProcessor,
 		PriorityOrdered, ResourceLoaderAware, BeanClassLoaderAware, EnvironmentAware {
 
-	private static final String IMPORT_REGISTRY_BEAN_NAME =
+	static final String IMPORT_REGISTRY_BEAN_NAME =
 			ConfigurationClassPostProcessor.class.getName() + ".importRegistry";
 
 
@@ -92,7 +95,7 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 	@Nullable
 	private ClassLoader beanClassLoader = ClassUtils.getDefaultClassLoader();
 
-	private MetadataReaderFactory metadataReaderFactory = new CachingMetadataReaderFactory();
+	private MetadataReaderFactory metadataReaderFactory = withSharedCache(new CachingMetadataReaderFactory());
 
 	private boolean setMetadataReaderFactoryCalled = false;
 
@@ -145,7 +148,8 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 	/**
 	 * Set the {@link MetadataReaderFactory} to use.
 	 * <p>Default is a {@link CachingMetadataReaderFactory} for the specified
-	 * {@linkplain #setBeanClassLoader bean class loader}.
+	 * {@linkplain #setBeanClassLoader bean class loader}, backed by the
+	 * {@linkplain MetadataReaderCache#getSharedInstance() shared metadata cache}.
 	 */
 	public void setMetadataReaderFactory(MetadataReaderFactory metadataReaderFactory) {
 		Assert.notNull(metadataReaderFactory, "MetadataReaderFactory must not be null");
@@ -189,7 +193,7 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		Assert.notNull(resourceLoader, "ResourceLoader must not be null");
 		this.resourceLoader = resourceLoader;
 		if (!this.setMetadataReaderFactoryCalled) {
-			this.metadataReaderFactory = new CachingMetadataReaderFactory(resourceLoader);
+			this.metadataReaderFactory = withSharedCache(new CachingMetadataReaderFactory(resourceLoader));
 		}
 	}
 
@@ -197,7 +201,7 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 	public void setBeanClassLoader(ClassLoader beanClassLoader) {
 		this.beanClassLoader = beanClassLoader;
 		if (!this.setMetadataReaderFactoryCalled) {
-			this.metadataReaderFactory = new CachingMetadataReaderFactory(beanClassLoader);
+			this.metadataReaderFactory = withSharedCache(new CachingMetadataReaderFactory(beanClassLoader));
 		}
 	}
 
@@ -244,10 +248,17 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		}
 
 		//产生cglib代理
+		StartupStep enhanceConfigClasses = beanFactory.getApplicationStartup().start("spring.context.config-classes.enhance");
 		enhanceConfigurationClasses(beanFactory);
+		enhanceConfigClasses.end();
 		beanFactory.addBeanPostProcessor(new ImportAwareBeanPostProcessor(beanFactory));
 	}
 
+	private ApplicationStartup getApplicationStartup(BeanDefinitionRegistry registry) {
+		return (registry instanceof ConfigurableBeanFactory ?
+				((ConfigurableBeanFactory) registry).getApplicationStartup() : ApplicationStartup.DEFAULT);
+	}
+
 	/**
 	 * Build and validate a configuration model based on the registry of
 	 * {@link Configuration} classes.
@@ -273,7 +284,9 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 					logger.debug("Bean definition has already been processed as a configuration class: " + beanDef);
 				}
 			} // configurationClass 没有设置为full或者lite，则check  beanDefinition 有没有这五个注解类型的元数据
-			else if (ConfigurationClassUtils.checkConfigurationClassCandidate(beanDef, this.metadataReaderFactory)) {
+			// (not for definitions restored from a snapshot, which did not qualify at capture time)
+			else if (beanDef.getAttribute(BeanDefinitionSnapshot.RESTORED_ATTRIBUTE) == null &&
+					ConfigurationClassUtils.checkConfigurationClassCandidate(beanDef, this.metadataReaderFactory)) {
 				//如果有指定的这5种类型的元数据，配置bean
 				configCandidates.add(new BeanDefinitionHolder(beanDef, beanName));
 			}
@@ -328,9 +341,12 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 			//对BeanFactory准备过程中放入的BeanDefinition进行解析
 			//当前测试中包含 6个内部 bd 和 1个自定义配置类 AppConfig
 			// 6个内部bd中，ConfigurationClassPostProcessor和5个BeanPostProcessor(在Bean 实例化过程中对Bean进行特定处理)
+			StartupStep processConfig = getApplicationStartup(registry).start("spring.context.config-classes.parse")
+					.tag("classCount", () -> String.valueOf(candidates.size()));
 			parser.parse(candidates);
 
 			parser.validate();
+			processConfig.end();
 
 			//获取到通过Configuration扫描到的bean
 			Set<ConfigurationClass> configClasses = new LinkedHashSet<>(parser.getConfigurationClasses());
@@ -374,6 +390,13 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		if (sbr != null && !sbr.containsSingleton(IMPORT_REGISTRY_BEAN_NAME)) {
 			sbr.registerSingleton(IMPORT_REGISTRY_BEAN_NAME, parser.getImportRegistry());
 		}
+		else if (sbr != null) {
+			Object importRegistry = sbr.getSingleton(IMPORT_REGISTRY_BEAN_NAME);
+			if (importRegistry instanceof BeanDefinitionSnapshot.SnapshotImportRegistry) {
+				// Restored configuration classes alongside newly processed ones
+				((BeanDefinitionSnapshot.SnapshotImportRegistry) importRegistry).setParent(parser.getImportRegistry());
+			}
+		}
 
 		if (this.metadataReaderFactory instanceof CachingMetadataReaderFactory) {
 			// Clear cache in externally provided MetadataReaderFactory; this is a no-op
@@ -443,6 +466,12 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 	}
 
 
+	private static CachingMetadataReaderFactory withSharedCache(CachingMetadataReaderFactory metadataReaderFactory) {
+		metadataReaderFactory.setSharedCache(MetadataReaderCache.getSharedInstance());
+		return metadataReaderFactory;
+	}
+
+
 	private static class ImportAwareBeanPostProcessor extends InstantiationAwareBeanPostProcessorAdapter {
 
 		private final BeanFactory beanFactory;
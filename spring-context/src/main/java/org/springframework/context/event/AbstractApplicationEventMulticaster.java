@@ -18,6 +18,7 @@ package org.springframework.context.event;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -48,6 +49,10 @@ import org.springframework.util.ObjectUtils;
  * ApplicationListener objects can be overridden through the "collectionClass"
  * bean property.
  *
+ * <p>The listeners matching a given event type and source type are determined once
+ * and cached in a dispatch table, along with their order. Registering or removing
+ * a listener instance only invalidates the cached entries that it affects.
+ *
  * <p>Implementing ApplicationEventMulticaster's actual {@link #multicastEvent} method
  * is left to subclasses. {@link SimpleApplicationEventMulticaster} simply multicasts
  * all events to all registered listeners, invoking them in the calling thread.
@@ -108,10 +113,13 @@ public abstract class AbstractApplicationEventMulticaster
 			// in order to avoid double invocations of the same listener.
 			Object singletonTarget = AopProxyUtils.getSingletonTarget(listener);
 			if (singletonTarget instanceof ApplicationListener) {
-				this.defaultRetriever.applicationListeners.remove(singletonTarget);
+				if (this.defaultRetriever.applicationListeners.remove(singletonTarget)) {
+					evictRetrievers((ApplicationListener<?>) singletonTarget);
+				}
+			}
+			if (this.defaultRetriever.applicationListeners.add(listener)) {
+				this.retrieverCache.keySet().removeIf(key -> supportsEvent(listener, key.eventType, key.sourceType));
 			}
-			this.defaultRetriever.applicationListeners.add(listener);
-			this.retrieverCache.clear();
 		}
 	}
 
@@ -126,8 +134,9 @@ public abstract class AbstractApplicationEventMulticaster
 	@Override
 	public void removeApplicationListener(ApplicationListener<?> listener) {
 		synchronized (this.retrievalMutex) {
-			this.defaultRetriever.applicationListeners.remove(listener);
-			this.retrieverCache.clear();
+			if (this.defaultRetriever.applicationListeners.remove(listener)) {
+				evictRetrievers(listener);
+			}
 		}
 	}
 
@@ -149,6 +158,15 @@ public abstract class AbstractApplicationEventMulticaster
 	}
 
 
+	/**
+	 * Remove all cached ListenerRetrievers that contain the given listener.
+	 * To be called within the retrieval mutex.
+	 */
+	private void evictRetrievers(ApplicationListener<?> listener) {
+		this.retrieverCache.values().removeIf(retriever -> retriever.applicationListeners.contains(listener));
+	}
+
+
 	/**
 	 * Return a Collection containing all ApplicationListeners.
 	 * @return a Collection of ApplicationListeners
@@ -166,7 +184,8 @@ public abstract class AbstractApplicationEventMulticaster
 	 * @param event the event to be propagated. Allows for excluding
 	 * non-matching listeners early, based on cached matching information.
 	 * @param eventType the event type
-	 * @return a Collection of ApplicationListeners
+	 * @return a Collection of ApplicationListeners, possibly shared between
+	 * invocations and therefore not to be modified
 	 * @see org.springframework.context.ApplicationListener
 	 */
 	protected Collection<ApplicationListener<?>> getApplicationListeners(
@@ -371,11 +390,23 @@ public abstract class AbstractApplicationEventMulticaster
 
 		private final boolean preFiltered;
 
+		@Nullable
+		private volatile List<ApplicationListener<?>> preFilteredListeners;
+
 		public ListenerRetriever(boolean preFiltered) {
 			this.preFiltered = preFiltered;
 		}
 
 		public Collection<ApplicationListener<?>> getApplicationListeners() {
+			if (this.preFiltered && this.applicationListenerBeans.isEmpty()) {
+				// Fully resolved and sorted already -> reuse the same list for every event
+				List<ApplicationListener<?>> listeners = this.preFilteredListeners;
+				if (listeners == null) {
+					listeners = Collections.unmodifiableList(new ArrayList<>(this.applicationListeners));
+					this.preFilteredListeners = listeners;
+				}
+				return listeners;
+			}
 			List<ApplicationListener<?>> allListeners = new ArrayList<>(
 					this.applicationListeners.size() + this.applicationListenerBeans.size());
 			allListeners.addAll(this.applicationListeners);
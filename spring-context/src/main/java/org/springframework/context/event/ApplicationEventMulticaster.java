@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.context.event;
 
+import java.util.Collection;
+
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.core.ResolvableType;
@@ -84,4 +86,19 @@ public interface ApplicationEventMulticaster {
 	 */
 	void multicastEvent(ApplicationEvent event, @Nullable ResolvableType eventType);
 
+	/**
+	 * Multicast the given application events to appropriate listeners, in order.
+	 * <p>The default implementation multicasts each event individually.
+	 * Implementations may resolve the listeners for consecutive events of the
+	 * same type only once.
+	 * @param events the events to multicast
+	 * @since 5.0.17
+	 * @see #multicastEvent(ApplicationEvent)
+	 */
+	default void multicastEvents(Collection<? extends ApplicationEvent> events) {
+		for (ApplicationEvent event : events) {
+			multicastEvent(event);
+		}
+	}
+
 }
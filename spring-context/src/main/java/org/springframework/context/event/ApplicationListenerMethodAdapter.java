@@ -34,6 +34,8 @@ import org.springframework.context.ApplicationEvent;
 import org.springframework.context.PayloadApplicationEvent;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.MethodAccessor;
+import org.springframework.core.MethodAccessorFactory;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.Order;
@@ -83,6 +85,9 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 	@Nullable
 	private EventExpressionEvaluator evaluator;
 
+	@Nullable
+	private MethodAccessor methodAccessor;
+
 
 	public ApplicationListenerMethodAdapter(String beanName, Class<?> targetClass, Method method) {
 		this.beanName = beanName;
@@ -136,6 +141,18 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		this.evaluator = evaluator;
 	}
 
+	/**
+	 * Set the {@link MethodAccessorFactory} to obtain the accessor for invoking
+	 * the event listener method from, e.g. a
+	 * {@link org.springframework.core.GeneratedMethodAccessorFactory}.
+	 * <p>By default the method is invoked via reflection.
+	 * @since 5.0.17
+	 */
+	public void setMethodAccessorFactory(@Nullable MethodAccessorFactory methodAccessorFactory) {
+		this.methodAccessor = (methodAccessorFactory != null ?
+				methodAccessorFactory.getMethodAccessor(this.method) : null);
+	}
+
 
 	@Override
 	public void onApplicationEvent(ApplicationEvent event) {
@@ -257,8 +274,11 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 	@Nullable
 	protected Object doInvoke(Object... args) {
 		Object bean = getTargetBean();
-		ReflectionUtils.makeAccessible(this.method);
 		try {
+			if (this.methodAccessor != null) {
+				return this.methodAccessor.invoke(bean, args);
+			}
+			ReflectionUtils.makeAccessible(this.method);
 			return this.method.invoke(bean, args);
 		}
 		catch (IllegalArgumentException ex) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,7 +19,9 @@ package org.springframework.context.event;
 import java.lang.reflect.Method;
 
 import org.springframework.context.ApplicationListener;
+import org.springframework.core.MethodAccessorFactory;
 import org.springframework.core.Ordered;
+import org.springframework.lang.Nullable;
 
 /**
  * Default {@link EventListenerFactory} implementation that supports the
@@ -34,6 +36,9 @@ public class DefaultEventListenerFactory implements EventListenerFactory, Ordere
 
 	private int order = LOWEST_PRECEDENCE;
 
+	@Nullable
+	private MethodAccessorFactory methodAccessorFactory;
+
 
 	public void setOrder(int order) {
 		this.order = order;
@@ -44,6 +49,16 @@ public class DefaultEventListenerFactory implements EventListenerFactory, Ordere
 		return this.order;
 	}
 
+	/**
+	 * Set the {@link MethodAccessorFactory} to use for invoking event listener
+	 * methods, e.g. a {@link org.springframework.core.GeneratedMethodAccessorFactory}.
+	 * <p>By default event listener methods are invoked via reflection.
+	 * @since 5.0.17
+	 */
+	public void setMethodAccessorFactory(@Nullable MethodAccessorFactory methodAccessorFactory) {
+		this.methodAccessorFactory = methodAccessorFactory;
+	}
+
 
 	public boolean supportsMethod(Method method) {
 		return true;
@@ -51,7 +66,9 @@ public class DefaultEventListenerFactory implements EventListenerFactory, Ordere
 
 	@Override
 	public ApplicationListener<?> createApplicationListener(String beanName, Class<?> type, Method method) {
-		return new ApplicationListenerMethodAdapter(beanName, type, method);
+		ApplicationListenerMethodAdapter adapter = new ApplicationListenerMethodAdapter(beanName, type, method);
+		adapter.setMethodAccessorFactory(this.methodAccessorFactory);
+		return adapter;
 	}
 
 }
@@ -16,7 +16,11 @@
 
 package org.springframework.context.event;
 
+import java.util.Collection;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Predicate;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -25,7 +29,10 @@ import org.springframework.beans.factory.BeanFactory;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 import org.springframework.util.ErrorHandler;
 
 /**
@@ -40,6 +47,9 @@ import org.springframework.util.ErrorHandler;
  * This allows the danger of a rogue listener blocking the entire application,
  * but adds minimal overhead. Specify an alternative task executor to have
  * listeners executed in different threads, for example from a thread pool.
+ * Asynchronous execution may be restricted to specific listeners through an
+ * {@link #setAsyncListenerFilter async listener filter}, and bounded through a
+ * {@link #setMaxPendingAsyncInvocations maximum number of pending invocations}.
  *
  * @author Rod Johnson
  * @author Juergen Hoeller
@@ -51,9 +61,17 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 	@Nullable
 	private Executor taskExecutor;
 
+	@Nullable
+	private Predicate<ApplicationListener<?>> asyncListenerFilter;
+
+	@Nullable
+	private Semaphore pendingAsyncInvocations;
+
 	@Nullable
 	private ErrorHandler errorHandler;
 
+	private ApplicationStartup applicationStartup = ApplicationStartup.DEFAULT;
+
 
 	/**
 	 * Create a new SimpleApplicationEventMulticaster.
@@ -93,6 +111,36 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		return this.taskExecutor;
 	}
 
+	/**
+	 * Set a filter for the listeners to invoke through the
+	 * {@link #setTaskExecutor task executor}, if any.
+	 * <p>Default is none, invoking all listeners through the task executor.
+	 * Listeners not accepted by the filter get invoked synchronously in the
+	 * calling thread, e.g. for cheap listeners that are not worth a thread hop.
+	 * @since 5.0.17
+	 */
+	public void setAsyncListenerFilter(@Nullable Predicate<ApplicationListener<?>> asyncListenerFilter) {
+		this.asyncListenerFilter = asyncListenerFilter;
+	}
+
+	/**
+	 * Set the maximum number of listener invocations handed to the
+	 * {@link #setTaskExecutor task executor} but not completed yet.
+	 * <p>Default is unbounded, relying on the task executor to queue up
+	 * invocations. With a bound in place, a listener invocation beyond
+	 * that bound gets performed in the calling thread instead, throttling
+	 * the publisher rather than letting pending invocations pile up.
+	 * @param maxPendingAsyncInvocations the maximum number of pending
+	 * invocations, or -1 for unbounded
+	 * @since 5.0.17
+	 */
+	public void setMaxPendingAsyncInvocations(int maxPendingAsyncInvocations) {
+		Assert.isTrue(maxPendingAsyncInvocations > 0 || maxPendingAsyncInvocations == -1,
+				"Maximum number of pending invocations must be greater than 0, or -1 for unbounded");
+		this.pendingAsyncInvocations =
+				(maxPendingAsyncInvocations != -1 ? new Semaphore(maxPendingAsyncInvocations) : null);
+	}
+
 	/**
 	 * Set the {@link ErrorHandler} to invoke in case an exception is thrown
 	 * from a listener.
@@ -121,6 +169,24 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		return this.errorHandler;
 	}
 
+	/**
+	 * Set the {@link ApplicationStartup} to track listener invocations with.
+	 * <p>Default is {@link ApplicationStartup#DEFAULT}, not recording any metrics.
+	 * @since 5.0.17
+	 */
+	public void setApplicationStartup(ApplicationStartup applicationStartup) {
+		Assert.notNull(applicationStartup, "ApplicationStartup must not be null");
+		this.applicationStartup = applicationStartup;
+	}
+
+	/**
+	 * Return the {@link ApplicationStartup} to track listener invocations with.
+	 * @since 5.0.17
+	 */
+	public ApplicationStartup getApplicationStartup() {
+		return this.applicationStartup;
+	}
+
 
 	@Override
 	public void multicastEvent(ApplicationEvent event) {
@@ -131,12 +197,26 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 	public void multicastEvent(final ApplicationEvent event, @Nullable ResolvableType eventType) {
 		ResolvableType type = (eventType != null ? eventType : resolveDefaultEventType(event));
 		for (final ApplicationListener<?> listener : getApplicationListeners(event, type)) {
-			Executor executor = getTaskExecutor();
-			if (executor != null) {
-				executor.execute(() -> invokeListener(listener, event));
+			dispatchEvent(listener, event);
+		}
+	}
+
+	@Override
+	public void multicastEvents(Collection<? extends ApplicationEvent> events) {
+		ResolvableType currentType = null;
+		Class<?> currentSourceType = null;
+		Collection<ApplicationListener<?>> listeners = null;
+		for (ApplicationEvent event : events) {
+			ResolvableType type = resolveDefaultEventType(event);
+			Object source = event.getSource();
+			Class<?> sourceType = (source != null ? source.getClass() : null);
+			if (listeners == null || !type.equals(currentType) || sourceType != currentSourceType) {
+				listeners = getApplicationListeners(event, type);
+				currentType = type;
+				currentSourceType = sourceType;
 			}
-			else {
-				invokeListener(listener, event);
+			for (ApplicationListener<?> listener : listeners) {
+				dispatchEvent(listener, event);
 			}
 		}
 	}
@@ -145,6 +225,42 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		return ResolvableType.forInstance(event);
 	}
 
+	/**
+	 * Invoke the given listener through the task executor, if applicable,
+	 * or in the calling thread otherwise.
+	 */
+	private void dispatchEvent(ApplicationListener<?> listener, ApplicationEvent event) {
+		Executor executor = getTaskExecutor();
+		if (executor == null || (this.asyncListenerFilter != null && !this.asyncListenerFilter.test(listener))) {
+			invokeListener(listener, event);
+			return;
+		}
+		Semaphore pendingInvocations = this.pendingAsyncInvocations;
+		if (pendingInvocations == null) {
+			executor.execute(() -> invokeListener(listener, event));
+		}
+		else if (pendingInvocations.tryAcquire()) {
+			try {
+				executor.execute(() -> {
+					try {
+						invokeListener(listener, event);
+					}
+					finally {
+						pendingInvocations.release();
+					}
+				});
+			}
+			catch (RejectedExecutionException ex) {
+				pendingInvocations.release();
+				throw ex;
+			}
+		}
+		else {
+			// Too many pending invocations -> invoke in the calling thread.
+			invokeListener(listener, event);
+		}
+	}
+
 	/**
 	 * Invoke the given listener with the given event.
 	 * @param listener the ApplicationListener to invoke
@@ -168,6 +284,9 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 
 	@SuppressWarnings({"rawtypes", "unchecked"})
 	private void doInvokeListener(ApplicationListener listener, ApplicationEvent event) {
+		StartupStep listenerInvocation = this.applicationStartup.start("spring.event.invoke-listener")
+				.tag("event", () -> event.getClass().getName())
+				.tag("listener", listener::toString);
 		try {
 			listener.onApplicationEvent(event);
 		}
@@ -185,6 +304,9 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 				throw ex;
 			}
 		}
+		finally {
+			listenerInvocation.end();
+		}
 	}
 
 	private boolean matchesClassCastMessage(String classCastMessage, Class<?> eventClass) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import java.util.Map;
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionCache;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
@@ -74,7 +75,9 @@ public abstract class CachedExpressionEvaluator {
 
 	/**
 	 * Return the {@link Expression} for the specified SpEL value
-	 * <p>Parse the expression if it hasn't been already.
+	 * <p>Parse the expression if it hasn't been already, sharing the parsed
+	 * expression through the {@linkplain SpelExpressionCache#getSharedInstance()
+	 * shared expression cache} if available.
 	 * @param cache the cache to use
 	 * @param elementKey the element on which the expression is defined
 	 * @param expression the expression to parse
@@ -85,7 +88,9 @@ public abstract class CachedExpressionEvaluator {
 		ExpressionKey expressionKey = createKey(elementKey, expression);
 		Expression expr = cache.get(expressionKey);
 		if (expr == null) {
-			expr = getParser().parseExpression(expression);
+			SpelExpressionCache sharedCache = SpelExpressionCache.getSharedInstance();
+			expr = (sharedCache != null ? sharedCache.getExpression(getParser(), expression) :
+					getParser().parseExpression(expression));
 			cache.put(expressionKey, expr);
 		}
 		return expr;
@@ -42,6 +42,10 @@ import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.core.type.classreading.MetadataReaderCache;
+import org.springframework.expression.spel.standard.SpelExpressionCache;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
@@ -50,6 +54,7 @@ import org.springframework.util.ReflectionUtils;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.util.*;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -233,6 +238,11 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	@Nullable
 	private Set<ApplicationEvent> earlyApplicationEvents;
 
+	/**
+	 * Application startup metrics
+	 */
+	private ApplicationStartup applicationStartup = ApplicationStartup.DEFAULT;
+
 
 	/**
 	 * Create a new AbstractApplicationContext with no parent.
@@ -345,6 +355,26 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		return new StandardEnvironment();
 	}
 
+	/**
+	 * Set the {@link ApplicationStartup} for this application context.
+	 * <p>Default is {@link ApplicationStartup#DEFAULT}, not recording any metrics.
+	 * The given instance is also applied to the internal bean factory and exposed
+	 * as {@link #APPLICATION_STARTUP_BEAN_NAME bean} on {@link #refresh()}.
+	 *
+	 * @see org.springframework.core.metrics.BufferingApplicationStartup
+	 * @since 5.0.17
+	 */
+	@Override
+	public void setApplicationStartup(ApplicationStartup applicationStartup) {
+		Assert.notNull(applicationStartup, "ApplicationStartup must not be null");
+		this.applicationStartup = applicationStartup;
+	}
+
+	@Override
+	public ApplicationStartup getApplicationStartup() {
+		return this.applicationStartup;
+	}
+
 	/**
 	 * Return this context's internal bean factory as AutowireCapableBeanFactory,
 	 * if already available.
@@ -434,6 +464,42 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		}
 	}
 
+	/**
+	 * Publish the given events to all listeners, in order, resolving the
+	 * listeners for consecutive events of the same type only once.
+	 *
+	 * @param events the events to publish (each may be an {@link ApplicationEvent}
+	 *               or a payload object to be turned into a {@link PayloadApplicationEvent})
+	 * @since 5.0.17
+	 */
+	@Override
+	public void publishEvents(Collection<?> events) {
+		Assert.notNull(events, "Events must not be null");
+		if (logger.isTraceEnabled()) {
+			logger.trace("Publishing " + events.size() + " events in " + getDisplayName());
+		}
+
+		// Decorate events as ApplicationEvents if necessary
+		List<ApplicationEvent> applicationEvents = new ArrayList<>(events.size());
+		for (Object event : events) {
+			Assert.notNull(event, "Event must not be null");
+			applicationEvents.add(event instanceof ApplicationEvent ?
+					(ApplicationEvent) event : new PayloadApplicationEvent<>(this, event));
+		}
+
+		// Multicast right now if possible - or lazily once the multicaster is initialized
+		if (this.earlyApplicationEvents != null) {
+			this.earlyApplicationEvents.addAll(applicationEvents);
+		} else {
+			getApplicationEventMulticaster().multicastEvents(applicationEvents);
+		}
+
+		// Publish events via parent context as well...
+		if (this.parent != null) {
+			this.parent.publishEvents(events);
+		}
+	}
+
 	/**
 	 * Return the internal ApplicationEventMulticaster used by the context.
 	 *
@@ -539,6 +605,8 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	@Override
 	public void refresh() throws BeansException, IllegalStateException {
 		synchronized (this.startupShutdownMonitor) {
+			StartupStep contextRefresh = this.applicationStartup.start("spring.context.refresh");
+
 			// Prepare this context for refreshing.
 			/**
 			 * 1、上下文刷新前的准备工作
@@ -581,11 +649,13 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 				 * 5.2 解析类成BeanDefinition对象，并且put进入beanDefinitionMap中（生成BeanDefinition的集合）
 				 * 5.3 再次执行bean工厂后置处理器完成cglib代理
 				 */
+				StartupStep beanPostProcess = this.applicationStartup.start("spring.context.beans.post-process");
 				invokeBeanFactoryPostProcessors(beanFactory);
 
 				// Register bean processors that intercept bean creation.
 				//6、注册bean的后置处理器
 				registerBeanPostProcessors(beanFactory);
+				beanPostProcess.end();
 
 				// Initialize message source for this context.
 				//7、初始化消息资源，比如国际化资源处理器
@@ -607,7 +677,9 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 				// Instantiate all remaining (non-lazy-init) singletons.
 				//11、实例化bean(所有剩余的单例且非懒加载的bean)
 				// Bean初始化最重要的方法
+				StartupStep beanInstantiation = this.applicationStartup.start("spring.context.singletons.instantiate");
 				finishBeanFactoryInitialization(beanFactory);
+				beanInstantiation.end();
 
 				// Last step: publish corresponding event.
 				//12、最后容器刷新，发布刷新事件(Spring  Cloud 从这里启动)
@@ -630,6 +702,7 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 				// Reset common introspection caches in Spring's core, since we
 				// might not ever need metadata for singleton beans anymore...
 				resetCommonCaches();
+				contextRefresh.end();
 			}
 		}
 	}
@@ -709,6 +782,7 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		// Tell the internal bean factory to use the context's class loader etc.
 		//添加Bean的类加载器
 		beanFactory.setBeanClassLoader(getClassLoader());
+		beanFactory.setApplicationStartup(getApplicationStartup());
 		//添加bean的表达式解析， 为了能够让我们的BeanFactory解析(使用该解析器去解析bean表达式)--bean表达式是什么
 		beanFactory.setBeanExpressionResolver(new StandardBeanExpressionResolver(beanFactory.getBeanClassLoader()));
 		//添加属性编辑器，该编辑器可以获取到Properties、xml、yml等配置文件
@@ -769,6 +843,9 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		if (!beanFactory.containsLocalBean(SYSTEM_ENVIRONMENT_BEAN_NAME)) {
 			beanFactory.registerSingleton(SYSTEM_ENVIRONMENT_BEAN_NAME, getEnvironment().getSystemEnvironment());
 		}
+		if (!beanFactory.containsLocalBean(APPLICATION_STARTUP_BEAN_NAME)) {
+			beanFactory.registerSingleton(APPLICATION_STARTUP_BEAN_NAME, getApplicationStartup());
+		}
 	}
 
 	/**
@@ -863,7 +940,9 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 				logger.debug("Using ApplicationEventMulticaster [" + this.applicationEventMulticaster + "]");
 			}
 		} else {
-			this.applicationEventMulticaster = new SimpleApplicationEventMulticaster(beanFactory);
+			SimpleApplicationEventMulticaster multicaster = new SimpleApplicationEventMulticaster(beanFactory);
+			multicaster.setApplicationStartup(getApplicationStartup());
+			this.applicationEventMulticaster = multicaster;
 			beanFactory.registerSingleton(APPLICATION_EVENT_MULTICASTER_BEAN_NAME, this.applicationEventMulticaster);
 			if (logger.isDebugEnabled()) {
 				logger.debug("Unable to locate ApplicationEventMulticaster with name '" +
@@ -942,6 +1021,9 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	/**
 	 * Finish the initialization of this context's bean factory,
 	 * initializing all remaining singleton beans.
+	 * <p>Singletons marked for background initialization are handed to the
+	 * {@link #BOOTSTRAP_EXECUTOR_BEAN_NAME bootstrap executor}, if defined,
+	 * instead of being initialized before this method returns.
 	 */
 	protected void finishBeanFactoryInitialization(ConfigurableListableBeanFactory beanFactory) {
 		// Initialize conversion service for this context.
@@ -952,6 +1034,14 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 					beanFactory.getBean(CONVERSION_SERVICE_BEAN_NAME, ConversionService.class));
 		}
 
+		// Initialize bootstrap executor for initializing singletons in the background.
+		// 如果bean工厂中包含bootstrapExecutor，后台初始化标记的单例将延后到该执行器上创建
+		if (beanFactory.containsBean(BOOTSTRAP_EXECUTOR_BEAN_NAME) &&
+				beanFactory.isTypeMatch(BOOTSTRAP_EXECUTOR_BEAN_NAME, Executor.class)) {
+			beanFactory.setBootstrapExecutor(
+					beanFactory.getBean(BOOTSTRAP_EXECUTOR_BEAN_NAME, Executor.class));
+		}
+
 		// Register a default embedded value resolver if no bean post-processor
 		// (such as a PropertyPlaceholderConfigurer bean) registered any before:
 		// at this point, primarily for resolution in annotation attribute values.
@@ -995,7 +1085,9 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		getLifecycleProcessor().onRefresh();
 
 		// Publish the final event.
+		StartupStep refreshedEvent = this.applicationStartup.start("spring.context.refreshed-event.publish");
 		publishEvent(new ContextRefreshedEvent(this));
+		refreshedEvent.end();
 
 		// Participate in LiveBeansView MBean, if active.
 		LiveBeansView.registerApplicationContext(this);
@@ -1029,6 +1121,32 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		CachedIntrospectionResults.clearClassLoader(getClassLoader());
 	}
 
+	/**
+	 * Release the entries that Spring's JVM-wide caches hold for this context's
+	 * ClassLoader, unless Spring itself has been loaded by that ClassLoader or
+	 * one of its children, i.e. unless the ClassLoader outlives the caches anyway.
+	 *
+	 * @see MetadataReaderCache#evict(ClassLoader)
+	 * @see SpelExpressionCache#evict(ClassLoader)
+	 * @since 5.0.17
+	 */
+	protected void releaseSharedCaches() {
+		ClassLoader classLoader = getClassLoader();
+		for (ClassLoader cl = AbstractApplicationContext.class.getClassLoader(); cl != null; cl = cl.getParent()) {
+			if (cl == classLoader) {
+				return;
+			}
+		}
+		MetadataReaderCache metadataReaderCache = MetadataReaderCache.getSharedInstance();
+		if (metadataReaderCache != null) {
+			metadataReaderCache.evict(classLoader);
+		}
+		SpelExpressionCache expressionCache = SpelExpressionCache.getSharedInstance();
+		if (expressionCache != null) {
+			expressionCache.evict(classLoader);
+		}
+	}
+
 
 	/**
 	 * Register a shutdown hook with the JVM runtime, closing this context
@@ -1136,6 +1254,9 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 			// Let subclasses do some final clean-up if they wish...
 			onClose();
 
+			// Release shared metadata held for this context's ClassLoader.
+			releaseSharedCaches();
+
 			// Reset local application listeners to pre-refresh state.
 			if (this.earlyApplicationListeners != null) {
 				this.applicationListeners.clear();
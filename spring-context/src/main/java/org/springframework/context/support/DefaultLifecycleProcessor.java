@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -40,6 +40,7 @@ import org.springframework.context.Lifecycle;
 import org.springframework.context.LifecycleProcessor;
 import org.springframework.context.Phased;
 import org.springframework.context.SmartLifecycle;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
@@ -155,7 +156,10 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 			List<Integer> keys = new ArrayList<>(phases.keySet());
 			Collections.sort(keys);
 			for (Integer key : keys) {
+				StartupStep phaseStart = getBeanFactory().getApplicationStartup()
+						.start("spring.context.lifecycle.phase.start").tag("phase", key::toString);
 				phases.get(key).start();
+				phaseStart.end();
 			}
 		}
 	}
@@ -178,12 +182,17 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 				if (logger.isDebugEnabled()) {
 					logger.debug("Starting bean '" + beanName + "' of type [" + bean.getClass().getName() + "]");
 				}
+				StartupStep beanStart = getBeanFactory().getApplicationStartup()
+						.start("spring.context.lifecycle.start").tag("beanName", beanName);
 				try {
 					bean.start();
 				}
 				catch (Throwable ex) {
 					throw new ApplicationContextException("Failed to start bean '" + beanName + "'", ex);
 				}
+				finally {
+					beanStart.end();
+				}
 				if (logger.isDebugEnabled()) {
 					logger.debug("Successfully started bean '" + beanName + "'");
 				}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,8 @@ import org.springframework.beans.factory.support.*;
 import org.springframework.core.OrderComparator;
 import org.springframework.core.Ordered;
 import org.springframework.core.PriorityOrdered;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
 
 import java.util.*;
@@ -125,7 +127,7 @@ final class PostProcessorRegistrationDelegate {
 			 * 2、ImportBeanDefinitionRegistar
 			 * 3、普通类
 			 */
-			invokeBeanDefinitionRegistryPostProcessors( currentRegistryProcessors, registry );
+			invokeBeanDefinitionRegistryPostProcessors( currentRegistryProcessors, registry, beanFactory.getApplicationStartup() );
 			//到这里，Spring就执行完所有的BeanDefinitionPostProcessor，包括Spring内部定义的和程序员自定义的
 			//使用完成后，清除，让jvm在合适的时候进行垃圾回收
 			currentRegistryProcessors.clear();
@@ -141,7 +143,7 @@ final class PostProcessorRegistrationDelegate {
 			}
 			sortPostProcessors( currentRegistryProcessors, beanFactory );
 			registryProcessors.addAll( currentRegistryProcessors );
-			invokeBeanDefinitionRegistryPostProcessors( currentRegistryProcessors, registry );
+			invokeBeanDefinitionRegistryPostProcessors( currentRegistryProcessors, registry, beanFactory.getApplicationStartup() );
 			currentRegistryProcessors.clear();
 
 			// Finally, invoke all other BeanDefinitionRegistryPostProcessors until no further ones appear.
@@ -159,7 +161,7 @@ final class PostProcessorRegistrationDelegate {
 				}
 				sortPostProcessors( currentRegistryProcessors, beanFactory );
 				registryProcessors.addAll( currentRegistryProcessors );
-				invokeBeanDefinitionRegistryPostProcessors( currentRegistryProcessors, registry );
+				invokeBeanDefinitionRegistryPostProcessors( currentRegistryProcessors, registry, beanFactory.getApplicationStartup() );
 				currentRegistryProcessors.clear();
 			}
 
@@ -318,10 +320,14 @@ final class PostProcessorRegistrationDelegate {
 	 * 执行 Spring容器内部 BeanDefinitionRegistryPostProcessor
 	 */
 	private static void invokeBeanDefinitionRegistryPostProcessors(
-			Collection<? extends BeanDefinitionRegistryPostProcessor> postProcessors, BeanDefinitionRegistry registry) {
+			Collection<? extends BeanDefinitionRegistryPostProcessor> postProcessors, BeanDefinitionRegistry registry,
+			ApplicationStartup applicationStartup) {
 
 		for (BeanDefinitionRegistryPostProcessor postProcessor : postProcessors) {
+			StartupStep postProcessBeanDefRegistry = applicationStartup.start( "spring.context.beandef-registry.post-process" )
+					.tag( "postProcessor", postProcessor::toString );
 			postProcessor.postProcessBeanDefinitionRegistry( registry );
+			postProcessBeanDefRegistry.end();
 		}
 	}
 
@@ -333,7 +339,10 @@ final class PostProcessorRegistrationDelegate {
 			Collection<? extends BeanFactoryPostProcessor> postProcessors, ConfigurableListableBeanFactory beanFactory) {
 
 		for (BeanFactoryPostProcessor postProcessor : postProcessors) {
+			StartupStep postProcessBeanFactory = beanFactory.getApplicationStartup().start( "spring.context.bean-factory.post-process" )
+					.tag( "postProcessor", postProcessor::toString );
 			postProcessor.postProcessBeanFactory( beanFactory );
+			postProcessBeanFactory.end();
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.aop.framework;
 
 import java.io.Serializable;
+import java.lang.reflect.Method;
 
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
@@ -28,6 +29,9 @@ import org.springframework.aop.MethodMatcher;
 import org.springframework.aop.Pointcut;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.DynamicMethodMatcherPointcut;
+import org.springframework.aop.support.NameMatchMethodPointcut;
+import org.springframework.cglib.proxy.Factory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextException;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
@@ -234,6 +238,70 @@ public class CglibProxyTests extends AbstractAopProxyTests implements Serializab
 		return (ITestBean) pf.getProxy();
 	}
 
+	@Test
+	public void testFrozenProxyWithFixedAdviceChain() {
+		TestBean target = new TestBean();
+		target.setAge(27);
+		target.setName("Juergen");
+		NopInterceptor nop = new NopInterceptor();
+		NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
+		pointcut.setMappedName("getAge");
+
+		ProxyFactory pf = new ProxyFactory(target);
+		pf.setProxyTargetClass(true);
+		pf.addAdvisor(new DefaultPointcutAdvisor(pointcut, nop));
+		pf.setFrozen(true);
+		TestBean proxy = (TestBean) pf.getProxy();
+
+		// One fixed chain callback for the single advised method
+		assertEquals(8, ((Factory) proxy).getCallbacks().length);
+		assertEquals(27, proxy.getAge());
+		assertEquals(1, nop.getCount());
+		assertEquals("Juergen", proxy.getName());
+		assertEquals(1, nop.getCount());
+		assertSame(proxy.getClass(), ((TestBean) pf.getProxy()).getClass());
+	}
+
+	@Test
+	public void testFrozenProxyWithStaticAndDynamicAdviceChains() {
+		TestBean target = new TestBean();
+		NopInterceptor nop = new NopInterceptor();
+		CountingBeforeAdvice cba = new CountingBeforeAdvice();
+		NopInterceptor dynamicNop = new NopInterceptor();
+		DynamicMethodMatcherPointcut adultsOnly = new DynamicMethodMatcherPointcut() {
+			@Override
+			public boolean matches(Method method, Class<?> targetClass) {
+				return method.getName().equals("setAge");
+			}
+			@Override
+			public boolean matches(Method method, Class<?> targetClass, Object... args) {
+				return ((Integer) args[0] >= 18);
+			}
+		};
+
+		ProxyFactory pf = new ProxyFactory(target);
+		pf.setProxyTargetClass(true);
+		pf.addAdvice(nop);
+		pf.addAdvice(cba);
+		pf.addAdvisor(new DefaultPointcutAdvisor(adultsOnly, dynamicNop));
+		pf.setFrozen(true);
+		TestBean proxy = (TestBean) pf.getProxy();
+
+		// Static chain for getAge(): both interceptors, then the target
+		proxy.setAge(27);
+		assertEquals(27, proxy.getAge());
+		assertEquals(2, nop.getCount());
+		assertEquals(2, cba.getCalls());
+
+		// Dynamic chain for setAge(int): evaluated for every invocation
+		assertEquals(1, dynamicNop.getCount());
+		proxy.setAge(12);
+		assertEquals(12, target.getAge());
+		assertEquals(1, dynamicNop.getCount());
+		assertEquals(3, nop.getCount());
+		assertEquals(3, cba.getCalls());
+	}
+
 	@Test
 	public void testMultipleProxiesForIntroductionAdvisor() {
 		TestBean target1 = new TestBean();
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.metrics.BufferingApplicationStartup;
+import org.springframework.core.metrics.BufferingApplicationStartup.BufferedStartupStep;
+import org.springframework.core.metrics.StartupStep;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link org.springframework.core.metrics.ApplicationStartup}
+ * steps recorded while refreshing an application context.
+ *
+ * @author agent
+ */
+public class ApplicationStartupTests {
+
+	@Test
+	public void refreshStepsAreRecorded() {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(1000);
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setApplicationStartup(applicationStartup);
+		context.register(Config.class);
+		context.refresh();
+
+		assertSame(applicationStartup, context.getBean(ConfigurableApplicationContext.APPLICATION_STARTUP_BEAN_NAME));
+		assertSame(applicationStartup, context.getBeanFactory().getApplicationStartup());
+
+		List<BufferedStartupStep> steps = applicationStartup.getBufferedSteps();
+		Map<Long, BufferedStartupStep> stepsById =
+				steps.stream().collect(Collectors.toMap(StartupStep::getId, Function.identity()));
+		BufferedStartupStep refresh = findStep(steps, "spring.context.refresh", null);
+		assertNull(refresh.getParentId());
+		findStep(steps, "spring.context.config-classes.parse", null);
+		findStep(steps, "spring.context.config-classes.enhance", null);
+
+		BufferedStartupStep instantiate = findStep(steps, "spring.beans.instantiate", "testBean");
+		BufferedStartupStep parent = stepsById.get(instantiate.getParentId());
+		assertEquals("spring.context.singletons.instantiate", parent.getName());
+		assertEquals(Long.valueOf(refresh.getId()), parent.getParentId());
+
+		BufferedStartupStep listener = findStep(steps, "spring.event.invoke-listener", null);
+		assertEquals("spring.context.refreshed-event.publish", stepsById.get(listener.getParentId()).getName());
+		assertTrue(applicationStartup.toFlameGraph().contains(
+				"spring.context.refresh;spring.context.singletons.instantiate;spring.beans.instantiate[beanName=testBean]"));
+		context.close();
+	}
+
+	private static BufferedStartupStep findStep(List<BufferedStartupStep> steps, String name, String beanName) {
+		for (BufferedStartupStep step : steps) {
+			if (step.getName().equals(name)) {
+				if (beanName == null) {
+					return step;
+				}
+				for (StartupStep.Tag tag : step.getTags()) {
+					if (tag.getKey().equals("beanName") && tag.getValue().equals(beanName)) {
+						return step;
+					}
+				}
+			}
+		}
+		throw new AssertionError("No step '" + name + "' recorded in " + steps);
+	}
+
+
+	@Configuration
+	static class Config {
+
+		@Bean
+		public Object testBean() {
+			return new Object();
+		}
+
+		@Bean
+		public ApplicationListener<ContextRefreshedEvent> listener() {
+			return event -> {};
+		}
+	}
+
+}
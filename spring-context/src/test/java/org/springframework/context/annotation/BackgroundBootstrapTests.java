@@ -0,0 +1,98 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link Bean#bootstrap() background bootstrapping} of singletons.
+ *
+ * @author agent
+ */
+public class BackgroundBootstrapTests {
+
+	@Test(timeout = 10000)
+	public void refreshCompletesBeforeBackgroundBeans() throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(BackgroundConfig.class);
+		BackgroundConfig config = context.getBean(BackgroundConfig.class);
+		DefaultListableBeanFactory beanFactory = context.getDefaultListableBeanFactory();
+		assertTrue(beanFactory.containsSingleton("regularBean"));
+		assertFalse(beanFactory.containsSingleton("backgroundBean"));
+		assertFalse(beanFactory.containsSingleton("lazyBean"));
+
+		config.release.countDown();
+		assertEquals("background", context.getBean("backgroundBean"));
+		assertFalse(beanFactory.containsSingleton("lazyBean"));
+		context.close();
+	}
+
+	@Test
+	public void backgroundBeansWithoutBootstrapExecutor() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(PlainConfig.class);
+		assertTrue(context.getDefaultListableBeanFactory().containsSingleton("backgroundBean"));
+		context.close();
+	}
+
+
+	@Configuration
+	static class BackgroundConfig {
+
+		final CountDownLatch release = new CountDownLatch(1);
+
+		@Bean
+		public Executor bootstrapExecutor() {
+			return new SimpleAsyncTaskExecutor("bootstrap-");
+		}
+
+		@Bean
+		public String regularBean() {
+			return "regular";
+		}
+
+		@Bean(bootstrap = Bean.Bootstrap.BACKGROUND)
+		public String backgroundBean() throws InterruptedException {
+			assertTrue(this.release.await(5, TimeUnit.SECONDS));
+			return "background";
+		}
+
+		@Bean(bootstrap = Bean.Bootstrap.BACKGROUND)
+		@Lazy
+		public String lazyBean() {
+			return "lazy";
+		}
+	}
+
+
+	@Configuration
+	static class PlainConfig {
+
+		@Bean(bootstrap = Bean.Bootstrap.BACKGROUND)
+		public String backgroundBean() {
+			return "background";
+		}
+	}
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.annotation.componentscan.simple.SimpleComponent;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link BeanDefinitionSnapshot}.
+ *
+ * @author agent
+ */
+public class BeanDefinitionSnapshotTests {
+
+	private static final AtomicInteger testBeanCount = new AtomicInteger();
+
+
+	@Before
+	public void resetCount() {
+		testBeanCount.set(0);
+	}
+
+
+	@Test
+	public void captureAndLoad() throws IOException {
+		Resource resource = capture();
+		assertEquals("Singletons must not be instantiated for capturing", 0, testBeanCount.get());
+
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		assertTrue(context.loadBeanDefinitionSnapshot(resource));
+		context.refresh();
+
+		assertFalse(context.getBeanDefinition("beanDefinitionSnapshotTests.SnapshotConfig")
+				instanceof AnnotatedBeanDefinition);
+		SnapshotConfig config = context.getBean(SnapshotConfig.class);
+		TestBean testBean = context.getBean("testBean", TestBean.class);
+		assertSame(testBean, config.testBean());
+		assertSame(testBean, context.getBean("testBeanAlias"));
+		assertEquals(1, testBeanCount.get());
+		assertEquals("static", context.getBean("staticBean"));
+		assertFalse(context.containsBean("skippedBean"));
+		assertTrue(AopUtils.isCglibProxy(context.getBean("scopedBean")));
+		assertTrue(context.containsBeanDefinition("scopedTarget.scopedBean"));
+		assertEquals("enabled", context.getBean("feature"));
+		assertNotNull(context.getBean(SimpleComponent.class));
+		assertEquals("example", context.getBean("exampleBean"));
+		context.close();
+	}
+
+	@Test
+	public void loadIntoGenericApplicationContext() throws IOException {
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.read(capture().getInputStream());
+
+		GenericApplicationContext context = new GenericApplicationContext();
+		assertTrue(snapshot.isCurrent(context.getClassLoader(), context.getEnvironment()));
+		assertTrue(snapshot.registerBeanDefinitions(context, context.getClassLoader()) > 0);
+		context.refresh();
+
+		assertSame(context.getBean("testBean"), context.getBean(SnapshotConfig.class).testBean());
+		assertEquals("enabled", context.getBean("feature"));
+		context.close();
+	}
+
+	@Test
+	public void existingBeanDefinitionTakesPrecedence() throws IOException {
+		Resource resource = capture();
+
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.getPropertyValues().add("name", "existing");
+		context.registerBeanDefinition("testBean", bd);
+		assertTrue(context.loadBeanDefinitionSnapshot(resource));
+		context.refresh();
+
+		assertEquals("existing", context.getBean("testBean", TestBean.class).getName());
+		context.close();
+	}
+
+	@Test
+	public void outdatedSnapshotIsIgnored() throws IOException {
+		Resource resource = capture();
+
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.getEnvironment().setActiveProfiles("other");
+		assertFalse(context.loadBeanDefinitionSnapshot(resource));
+		assertFalse(context.containsBeanDefinition("testBean"));
+	}
+
+	@Test
+	public void missingSnapshotIsIgnored() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		assertFalse(context.loadBeanDefinitionSnapshot(new ClassPathResource("missing.snapshot", getClass())));
+	}
+
+	@Test(expected = IOException.class)
+	public void readInvalidSnapshot() throws IOException {
+		BeanDefinitionSnapshot.read(new ByteArrayInputStream("invalid".getBytes()));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void captureBeanDefinitionWithInstanceSupplier() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.registerBean("supplied", TestBean.class, () -> new TestBean());
+		BeanDefinitionSnapshot.capture(context);
+	}
+
+	@Test
+	public void fingerprintReflectsProfiles() {
+		GenericApplicationContext context = new GenericApplicationContext();
+		String fingerprint = BeanDefinitionSnapshot.fingerprint(context.getClassLoader(), context.getEnvironment());
+		assertEquals(fingerprint, BeanDefinitionSnapshot.fingerprint(context.getClassLoader(), context.getEnvironment()));
+
+		context.getEnvironment().setActiveProfiles("other");
+		assertNotEquals(fingerprint, BeanDefinitionSnapshot.fingerprint(context.getClassLoader(), context.getEnvironment()));
+	}
+
+
+	private Resource capture() throws IOException {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.register(SnapshotConfig.class);
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.capture(context);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		snapshot.write(out);
+		return new ByteArrayResource(out.toByteArray());
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Import(FeatureConfig.class)
+	@interface EnableFeature {
+
+		String value();
+	}
+
+
+	@Configuration
+	@EnableFeature("enabled")
+	@ComponentScan(basePackageClasses = SimpleComponent.class, useDefaultFilters = false,
+			includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = SimpleComponent.class))
+	static class SnapshotConfig {
+
+		@Bean(name = {"testBean", "testBeanAlias"})
+		public TestBean testBean() {
+			testBeanCount.incrementAndGet();
+			return new TestBean();
+		}
+
+		@Bean
+		public static String staticBean() {
+			return "static";
+		}
+
+		@Bean
+		@Conditional(NeverCondition.class)
+		public TestBean skippedBean() {
+			return new TestBean();
+		}
+
+		@Bean
+		@Scope(scopeName = "prototype", proxyMode = ScopedProxyMode.TARGET_CLASS)
+		public TestBean scopedBean() {
+			return new TestBean();
+		}
+	}
+
+
+	@Configuration
+	static class FeatureConfig implements ImportAware {
+
+		private String value;
+
+		@Override
+		public void setImportMetadata(AnnotationMetadata importMetadata) {
+			this.value = (String) importMetadata.getAnnotationAttributes(EnableFeature.class.getName()).get("value");
+		}
+
+		@Bean
+		public String feature() {
+			return this.value;
+		}
+	}
+
+
+	static class NeverCondition implements Condition {
+
+		@Override
+		public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			return false;
+		}
+	}
+
+}
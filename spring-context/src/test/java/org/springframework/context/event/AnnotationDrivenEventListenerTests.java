@@ -529,6 +529,16 @@ public class AnnotationDrivenEventListenerTests {
 		this.eventCollector.assertTotalEventsCount(4);
 	}
 
+	@Test
+	public void conditionMatchBeyondCompilationThreshold() {
+		load(ConditionalEventListener.class);
+		for (int i = 0; i < 300; i++) {
+			this.context.publishEvent(new TestEvent(this, (i % 2 == 0 ? "OK" : "KO")));
+			this.context.publishEvent(i % 3 == 0 ? "OK " + i : "KO " + i);
+		}
+		this.eventCollector.assertTotalEventsCount(150 + 100);
+	}
+
 	@Test
 	public void conditionDoesNotMatch() {
 		long maxLong = Long.MAX_VALUE;
@@ -16,11 +16,17 @@
 
 package org.springframework.context.event;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.junit.Test;
@@ -142,6 +148,104 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		verify(listener, times(2)).onApplicationEvent(evt);
 	}
 
+	@Test
+	public void simpleApplicationEventMulticasterWithAsyncListenerFilter() {
+		MyOrderedListener1 syncListener = new MyOrderedListener1();
+		@SuppressWarnings("unchecked")
+		ApplicationListener<ApplicationEvent> asyncListener = mock(ApplicationListener.class);
+		ApplicationEvent evt = new ContextClosedEvent(new StaticApplicationContext());
+		List<Runnable> tasks = new ArrayList<>();
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.setTaskExecutor(tasks::add);
+		smc.setAsyncListenerFilter(listener -> listener != syncListener);
+		smc.addApplicationListener(syncListener);
+		smc.addApplicationListener(asyncListener);
+
+		smc.multicastEvent(evt);
+		assertEquals(1, syncListener.seenEvents.size());
+		verify(asyncListener, never()).onApplicationEvent(evt);
+		assertEquals(1, tasks.size());
+		tasks.get(0).run();
+		verify(asyncListener).onApplicationEvent(evt);
+	}
+
+	@Test(timeout = 10000)
+	public void simpleApplicationEventMulticasterWithMaxPendingAsyncInvocations() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		ApplicationListener<MyEvent> listener = event -> {
+			synchronized (threads) {
+				threads.add(Thread.currentThread());
+			}
+			if (Thread.currentThread().getName().startsWith("pool")) {
+				try {
+					release.await();
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.setTaskExecutor(executor);
+		smc.setMaxPendingAsyncInvocations(2);
+		smc.addApplicationListener(listener);
+
+		smc.multicastEvent(new MyEvent(this));
+		smc.multicastEvent(new MyEvent(this));
+		smc.multicastEvent(new MyEvent(this));
+		synchronized (threads) {
+			assertTrue(threads.contains(Thread.currentThread()));
+		}
+		release.countDown();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+		assertEquals(3, threads.size());
+	}
+
+	@Test
+	public void simpleApplicationEventMulticasterWithMultipleEvents() {
+		MyOrderedListener1 listener1 = new MyOrderedListener1();
+		MyOrderedListener2 listener2 = new MyOrderedListener2(listener1);
+		MyEvent event1 = new MyEvent(this);
+		MyOtherEvent event2 = new MyOtherEvent(this);
+		MyEvent event3 = new MyEvent(this);
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.addApplicationListener(listener2);
+		smc.addApplicationListener(listener1);
+
+		smc.multicastEvents(Arrays.asList(event1, event2, event3));
+		assertEquals(Arrays.asList(event1, event2, event3), listener1.seenEvents);
+		assertEquals(2, smc.retrieverCache.size());
+	}
+
+	@Test
+	public void listenerRegistrationEvictsAffectedRetrieversOnly() {
+		MyOrderedListener1 listener1 = new MyOrderedListener1();
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.addApplicationListener(listener1);
+		smc.multicastEvent(new MyEvent(this));
+		smc.multicastEvent(new MyOtherEvent(this));
+		assertEquals(2, smc.retrieverCache.size());
+
+		MyOrderedListener2 listener2 = new MyOrderedListener2(listener1);
+		smc.addApplicationListener(listener2);
+		assertEquals(1, smc.retrieverCache.size());
+		smc.multicastEvent(new MyEvent(this));
+		assertEquals(2, smc.retrieverCache.size());
+
+		smc.removeApplicationListener(listener2);
+		assertEquals(1, smc.retrieverCache.size());
+		smc.removeApplicationListener(listener1);
+		assertEquals(0, smc.retrieverCache.size());
+		smc.multicastEvent(new MyEvent(this));
+		assertEquals(3, listener1.seenEvents.size());
+	}
+
 	@Test
 	public void simpleApplicationEventMulticasterWithException() {
 		@SuppressWarnings("unchecked")
@@ -293,8 +397,9 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		assertTrue(listener1.seenEvents.contains(event3));
 		assertTrue(listener1.seenEvents.contains(event4));
 
+		// ContextRefreshedEvent, MyOtherEvent and MyEvent: lazy listener2 only evicted entries it supports
 		AbstractApplicationEventMulticaster multicaster = context.getBean(AbstractApplicationEventMulticaster.class);
-		assertEquals(2, multicaster.retrieverCache.size());
+		assertEquals(3, multicaster.retrieverCache.size());
 
 		context.close();
 	}
@@ -321,6 +426,25 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		context.close();
 	}
 
+	@Test
+	public void listenersInApplicationContextWithMultipleEvents() {
+		StaticApplicationContext context = new StaticApplicationContext();
+		context.registerBeanDefinition("listener", new RootBeanDefinition(MyPayloadListener.class));
+		context.registerBeanDefinition("eventListener", new RootBeanDefinition(MyOrderedListener1.class));
+		context.refresh();
+
+		MyPayloadListener listener = context.getBean("listener", MyPayloadListener.class);
+		MyOrderedListener1 eventListener = context.getBean("eventListener", MyOrderedListener1.class);
+		MyEvent event = new MyEvent(this);
+		eventListener.seenEvents.clear();
+		context.publishEvents(Arrays.asList("event1", event, "event2"));
+		assertEquals(new HashSet<>(Arrays.asList("event1", "event2")), listener.seenPayloads);
+		assertEquals(3, eventListener.seenEvents.size());
+		assertSame(event, eventListener.seenEvents.get(1));
+
+		context.close();
+	}
+
 	@Test
 	public void listenersInApplicationContextWithNestedChild() {
 		StaticApplicationContext context = new StaticApplicationContext();
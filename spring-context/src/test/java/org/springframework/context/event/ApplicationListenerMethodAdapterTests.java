@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package org.springframework.context.event;
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.lang.reflect.UndeclaredThrowableException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -28,6 +29,7 @@ import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.core.ReflectiveMethodAccessor;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.ResolvableTypeProvider;
 import org.springframework.core.annotation.Order;
@@ -183,6 +185,23 @@ public class ApplicationListenerMethodAdapterTests extends AbstractApplicationEv
 		verify(this.sampleEvents, times(1)).handleGenericString(event);
 	}
 
+	@Test
+	public void invokeListenerWithMethodAccessorFactory() {
+		Method method = ReflectionUtils.findMethod(
+				SampleEvents.class, "handleGenericString", GenericTestEvent.class);
+		AtomicInteger accessorCount = new AtomicInteger();
+		ApplicationListenerMethodAdapter adapter = createTestInstance(method);
+		adapter.setMethodAccessorFactory(m -> {
+			accessorCount.incrementAndGet();
+			return new ReflectiveMethodAccessor(m);
+		});
+		GenericTestEvent<String> event = createGenericTestEvent("test");
+		adapter.onApplicationEvent(event);
+		adapter.onApplicationEvent(event);
+		verify(this.sampleEvents, times(2)).handleGenericString(event);
+		assertEquals(1, accessorCount.get());
+	}
+
 	@Test
 	public void invokeListenerWithGenericEvent() {
 		Method method = ReflectionUtils.findMethod(
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,23 @@
 
 package org.springframework.context.support;
 
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+
 import org.junit.Test;
 
 import org.springframework.beans.factory.NoUniqueBeanDefinitionException;
 import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderCache;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionCache;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
 
 import static org.junit.Assert.*;
 
@@ -103,4 +116,41 @@ public class GenericApplicationContextTests {
 		}
 	}
 
+	@Test
+	public void sharedMetadataOfContextClassLoaderReleasedOnClose() throws IOException {
+		MetadataReaderCache cache = MetadataReaderCache.getSharedInstance();
+		ClassLoader classLoader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+		Resource resource = new ClassPathResource("org/springframework/context/support/GenericApplicationContext.class");
+		MetadataReader reader = cache.getMetadataReader(
+				resource, classLoader, new SimpleMetadataReaderFactory()::getMetadataReader);
+
+		GenericApplicationContext ac = new GenericApplicationContext();
+		ac.setClassLoader(classLoader);
+		ac.refresh();
+		assertSame(reader, cache.getMetadataReader(
+				resource, classLoader, new SimpleMetadataReaderFactory()::getMetadataReader));
+
+		ac.close();
+		assertNotSame(reader, cache.getMetadataReader(
+				resource, classLoader, new SimpleMetadataReaderFactory()::getMetadataReader));
+		cache.evict(classLoader);
+	}
+
+	@Test
+	public void sharedExpressionsOfContextClassLoaderReleasedOnClose() {
+		SpelExpressionCache cache = SpelExpressionCache.getSharedInstance();
+		ClassLoader classLoader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+		SpelExpressionParser parser = new SpelExpressionParser(new SpelParserConfiguration(null, classLoader));
+		Expression expression = cache.getExpression(parser, "length()");
+
+		GenericApplicationContext ac = new GenericApplicationContext();
+		ac.setClassLoader(classLoader);
+		ac.refresh();
+		assertSame(expression, cache.getExpression(parser, "length()"));
+
+		ac.close();
+		assertNotSame(expression, cache.getExpression(parser, "length()"));
+		cache.evict(classLoader);
+	}
+
 }
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * {@link MethodAccessorFactory} that generates a class per method which calls
+ * the method directly, avoiding the overhead of {@link Method#invoke} on every
+ * invocation and allowing the JIT compiler to inline the call.
+ *
+ * <p>Accessors can only be generated for public methods on public classes
+ * with public parameter types, as visible from the class loader of the
+ * declaring class. For any other method, as well as for invocations with
+ * arguments that do not exactly match the parameter types (e.g. requiring
+ * widening of primitive values), this factory falls back on reflection via
+ * a {@link ReflectiveMethodAccessor}.
+ *
+ * <p>Generated classes are defined in a child class loader of the class
+ * loader of the declaring class, which keeps them per method for as long as
+ * it is in use: an accessor class is generated only once per method, even if
+ * accessor instances get dropped from the soft-referenced accessor cache of
+ * a factory, or are requested from several factories.
+ *
+ * @author agent
+ * @since 5.0.17
+ */
+public class GeneratedMethodAccessorFactory implements MethodAccessorFactory {
+
+	private static final String ACCESSOR_CLASS_SUFFIX = "$$MethodAccessor$$";
+
+	private static final String ACCESSOR_INTERFACE = Type.getInternalName(MethodAccessor.class);
+
+	private static final String INVOKE_DESCRIPTOR =
+			"(Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;";
+
+	private static final Log logger = LogFactory.getLog(GeneratedMethodAccessorFactory.class);
+
+	private static final Map<ClassLoader, AccessorClassLoader> classLoaders = new ConcurrentReferenceHashMap<>();
+
+	private static final AtomicInteger suffixId = new AtomicInteger();
+
+
+	private final Map<Method, MethodAccessor> accessorCache = new ConcurrentReferenceHashMap<>(256);
+
+
+	@Override
+	public MethodAccessor getMethodAccessor(Method method) {
+		MethodAccessor accessor = this.accessorCache.get(method);
+		if (accessor == null) {
+			accessor = createMethodAccessor(method);
+			this.accessorCache.put(method, accessor);
+		}
+		return accessor;
+	}
+
+	private MethodAccessor createMethodAccessor(Method method) {
+		ReflectiveMethodAccessor fallback = new ReflectiveMethodAccessor(method);
+		ClassLoader classLoader = method.getDeclaringClass().getClassLoader();
+		if (classLoader != null && isAccessible(method) && ClassUtils.isVisible(MethodAccessor.class, classLoader)) {
+			try {
+				MethodAccessor generated = generateAccessor(method, classLoader);
+				return new GeneratedMethodAccessor(method, generated, fallback);
+			}
+			catch (Throwable ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Failed to generate MethodAccessor for " + method + " - using reflection", ex);
+				}
+			}
+		}
+		else if (logger.isTraceEnabled()) {
+			logger.trace("Cannot generate MethodAccessor for " + method + " - using reflection");
+		}
+		return fallback;
+	}
+
+	private static boolean isAccessible(Method method) {
+		Class<?> declaringClass = method.getDeclaringClass();
+		if (!Modifier.isPublic(method.getModifiers()) || !isPublic(declaringClass) ||
+				declaringClass.getName().startsWith("java.")) {
+			return false;
+		}
+		for (Class<?> parameterType : method.getParameterTypes()) {
+			if (!isPublic(parameterType)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isPublic(Class<?> clazz) {
+		while (clazz.isArray()) {
+			clazz = clazz.getComponentType();
+		}
+		return (clazz.isPrimitive() || Modifier.isPublic(clazz.getModifiers()));
+	}
+
+	private static MethodAccessor generateAccessor(Method method, ClassLoader classLoader) throws Exception {
+		AccessorClassLoader accessorClassLoader =
+				classLoaders.computeIfAbsent(classLoader, AccessorClassLoader::new);
+		Class<?> accessorClass = accessorClassLoader.getAccessorClass(method);
+		return (MethodAccessor) ReflectionUtils.accessibleConstructor(accessorClass).newInstance();
+	}
+
+	/**
+	 * Generate a class with an {@code invoke} method that casts the target and
+	 * arguments, unboxing primitive values, calls the given method and returns
+	 * the result, boxing a primitive value. Arguments are expected to have been
+	 * checked upfront, and exceptions are passed through as is.
+	 */
+	private static byte[] generateAccessorClass(Method method, String className) {
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER | Opcodes.ACC_SYNTHETIC,
+				className, null, "java/lang/Object", new String[] {ACCESSOR_INTERFACE});
+
+		MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+		mv.visitInsn(Opcodes.RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		mv = cw.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_VARARGS, "invoke", INVOKE_DESCRIPTOR, null, null);
+		mv.visitCode();
+		Class<?> declaringClass = method.getDeclaringClass();
+		String owner = Type.getInternalName(declaringClass);
+		boolean isStatic = Modifier.isStatic(method.getModifiers());
+		if (!isStatic) {
+			mv.visitVarInsn(Opcodes.ALOAD, 1);
+			mv.visitTypeInsn(Opcodes.CHECKCAST, owner);
+		}
+		Class<?>[] parameterTypes = method.getParameterTypes();
+		for (int i = 0; i < parameterTypes.length; i++) {
+			mv.visitVarInsn(Opcodes.ALOAD, 2);
+			mv.visitLdcInsn(i);
+			mv.visitInsn(Opcodes.AALOAD);
+			Class<?> parameterType = parameterTypes[i];
+			if (parameterType.isPrimitive()) {
+				Class<?> wrapperType = ClassUtils.resolvePrimitiveIfNecessary(parameterType);
+				String wrapper = Type.getInternalName(wrapperType);
+				mv.visitTypeInsn(Opcodes.CHECKCAST, wrapper);
+				mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, wrapper, parameterType.getName() + "Value",
+						"()" + Type.getDescriptor(parameterType), false);
+			}
+			else if (parameterType != Object.class) {
+				mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(parameterType));
+			}
+		}
+		boolean isInterface = declaringClass.isInterface();
+		int opcode = (isStatic ? Opcodes.INVOKESTATIC :
+				(isInterface ? Opcodes.INVOKEINTERFACE : Opcodes.INVOKEVIRTUAL));
+		mv.visitMethodInsn(opcode, owner, method.getName(), Type.getMethodDescriptor(method), isInterface);
+		Class<?> returnType = method.getReturnType();
+		if (returnType == void.class) {
+			mv.visitInsn(Opcodes.ACONST_NULL);
+		}
+		else if (returnType.isPrimitive()) {
+			String wrapper = Type.getInternalName(ClassUtils.resolvePrimitiveIfNecessary(returnType));
+			mv.visitMethodInsn(Opcodes.INVOKESTATIC, wrapper, "valueOf",
+					"(" + Type.getDescriptor(returnType) + ")L" + wrapper + ";", false);
+		}
+		mv.visitInsn(Opcodes.ARETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+
+	/**
+	 * {@link MethodAccessor} that checks the target and arguments against the
+	 * method signature before delegating to the generated accessor, and falls
+	 * back on reflection if they do not match exactly, leaving it to
+	 * {@link Method#invoke} to convert the arguments or raise an exception.
+	 */
+	private static final class GeneratedMethodAccessor implements MethodAccessor {
+
+		private final Method method;
+
+		private final Class<?> declaringClass;
+
+		private final boolean isStatic;
+
+		private final Class<?>[] parameterTypes;
+
+		private final boolean[] primitive;
+
+		private final MethodAccessor generated;
+
+		private final MethodAccessor fallback;
+
+		public GeneratedMethodAccessor(Method method, MethodAccessor generated, MethodAccessor fallback) {
+			this.method = method;
+			this.declaringClass = method.getDeclaringClass();
+			this.isStatic = Modifier.isStatic(method.getModifiers());
+			this.parameterTypes = method.getParameterTypes();
+			this.primitive = new boolean[this.parameterTypes.length];
+			for (int i = 0; i < this.parameterTypes.length; i++) {
+				this.primitive[i] = this.parameterTypes[i].isPrimitive();
+				this.parameterTypes[i] = ClassUtils.resolvePrimitiveIfNecessary(this.parameterTypes[i]);
+			}
+			this.generated = generated;
+			this.fallback = fallback;
+		}
+
+		@Override
+		@Nullable
+		public Object invoke(@Nullable Object target, Object... args)
+				throws IllegalAccessException, InvocationTargetException {
+
+			if (!matches(target, args)) {
+				return this.fallback.invoke(target, args);
+			}
+			try {
+				return this.generated.invoke(target, args);
+			}
+			catch (Throwable ex) {
+				throw new InvocationTargetException(ex);
+			}
+		}
+
+		private boolean matches(@Nullable Object target, @Nullable Object[] args) {
+			if (!this.isStatic && !this.declaringClass.isInstance(target)) {
+				return false;
+			}
+			int argCount = (args != null ? args.length : 0);
+			if (argCount != this.parameterTypes.length) {
+				return false;
+			}
+			for (int i = 0; i < argCount; i++) {
+				Object arg = args[i];
+				if (arg != null ? !this.parameterTypes[i].isInstance(arg) : this.primitive[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public String toString() {
+			return "GeneratedMethodAccessor for " + this.method.toGenericString();
+		}
+	}
+
+
+	/**
+	 * Child class loader of the class loader of the declaring class, used to
+	 * define the generated accessor classes, holding on to them per method.
+	 */
+	private static class AccessorClassLoader extends ClassLoader {
+
+		private final Map<Method, Class<?>> accessorClasses = new ConcurrentHashMap<>(64);
+
+		public AccessorClassLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		public Class<?> getAccessorClass(Method method) {
+			return this.accessorClasses.computeIfAbsent(method, this::defineAccessorClass);
+		}
+
+		private Class<?> defineAccessorClass(Method method) {
+			String className = method.getDeclaringClass().getName() + ACCESSOR_CLASS_SUFFIX + suffixId.incrementAndGet();
+			byte[] bytes = generateAccessorClass(method, className.replace('.', '/'));
+			return defineClass(className, bytes, 0, bytes.length);
+		}
+	}
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Strategy interface for invoking a specific {@link java.lang.reflect.Method},
+ * as an alternative to {@link java.lang.reflect.Method#invoke} that may be
+ * implemented more efficiently, e.g. through a generated class calling the
+ * method directly.
+ *
+ * <p>Implementations follow the contract of {@code Method.invoke}: an
+ * exception thrown by the method itself is wrapped in an
+ * {@link InvocationTargetException}, and arguments that do not match the
+ * method signature lead to an {@link IllegalArgumentException}.
+ *
+ * @author agent
+ * @since 5.0.17
+ * @see MethodAccessorFactory
+ */
+@FunctionalInterface
+public interface MethodAccessor {
+
+	/**
+	 * Invoke the method on the given target with the given arguments.
+	 * @param target the target instance, or {@code null} for a static method
+	 * @param args the arguments for the method invocation
+	 * @return the value returned by the method, or {@code null} for a
+	 * {@code void} method
+	 * @throws IllegalAccessException if the method is not accessible
+	 * @throws InvocationTargetException if the method threw an exception
+	 */
+	@Nullable
+	Object invoke(@Nullable Object target, Object... args)
+			throws IllegalAccessException, InvocationTargetException;
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.lang.reflect.Method;
+
+/**
+ * Strategy interface for obtaining a {@link MethodAccessor} for a given method,
+ * allowing components that repeatedly invoke the same methods, such as handler
+ * methods or listener methods, to plug in an invocation mechanism other than
+ * plain reflection.
+ *
+ * @author agent
+ * @since 5.0.17
+ * @see ReflectiveMethodAccessor
+ * @see GeneratedMethodAccessorFactory
+ */
+public interface MethodAccessorFactory {
+
+	/**
+	 * Return a {@link MethodAccessor} for the given method.
+	 * <p>Implementations are encouraged to cache accessors, since callers
+	 * may ask for the accessor of the same method on every invocation.
+	 * @param method the method to invoke
+	 * @return the corresponding accessor (never {@code null})
+	 */
+	MethodAccessor getMethodAccessor(Method method);
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * {@link MethodAccessor} that invokes the method via {@link Method#invoke},
+ * making the method accessible first if necessary.
+ *
+ * @author agent
+ * @since 5.0.17
+ */
+public class ReflectiveMethodAccessor implements MethodAccessor {
+
+	private final Method method;
+
+
+	/**
+	 * Create a new {@code ReflectiveMethodAccessor} for the given method.
+	 * @param method the method to invoke
+	 */
+	public ReflectiveMethodAccessor(Method method) {
+		Assert.notNull(method, "Method must not be null");
+		ReflectionUtils.makeAccessible(method);
+		this.method = method;
+	}
+
+
+	@Override
+	@Nullable
+	public Object invoke(@Nullable Object target, Object... args)
+			throws IllegalAccessException, InvocationTargetException {
+
+		return this.method.invoke(target, args);
+	}
+
+	@Override
+	public String toString() {
+		return "ReflectiveMethodAccessor for " + this.method.toGenericString();
+	}
+
+}
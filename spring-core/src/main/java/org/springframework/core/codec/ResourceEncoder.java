@@ -16,6 +16,7 @@
 
 package org.springframework.core.codec;
 
+import java.io.IOException;
 import java.util.Map;
 
 import reactor.core.publisher.Flux;
@@ -43,6 +44,8 @@ public class ResourceEncoder extends AbstractSingleValueEncoder<Resource> {
 
 	private final int bufferSize;
 
+	private long memoryMappedThreshold = -1;
+
 
 	public ResourceEncoder() {
 		this(DEFAULT_BUFFER_SIZE);
@@ -54,6 +57,26 @@ public class ResourceEncoder extends AbstractSingleValueEncoder<Resource> {
 		this.bufferSize = bufferSize;
 	}
 
+	/**
+	 * Set the size, in bytes, from which file-based resources are read as
+	 * memory-mapped buffers rather than copied into newly allocated ones.
+	 * <p>By default this is set to -1, i.e. memory-mapping is not used.
+	 * @param memoryMappedThreshold the threshold in bytes, or -1 to disable
+	 * @since 5.0.17
+	 * @see DataBufferUtils#readMapped(Resource, long, long, DataBufferFactory, int)
+	 */
+	public void setMemoryMappedThreshold(long memoryMappedThreshold) {
+		this.memoryMappedThreshold = memoryMappedThreshold;
+	}
+
+	/**
+	 * Return the configured memory-mapped threshold.
+	 * @since 5.0.17
+	 */
+	public long getMemoryMappedThreshold() {
+		return this.memoryMappedThreshold;
+	}
+
 
 	@Override
 	public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
@@ -65,6 +88,17 @@ public class ResourceEncoder extends AbstractSingleValueEncoder<Resource> {
 	protected Flux<DataBuffer> encode(Resource resource, DataBufferFactory dataBufferFactory,
 			ResolvableType type, @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
+		if (this.memoryMappedThreshold >= 0 && resource.isFile()) {
+			try {
+				long length = resource.contentLength();
+				if (length >= this.memoryMappedThreshold) {
+					return DataBufferUtils.readMapped(resource, 0, length, dataBufferFactory, this.bufferSize);
+				}
+			}
+			catch (IOException ex) {
+				// fall back on regular reads, below
+			}
+		}
 		return DataBufferUtils.read(resource, dataBufferFactory, this.bufferSize);
 	}
 
@@ -53,6 +53,8 @@ public class ResourceRegionEncoder extends AbstractEncoder<ResourceRegion> {
 
 	private final int bufferSize;
 
+	private long memoryMappedThreshold = -1;
+
 
 	public ResourceRegionEncoder() {
 		this(DEFAULT_BUFFER_SIZE);
@@ -64,6 +66,26 @@ public class ResourceRegionEncoder extends AbstractEncoder<ResourceRegion> {
 		this.bufferSize = bufferSize;
 	}
 
+	/**
+	 * Set the size, in bytes, from which file-based regions are read as
+	 * memory-mapped buffers rather than copied into newly allocated ones.
+	 * <p>By default this is set to -1, i.e. memory-mapping is not used.
+	 * @param memoryMappedThreshold the threshold in bytes, or -1 to disable
+	 * @since 5.0.17
+	 * @see DataBufferUtils#readMapped(Resource, long, long, DataBufferFactory, int)
+	 */
+	public void setMemoryMappedThreshold(long memoryMappedThreshold) {
+		this.memoryMappedThreshold = memoryMappedThreshold;
+	}
+
+	/**
+	 * Return the configured memory-mapped threshold.
+	 * @since 5.0.17
+	 */
+	public long getMemoryMappedThreshold() {
+		return this.memoryMappedThreshold;
+	}
+
 	@Override
 	public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
 		return super.canEncode(elementType, mimeType)
@@ -115,8 +137,12 @@ public class ResourceRegionEncoder extends AbstractEncoder<ResourceRegion> {
 	private Flux<DataBuffer> writeResourceRegion(ResourceRegion region, DataBufferFactory bufferFactory) {
 		Resource resource = region.getResource();
 		long position = region.getPosition();
+		long count = region.getCount();
+		if (this.memoryMappedThreshold >= 0 && count >= this.memoryMappedThreshold) {
+			return DataBufferUtils.readMapped(resource, position, count, bufferFactory, this.bufferSize);
+		}
 		Flux<DataBuffer> in = DataBufferUtils.read(resource, position, bufferFactory, this.bufferSize);
-		return DataBufferUtils.takeUntilByteCount(in, region.getCount());
+		return DataBufferUtils.takeUntilByteCount(in, count);
 	}
 
 	private Flux<DataBuffer> getRegionSuffix(DataBufferFactory bufferFactory, String boundaryString) {
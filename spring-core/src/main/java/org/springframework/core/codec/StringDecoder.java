@@ -16,8 +16,12 @@
 
 package org.springframework.core.codec;
 
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -31,8 +35,8 @@ import reactor.core.publisher.Mono;
 
 import org.springframework.core.ResolvableType;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.core.io.buffer.DataBufferUtils;
-import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.MimeType;
@@ -43,6 +47,9 @@ import org.springframework.util.MimeTypeUtils;
  * realigns the incoming data buffers so that each buffer ends with a newline.
  * This is to make sure that multibyte characters are decoded properly, and do not cross buffer
  * boundaries. The default delimiters ({@code \n}, {@code \r\n})can be customized.
+ * Lines and delimiters that span multiple buffers are presented as a
+ * {@linkplain org.springframework.core.io.buffer.CompositeDataBuffer composite}
+ * of those buffers rather than being copied.
  *
  * <p>Partially inspired by Netty's {@code DelimiterBasedFrameDecoder}.
  *
@@ -55,7 +62,7 @@ import org.springframework.util.MimeTypeUtils;
  */
 public class StringDecoder extends AbstractDataBufferDecoder<String> {
 
-	private static final DataBuffer END_FRAME = new DefaultDataBufferFactory().wrap(new byte[0]);
+	private static final int MAX_CARRY_LENGTH = 16;
 
 	/**
 	 * The default charset to use, i.e. "UTF-8".
@@ -91,10 +98,14 @@ public class StringDecoder extends AbstractDataBufferDecoder<String> {
 
 		List<byte[]> delimiterBytes = getDelimiterBytes(mimeType);
 
-		Flux<DataBuffer> inputFlux = Flux.from(inputStream)
-				.flatMap(dataBuffer -> splitOnDelimiter(dataBuffer, delimiterBytes))
-				.bufferUntil(StringDecoder::isEndFrame)
-				.flatMap(StringDecoder::joinUntilEndFrame);
+		Flux<DataBuffer> inputFlux = Flux.defer(() -> {
+			DelimiterSplitter splitter = new DelimiterSplitter(delimiterBytes, this.stripDelimiter);
+			return Flux.from(inputStream)
+					.concatMapIterable(splitter::split)
+					.concatWith(Mono.fromSupplier(splitter::flush))
+					.doOnCancel(splitter::releasePending)
+					.doOnError(ex -> splitter.releasePending());
+		});
 		return super.decode(inputFlux, elementType, mimeType, hints);
 	}
 
@@ -106,53 +117,12 @@ public class StringDecoder extends AbstractDataBufferDecoder<String> {
 	}
 
 	/**
-	 * Split the given data buffer on delimiter boundaries.
-	 * The returned Flux contains an {@link #END_FRAME} buffer after each delimiter.
-	 */
-	private Flux<DataBuffer> splitOnDelimiter(DataBuffer dataBuffer, List<byte[]> delimiterBytes) {
-		List<DataBuffer> frames = new ArrayList<>();
-		do {
-			int length = Integer.MAX_VALUE;
-			byte[] matchingDelimiter = null;
-			for (byte[] delimiter : delimiterBytes) {
-				int index = indexOf(dataBuffer, delimiter);
-				if (index >= 0 && index < length) {
-					length = index;
-					matchingDelimiter = delimiter;
-				}
-			}
-			DataBuffer frame;
-			int readPosition = dataBuffer.readPosition();
-			if (matchingDelimiter != null) {
-				if (this.stripDelimiter) {
-					frame = dataBuffer.slice(readPosition, length);
-				}
-				else {
-					frame = dataBuffer.slice(readPosition, length + matchingDelimiter.length);
-				}
-				dataBuffer.readPosition(readPosition + length + matchingDelimiter.length);
-
-				frames.add(DataBufferUtils.retain(frame));
-				frames.add(END_FRAME);
-			}
-			else {
-				frame = dataBuffer.slice(readPosition, dataBuffer.readableByteCount());
-				dataBuffer.readPosition(readPosition + dataBuffer.readableByteCount());
-				frames.add(DataBufferUtils.retain(frame));
-			}
-		}
-		while (dataBuffer.readableByteCount() > 0);
-
-		DataBufferUtils.release(dataBuffer);
-		return Flux.fromIterable(frames);
-	}
-
-	/**
-	 * Find the given delimiter in the given data buffer.
+	 * Find the given delimiter in the given data buffer, starting at the
+	 * given index.
 	 * @return the index of the delimiter, or -1 if not found.
 	 */
-	private static int indexOf(DataBuffer dataBuffer, byte[] delimiter) {
-		for (int i = dataBuffer.readPosition(); i < dataBuffer.writePosition(); i++) {
+	private static int indexOf(DataBuffer dataBuffer, byte[] delimiter, int fromIndex) {
+		for (int i = fromIndex; i < dataBuffer.writePosition(); i++) {
 			int dataBufferPos = i;
 			int delimiterPos = 0;
 			while (delimiterPos < delimiter.length) {
@@ -175,35 +145,49 @@ public class StringDecoder extends AbstractDataBufferDecoder<String> {
 		return -1;
 	}
 
-	/**
-	 * Check whether the given buffer is {@link #END_FRAME}.
-	 */
-	private static boolean isEndFrame(DataBuffer dataBuffer) {
-		return dataBuffer == END_FRAME;
-	}
-
-	/**
-	 * Join the given list of buffers into a single buffer.
-	 */
-	private static Mono<DataBuffer> joinUntilEndFrame(List<DataBuffer> dataBuffers) {
-		if (!dataBuffers.isEmpty()) {
-			int lastIdx = dataBuffers.size() - 1;
-			if (isEndFrame(dataBuffers.get(lastIdx))) {
-				dataBuffers.remove(lastIdx);
-			}
-		}
-		Flux<DataBuffer> flux = Flux.fromIterable(dataBuffers);
-		return DataBufferUtils.join(flux);
-	}
-
 	@Override
 	protected String decodeDataBuffer(DataBuffer dataBuffer, ResolvableType elementType,
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
 		Charset charset = getCharset(mimeType);
-		CharBuffer charBuffer = charset.decode(dataBuffer.asByteBuffer());
+		ByteBuffer[] byteBuffers = DataBufferUtils.toByteBuffers(dataBuffer);
+		String value = (byteBuffers.length == 1 ?
+				charset.decode(byteBuffers[0]).toString() : decode(byteBuffers, charset));
 		DataBufferUtils.release(dataBuffer);
-		return charBuffer.toString();
+		return value;
+	}
+
+	/**
+	 * Decode the given byte buffers as one contiguous sequence of bytes,
+	 * without copying them into a single buffer first.
+	 */
+	private static String decode(ByteBuffer[] byteBuffers, Charset charset) {
+		CharsetDecoder decoder = charset.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		int length = Arrays.stream(byteBuffers).mapToInt(ByteBuffer::remaining).sum();
+		CharBuffer result = CharBuffer.allocate((int) (length * (double) decoder.maxCharsPerByte()) + 1);
+		// Holds the bytes of a character that crosses a buffer boundary
+		ByteBuffer carry = ByteBuffer.allocate(MAX_CARRY_LENGTH);
+		((Buffer) carry).flip();
+		for (ByteBuffer byteBuffer : byteBuffers) {
+			while (carry.hasRemaining() && byteBuffer.hasRemaining()) {
+				carry.compact();
+				carry.put(byteBuffer.get());
+				((Buffer) carry).flip();
+				decoder.decode(carry, result, false);
+			}
+			decoder.decode(byteBuffer, result, false);
+			if (byteBuffer.hasRemaining()) {
+				carry.compact();
+				carry.put(byteBuffer);
+				((Buffer) carry).flip();
+			}
+		}
+		decoder.decode(carry, result, true);
+		decoder.flush(result);
+		((Buffer) result).flip();
+		return result.toString();
 	}
 
 	private static Charset getCharset(@Nullable MimeType mimeType) {
@@ -273,4 +257,88 @@ public class StringDecoder extends AbstractDataBufferDecoder<String> {
 				new MimeType("text", "plain", DEFAULT_CHARSET), MimeTypeUtils.ALL);
 	}
 
+
+	/**
+	 * Splits a stream of data buffers on delimiter boundaries. Data following
+	 * the last delimiter of a buffer is kept until the next buffer arrives,
+	 * then scanned together with it as one {@linkplain DataBufferFactory#join
+	 * joined} buffer, so that frames and delimiters may span buffer boundaries
+	 * without the data being copied.
+	 */
+	private static class DelimiterSplitter {
+
+		private final List<byte[]> delimiters;
+
+		private final boolean stripDelimiter;
+
+		private final int maxDelimiterLength;
+
+		@Nullable
+		private DataBuffer pending;
+
+		DelimiterSplitter(List<byte[]> delimiters, boolean stripDelimiter) {
+			this.delimiters = delimiters;
+			this.stripDelimiter = stripDelimiter;
+			this.maxDelimiterLength = delimiters.stream().mapToInt(d -> d.length).max().orElse(0);
+		}
+
+		/**
+		 * Split the given data buffer, preceded by any pending data, into the
+		 * complete frames it contains.
+		 */
+		public List<DataBuffer> split(DataBuffer dataBuffer) {
+			DataBuffer pending = this.pending;
+			this.pending = null;
+			int scanFrom = 0;
+			if (pending != null) {
+				// Rescan only the pending bytes that may start a delimiter
+				scanFrom = Math.max(0, pending.readableByteCount() - this.maxDelimiterLength + 1);
+				dataBuffer = pending.factory().join(Arrays.asList(pending, dataBuffer));
+			}
+
+			List<DataBuffer> frames = new ArrayList<>();
+			do {
+				int readPosition = dataBuffer.readPosition();
+				int length = Integer.MAX_VALUE;
+				byte[] matchingDelimiter = null;
+				for (byte[] delimiter : this.delimiters) {
+					int index = indexOf(dataBuffer, delimiter, readPosition + scanFrom);
+					if (index >= 0 && index < length) {
+						length = index;
+						matchingDelimiter = delimiter;
+					}
+				}
+				scanFrom = 0;
+				if (matchingDelimiter != null) {
+					int frameLength = (this.stripDelimiter ? length : length + matchingDelimiter.length);
+					frames.add(DataBufferUtils.retain(dataBuffer.slice(readPosition, frameLength)));
+					dataBuffer.readPosition(readPosition + length + matchingDelimiter.length);
+				}
+				else {
+					this.pending = DataBufferUtils.retain(
+							dataBuffer.slice(readPosition, dataBuffer.readableByteCount()));
+					dataBuffer.readPosition(dataBuffer.writePosition());
+				}
+			}
+			while (dataBuffer.readableByteCount() > 0);
+
+			DataBufferUtils.release(dataBuffer);
+			return frames;
+		}
+
+		/**
+		 * Return the data following the last delimiter, if any.
+		 */
+		@Nullable
+		public DataBuffer flush() {
+			DataBuffer pending = this.pending;
+			this.pending = null;
+			return pending;
+		}
+
+		public void releasePending() {
+			DataBufferUtils.release(flush());
+		}
+	}
+
 }
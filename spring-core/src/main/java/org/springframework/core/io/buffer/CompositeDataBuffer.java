@@ -0,0 +1,45 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Extension of {@link DataBuffer} that presents a chain of component buffers
+ * as one logical buffer, without copying their contents. Returned from
+ * {@link DataBufferFactory#join(java.util.List)} for more than one buffer.
+ *
+ * <p>Consumers that can process non-contiguous content should prefer
+ * {@link #asByteBuffers()} over {@link #asByteBuffer()}, since the latter
+ * has to copy whenever the requested range spans multiple components.
+ *
+ * @author agent
+ * @since 5.0.17
+ * @see DataBufferUtils#toByteBuffers(DataBuffer)
+ */
+public interface CompositeDataBuffer extends PooledDataBuffer {
+
+	/**
+	 * Expose the readable bytes of this buffer as NIO {@link ByteBuffer
+	 * ByteBuffers}, one per (non-empty) component. Data in the returned
+	 * buffers is shared with this buffer; the positions and limits of the
+	 * returned buffers are independent.
+	 * @return the readable bytes of each component, in order
+	 */
+	ByteBuffer[] asByteBuffers();
+
+}
@@ -25,6 +25,7 @@ import java.nio.channels.AsynchronousFileChannel;
 import java.nio.channels.Channel;
 import java.nio.channels.Channels;
 import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.file.StandardOpenOption;
@@ -58,6 +59,8 @@ public abstract class DataBufferUtils {
 
 	private static final Consumer<DataBuffer> RELEASE_CONSUMER = DataBufferUtils::release;
 
+	private static final long MAX_MAPPED_REGION_SIZE = 256 * 1024 * 1024;
+
 
 	//---------------------------------------------------------------------
 	// Reading
@@ -285,6 +288,72 @@ public abstract class DataBufferUtils {
 		return position == 0 ? result : skipUntilByteCount(result, position);
 	}
 
+	/**
+	 * Obtain a {@code FileChannel} from the given supplier, and read it into a
+	 * {@code Flux} of memory-mapped {@code DataBuffer}s, starting at the given position
+	 * and reading at most {@code count} bytes. Closes the channel when the flux is
+	 * terminated.
+	 * <p>Each data buffer {@linkplain DataBufferFactory#wrap(ByteBuffer) wraps} a
+	 * read-only slice of a {@link java.nio.MappedByteBuffer}, so the file content is
+	 * not copied into newly allocated buffers. Note that a mapping remains valid until
+	 * the buffers referring to it are garbage collected, and that some platforms do
+	 * not allow a mapped file to be deleted before that.
+	 * @param channelSupplier the supplier for the channel to read from
+	 * @param position the position to start reading from
+	 * @param count the maximum number of bytes to read
+	 * @param dataBufferFactory the factory to wrap the mapped regions with
+	 * @param bufferSize the maximum size of the data buffers
+	 * @return a flux of data buffers mapped from the given channel
+	 * @since 5.0.17
+	 */
+	public static Flux<DataBuffer> readMapped(Callable<FileChannel> channelSupplier,
+			long position, long count, DataBufferFactory dataBufferFactory, int bufferSize) {
+
+		Assert.notNull(channelSupplier, "'channelSupplier' must not be null");
+		Assert.notNull(dataBufferFactory, "'dataBufferFactory' must not be null");
+		Assert.isTrue(position >= 0, "'position' must be >= 0");
+		Assert.isTrue(count >= 0, "'count' must be >= 0");
+		Assert.isTrue(bufferSize > 0, "'bufferSize' must be > 0");
+
+		return Flux.using(channelSupplier,
+				channel -> Flux.generate(
+						new MappedFileChannelGenerator(channel, position, count, dataBufferFactory, bufferSize)),
+				DataBufferUtils::closeChannel);
+	}
+
+	/**
+	 * Read the given {@code Resource} into a {@code Flux} of memory-mapped
+	 * {@code DataBuffer}s, starting at the given position and reading at most
+	 * {@code count} bytes.
+	 * <p>If the resource is a file, it is mapped via
+	 * {@link #readMapped(Callable, long, long, DataBufferFactory, int)} or else
+	 * fall back on {@link #read(Resource, long, DataBufferFactory, int)}.
+	 * Closes the channel when the flux is terminated.
+	 * @param resource the resource to read from
+	 * @param position the position to start reading from
+	 * @param count the maximum number of bytes to read
+	 * @param dataBufferFactory the factory to create data buffers with
+	 * @param bufferSize the maximum size of the data buffers
+	 * @return a flux of data buffers read from the given resource
+	 * @since 5.0.17
+	 */
+	public static Flux<DataBuffer> readMapped(Resource resource, long position, long count,
+			DataBufferFactory dataBufferFactory, int bufferSize) {
+
+		try {
+			if (resource.isFile()) {
+				File file = resource.getFile();
+				return readMapped(() -> FileChannel.open(file.toPath(), StandardOpenOption.READ),
+						position, count, dataBufferFactory, bufferSize);
+			}
+		}
+		catch (IOException ignore) {
+			// fallback to read(Resource), below
+		}
+
+		return takeUntilByteCount(read(resource, position, dataBufferFactory, bufferSize), count);
+	}
+
 
 	//---------------------------------------------------------------------
 	// Writing
@@ -481,6 +550,25 @@ public abstract class DataBufferUtils {
 		return (dataBuffer instanceof PooledDataBuffer && ((PooledDataBuffer) dataBuffer).release());
 	}
 
+	/**
+	 * Expose the readable bytes of the given data buffer as NIO byte buffers
+	 * without copying: one per component for a {@link CompositeDataBuffer},
+	 * or a single one for any other buffer.
+	 * @param dataBuffer the data buffer to expose
+	 * @return the readable bytes of the buffer, sharing its data
+	 * @since 5.0.17
+	 * @see CompositeDataBuffer#asByteBuffers()
+	 */
+	public static ByteBuffer[] toByteBuffers(DataBuffer dataBuffer) {
+		Assert.notNull(dataBuffer, "DataBuffer must not be null");
+		if (dataBuffer instanceof CompositeDataBuffer) {
+			return ((CompositeDataBuffer) dataBuffer).asByteBuffers();
+		}
+		else {
+			return new ByteBuffer[] {dataBuffer.asByteBuffer()};
+		}
+	}
+
 	/**
 	 * Return a consumer that calls {@link #release(DataBuffer)} on all
 	 * passed data buffers.
@@ -570,6 +658,66 @@ public abstract class DataBufferUtils {
 	}
 
 
+	private static class MappedFileChannelGenerator implements Consumer<SynchronousSink<DataBuffer>> {
+
+		private final FileChannel channel;
+
+		private final DataBufferFactory dataBufferFactory;
+
+		private final int bufferSize;
+
+		private long position;
+
+		private long remaining;
+
+		private boolean initialized;
+
+		@Nullable
+		private ByteBuffer region;
+
+		public MappedFileChannelGenerator(FileChannel channel, long position, long count,
+				DataBufferFactory dataBufferFactory, int bufferSize) {
+
+			this.channel = channel;
+			this.position = position;
+			this.remaining = count;
+			this.dataBufferFactory = dataBufferFactory;
+			this.bufferSize = bufferSize;
+		}
+
+		@Override
+		public void accept(SynchronousSink<DataBuffer> sink) {
+			try {
+				if (!this.initialized) {
+					this.remaining = Math.max(0, Math.min(this.remaining, this.channel.size() - this.position));
+					this.initialized = true;
+				}
+				if (this.remaining == 0) {
+					sink.complete();
+					return;
+				}
+				ByteBuffer region = this.region;
+				if (region == null || !region.hasRemaining()) {
+					// Map large regions at once, handing out slices of the current one
+					long size = Math.min(this.remaining, MAX_MAPPED_REGION_SIZE);
+					region = this.channel.map(FileChannel.MapMode.READ_ONLY, this.position, size);
+					this.position += size;
+					this.region = region;
+				}
+				int length = Math.min(this.bufferSize, region.remaining());
+				ByteBuffer slice = region.slice();
+				slice.limit(length);
+				region.position(region.position() + length);
+				this.remaining -= length;
+				sink.next(this.dataBufferFactory.wrap(slice));
+			}
+			catch (IOException ex) {
+				sink.error(ex);
+			}
+		}
+	}
+
+
 	private static class AsynchronousFileChannelReadCompletionHandler
 			implements CompletionHandler<Integer, DataBuffer> {
 
@@ -0,0 +1,544 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.IntPredicate;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * {@link CompositeDataBuffer} implementation for the {@link DefaultDataBufferFactory},
+ * based on a list of {@link ByteBuffer ByteBuffers} that share their data with
+ * the joined buffers. Nested composites are flattened.
+ *
+ * <p>The joined buffers are released once the reference count of the composite
+ * drops to zero. Growing the composite appends a newly allocated component.
+ *
+ * @author agent
+ * @since 5.0.17
+ * @see DefaultDataBufferFactory#join(List)
+ */
+class DefaultCompositeDataBuffer implements CompositeDataBuffer {
+
+	private static final AtomicIntegerFieldUpdater<DefaultCompositeDataBuffer> REF_COUNT_UPDATER =
+			AtomicIntegerFieldUpdater.newUpdater(DefaultCompositeDataBuffer.class, "refCount");
+
+
+	private final DataBufferFactory dataBufferFactory;
+
+	private final List<DataBuffer> dataBuffers;
+
+	@Nullable
+	private final DefaultCompositeDataBuffer parent;
+
+	private ByteBuffer[] components;
+
+	private int[] offsets;
+
+	private int capacity;
+
+	private int readPosition;
+
+	private int writePosition;
+
+	private volatile int refCount = 1;
+
+
+	/**
+	 * Create a new composite over the readable bytes of the given buffers.
+	 */
+	DefaultCompositeDataBuffer(DataBufferFactory dataBufferFactory, List<? extends DataBuffer> dataBuffers) {
+		Assert.notNull(dataBufferFactory, "DataBufferFactory must not be null");
+		Assert.notNull(dataBuffers, "DataBuffer List must not be null");
+		this.dataBufferFactory = dataBufferFactory;
+		this.dataBuffers = new ArrayList<>(dataBuffers);
+		this.parent = null;
+		List<ByteBuffer> components = new ArrayList<>(dataBuffers.size());
+		for (DataBuffer dataBuffer : dataBuffers) {
+			Collections.addAll(components, DataBufferUtils.toByteBuffers(dataBuffer));
+		}
+		setComponents(components.toArray(new ByteBuffer[0]));
+		this.writePosition = this.capacity;
+	}
+
+	/**
+	 * Create a slice that shares the reference count of the given parent.
+	 */
+	private DefaultCompositeDataBuffer(DefaultCompositeDataBuffer parent, ByteBuffer[] components) {
+		this.dataBufferFactory = parent.dataBufferFactory;
+		this.dataBuffers = Collections.emptyList();
+		this.parent = parent;
+		setComponents(components);
+		this.writePosition = this.capacity;
+	}
+
+	private void setComponents(ByteBuffer[] byteBuffers) {
+		List<ByteBuffer> components = new ArrayList<>(byteBuffers.length);
+		for (ByteBuffer byteBuffer : byteBuffers) {
+			if (byteBuffer.hasRemaining()) {
+				components.add(byteBuffer.slice());
+			}
+		}
+		this.components = components.toArray(new ByteBuffer[0]);
+		this.offsets = new int[this.components.length];
+		int offset = 0;
+		for (int i = 0; i < this.components.length; i++) {
+			this.offsets[i] = offset;
+			offset += this.components[i].capacity();
+		}
+		this.capacity = offset;
+	}
+
+
+	@Override
+	public DataBufferFactory factory() {
+		return this.dataBufferFactory;
+	}
+
+	@Override
+	public ByteBuffer[] asByteBuffers() {
+		return components(this.readPosition, readableByteCount());
+	}
+
+	/**
+	 * Return the component buffers covering the given range, sharing data.
+	 */
+	private ByteBuffer[] components(int index, int length) {
+		if (length == 0) {
+			return new ByteBuffer[0];
+		}
+		int first = componentIndex(index);
+		int last = componentIndex(index + length - 1);
+		ByteBuffer[] result = new ByteBuffer[last - first + 1];
+		for (int i = first; i <= last; i++) {
+			int start = Math.max(index, this.offsets[i]);
+			int end = Math.min(index + length, this.offsets[i] + this.components[i].capacity());
+			ByteBuffer duplicate = this.components[i].duplicate();
+			// Explicit access via Buffer base type for compatibility
+			// with covariant return type on JDK 9's ByteBuffer...
+			((Buffer) duplicate).position(start - this.offsets[i]).limit(end - this.offsets[i]);
+			result[i - first] = duplicate.slice();
+		}
+		return result;
+	}
+
+	/**
+	 * Return the index of the component that contains the given logical index.
+	 */
+	private int componentIndex(int index) {
+		int i = Arrays.binarySearch(this.offsets, index);
+		return (i >= 0 ? i : -(i + 1) - 1);
+	}
+
+	@Override
+	public int indexOf(IntPredicate predicate, int fromIndex) {
+		Assert.notNull(predicate, "'predicate' must not be null");
+		if (fromIndex < 0) {
+			fromIndex = 0;
+		}
+		else if (fromIndex >= this.writePosition) {
+			return -1;
+		}
+		for (int c = componentIndex(fromIndex); c < this.components.length; c++) {
+			ByteBuffer component = this.components[c];
+			int offset = this.offsets[c];
+			int end = Math.min(component.capacity(), this.writePosition - offset);
+			for (int i = Math.max(fromIndex - offset, 0); i < end; i++) {
+				if (predicate.test(component.get(i))) {
+					return offset + i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int lastIndexOf(IntPredicate predicate, int fromIndex) {
+		Assert.notNull(predicate, "'predicate' must not be null");
+		int index = Math.min(fromIndex, this.writePosition - 1);
+		if (index < 0) {
+			return -1;
+		}
+		for (int c = componentIndex(index); c >= 0; c--) {
+			ByteBuffer component = this.components[c];
+			int offset = this.offsets[c];
+			for (int i = Math.min(index - offset, component.capacity() - 1); i >= 0; i--) {
+				if (predicate.test(component.get(i))) {
+					return offset + i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int readableByteCount() {
+		return this.writePosition - this.readPosition;
+	}
+
+	@Override
+	public int writableByteCount() {
+		return this.capacity - this.writePosition;
+	}
+
+	@Override
+	public int readPosition() {
+		return this.readPosition;
+	}
+
+	@Override
+	public DefaultCompositeDataBuffer readPosition(int readPosition) {
+		assertIndex(readPosition >= 0, "'readPosition' %d must be >= 0", readPosition);
+		assertIndex(readPosition <= this.writePosition, "'readPosition' %d must be <= %d",
+				readPosition, this.writePosition);
+		this.readPosition = readPosition;
+		return this;
+	}
+
+	@Override
+	public int writePosition() {
+		return this.writePosition;
+	}
+
+	@Override
+	public DefaultCompositeDataBuffer writePosition(int writePosition) {
+		assertIndex(writePosition >= this.readPosition, "'writePosition' %d must be >= %d",
+				writePosition, this.readPosition);
+		assertIndex(writePosition <= this.capacity, "'writePosition' %d must be <= %d",
+				writePosition, this.capacity);
+		this.writePosition = writePosition;
+		return this;
+	}
+
+	@Override
+	public int capacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation appends a newly allocated component when growing,
+	 * and drops trailing bytes from the components when shrinking.
+	 */
+	@Override
+	public DefaultCompositeDataBuffer capacity(int newCapacity) {
+		Assert.isTrue(newCapacity > 0,
+				String.format("'newCapacity' %d must be higher than 0", newCapacity));
+		if (this.parent != null) {
+			throw new UnsupportedOperationException("Changing the capacity of a sliced buffer is not supported");
+		}
+
+		if (newCapacity > this.capacity) {
+			DataBuffer component = this.dataBufferFactory.allocateBuffer(newCapacity - this.capacity);
+			this.dataBuffers.add(component);
+			ByteBuffer[] components = Arrays.copyOf(this.components, this.components.length + 1);
+			components[components.length - 1] = component.asByteBuffer(0, newCapacity - this.capacity);
+			setComponents(components);
+		}
+		else if (newCapacity < this.capacity) {
+			setComponents(components(0, newCapacity));
+			if (this.writePosition > newCapacity) {
+				this.writePosition = newCapacity;
+			}
+			if (this.readPosition > newCapacity) {
+				this.readPosition = newCapacity;
+			}
+		}
+		return this;
+	}
+
+	private void ensureCapacity(int length) {
+		if (length > writableByteCount()) {
+			capacity(Math.max(this.writePosition + length, this.capacity * 2));
+		}
+	}
+
+	@Override
+	public byte getByte(int index) {
+		assertIndex(index >= 0, "index %d must be >= 0", index);
+		assertIndex(index <= this.writePosition - 1, "index %d must be <= %d",
+				index, this.writePosition - 1);
+		int c = componentIndex(index);
+		return this.components[c].get(index - this.offsets[c]);
+	}
+
+	@Override
+	public byte read() {
+		assertIndex(this.readPosition <= this.writePosition - 1, "readPosition %d must be <= %d",
+				this.readPosition, this.writePosition - 1);
+		byte b = getByte(this.readPosition);
+		this.readPosition++;
+		return b;
+	}
+
+	@Override
+	public DefaultCompositeDataBuffer read(byte[] destination) {
+		Assert.notNull(destination, "'destination' must not be null");
+		return read(destination, 0, destination.length);
+	}
+
+	@Override
+	public DefaultCompositeDataBuffer read(byte[] destination, int offset, int length) {
+		Assert.notNull(destination, "'destination' must not be null");
+		assertIndex(this.readPosition <= this.writePosition - length,
+				"readPosition %d and length %d should be smaller than writePosition %d",
+				this.readPosition, length, this.writePosition);
+		for (ByteBuffer component : components(this.readPosition, length)) {
+			int remaining = component.remaining();
+			component.get(destination, offset, remaining);
+			offset += remaining;
+		}
+		this.readPosition += length;
+		return this;
+	}
+
+	@Override
+	public DefaultCompositeDataBuffer write(byte b) {
+		ensureCapacity(1);
+		int c = componentIndex(this.writePosition);
+		this.components[c].put(this.writePosition - this.offsets[c], b);
+		this.writePosition++;
+		return this;
+	}
+
+	@Override
+	public DefaultCompositeDataBuffer write(byte[] source) {
+		Assert.notNull(source, "'source' must not be null");
+		return write(source, 0, source.length);
+	}
+
+	@Override
+	public DefaultCompositeDataBuffer write(byte[] source, int offset, int length) {
+		Assert.notNull(source, "'source' must not be null");
+		return write(ByteBuffer.wrap(source, offset, length));
+	}
+
+	@Override
+	public DefaultCompositeDataBuffer write(DataBuffer... buffers) {
+		if (!ObjectUtils.isEmpty(buffers)) {
+			write(Arrays.stream(buffers)
+					.flatMap(buffer -> Arrays.stream(DataBufferUtils.toByteBuffers(buffer)))
+					.toArray(ByteBuffer[]::new));
+		}
+		return this;
+	}
+
+	@Override
+	public DefaultCompositeDataBuffer write(ByteBuffer... byteBuffers) {
+		Assert.notEmpty(byteBuffers, "'byteBuffers' must not be empty");
+		int length = Arrays.stream(byteBuffers).mapToInt(ByteBuffer::remaining).sum();
+		ensureCapacity(length);
+		for (ByteBuffer source : byteBuffers) {
+			int remaining = source.remaining();
+			if (remaining == 0) {
+				continue;
+			}
+			for (ByteBuffer component : components(this.writePosition, remaining)) {
+				ByteBuffer chunk = source.duplicate();
+				((Buffer) chunk).limit(chunk.position() + component.remaining());
+				component.put(chunk);
+				((Buffer) source).position(chunk.position());
+			}
+			this.writePosition += remaining;
+		}
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The returned slice shares both data and reference count with this
+	 * buffer, and cannot change its capacity.
+	 */
+	@Override
+	public DefaultCompositeDataBuffer slice(int index, int length) {
+		checkIndex(index, length);
+		return new DefaultCompositeDataBuffer(root(), components(index, length));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation returns a buffer that shares data with this buffer
+	 * if the range is covered by a single component, or a copy otherwise.
+	 */
+	@Override
+	public ByteBuffer asByteBuffer() {
+		return asByteBuffer(this.readPosition, readableByteCount());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>This implementation returns a buffer that shares data with this buffer
+	 * if the range is covered by a single component, or a copy otherwise.
+	 */
+	@Override
+	public ByteBuffer asByteBuffer(int index, int length) {
+		checkIndex(index, length);
+		ByteBuffer[] components = components(index, length);
+		if (components.length == 1) {
+			return components[0];
+		}
+		ByteBuffer copy = ByteBuffer.allocate(length);
+		for (ByteBuffer component : components) {
+			copy.put(component);
+		}
+		((Buffer) copy).flip();
+		return copy;
+	}
+
+	@Override
+	public InputStream asInputStream() {
+		return new CompositeDataBufferInputStream(false);
+	}
+
+	@Override
+	public InputStream asInputStream(boolean releaseOnClose) {
+		return new CompositeDataBufferInputStream(releaseOnClose);
+	}
+
+	@Override
+	public OutputStream asOutputStream() {
+		return new CompositeDataBufferOutputStream();
+	}
+
+	private DefaultCompositeDataBuffer root() {
+		return (this.parent != null ? this.parent : this);
+	}
+
+	@Override
+	public PooledDataBuffer retain() {
+		DefaultCompositeDataBuffer root = root();
+		for (;;) {
+			int refCount = root.refCount;
+			if (refCount <= 0) {
+				throw new IllegalStateException("DataBuffer has already been released: " + this);
+			}
+			if (REF_COUNT_UPDATER.compareAndSet(root, refCount, refCount + 1)) {
+				return this;
+			}
+		}
+	}
+
+	@Override
+	public boolean release() {
+		DefaultCompositeDataBuffer root = root();
+		for (;;) {
+			int refCount = root.refCount;
+			if (refCount <= 0) {
+				throw new IllegalStateException("DataBuffer has already been released: " + this);
+			}
+			if (REF_COUNT_UPDATER.compareAndSet(root, refCount, refCount - 1)) {
+				if (refCount == 1) {
+					root.dataBuffers.forEach(DataBufferUtils::release);
+					return true;
+				}
+				return false;
+			}
+		}
+	}
+
+
+	@Override
+	public String toString() {
+		return String.format("DefaultCompositeDataBuffer (r: %d, w: %d, c: %d, components: %d)",
+				this.readPosition, this.writePosition, this.capacity, this.components.length);
+	}
+
+
+	private void checkIndex(int index, int length) {
+		assertIndex(index >= 0, "index %d must be >= 0", index);
+		assertIndex(length >= 0, "length %d must be >= 0", length);
+		assertIndex(index + length <= this.capacity, "index %d and length %d must be <= %d",
+				index, length, this.capacity);
+	}
+
+	private static void assertIndex(boolean expression, String format, Object... args) {
+		if (!expression) {
+			String message = String.format(format, args);
+			throw new IndexOutOfBoundsException(message);
+		}
+	}
+
+
+	private class CompositeDataBufferInputStream extends InputStream {
+
+		private final boolean releaseOnClose;
+
+		private boolean closed;
+
+		CompositeDataBufferInputStream(boolean releaseOnClose) {
+			this.releaseOnClose = releaseOnClose;
+		}
+
+		@Override
+		public int available() {
+			return readableByteCount();
+		}
+
+		@Override
+		public int read() {
+			return available() > 0 ? DefaultCompositeDataBuffer.this.read() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int off, int len) throws IOException {
+			int available = available();
+			if (available > 0) {
+				len = Math.min(len, available);
+				DefaultCompositeDataBuffer.this.read(bytes, off, len);
+				return len;
+			}
+			else {
+				return -1;
+			}
+		}
+
+		@Override
+		public void close() {
+			if (this.releaseOnClose && !this.closed) {
+				this.closed = true;
+				release();
+			}
+		}
+	}
+
+
+	private class CompositeDataBufferOutputStream extends OutputStream {
+
+		@Override
+		public void write(int b) throws IOException {
+			DefaultCompositeDataBuffer.this.write((byte) b);
+		}
+
+		@Override
+		public void write(byte[] bytes, int off, int len) throws IOException {
+			DefaultCompositeDataBuffer.this.write(bytes, off, len);
+		}
+	}
+
+}
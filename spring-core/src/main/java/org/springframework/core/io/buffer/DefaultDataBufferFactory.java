@@ -102,19 +102,17 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
 
 	/**
 	 * {@inheritDoc}
-	 * <p>This implementation creates a single {@link DefaultDataBuffer}
-	 * to contain the data in {@code dataBuffers}.
+	 * <p>This implementation returns a {@link CompositeDataBuffer} that
+	 * refers to the data in {@code dataBuffers} without copying it, unless
+	 * there is only a single buffer to join, which is returned as-is.
 	 */
 	@Override
 	public DataBuffer join(List<? extends DataBuffer> dataBuffers) {
 		Assert.notEmpty(dataBuffers, "DataBuffer List must not be empty");
-		int capacity = dataBuffers.stream().mapToInt(DataBuffer::readableByteCount).sum();
-		DefaultDataBuffer dataBuffer = allocateBuffer(capacity);
-		DataBuffer result = dataBuffers.stream()
-				.map(o -> (DataBuffer) o)
-				.reduce(dataBuffer, DataBuffer::write);
-		dataBuffers.forEach(DataBufferUtils::release);
-		return result;
+		if (dataBuffers.size() == 1) {
+			return dataBuffers.get(0);
+		}
+		return new DefaultCompositeDataBuffer(this, dataBuffers);
 	}
 
 
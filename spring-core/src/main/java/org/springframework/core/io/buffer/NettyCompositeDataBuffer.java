@@ -0,0 +1,45 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.nio.ByteBuffer;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+
+/**
+ * {@link CompositeDataBuffer} implementation based on Netty's
+ * {@link CompositeByteBuf}.
+ *
+ * @author agent
+ * @since 5.0.17
+ * @see NettyDataBufferFactory#join(java.util.List)
+ */
+class NettyCompositeDataBuffer extends NettyDataBuffer implements CompositeDataBuffer {
+
+	NettyCompositeDataBuffer(CompositeByteBuf byteBuf, NettyDataBufferFactory dataBufferFactory) {
+		super(byteBuf, dataBufferFactory);
+	}
+
+
+	@Override
+	public ByteBuffer[] asByteBuffers() {
+		ByteBuf byteBuf = getNativeBuffer();
+		return byteBuf.nioBuffers(byteBuf.readerIndex(), byteBuf.readableBytes());
+	}
+
+}
@@ -109,7 +109,7 @@ public class NettyDataBufferFactory implements DataBufferFactory {
 			Assert.isInstanceOf(NettyDataBuffer.class, dataBuffer);
 			composite.addComponent(true, ((NettyDataBuffer) dataBuffer).getNativeBuffer());
 		}
-		return new NettyDataBuffer(composite, this);
+		return new NettyCompositeDataBuffer(composite, this);
 	}
 
 	/**
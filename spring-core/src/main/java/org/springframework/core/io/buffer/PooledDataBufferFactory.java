@@ -0,0 +1,691 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link DataBufferFactory} that recycles the {@link ByteBuffer ByteBuffers}
+ * behind the buffers it allocates, for use on runtimes that do not come with a
+ * pooled allocator of their own (i.e. Servlet containers and Undertow).
+ *
+ * <p>Native buffers are pooled in power-of-two size classes, starting at
+ * {@value #MIN_SIZE_CLASS} bytes, with each data buffer exposing exactly
+ * the capacity that was requested for it. Released buffers of up to
+ * {@value #MAX_THREAD_CACHE_CAPACITY} bytes are kept in a small cache local
+ * to the releasing thread; all other size classes, as well as thread cache
+ * overflow, go to a shared pool. Thread caches and shared pool together are
+ * bounded by the configured maximum pooled memory. Requests larger than the
+ * maximum pooled capacity are served with non-pooled buffers. Pooled memory,
+ * including thread caches, is dropped on {@link #dispose()}.
+ *
+ * <p>All buffers allocated by this factory are {@link PooledDataBuffer
+ * PooledDataBuffers} with an initial reference count of 1. They must be
+ * released via {@link DataBufferUtils#release(DataBuffer)} once consumed,
+ * after which they must no longer be used. Note that {@linkplain
+ * DataBuffer#slice(int, int) slices} share both the memory and the reference
+ * count of their parent buffer: retaining or releasing a slice retains or
+ * releases its parent.
+ *
+ * <p>Leak detection may be {@linkplain #setLeakDetectionEnabled enabled} for
+ * debugging purposes: buffers that are garbage collected without having been
+ * released are then reported to the configured {@link LeakListener}, along
+ * with the stack trace of their allocation.
+ *
+ * @author agent
+ * @since 5.0.17
+ * @see DataBufferUtils#release(DataBuffer)
+ */
+public class PooledDataBufferFactory extends DefaultDataBufferFactory {
+
+	/**
+	 * The smallest size class, in bytes.
+	 */
+	public static final int MIN_SIZE_CLASS = 64;
+
+	/**
+	 * The default maximum capacity of pooled buffers: 1 MB.
+	 * @see #PooledDataBufferFactory(boolean, int, long)
+	 */
+	public static final int DEFAULT_MAX_POOLED_CAPACITY = 1024 * 1024;
+
+	/**
+	 * The default maximum amount of memory held in thread caches and the shared pool: 32 MB.
+	 * @see #PooledDataBufferFactory(boolean, int, long)
+	 */
+	public static final long DEFAULT_MAX_POOLED_MEMORY = 32L * 1024 * 1024;
+
+	/**
+	 * The largest size class that is cached per thread, in bytes.
+	 */
+	public static final int MAX_THREAD_CACHE_CAPACITY = 32 * 1024;
+
+	private static final int THREAD_CACHE_SIZE = 32;
+
+	private static final Log logger = LogFactory.getLog(PooledDataBufferFactory.class);
+
+
+	private final boolean preferDirect;
+
+	private final int maxPooledCapacity;
+
+	private final long maxPooledMemory;
+
+	private final Queue<ByteBuffer>[] sharedPools;
+
+	private final int cachedSizeClasses;
+
+	// Keyed by thread rather than held in a ThreadLocal, so that dispose() can drop all of them
+	private final ConcurrentMap<Thread, ThreadCache> threadCaches = new ConcurrentHashMap<>();
+
+	private final AtomicLong pooledMemory = new AtomicLong();
+
+	private final LongAdder allocationCount = new LongAdder();
+
+	private final LongAdder threadCacheHitCount = new LongAdder();
+
+	private final LongAdder sharedPoolHitCount = new LongAdder();
+
+	private final LongAdder releaseCount = new LongAdder();
+
+	private final LongAdder leakCount = new LongAdder();
+
+	private final AtomicLong activeCount = new AtomicLong();
+
+	private volatile boolean leakDetectionEnabled;
+
+	private volatile LeakListener leakListener = new LoggingLeakListener();
+
+	private final Set<LeakTracker> leakTrackers = ConcurrentHashMap.newKeySet();
+
+	private final ReferenceQueue<PooledDefaultDataBuffer> leakQueue = new ReferenceQueue<>();
+
+	private volatile boolean disposed;
+
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory} with default settings,
+	 * pooling heap buffers.
+	 */
+	public PooledDataBufferFactory() {
+		this(false);
+	}
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory}, indicating whether direct
+	 * buffers should be pooled.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 */
+	public PooledDataBufferFactory(boolean preferDirect) {
+		this(preferDirect, DEFAULT_MAX_POOLED_CAPACITY, DEFAULT_MAX_POOLED_MEMORY);
+	}
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory}, indicating whether direct
+	 * buffers should be pooled, the largest capacity to pool, and the maximum
+	 * amount of memory to keep in thread caches and the shared pool.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 * @param maxPooledCapacity the largest buffer capacity to pool, in bytes;
+	 * larger buffers are allocated without pooling
+	 * @param maxPooledMemory the maximum number of bytes to retain in
+	 * thread caches and the shared pool
+	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	public PooledDataBufferFactory(boolean preferDirect, int maxPooledCapacity, long maxPooledMemory) {
+		super(preferDirect);
+		Assert.isTrue(maxPooledCapacity >= MIN_SIZE_CLASS,
+				"'maxPooledCapacity' should be at least " + MIN_SIZE_CLASS);
+		Assert.isTrue(maxPooledMemory >= 0, "'maxPooledMemory' should be 0 or larger");
+		this.preferDirect = preferDirect;
+		this.maxPooledCapacity = Integer.highestOneBit(maxPooledCapacity);
+		this.maxPooledMemory = maxPooledMemory;
+		int sizeClasses = sizeClassIndex(this.maxPooledCapacity) + 1;
+		this.sharedPools = new Queue[sizeClasses];
+		for (int i = 0; i < sizeClasses; i++) {
+			this.sharedPools[i] = new ConcurrentLinkedQueue<>();
+		}
+		this.cachedSizeClasses = Math.min(sizeClasses, sizeClassIndex(MAX_THREAD_CACHE_CAPACITY) + 1);
+	}
+
+
+	/**
+	 * Enable or disable leak detection.
+	 * <p>When enabled, the allocation site of every buffer is recorded, and
+	 * buffers that get garbage collected without having been released are
+	 * reported to the {@link #setLeakListener LeakListener}. Given its
+	 * overhead, this is meant for debugging and testing only.
+	 * <p>By default this is set to {@code false}.
+	 */
+	public void setLeakDetectionEnabled(boolean leakDetectionEnabled) {
+		this.leakDetectionEnabled = leakDetectionEnabled;
+	}
+
+	/**
+	 * Whether leak detection is enabled.
+	 */
+	public boolean isLeakDetectionEnabled() {
+		return this.leakDetectionEnabled;
+	}
+
+	/**
+	 * Set the listener to notify of leaked buffers.
+	 * <p>By default, leaks are logged at warn level.
+	 * @see #setLeakDetectionEnabled
+	 */
+	public void setLeakListener(LeakListener leakListener) {
+		Assert.notNull(leakListener, "LeakListener must not be null");
+		this.leakListener = leakListener;
+	}
+
+	/**
+	 * Return the configured listener for leaked buffers.
+	 */
+	public LeakListener getLeakListener() {
+		return this.leakListener;
+	}
+
+
+	@Override
+	public DefaultDataBuffer allocateBuffer(int initialCapacity) {
+		Assert.isTrue(initialCapacity >= 0, "'initialCapacity' should be 0 or larger");
+		reportLeaks();
+		ByteBuffer chunk = acquire(initialCapacity);
+		PooledDefaultDataBuffer dataBuffer = new PooledDefaultDataBuffer(this, chunk, initialCapacity);
+		this.activeCount.incrementAndGet();
+		if (this.leakDetectionEnabled) {
+			dataBuffer.tracker = new LeakTracker(dataBuffer, this.leakQueue);
+			this.leakTrackers.add(dataBuffer.tracker);
+		}
+		return dataBuffer;
+	}
+
+	/**
+	 * Obtain a cleared native buffer with at least the given capacity, from
+	 * the thread cache or shared pool if possible.
+	 */
+	ByteBuffer acquire(int capacity) {
+		this.allocationCount.increment();
+		if (capacity > this.maxPooledCapacity) {
+			return allocateNative(capacity);
+		}
+		int index = sizeClassIndex(capacity);
+		ThreadCache threadCache = obtainThreadCache();
+		ByteBuffer byteBuffer = (threadCache != null ? threadCache.poll(index) : null);
+		if (byteBuffer != null) {
+			this.pooledMemory.addAndGet(-byteBuffer.capacity());
+			this.threadCacheHitCount.increment();
+			return byteBuffer;
+		}
+		byteBuffer = this.sharedPools[index].poll();
+		if (byteBuffer != null) {
+			this.pooledMemory.addAndGet(-byteBuffer.capacity());
+			this.sharedPoolHitCount.increment();
+			return byteBuffer;
+		}
+		return allocateNative(sizeClassCapacity(index));
+	}
+
+	/**
+	 * Return the given native buffer to the thread cache or shared pool, or
+	 * leave it to the garbage collector if it does not fit either.
+	 */
+	void recycle(ByteBuffer byteBuffer) {
+		int capacity = byteBuffer.capacity();
+		if (this.disposed || capacity > this.maxPooledCapacity || capacity < MIN_SIZE_CLASS ||
+				Integer.bitCount(capacity) != 1 || byteBuffer.isDirect() != this.preferDirect) {
+			return;
+		}
+		if (this.pooledMemory.addAndGet(capacity) > this.maxPooledMemory) {
+			this.pooledMemory.addAndGet(-capacity);
+			return;
+		}
+		byteBuffer.clear();
+		int index = sizeClassIndex(capacity);
+		ThreadCache threadCache = obtainThreadCache();
+		if (threadCache == null || !threadCache.offer(index, byteBuffer)) {
+			this.sharedPools[index].offer(byteBuffer);
+		}
+	}
+
+	/**
+	 * Return the cache of the current thread, creating it if necessary.
+	 * @return the thread cache, or {@code null} once disposed
+	 */
+	@Nullable
+	private ThreadCache obtainThreadCache() {
+		Thread thread = Thread.currentThread();
+		ThreadCache threadCache = this.threadCaches.get(thread);
+		if (threadCache == null && !this.disposed) {
+			purgeThreadCaches();
+			threadCache = new ThreadCache(this.cachedSizeClasses);
+			this.threadCaches.put(thread, threadCache);
+		}
+		return threadCache;
+	}
+
+	/**
+	 * Drop the caches of threads that have terminated in the meantime.
+	 */
+	private void purgeThreadCaches() {
+		for (Iterator<Map.Entry<Thread, ThreadCache>> it = this.threadCaches.entrySet().iterator(); it.hasNext();) {
+			Map.Entry<Thread, ThreadCache> entry = it.next();
+			if (!entry.getKey().isAlive()) {
+				it.remove();
+				this.pooledMemory.addAndGet(-entry.getValue().clear());
+			}
+		}
+	}
+
+	/**
+	 * Drop all pooled memory, from the shared pool as well as from all thread
+	 * caches, and stop pooling: buffers released afterwards are left to the
+	 * garbage collector. To be called when the factory is no longer in use,
+	 * e.g. when the application shuts down.
+	 * <p>Buffers allocated before remain valid until released.
+	 */
+	public void dispose() {
+		this.disposed = true;
+		for (Iterator<ThreadCache> it = this.threadCaches.values().iterator(); it.hasNext();) {
+			this.pooledMemory.addAndGet(-it.next().clear());
+			it.remove();
+		}
+		for (Queue<ByteBuffer> sharedPool : this.sharedPools) {
+			ByteBuffer byteBuffer;
+			while ((byteBuffer = sharedPool.poll()) != null) {
+				this.pooledMemory.addAndGet(-byteBuffer.capacity());
+			}
+		}
+	}
+
+	private ByteBuffer allocateNative(int capacity) {
+		return (this.preferDirect ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity));
+	}
+
+	private void released(PooledDefaultDataBuffer dataBuffer) {
+		this.releaseCount.increment();
+		this.activeCount.decrementAndGet();
+		LeakTracker tracker = dataBuffer.tracker;
+		if (tracker != null) {
+			tracker.clear();
+			this.leakTrackers.remove(tracker);
+		}
+		recycle(dataBuffer.chunk);
+		if (dataBuffer.retiredChunks != null) {
+			dataBuffer.retiredChunks.forEach(this::recycle);
+			dataBuffer.retiredChunks = null;
+		}
+	}
+
+	private void reportLeaks() {
+		LeakTracker tracker;
+		while ((tracker = (LeakTracker) this.leakQueue.poll()) != null) {
+			if (this.leakTrackers.remove(tracker)) {
+				this.leakCount.increment();
+				this.activeCount.decrementAndGet();
+				this.leakListener.leakDetected(tracker.allocationSite);
+			}
+		}
+	}
+
+	private static int sizeClassIndex(int capacity) {
+		if (capacity <= MIN_SIZE_CLASS) {
+			return 0;
+		}
+		int bits = 32 - Integer.numberOfLeadingZeros(capacity - 1);
+		return bits - Integer.numberOfTrailingZeros(MIN_SIZE_CLASS);
+	}
+
+	private static int sizeClassCapacity(int index) {
+		return MIN_SIZE_CLASS << index;
+	}
+
+
+	// Pool metrics
+
+	/**
+	 * Return the number of native buffers requested from this factory, either
+	 * for new data buffers or for growing existing ones.
+	 */
+	public long getAllocationCount() {
+		return this.allocationCount.sum();
+	}
+
+	/**
+	 * Return the number of native buffer requests served from a thread cache.
+	 */
+	public long getThreadCacheHitCount() {
+		return this.threadCacheHitCount.sum();
+	}
+
+	/**
+	 * Return the number of native buffer requests served from the shared pool.
+	 */
+	public long getSharedPoolHitCount() {
+		return this.sharedPoolHitCount.sum();
+	}
+
+	/**
+	 * Return the number of data buffers that have been released.
+	 */
+	public long getReleaseCount() {
+		return this.releaseCount.sum();
+	}
+
+	/**
+	 * Return the number of data buffers that have been allocated, but have
+	 * neither been released nor reported as leaked yet.
+	 */
+	public long getActiveBufferCount() {
+		return this.activeCount.get();
+	}
+
+	/**
+	 * Return the number of bytes currently retained in thread caches and the shared pool.
+	 */
+	public long getPooledMemory() {
+		return this.pooledMemory.get();
+	}
+
+	/**
+	 * Return the number of leaked buffers that have been detected.
+	 * @see #setLeakDetectionEnabled
+	 */
+	public long getLeakCount() {
+		return this.leakCount.sum();
+	}
+
+
+	@Override
+	public String toString() {
+		return "PooledDataBufferFactory (preferDirect=" + this.preferDirect +
+				", maxPooledCapacity=" + this.maxPooledCapacity +
+				", pooledMemory=" + getPooledMemory() + "/" + this.maxPooledMemory +
+				", activeBuffers=" + getActiveBufferCount() + ")";
+	}
+
+
+	/**
+	 * Callback interface for buffers detected to have been garbage collected
+	 * without having been released.
+	 * @see #setLeakListener
+	 */
+	@FunctionalInterface
+	public interface LeakListener {
+
+		/**
+		 * Invoked when a leaked buffer has been detected.
+		 * @param allocationSite an exception whose stack trace points to
+		 * the place where the leaked buffer has been allocated
+		 */
+		void leakDetected(Throwable allocationSite);
+	}
+
+
+	private static class LoggingLeakListener implements LeakListener {
+
+		@Override
+		public void leakDetected(Throwable allocationSite) {
+			logger.warn("DataBuffer was garbage collected without having been released - " +
+					"see DataBufferUtils.release(DataBuffer)", allocationSite);
+		}
+	}
+
+
+	private static class LeakTracker extends WeakReference<PooledDefaultDataBuffer> {
+
+		private final Throwable allocationSite;
+
+		LeakTracker(PooledDefaultDataBuffer dataBuffer, ReferenceQueue<PooledDefaultDataBuffer> queue) {
+			super(dataBuffer, queue);
+			this.allocationSite = new IllegalStateException("Leaked DataBuffer allocated here");
+		}
+	}
+
+
+	/**
+	 * Per-thread cache of native buffers, one bounded queue per size class.
+	 * <p>Only used by its thread, apart from being cleared on dispose.
+	 */
+	private static class ThreadCache {
+
+		private final ArrayDeque<ByteBuffer>[] queues;
+
+		@SuppressWarnings({"rawtypes", "unchecked"})
+		ThreadCache(int sizeClasses) {
+			this.queues = new ArrayDeque[sizeClasses];
+			for (int i = 0; i < sizeClasses; i++) {
+				this.queues[i] = new ArrayDeque<>(THREAD_CACHE_SIZE);
+			}
+		}
+
+		@Nullable
+		synchronized ByteBuffer poll(int index) {
+			return (index < this.queues.length ? this.queues[index].pollLast() : null);
+		}
+
+		synchronized boolean offer(int index, ByteBuffer byteBuffer) {
+			if (index < this.queues.length && this.queues[index].size() < THREAD_CACHE_SIZE) {
+				this.queues[index].offerLast(byteBuffer);
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Remove all cached buffers.
+		 * @return the total capacity of the removed buffers
+		 */
+		synchronized long clear() {
+			long capacity = 0;
+			for (ArrayDeque<ByteBuffer> queue : this.queues) {
+				ByteBuffer byteBuffer;
+				while ((byteBuffer = queue.poll()) != null) {
+					capacity += byteBuffer.capacity();
+				}
+			}
+			return capacity;
+		}
+	}
+
+
+	/**
+	 * Reference counted {@link DefaultDataBuffer} that returns its native
+	 * buffer to the owning factory once released.
+	 * <p>The data buffer operates on a slice of the pooled native buffer that
+	 * is limited to the requested capacity, so that it behaves exactly like a
+	 * {@code DefaultDataBuffer} of that capacity.
+	 */
+	private static class PooledDefaultDataBuffer extends DefaultDataBuffer implements PooledDataBuffer {
+
+		private static final AtomicIntegerFieldUpdater<PooledDefaultDataBuffer> REF_COUNT_UPDATER =
+				AtomicIntegerFieldUpdater.newUpdater(PooledDefaultDataBuffer.class, "refCount");
+
+		private final PooledDataBufferFactory dataBufferFactory;
+
+		private ByteBuffer chunk;
+
+		@Nullable
+		private ByteBuffer newChunk;
+
+		// Native buffers replaced while slices may still refer to them, recycled on release
+		@Nullable
+		private List<ByteBuffer> retiredChunks;
+
+		private boolean sliced;
+
+		private volatile int refCount = 1;
+
+		@Nullable
+		LeakTracker tracker;
+
+		PooledDefaultDataBuffer(PooledDataBufferFactory dataBufferFactory, ByteBuffer chunk, int capacity) {
+			super(dataBufferFactory, limit(chunk, capacity));
+			this.dataBufferFactory = dataBufferFactory;
+			this.chunk = chunk;
+		}
+
+		private static ByteBuffer limit(ByteBuffer chunk, int capacity) {
+			// Explicit cast for compatibility with covariant return type on JDK 9's ByteBuffer
+			((Buffer) chunk).limit(capacity);
+			return chunk;
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			for (;;) {
+				int refCount = this.refCount;
+				if (refCount <= 0) {
+					throw new IllegalStateException("DataBuffer has already been released: " + this);
+				}
+				if (REF_COUNT_UPDATER.compareAndSet(this, refCount, refCount + 1)) {
+					return this;
+				}
+			}
+		}
+
+		@Override
+		public boolean release() {
+			for (;;) {
+				int refCount = this.refCount;
+				if (refCount <= 0) {
+					throw new IllegalStateException("DataBuffer has already been released: " + this);
+				}
+				if (REF_COUNT_UPDATER.compareAndSet(this, refCount, refCount - 1)) {
+					if (refCount == 1) {
+						this.dataBufferFactory.released(this);
+						return true;
+					}
+					return false;
+				}
+			}
+		}
+
+		@Override
+		ByteBuffer allocate(int capacity, boolean direct) {
+			ByteBuffer chunk = this.dataBufferFactory.acquire(capacity);
+			this.newChunk = chunk;
+			return limit(chunk, capacity).slice();
+		}
+
+		@Override
+		void deallocate(ByteBuffer byteBuffer) {
+			Assert.state(this.newChunk != null, "No new native buffer allocated");
+			if (this.sliced) {
+				if (this.retiredChunks == null) {
+					this.retiredChunks = new ArrayList<>(2);
+				}
+				this.retiredChunks.add(this.chunk);
+			}
+			else {
+				this.dataBufferFactory.recycle(this.chunk);
+			}
+			this.chunk = this.newChunk;
+			this.newChunk = null;
+		}
+
+		@Override
+		public DefaultDataBuffer slice(int index, int length) {
+			this.sliced = true;
+			ByteBuffer slice = super.slice(index, length).getNativeBuffer();
+			return new PooledSlicedDataBuffer(this, slice, length);
+		}
+
+		@Override
+		public InputStream asInputStream(boolean releaseOnClose) {
+			InputStream inputStream = asInputStream();
+			if (!releaseOnClose) {
+				return inputStream;
+			}
+			return new FilterInputStream(inputStream) {
+				private boolean closed;
+				@Override
+				public void close() throws IOException {
+					if (!this.closed) {
+						this.closed = true;
+						release();
+					}
+				}
+			};
+		}
+
+		@Override
+		public String toString() {
+			return String.format("PooledDefaultDataBuffer (r: %d, w: %d, c: %d, refCount: %d)",
+					readPosition(), writePosition(), capacity(), this.refCount);
+		}
+	}
+
+
+	/**
+	 * Slice of a {@link PooledDefaultDataBuffer}, sharing the reference count
+	 * of its parent in the same way as Netty's derived buffers.
+	 */
+	private static class PooledSlicedDataBuffer extends DefaultDataBuffer implements PooledDataBuffer {
+
+		private final PooledDefaultDataBuffer parent;
+
+		PooledSlicedDataBuffer(PooledDefaultDataBuffer parent, ByteBuffer byteBuffer, int length) {
+			super(parent.dataBufferFactory, byteBuffer);
+			this.parent = parent;
+			writePosition(length);
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			this.parent.retain();
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			return this.parent.release();
+		}
+
+		@Override
+		public DefaultDataBuffer capacity(int newCapacity) {
+			throw new UnsupportedOperationException("Changing the capacity of a sliced buffer is not supported");
+		}
+	}
+
+}
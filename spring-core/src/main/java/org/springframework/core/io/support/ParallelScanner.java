@@ -0,0 +1,233 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.core.io.support;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.AccessControlContext;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Processes the items found by classpath scanning in parallel, on a dedicated
+ * {@link ForkJoinPool} rather than on the common pool, whose worker threads
+ * may run without any permissions under a SecurityManager.
+ *
+ * <p>Each item is processed with the thread context ClassLoader and within the
+ * access control context of the thread that started the scan, so resource
+ * access behaves as if the items were processed by that thread. Results are
+ * returned in the order of the items.
+ *
+ * @author agent
+ * @since 5.0.17
+ * @see PathMatchingResourcePatternResolver#setParallelScanning
+ */
+public class ParallelScanner {
+
+	@Nullable
+	private static volatile ParallelScanner sharedInstance;
+
+
+	private final ForkJoinPool forkJoinPool;
+
+
+	/**
+	 * Create a new {@code ParallelScanner} for the given pool.
+	 * @param forkJoinPool the pool to process items on
+	 */
+	public ParallelScanner(ForkJoinPool forkJoinPool) {
+		Assert.notNull(forkJoinPool, "ForkJoinPool must not be null");
+		this.forkJoinPool = forkJoinPool;
+	}
+
+
+	/**
+	 * Return the JVM-wide scanner, processing items on a pool of daemon
+	 * threads with a parallelism equal to the number of processors.
+	 * The pool gets created on first access.
+	 */
+	public static ParallelScanner getSharedInstance() {
+		ParallelScanner scanner = sharedInstance;
+		if (scanner == null) {
+			synchronized (ParallelScanner.class) {
+				scanner = sharedInstance;
+				if (scanner == null) {
+					scanner = new ParallelScanner(AccessController.doPrivileged((PrivilegedAction<ForkJoinPool>) () ->
+							new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+									new ScanThreadFactory(), null, false)));
+					sharedInstance = scanner;
+				}
+			}
+		}
+		return scanner;
+	}
+
+	/**
+	 * Return the pool that this scanner processes items on.
+	 */
+	public ForkJoinPool getForkJoinPool() {
+		return this.forkJoinPool;
+	}
+
+
+	/**
+	 * Apply the given function to all given items in parallel.
+	 * <p>May be called from within a function applied by this scanner,
+	 * processing the nested items on the same pool.
+	 * @param items the items to process
+	 * @param function the function to apply to each item
+	 * @return the results of the function, in the order of the items
+	 * (with {@code null} results being included)
+	 * @throws IOException if thrown by the function for any of the items
+	 */
+	public <T, R> List<R> map(List<T> items, ScanFunction<? super T, ? extends R> function) throws IOException {
+		if (items.isEmpty()) {
+			return Collections.emptyList();
+		}
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		AccessControlContext acc = AccessController.getContext();
+		Callable<List<R>> task = () -> items.parallelStream()
+				.map(item -> apply(function, item, classLoader, acc))
+				.collect(Collectors.toList());
+		try {
+			if (ForkJoinTask.getPool() == this.forkJoinPool) {
+				// Nested scan: parallel streams within a task use the pool of that task
+				return task.call();
+			}
+			return this.forkJoinPool.submit(task).get();
+		}
+		catch (ExecutionException ex) {
+			return rethrow(ex.getCause());
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while scanning in parallel", ex);
+		}
+		catch (Exception ex) {
+			return rethrow(ex);
+		}
+	}
+
+	private static <T, R> R apply(ScanFunction<? super T, ? extends R> function, T item,
+			@Nullable ClassLoader classLoader, AccessControlContext acc) {
+
+		Thread currentThread = Thread.currentThread();
+		ClassLoader originalClassLoader = currentThread.getContextClassLoader();
+		boolean switchClassLoader = (classLoader != originalClassLoader);
+		if (switchClassLoader) {
+			setContextClassLoader(currentThread, classLoader);
+		}
+		try {
+			if (System.getSecurityManager() != null) {
+				return AccessController.doPrivileged((PrivilegedExceptionAction<R>) () -> function.apply(item), acc);
+			}
+			return function.apply(item);
+		}
+		catch (PrivilegedActionException ex) {
+			throw new UncheckedIOException((IOException) ex.getException());
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		finally {
+			if (switchClassLoader) {
+				setContextClassLoader(currentThread, originalClassLoader);
+			}
+		}
+	}
+
+	private static void setContextClassLoader(Thread thread, @Nullable ClassLoader classLoader) {
+		if (System.getSecurityManager() != null) {
+			AccessController.doPrivileged((PrivilegedAction<Object>) () -> {
+				thread.setContextClassLoader(classLoader);
+				return null;
+			});
+		}
+		else {
+			thread.setContextClassLoader(classLoader);
+		}
+	}
+
+	private static <R> R rethrow(Throwable ex) throws IOException {
+		if (ex instanceof UncheckedIOException) {
+			throw ((UncheckedIOException) ex).getCause();
+		}
+		if (ex instanceof IOException) {
+			throw (IOException) ex;
+		}
+		if (ex instanceof RuntimeException) {
+			throw (RuntimeException) ex;
+		}
+		if (ex instanceof Error) {
+			throw (Error) ex;
+		}
+		throw new IllegalStateException("Unexpected exception during parallel scanning", ex);
+	}
+
+
+	/**
+	 * Function applied to each item of a parallel scan.
+	 */
+	@FunctionalInterface
+	public interface ScanFunction<T, R> {
+
+		/**
+		 * Process the given item.
+		 * @param item the item to process
+		 * @return the result for the item (may be {@code null})
+		 * @throws IOException in case of I/O failure
+		 */
+		@Nullable
+		R apply(T item) throws IOException;
+	}
+
+
+	/**
+	 * Creates the worker threads of the shared pool, without letting them
+	 * inherit the access control context of the thread that triggered their
+	 * creation.
+	 */
+	private static class ScanThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+
+		private final AtomicInteger threadCount = new AtomicInteger();
+
+		@Override
+		public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+			return AccessController.doPrivileged((PrivilegedAction<ForkJoinWorkerThread>) () -> {
+				ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+				thread.setName("spring-scan-" + this.threadCount.incrementAndGet());
+				return thread;
+			});
+		}
+	}
+
+}
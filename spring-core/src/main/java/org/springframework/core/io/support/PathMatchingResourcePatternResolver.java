@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,10 +27,13 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.net.URLConnection;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
@@ -39,6 +42,7 @@ import java.util.zip.ZipException;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.core.SpringProperties;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
@@ -49,6 +53,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.PathMatcher;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.ResourceUtils;
@@ -168,6 +173,14 @@ import org.springframework.util.StringUtils;
  * Ant-style pattern in such a case, which will search <i>all</i> class path
  * locations that contain the root package.
  *
+ * <p><b>Parallel scanning:</b> In {@linkplain #setParallelScanning parallel
+ * scanning mode}, the root locations of a pattern as well as the directory
+ * trees below them are searched through a {@link ParallelScanner}, and jar
+ * files are matched against a sorted index of their entry names which is
+ * built once per jar file and resolver. The resulting resources come in a deterministic
+ * order: in the order of the root locations and, within each root location,
+ * sorted by path.
+ *
  * @author Juergen Hoeller
  * @author Colin Sampaleanu
  * @author Marius Bogoevici
@@ -181,6 +194,17 @@ import org.springframework.util.StringUtils;
  */
 public class PathMatchingResourcePatternResolver implements ResourcePatternResolver {
 
+	/**
+	 * System property that switches the default for {@link #setParallelScanning}
+	 * to {@code true}, for this resolver as well as for Spring's classpath
+	 * scanning of candidate components.
+	 * @since 5.0.17
+	 */
+	public static final String PARALLEL_SCANNING_PROPERTY_NAME = "spring.scan.parallel";
+
+
+	private static final boolean defaultParallelScanning = SpringProperties.getFlag(PARALLEL_SCANNING_PROPERTY_NAME);
+
 	private static final Log logger = LogFactory.getLog(PathMatchingResourcePatternResolver.class);
 
 	@Nullable
@@ -204,6 +228,14 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	private boolean parallelScanning = defaultParallelScanning;
+
+	@Nullable
+	private ParallelScanner parallelScanner;
+
+	/** Cache of jar entry indexes for parallel scanning, keyed by jar file path */
+	private final Map<String, JarEntryIndex> jarEntryIndexCache = new ConcurrentReferenceHashMap<>();
+
 
 	/**
 	 * Create a new PathMatchingResourcePatternResolver with a DefaultResourceLoader.
@@ -267,6 +299,46 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Set whether to search for resources in parallel, through the
+	 * {@linkplain #setParallelScanner parallel scanner}. Default is "false",
+	 * unless the {@value #PARALLEL_SCANNING_PROPERTY_NAME} system property is set.
+	 * <p>Note that the {@link PathMatcher} needs to be thread-safe for this
+	 * mode, as the default {@link AntPathMatcher} is, and that directory
+	 * trees are searched without going through {@link #doRetrieveMatchingFiles}.
+	 * @since 5.0.17
+	 */
+	public void setParallelScanning(boolean parallelScanning) {
+		this.parallelScanning = parallelScanning;
+	}
+
+	/**
+	 * Return whether this resolver searches for resources in parallel.
+	 * @since 5.0.17
+	 */
+	public boolean isParallelScanning() {
+		return this.parallelScanning;
+	}
+
+	/**
+	 * Set the {@link ParallelScanner} to search for resources with in parallel
+	 * scanning mode. Default is the {@linkplain ParallelScanner#getSharedInstance()
+	 * shared scanner}.
+	 * @since 5.0.17
+	 */
+	public void setParallelScanner(@Nullable ParallelScanner parallelScanner) {
+		this.parallelScanner = parallelScanner;
+	}
+
+	/**
+	 * Return the {@link ParallelScanner} to search for resources with in
+	 * parallel scanning mode.
+	 * @since 5.0.17
+	 */
+	public ParallelScanner getParallelScanner() {
+		return (this.parallelScanner != null ? this.parallelScanner : ParallelScanner.getSharedInstance());
+	}
+
 
 	@Override
 	public Resource getResource(String location) {
@@ -490,25 +562,14 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		String rootDirPath = determineRootDir(locationPattern);
 		String subPattern = locationPattern.substring(rootDirPath.length());
 		Resource[] rootDirResources = getResources(rootDirPath);
-		Set<Resource> result = new LinkedHashSet<>(16);
-		for (Resource rootDirResource : rootDirResources) {
-			rootDirResource = resolveRootDirResource(rootDirResource);
-			URL rootDirUrl = rootDirResource.getURL();
-			if (equinoxResolveMethod != null && rootDirUrl.getProtocol().startsWith("bundle")) {
-				URL resolvedUrl = (URL) ReflectionUtils.invokeMethod(equinoxResolveMethod, null, rootDirUrl);
-				if (resolvedUrl != null) {
-					rootDirUrl = resolvedUrl;
-				}
-				rootDirResource = new UrlResource(rootDirUrl);
-			}
-			if (rootDirUrl.getProtocol().startsWith(ResourceUtils.URL_PROTOCOL_VFS)) {
-				result.addAll(VfsResourceMatchingDelegate.findMatchingResources(rootDirUrl, subPattern, getPathMatcher()));
-			}
-			else if (ResourceUtils.isJarURL(rootDirUrl) || isJarResource(rootDirResource)) {
-				result.addAll(doFindPathMatchingJarResources(rootDirResource, rootDirUrl, subPattern));
-			}
-			else {
-				result.addAll(doFindPathMatchingFileResources(rootDirResource, subPattern));
+		Set<Resource> result;
+		if (isParallelScanning() && rootDirResources.length > 1) {
+			result = doFindPathMatchingResourcesInParallel(rootDirResources, subPattern);
+		}
+		else {
+			result = new LinkedHashSet<>(16);
+			for (Resource rootDirResource : rootDirResources) {
+				result.addAll(doFindPathMatchingResources(rootDirResource, subPattern));
 			}
 		}
 		if (logger.isDebugEnabled()) {
@@ -517,6 +578,39 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return result.toArray(new Resource[0]);
 	}
 
+	private Set<Resource> doFindPathMatchingResourcesInParallel(Resource[] rootDirResources, String subPattern)
+			throws IOException {
+
+		List<Set<Resource>> results = getParallelScanner().map(Arrays.asList(rootDirResources),
+				rootDirResource -> doFindPathMatchingResources(rootDirResource, subPattern));
+		Set<Resource> result = new LinkedHashSet<>(16);
+		results.forEach(result::addAll);
+		return result;
+	}
+
+	private Set<Resource> doFindPathMatchingResources(Resource rootDirResource, String subPattern)
+			throws IOException {
+
+		rootDirResource = resolveRootDirResource(rootDirResource);
+		URL rootDirUrl = rootDirResource.getURL();
+		if (equinoxResolveMethod != null && rootDirUrl.getProtocol().startsWith("bundle")) {
+			URL resolvedUrl = (URL) ReflectionUtils.invokeMethod(equinoxResolveMethod, null, rootDirUrl);
+			if (resolvedUrl != null) {
+				rootDirUrl = resolvedUrl;
+			}
+			rootDirResource = new UrlResource(rootDirUrl);
+		}
+		if (rootDirUrl.getProtocol().startsWith(ResourceUtils.URL_PROTOCOL_VFS)) {
+			return VfsResourceMatchingDelegate.findMatchingResources(rootDirUrl, subPattern, getPathMatcher());
+		}
+		else if (ResourceUtils.isJarURL(rootDirUrl) || isJarResource(rootDirResource)) {
+			return doFindPathMatchingJarResources(rootDirResource, rootDirUrl, subPattern);
+		}
+		else {
+			return doFindPathMatchingFileResources(rootDirResource, subPattern);
+		}
+	}
+
 	/**
 	 * Determine the root directory for the given location.
 	 * <p>Used for determining the starting point for file matching,
@@ -642,6 +736,9 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 				// The Sun JRE does not return a slash here, but BEA JRockit does.
 				rootEntryPath = rootEntryPath + "/";
 			}
+			if (isParallelScanning()) {
+				return doFindPathMatchingJarEntries(jarFile, rootDirResource, rootEntryPath, subPattern);
+			}
 			Set<Resource> result = new LinkedHashSet<>(8);
 			for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
 				JarEntry entry = entries.nextElement();
@@ -662,6 +759,45 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		}
 	}
 
+	/**
+	 * Find all entries of the given jar file below the root entry path that
+	 * match the given sub pattern, using the cached entry index of the jar file
+	 * and matching the entries through the parallel scanner.
+	 */
+	private Set<Resource> doFindPathMatchingJarEntries(JarFile jarFile, Resource rootDirResource,
+			String rootEntryPath, String subPattern) throws IOException {
+
+		JarEntryIndex index = getJarEntryIndex(jarFile);
+		List<String> entryNames = Arrays.asList(index.entryNames).subList(
+				index.indexOf(rootEntryPath), index.indexOf(rootEntryPath + Character.MAX_VALUE));
+		PathMatcher pathMatcher = getPathMatcher();
+		List<Resource> matches = getParallelScanner().map(entryNames, entryName -> {
+			String relativePath = entryName.substring(rootEntryPath.length());
+			return (pathMatcher.match(subPattern, relativePath) ? rootDirResource.createRelative(relativePath) : null);
+		});
+		Set<Resource> result = new LinkedHashSet<>(8);
+		for (Resource match : matches) {
+			if (match != null) {
+				result.add(match);
+			}
+		}
+		return result;
+	}
+
+	private JarEntryIndex getJarEntryIndex(JarFile jarFile) {
+		File file = new File(jarFile.getName());
+		if (!file.isFile()) {
+			// Not a plain jar file, e.g. a nested jar -> don't cache the index.
+			return new JarEntryIndex(jarFile, file);
+		}
+		JarEntryIndex index = this.jarEntryIndexCache.get(jarFile.getName());
+		if (index == null || !index.isCurrent(file)) {
+			index = new JarEntryIndex(jarFile, file);
+			this.jarEntryIndexCache.put(jarFile.getName(), index);
+		}
+		return index;
+	}
+
 	/**
 	 * Resolve the given jar file URL into a JarFile object.
 	 */
@@ -771,6 +907,9 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 			fullPattern += "/";
 		}
 		fullPattern = fullPattern + StringUtils.replace(pattern, File.separator, "/");
+		if (isParallelScanning()) {
+			return new LinkedHashSet<>(retrieveMatchingFilesInParallel(fullPattern, rootDir));
+		}
 		Set<File> result = new LinkedHashSet<>(8);
 		doRetrieveMatchingFiles(fullPattern, rootDir, result);
 		return result;
@@ -818,6 +957,87 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 	}
 
 
+	/**
+	 * Parallel variant of {@link #doRetrieveMatchingFiles}, searching the
+	 * contents of each directory through the parallel scanner while keeping
+	 * the same order of results.
+	 * @param fullPattern the pattern to match against,
+	 * with prepended root directory path
+	 * @param dir the current directory
+	 * @return the matching File instances, in traversal order
+	 * @throws IOException if thrown by the parallel scanner
+	 */
+	private List<File> retrieveMatchingFilesInParallel(String fullPattern, File dir) throws IOException {
+		File[] dirContents = dir.listFiles();
+		if (dirContents == null) {
+			if (logger.isWarnEnabled()) {
+				logger.warn("Could not retrieve contents of directory [" + dir.getAbsolutePath() + "]");
+			}
+			return Collections.emptyList();
+		}
+		Arrays.sort(dirContents);
+		List<List<File>> parts = getParallelScanner().map(Arrays.asList(dirContents), content -> {
+			List<File> files = new ArrayList<>(1);
+			String currPath = StringUtils.replace(content.getAbsolutePath(), File.separator, "/");
+			if (content.isDirectory() && getPathMatcher().matchStart(fullPattern, currPath + "/")) {
+				if (!content.canRead()) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Skipping subdirectory [" + dir.getAbsolutePath() +
+								"] because the application is not allowed to read the directory");
+					}
+				}
+				else {
+					files.addAll(retrieveMatchingFilesInParallel(fullPattern, content));
+				}
+			}
+			if (getPathMatcher().match(fullPattern, currPath)) {
+				files.add(content);
+			}
+			return files;
+		});
+		List<File> result = new ArrayList<>();
+		parts.forEach(result::addAll);
+		return result;
+	}
+
+
+	/**
+	 * Sorted names of all entries in a jar file, along with the timestamp
+	 * and size of the jar file for detecting changes.
+	 */
+	private static class JarEntryIndex {
+
+		private final long lastModified;
+
+		private final long length;
+
+		private final String[] entryNames;
+
+		public JarEntryIndex(JarFile jarFile, File file) {
+			this.lastModified = file.lastModified();
+			this.length = file.length();
+			List<String> entryNames = new ArrayList<>(jarFile.size());
+			for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
+				entryNames.add(entries.nextElement().getName());
+			}
+			this.entryNames = entryNames.toArray(new String[0]);
+			Arrays.sort(this.entryNames);
+		}
+
+		public boolean isCurrent(File file) {
+			return (file.lastModified() == this.lastModified && file.length() == this.length);
+		}
+
+		/**
+		 * Return the index of the first entry name that is not less than the given name.
+		 */
+		public int indexOf(String name) {
+			int index = Arrays.binarySearch(this.entryNames, name);
+			return (index >= 0 ? index : -index - 1);
+		}
+	}
+
+
 	/**
 	 * Inner delegate class, avoiding a hard JBoss VFS API dependency at runtime.
 	 */
@@ -0,0 +1,369 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ApplicationStartup} implementation that buffers {@link StartupStep steps}
+ * in memory, along with their thread, start time and duration, for inspection
+ * once the startup phase is over.
+ *
+ * <p>Steps are nested per thread: a step started while another step is active
+ * on the same thread becomes a child of that step. Up to the given capacity,
+ * ended steps are kept in the buffer; further steps are dropped.
+ *
+ * <p>The buffered steps can be exported as {@link #toFlameGraph() folded stacks}
+ * for flame graph tools, with the self time of each step, or as a
+ * {@link #toJson() JSON timeline} in the Trace Event Format understood by
+ * Chrome's tracing tool, Perfetto and speedscope, showing nested steps per thread.
+ *
+ * @author agent
+ * @since 5.0.17
+ */
+public class BufferingApplicationStartup implements ApplicationStartup {
+
+	private final int capacity;
+
+	private final long startTime = System.nanoTime();
+
+	private final AtomicLong idCounter = new AtomicLong();
+
+	private final ThreadLocal<BufferedStartupStep> currentSteps = new ThreadLocal<>();
+
+	private final Queue<BufferedStartupStep> bufferedSteps = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger bufferedCount = new AtomicInteger();
+
+
+	/**
+	 * Create a new {@code BufferingApplicationStartup} with a limited capacity.
+	 * @param capacity the maximum number of steps to buffer
+	 */
+	public BufferingApplicationStartup(int capacity) {
+		Assert.isTrue(capacity > 0, "Capacity must be greater than 0");
+		this.capacity = capacity;
+	}
+
+
+	@Override
+	public StartupStep start(String name) {
+		BufferedStartupStep parent = this.currentSteps.get();
+		while (parent != null && parent.ended) {
+			parent = parent.parent;
+		}
+		BufferedStartupStep step = new BufferedStartupStep(this.idCounter.incrementAndGet(), name, parent);
+		this.currentSteps.set(step);
+		return step;
+	}
+
+	private void record(BufferedStartupStep step) {
+		if (this.currentSteps.get() == step) {
+			BufferedStartupStep parent = step.parent;
+			while (parent != null && parent.ended) {
+				parent = parent.parent;
+			}
+			if (parent != null) {
+				this.currentSteps.set(parent);
+			}
+			else {
+				this.currentSteps.remove();
+			}
+		}
+		if (this.bufferedCount.getAndIncrement() < this.capacity) {
+			this.bufferedSteps.add(step);
+		}
+	}
+
+	/**
+	 * Return the buffered steps, ordered by their start time.
+	 */
+	public List<BufferedStartupStep> getBufferedSteps() {
+		List<BufferedStartupStep> steps = new ArrayList<>(this.bufferedSteps);
+		steps.sort(Comparator.comparingLong(BufferedStartupStep::getStartTime)
+				.thenComparingLong(BufferedStartupStep::getId));
+		return steps;
+	}
+
+	/**
+	 * Remove all buffered steps, making room for new ones.
+	 */
+	public void clear() {
+		this.bufferedSteps.clear();
+		this.bufferedCount.set(0);
+	}
+
+	/**
+	 * Export the buffered steps as folded stacks, one line per distinct stack
+	 * of nested steps with its accumulated self time in microseconds, e.g.
+	 * {@code spring.context.refresh;spring.beans.instantiate[beanName=myBean] 1250}.
+	 * <p>This is the input format of flame graph tools such as {@code flamegraph.pl}.
+	 * Steps whose parent is not buffered are considered root steps.
+	 */
+	public String toFlameGraph() {
+		List<BufferedStartupStep> steps = getBufferedSteps();
+		Map<Long, BufferedStartupStep> stepsById = new HashMap<>(steps.size());
+		Map<Long, Long> childDurations = new HashMap<>(steps.size());
+		for (BufferedStartupStep step : steps) {
+			stepsById.put(step.getId(), step);
+		}
+		for (BufferedStartupStep step : steps) {
+			Long parentId = step.getParentId();
+			if (parentId != null && stepsById.containsKey(parentId)) {
+				childDurations.merge(parentId, step.getDuration(), Long::sum);
+			}
+		}
+		Map<String, Long> stacks = new LinkedHashMap<>();
+		for (BufferedStartupStep step : steps) {
+			StringBuilder stack = new StringBuilder(getFrameName(step));
+			BufferedStartupStep parent = (step.getParentId() != null ? stepsById.get(step.getParentId()) : null);
+			while (parent != null) {
+				stack.insert(0, ';').insert(0, getFrameName(parent));
+				parent = (parent.getParentId() != null ? stepsById.get(parent.getParentId()) : null);
+			}
+			long selfTime = step.getDuration() - childDurations.getOrDefault(step.getId(), 0L);
+			stacks.merge(stack.toString(), Math.max(selfTime, 0L) / 1000, Long::sum);
+		}
+		StringBuilder result = new StringBuilder();
+		stacks.forEach((stack, micros) -> result.append(stack).append(' ').append(micros).append('\n'));
+		return result.toString();
+	}
+
+	private static String getFrameName(BufferedStartupStep step) {
+		StringBuilder name = new StringBuilder(step.getName());
+		Iterator<StartupStep.Tag> tags = step.getTags().iterator();
+		if (tags.hasNext()) {
+			name.append('[');
+			while (tags.hasNext()) {
+				StartupStep.Tag tag = tags.next();
+				name.append(tag.getKey()).append('=').append(tag.getValue());
+				if (tags.hasNext()) {
+					name.append(',');
+				}
+			}
+			name.append(']');
+		}
+		// Neither frame separators nor line breaks within a single frame
+		return name.toString().replace(';', ',').replace('\n', ' ').replace('\r', ' ');
+	}
+
+	/**
+	 * Export the buffered steps as a JSON timeline in the Trace Event Format,
+	 * with one complete event per step (start time and duration in microseconds,
+	 * relative to the creation of this {@code ApplicationStartup}), one track per
+	 * thread, and the step id, parent id and tags as event arguments.
+	 */
+	public String toJson() {
+		List<BufferedStartupStep> steps = getBufferedSteps();
+		Map<String, Integer> threadIds = new LinkedHashMap<>();
+		for (BufferedStartupStep step : steps) {
+			threadIds.putIfAbsent(step.getThreadName(), threadIds.size() + 1);
+		}
+		StringBuilder json = new StringBuilder("{\"traceEvents\":[");
+		String separator = "";
+		for (Map.Entry<String, Integer> entry : threadIds.entrySet()) {
+			json.append(separator).append("\n{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":")
+					.append(entry.getValue()).append(",\"args\":{\"name\":");
+			appendJsonString(json, entry.getKey());
+			json.append("}}");
+			separator = ",";
+		}
+		for (BufferedStartupStep step : steps) {
+			json.append(separator).append("\n{\"name\":");
+			appendJsonString(json, step.getName());
+			json.append(",\"ph\":\"X\",\"pid\":1,\"tid\":").append(threadIds.get(step.getThreadName()))
+					.append(",\"ts\":").append(step.getStartTime() / 1000)
+					.append(",\"dur\":").append(step.getDuration() / 1000)
+					.append(",\"args\":{\"id\":").append(step.getId());
+			if (step.getParentId() != null) {
+				json.append(",\"parentId\":").append(step.getParentId());
+			}
+			for (StartupStep.Tag tag : step.getTags()) {
+				json.append(',');
+				appendJsonString(json, tag.getKey());
+				json.append(':');
+				appendJsonString(json, tag.getValue());
+			}
+			json.append("}}");
+			separator = ",";
+		}
+		return json.append("\n]}\n").toString();
+	}
+
+	private static void appendJsonString(StringBuilder json, String value) {
+		json.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				json.append('\\').append(c);
+			}
+			else if (c < 0x20) {
+				json.append(String.format("\\u%04x", (int) c));
+			}
+			else {
+				json.append(c);
+			}
+		}
+		json.append('"');
+	}
+
+
+	/**
+	 * {@link StartupStep} recorded by a {@link BufferingApplicationStartup}.
+	 */
+	public final class BufferedStartupStep implements StartupStep {
+
+		private final long id;
+
+		private final String name;
+
+		@Nullable
+		private final BufferedStartupStep parent;
+
+		private final String threadName;
+
+		private final long startTime;
+
+		private final List<Tag> tags = new ArrayList<>(2);
+
+		private volatile long duration;
+
+		private volatile boolean ended;
+
+		private BufferedStartupStep(long id, String name, @Nullable BufferedStartupStep parent) {
+			this.id = id;
+			this.name = name;
+			this.parent = parent;
+			this.threadName = Thread.currentThread().getName();
+			this.startTime = System.nanoTime();
+		}
+
+		@Override
+		public String getName() {
+			return this.name;
+		}
+
+		@Override
+		public long getId() {
+			return this.id;
+		}
+
+		@Override
+		@Nullable
+		public Long getParentId() {
+			return (this.parent != null ? this.parent.id : null);
+		}
+
+		/**
+		 * Return the name of the thread that started this step.
+		 */
+		public String getThreadName() {
+			return this.threadName;
+		}
+
+		/**
+		 * Return the start time of this step in nanoseconds, relative to the
+		 * creation of the {@link BufferingApplicationStartup}.
+		 */
+		public long getStartTime() {
+			return this.startTime - BufferingApplicationStartup.this.startTime;
+		}
+
+		/**
+		 * Return the duration of this step in nanoseconds, or 0 if not ended yet.
+		 */
+		public long getDuration() {
+			return this.duration;
+		}
+
+		@Override
+		public StartupStep tag(String key, String value) {
+			Assert.state(!this.ended, "StartupStep has already ended");
+			synchronized (this.tags) {
+				this.tags.add(new BufferedTag(key, value));
+			}
+			return this;
+		}
+
+		@Override
+		public StartupStep tag(String key, Supplier<String> value) {
+			return tag(key, value.get());
+		}
+
+		@Override
+		public Tags getTags() {
+			List<Tag> tags;
+			synchronized (this.tags) {
+				tags = Collections.unmodifiableList(new ArrayList<>(this.tags));
+			}
+			return tags::iterator;
+		}
+
+		@Override
+		public void end() {
+			Assert.state(!this.ended, "StartupStep has already ended");
+			this.duration = System.nanoTime() - this.startTime;
+			this.ended = true;
+			record(this);
+		}
+
+		@Override
+		public String toString() {
+			return "StartupStep '" + this.name + "' [id=" + this.id + ", parentId=" + getParentId() +
+					", thread='" + this.threadName + "', duration=" + this.duration + "ns]";
+		}
+	}
+
+
+	private static class BufferedTag implements StartupStep.Tag {
+
+		private final String key;
+
+		private final String value;
+
+		BufferedTag(String key, String value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public String getKey() {
+			return this.key;
+		}
+
+		@Override
+		public String getValue() {
+			return this.value;
+		}
+	}
+
+}
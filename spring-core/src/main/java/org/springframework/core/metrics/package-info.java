@@ -0,0 +1,11 @@
+/**
+ * Support package for recording metrics during application startup,
+ * through an {@link org.springframework.core.metrics.ApplicationStartup}
+ * and its {@link org.springframework.core.metrics.StartupStep steps}.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.core.metrics;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
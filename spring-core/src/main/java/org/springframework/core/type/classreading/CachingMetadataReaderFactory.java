@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,6 +31,9 @@ import org.springframework.lang.Nullable;
  * caching a {@link MetadataReader} instance per Spring {@link Resource} handle
  * (i.e. per ".class" file).
  *
+ * <p>Can additionally consult a {@link MetadataReaderCache} which is shared
+ * with other factories, e.g. across application contexts.
+ *
  * @author Juergen Hoeller
  * @author Costin Leau
  * @since 2.5
@@ -44,6 +47,10 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	@Nullable
 	private Map<Resource, MetadataReader> metadataReaderCache;
 
+	/** Shared MetadataReader cache, consulted on a miss in the local cache */
+	@Nullable
+	private volatile MetadataReaderCache sharedCache;
+
 
 	/**
 	 * Create a new CachingMetadataReaderFactory for the default class loader,
@@ -114,13 +121,35 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	}
 
 
+	/**
+	 * Specify a shared {@link MetadataReaderCache} to consult when a
+	 * MetadataReader is not found in this factory's own cache.
+	 * <p>Default is none. Note that {@link #clearCache()} does not affect
+	 * the shared cache.
+	 * @since 5.0.17
+	 * @see MetadataReaderCache#getSharedInstance()
+	 */
+	public void setSharedCache(@Nullable MetadataReaderCache sharedCache) {
+		this.sharedCache = sharedCache;
+	}
+
+	/**
+	 * Return the shared {@link MetadataReaderCache} to consult, if any.
+	 * @since 5.0.17
+	 */
+	@Nullable
+	public MetadataReaderCache getSharedCache() {
+		return this.sharedCache;
+	}
+
+
 	@Override
 	public MetadataReader getMetadataReader(Resource resource) throws IOException {
 		if (this.metadataReaderCache instanceof ConcurrentMap) {
 			// No synchronization necessary...
 			MetadataReader metadataReader = this.metadataReaderCache.get(resource);
 			if (metadataReader == null) {
-				metadataReader = super.getMetadataReader(resource);
+				metadataReader = loadMetadataReader(resource);
 				this.metadataReaderCache.put(resource, metadataReader);
 			}
 			return metadataReader;
@@ -129,15 +158,24 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 			synchronized (this.metadataReaderCache) {
 				MetadataReader metadataReader = this.metadataReaderCache.get(resource);
 				if (metadataReader == null) {
-					metadataReader = super.getMetadataReader(resource);
+					metadataReader = loadMetadataReader(resource);
 					this.metadataReaderCache.put(resource, metadataReader);
 				}
 				return metadataReader;
 			}
 		}
 		else {
-			return super.getMetadataReader(resource);
+			return loadMetadataReader(resource);
+		}
+	}
+
+	private MetadataReader loadMetadataReader(Resource resource) throws IOException {
+		MetadataReaderCache sharedCache = this.sharedCache;
+		if (sharedCache != null) {
+			return sharedCache.getMetadataReader(
+					resource, getResourceLoader().getClassLoader(), super::getMetadataReader);
 		}
+		return super.getMetadataReader(resource);
 	}
 
 	/**
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.core.type.classreading;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Binary class metadata index, as generated by the {@code spring-context-indexer}
+ * annotation processor into {@value #METADATA_RESOURCE_LOCATION} when its
+ * {@code spring.index.metadata} option is enabled.
+ *
+ * <p>Class files are matched against the index by their location: a class
+ * file is indexed if it lives in the same classpath root, i.e. the same
+ * directory or jar file, as an index that contains an entry for its class.
+ *
+ * <p>The index is ignored if the "spring.index.ignore" property is set.
+ *
+ * @author agent
+ * @since 5.0.17
+ * @see IndexedMetadataReader
+ */
+final class ClassMetadataIndex {
+
+	/**
+	 * The location of the index within a classpath root.
+	 * <p>Can be present in multiple JAR files.
+	 */
+	static final String METADATA_RESOURCE_LOCATION = "META-INF/spring.metadata";
+
+	private static final int MAGIC = 0x53504d49;
+
+	private static final int VERSION = 1;
+
+	private static final boolean shouldIgnoreIndex = SpringProperties.getFlag("spring.index.ignore");
+
+	private static final ClassMetadataIndex EMPTY = new ClassMetadataIndex(Collections.emptyMap());
+
+	private static final Log logger = LogFactory.getLog(ClassMetadataIndex.class);
+
+	private static final ConcurrentMap<ClassLoader, ClassMetadataIndex> cache =
+			new ConcurrentReferenceHashMap<>();
+
+
+	/**
+	 * Return the index for the given class loader, loading it if necessary.
+	 * @param classLoader the ClassLoader to use for loading (can be {@code null} to use the default)
+	 * @return the index (never {@code null}, but possibly {@link #isEmpty() empty})
+	 */
+	static ClassMetadataIndex forClassLoader(@Nullable ClassLoader classLoader) {
+		if (shouldIgnoreIndex) {
+			return EMPTY;
+		}
+		ClassLoader classLoaderToUse = (classLoader != null ? classLoader : ClassUtils.getDefaultClassLoader());
+		if (classLoaderToUse == null) {
+			return EMPTY;
+		}
+		return cache.computeIfAbsent(classLoaderToUse, ClassMetadataIndex::loadIndex);
+	}
+
+	private static ClassMetadataIndex loadIndex(ClassLoader classLoader) {
+		Map<String, Map<String, byte[]>> entriesByRoot = new LinkedHashMap<>();
+		try {
+			Enumeration<URL> urls = classLoader.getResources(METADATA_RESOURCE_LOCATION);
+			while (urls.hasMoreElements()) {
+				URL url = urls.nextElement();
+				String location = url.toString();
+				String root = location.substring(0, location.length() - METADATA_RESOURCE_LOCATION.length());
+				if (!entriesByRoot.containsKey(root)) {
+					Map<String, byte[]> entries = readEntries(url);
+					if (entries != null) {
+						entriesByRoot.put(root, entries);
+					}
+					else if (logger.isDebugEnabled()) {
+						logger.debug("Ignoring class metadata index with unsupported format: " + url);
+					}
+				}
+			}
+		}
+		catch (IOException ex) {
+			if (logger.isWarnEnabled()) {
+				logger.warn("Unable to load class metadata index from location [" +
+						METADATA_RESOURCE_LOCATION + "]: " + ex);
+			}
+			return EMPTY;
+		}
+		if (entriesByRoot.isEmpty()) {
+			return EMPTY;
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Loaded " + entriesByRoot.size() + " class metadata index(es)");
+		}
+		return new ClassMetadataIndex(entriesByRoot);
+	}
+
+	@Nullable
+	private static Map<String, byte[]> readEntries(URL url) throws IOException {
+		InputStream is = url.openStream();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(is))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				return null;
+			}
+			int count = in.readInt();
+			Map<String, byte[]> entries = new HashMap<>(count * 2);
+			for (int i = 0; i < count; i++) {
+				String className = in.readUTF();
+				byte[] metadata = new byte[in.readInt()];
+				in.readFully(metadata);
+				entries.put(className, metadata);
+			}
+			return entries;
+		}
+	}
+
+
+	private final Map<String, Map<String, byte[]>> entriesByRoot;
+
+
+	private ClassMetadataIndex(Map<String, Map<String, byte[]>> entriesByRoot) {
+		this.entriesByRoot = entriesByRoot;
+	}
+
+
+	/**
+	 * Determine whether this index does not contain any entries.
+	 */
+	public boolean isEmpty() {
+		return this.entriesByRoot.isEmpty();
+	}
+
+	/**
+	 * Return the indexed metadata for the given class file, if any.
+	 * @param resource the class file resource
+	 * @return the encoded metadata, or {@code null} if the class file is not indexed
+	 */
+	@Nullable
+	public byte[] getMetadata(Resource resource) {
+		if (this.entriesByRoot.isEmpty()) {
+			return null;
+		}
+		String location;
+		try {
+			location = resource.getURL().toString();
+		}
+		catch (IOException ex) {
+			return null;
+		}
+		if (!location.endsWith(ClassUtils.CLASS_FILE_SUFFIX)) {
+			return null;
+		}
+		for (Map.Entry<String, Map<String, byte[]>> entry : this.entriesByRoot.entrySet()) {
+			String root = entry.getKey();
+			if (location.startsWith(root)) {
+				String path = location.substring(root.length(), location.length() - ClassUtils.CLASS_FILE_SUFFIX.length());
+				byte[] metadata = entry.getValue().get(ClassUtils.convertResourcePathToClassName(path));
+				if (metadata != null) {
+					return metadata;
+				}
+			}
+		}
+		return null;
+	}
+
+}
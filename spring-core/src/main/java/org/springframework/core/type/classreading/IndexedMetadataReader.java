@@ -0,0 +1,314 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.core.type.classreading;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import org.springframework.asm.AnnotationVisitor;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.SpringAsmInfo;
+import org.springframework.asm.Type;
+import org.springframework.core.NestedIOException;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.ClassMetadata;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link MetadataReader} implementation based on an entry of the
+ * {@link ClassMetadataIndex}, not opening the class file at all.
+ *
+ * <p>The indexed metadata is replayed against the same ASM visitor that
+ * {@link SimpleMetadataReader} uses for parsing class files, so the resulting
+ * {@link AnnotationMetadata} behaves exactly the same. In particular,
+ * meta-annotations are still resolved through the annotation types.
+ *
+ * @author agent
+ * @since 5.0.17
+ */
+final class IndexedMetadataReader implements MetadataReader {
+
+	private final Resource resource;
+
+	private final ClassMetadata classMetadata;
+
+	private final AnnotationMetadata annotationMetadata;
+
+	private final int contentLength;
+
+
+	IndexedMetadataReader(Resource resource, byte[] metadata, @Nullable ClassLoader classLoader) throws IOException {
+		AnnotationMetadataReadingVisitor visitor = new AnnotationMetadataReadingVisitor(classLoader);
+		try {
+			accept(new DataInputStream(new ByteArrayInputStream(metadata)), visitor);
+		}
+		catch (IOException | RuntimeException ex) {
+			throw new NestedIOException("Failed to read indexed class metadata for " + resource, ex);
+		}
+
+		this.annotationMetadata = visitor;
+		// (since AnnotationMetadataReadingVisitor extends ClassMetadataReadingVisitor)
+		this.classMetadata = visitor;
+		this.resource = resource;
+		this.contentLength = metadata.length;
+	}
+
+
+	@Override
+	public Resource getResource() {
+		return this.resource;
+	}
+
+	@Override
+	public ClassMetadata getClassMetadata() {
+		return this.classMetadata;
+	}
+
+	@Override
+	public AnnotationMetadata getAnnotationMetadata() {
+		return this.annotationMetadata;
+	}
+
+	/**
+	 * Return the size of the index entry in bytes.
+	 */
+	int getContentLength() {
+		return this.contentLength;
+	}
+
+
+	private static void accept(DataInputStream in, AnnotationMetadataReadingVisitor visitor) throws IOException {
+		int access = in.readInt();
+		String name = in.readUTF();
+		String superName = readOptionalString(in);
+		String[] interfaces = new String[in.readInt()];
+		for (int i = 0; i < interfaces.length; i++) {
+			interfaces[i] = in.readUTF();
+		}
+		visitor.visit(Opcodes.V1_8, access, name, null, superName, interfaces);
+
+		String outerName = readOptionalString(in);
+		int innerAccess = in.readInt();
+		String[] memberNames = new String[in.readInt()];
+		for (int i = 0; i < memberNames.length; i++) {
+			memberNames[i] = in.readUTF();
+		}
+
+		// Same order of callbacks as in ClassReader: annotations, inner classes, methods
+		readAnnotations(in, visitor::visitAnnotation);
+		if (outerName != null) {
+			visitor.visitInnerClass(name, outerName, getSimpleName(name), innerAccess);
+		}
+		for (String memberName : memberNames) {
+			visitor.visitInnerClass(memberName, name, getSimpleName(memberName), 0);
+		}
+		int methodCount = in.readInt();
+		for (int i = 0; i < methodCount; i++) {
+			int methodAccess = in.readInt();
+			String methodName = in.readUTF();
+			String descriptor = in.readUTF();
+			MethodVisitor methodVisitor = visitor.visitMethod(methodAccess, methodName, descriptor, null, null);
+			if (methodVisitor != null) {
+				readAnnotations(in, methodVisitor::visitAnnotation);
+				methodVisitor.visitEnd();
+			}
+			else {
+				readAnnotations(in, (desc, visible) -> null);
+			}
+		}
+		visitor.visitEnd();
+	}
+
+	private static void readAnnotations(DataInputStream in, AnnotationVisitorFactory factory) throws IOException {
+		int count = in.readInt();
+		for (int i = 0; i < count; i++) {
+			String descriptor = in.readUTF();
+			readAnnotationValues(in, factory.visitAnnotation(descriptor, true));
+		}
+	}
+
+	private static void readAnnotationValues(DataInputStream in, @Nullable AnnotationVisitor visitor)
+			throws IOException {
+
+		AnnotationVisitor visitorToUse = (visitor != null ? visitor : new EmptyAnnotationVisitor());
+		int count = in.readInt();
+		for (int i = 0; i < count; i++) {
+			String name = in.readUTF();
+			char tag = (char) in.readByte();
+			if (tag == '[') {
+				readArrayValue(in, visitorToUse, name);
+			}
+			else {
+				readValue(in, visitorToUse, name, tag);
+			}
+		}
+		visitorToUse.visitEnd();
+	}
+
+	private static void readArrayValue(DataInputStream in, AnnotationVisitor visitor, String name)
+			throws IOException {
+
+		char tag = (char) in.readByte();
+		int length = in.readInt();
+		if (length > 0) {
+			// ASM reports non-empty arrays of primitives as a single value
+			Object primitiveArray = readPrimitiveArray(in, tag, length);
+			if (primitiveArray != null) {
+				visitor.visit(name, primitiveArray);
+				return;
+			}
+		}
+		AnnotationVisitor arrayVisitor = visitor.visitArray(name);
+		AnnotationVisitor arrayVisitorToUse = (arrayVisitor != null ? arrayVisitor : new EmptyAnnotationVisitor());
+		for (int i = 0; i < length; i++) {
+			readValue(in, arrayVisitorToUse, null, tag);
+		}
+		arrayVisitorToUse.visitEnd();
+	}
+
+	@Nullable
+	private static Object readPrimitiveArray(DataInputStream in, char tag, int length) throws IOException {
+		switch (tag) {
+			case 'B':
+				byte[] bytes = new byte[length];
+				in.readFully(bytes);
+				return bytes;
+			case 'C':
+				char[] chars = new char[length];
+				for (int i = 0; i < length; i++) {
+					chars[i] = in.readChar();
+				}
+				return chars;
+			case 'D':
+				double[] doubles = new double[length];
+				for (int i = 0; i < length; i++) {
+					doubles[i] = in.readDouble();
+				}
+				return doubles;
+			case 'F':
+				float[] floats = new float[length];
+				for (int i = 0; i < length; i++) {
+					floats[i] = in.readFloat();
+				}
+				return floats;
+			case 'I':
+				int[] ints = new int[length];
+				for (int i = 0; i < length; i++) {
+					ints[i] = in.readInt();
+				}
+				return ints;
+			case 'J':
+				long[] longs = new long[length];
+				for (int i = 0; i < length; i++) {
+					longs[i] = in.readLong();
+				}
+				return longs;
+			case 'S':
+				short[] shorts = new short[length];
+				for (int i = 0; i < length; i++) {
+					shorts[i] = in.readShort();
+				}
+				return shorts;
+			case 'Z':
+				boolean[] booleans = new boolean[length];
+				for (int i = 0; i < length; i++) {
+					booleans[i] = in.readBoolean();
+				}
+				return booleans;
+			default:
+				return null;
+		}
+	}
+
+	private static void readValue(DataInputStream in, AnnotationVisitor visitor, @Nullable String name, char tag)
+			throws IOException {
+
+		switch (tag) {
+			case 'B':
+				visitor.visit(name, in.readByte());
+				break;
+			case 'C':
+				visitor.visit(name, in.readChar());
+				break;
+			case 'D':
+				visitor.visit(name, in.readDouble());
+				break;
+			case 'F':
+				visitor.visit(name, in.readFloat());
+				break;
+			case 'I':
+				visitor.visit(name, in.readInt());
+				break;
+			case 'J':
+				visitor.visit(name, in.readLong());
+				break;
+			case 'S':
+				visitor.visit(name, in.readShort());
+				break;
+			case 'Z':
+				visitor.visit(name, in.readBoolean());
+				break;
+			case 's':
+				visitor.visit(name, in.readUTF());
+				break;
+			case 'c':
+				visitor.visit(name, Type.getType(in.readUTF()));
+				break;
+			case 'e':
+				String enumDescriptor = in.readUTF();
+				visitor.visitEnum(name, enumDescriptor, in.readUTF());
+				break;
+			case '@':
+				String annotationDescriptor = in.readUTF();
+				readAnnotationValues(in, visitor.visitAnnotation(name, annotationDescriptor));
+				break;
+			default:
+				throw new IllegalStateException("Unknown attribute value tag '" + tag + "'");
+		}
+	}
+
+	@Nullable
+	private static String readOptionalString(DataInputStream in) throws IOException {
+		String value = in.readUTF();
+		return (!value.isEmpty() ? value : null);
+	}
+
+	private static String getSimpleName(String internalName) {
+		return internalName.substring(internalName.lastIndexOf('$') + 1);
+	}
+
+
+	@FunctionalInterface
+	private interface AnnotationVisitorFactory {
+
+		@Nullable
+		AnnotationVisitor visitAnnotation(String descriptor, boolean visible);
+	}
+
+
+	private static class EmptyAnnotationVisitor extends AnnotationVisitor {
+
+		public EmptyAnnotationVisitor() {
+			super(SpringAsmInfo.ASM_VERSION);
+		}
+	}
+
+}
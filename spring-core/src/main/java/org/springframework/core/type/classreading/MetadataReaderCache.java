@@ -0,0 +1,418 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.core.style.ToStringCreator;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ResourceUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Concurrent cache for {@link MetadataReader} instances which may be shared
+ * across application contexts, e.g. between a root context and its
+ * DispatcherServlet context or between the contexts of a test suite.
+ *
+ * <p>Entries are keyed by the location of the class file and the ClassLoader
+ * that the metadata has been resolved against. For a class file in the file
+ * system, the entry also records its last-modified timestamp, so a recompiled
+ * class leads to a cache miss. Class files in jars are not checked, since a
+ * ClassLoader does not pick up changes to its jars either. The cache is bounded by
+ * a maximum number of entries as well as a maximum total weight, with the
+ * weight of an entry being the size of the underlying class file or index
+ * entry in bytes. Once a bound is exceeded, the least recently used entries
+ * are evicted.
+ *
+ * <p>A JVM-wide instance is available through {@link #getSharedInstance()},
+ * configured through the {@value #MAX_SIZE_PROPERTY_NAME} and
+ * {@value #MAX_WEIGHT_PROPERTY_NAME} properties, and used by the
+ * {@link CachingMetadataReaderFactory} instances that Spring's configuration
+ * class processing and classpath scanning create by default. Application
+ * contexts evict the entries for their ClassLoader when closed, unless Spring
+ * itself has been loaded by that ClassLoader or one of its children.
+ *
+ * @author agent
+ * @since 5.0.17
+ * @see CachingMetadataReaderFactory#setSharedCache
+ */
+public class MetadataReaderCache {
+
+	/**
+	 * Property that disables the JVM-wide metadata cache when set to "true":
+	 * each {@link CachingMetadataReaderFactory} then relies on its own cache.
+	 */
+	public static final String IGNORE_SHARED_CACHE_PROPERTY_NAME = "spring.metadata.cache.ignore";
+
+	/**
+	 * System property for the maximum number of entries of the shared cache.
+	 */
+	public static final String MAX_SIZE_PROPERTY_NAME = "spring.metadata.cache.maxSize";
+
+	/**
+	 * System property for the maximum total weight of the shared cache, in bytes.
+	 */
+	public static final String MAX_WEIGHT_PROPERTY_NAME = "spring.metadata.cache.maxWeight";
+
+	/** Default maximum number of entries for the shared cache: 16384 */
+	public static final int DEFAULT_MAX_SIZE = 16384;
+
+	/** Default maximum total weight for the shared cache: 64 MB */
+	public static final long DEFAULT_MAX_WEIGHT = 64 * 1024 * 1024;
+
+	/** Default weight for a MetadataReader that does not expose its size */
+	private static final int DEFAULT_WEIGHT = 1024;
+
+	@Nullable
+	private static final MetadataReaderCache sharedInstance =
+			(SpringProperties.getFlag(IGNORE_SHARED_CACHE_PROPERTY_NAME) ? null :
+					new MetadataReaderCache(retrieveMaxSize(), retrieveMaxWeight()));
+
+
+	private final int maxSize;
+
+	private final long maxWeight;
+
+	private final ConcurrentMap<CacheKey, CacheEntry> entries = new ConcurrentHashMap<>(256);
+
+	private final AtomicLong totalWeight = new AtomicLong();
+
+	private final AtomicLong accessCounter = new AtomicLong();
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+
+	/**
+	 * Create a new {@code MetadataReaderCache} with the given bounds.
+	 * @param maxSize the maximum number of entries
+	 * @param maxWeight the maximum total weight of all entries, in bytes
+	 */
+	public MetadataReaderCache(int maxSize, long maxWeight) {
+		Assert.isTrue(maxSize > 0, "'maxSize' must be positive");
+		Assert.isTrue(maxWeight > 0, "'maxWeight' must be positive");
+		this.maxSize = maxSize;
+		this.maxWeight = maxWeight;
+	}
+
+
+	/**
+	 * Return the JVM-wide shared cache.
+	 * @return the shared cache, or {@code null} if disabled through the
+	 * {@value #IGNORE_SHARED_CACHE_PROPERTY_NAME} property
+	 */
+	@Nullable
+	public static MetadataReaderCache getSharedInstance() {
+		return sharedInstance;
+	}
+
+
+	/**
+	 * Return the cached {@link MetadataReader} for the given class file,
+	 * obtaining it from the given loader if not cached or outdated.
+	 * <p>A resource that cannot be located, or a file that cannot be
+	 * time-stamped, is never cached.
+	 * @param resource the class file resource
+	 * @param classLoader the ClassLoader that the metadata is resolved against
+	 * @param loader the callback for reading the metadata on a cache miss
+	 * @return the MetadataReader (never {@code null})
+	 * @throws IOException if thrown by the loader
+	 */
+	public MetadataReader getMetadataReader(Resource resource, @Nullable ClassLoader classLoader,
+			MetadataReaderLoader loader) throws IOException {
+
+		CacheKey key;
+		long lastModified = -1;
+		try {
+			URL url = resource.getURL();
+			key = new CacheKey(classLoader, url.toString());
+			if (ResourceUtils.isFileURL(url)) {
+				// Only class files in the file system are expected to change at runtime
+				lastModified = resource.lastModified();
+			}
+		}
+		catch (IOException ex) {
+			return loader.load(resource);
+		}
+
+		CacheEntry entry = this.entries.get(key);
+		if (entry != null && entry.lastModified == lastModified) {
+			entry.lastAccess = this.accessCounter.incrementAndGet();
+			this.hitCount.incrementAndGet();
+			return entry.metadataReader;
+		}
+		this.missCount.incrementAndGet();
+		MetadataReader metadataReader = loader.load(resource);
+		CacheEntry newEntry = new CacheEntry(metadataReader, getWeight(metadataReader), lastModified,
+				this.accessCounter.incrementAndGet());
+		if (entry != null ? this.entries.replace(key, entry, newEntry) : this.entries.putIfAbsent(key, newEntry) == null) {
+			this.totalWeight.addAndGet(entry != null ? newEntry.weight - entry.weight : newEntry.weight);
+			if (this.entries.size() > this.maxSize || this.totalWeight.get() > this.maxWeight) {
+				evict();
+			}
+		}
+		return metadataReader;
+	}
+
+	/**
+	 * Evict the least recently used entries until the cache is within its bounds again.
+	 * <p>Shrinks the cache to 90% of its bounds, leaving room for further misses.
+	 * A miss that finds another thread evicting already returns right away.
+	 */
+	private void evict() {
+		if (!this.evictionLock.tryLock()) {
+			return;
+		}
+		try {
+			int targetSize = this.maxSize - Math.max(this.maxSize / 10, 1);
+			long targetWeight = this.maxWeight - this.maxWeight / 10;
+			if (this.entries.size() <= targetSize && this.totalWeight.get() <= targetWeight) {
+				return;
+			}
+			List<Map.Entry<CacheKey, CacheEntry>> candidates = new ArrayList<>(this.entries.entrySet());
+			candidates.sort(Comparator.comparingLong(candidate -> candidate.getValue().lastAccess));
+			for (Map.Entry<CacheKey, CacheEntry> candidate : candidates) {
+				if (this.entries.size() <= targetSize && this.totalWeight.get() <= targetWeight) {
+					break;
+				}
+				if (this.entries.remove(candidate.getKey(), candidate.getValue())) {
+					this.totalWeight.addAndGet(-candidate.getValue().weight);
+					this.evictionCount.incrementAndGet();
+				}
+			}
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Remove the metadata resolved against the given ClassLoader, releasing
+	 * the references to it, e.g. when the application using it shuts down.
+	 * @param classLoader the ClassLoader to remove the entries for
+	 */
+	public void evict(@Nullable ClassLoader classLoader) {
+		this.entries.forEach((key, entry) -> {
+			if (key.classLoader == classLoader && this.entries.remove(key, entry)) {
+				this.totalWeight.addAndGet(-entry.weight);
+			}
+		});
+	}
+
+	/**
+	 * Remove all entries from this cache.
+	 */
+	public void clear() {
+		this.entries.forEach((key, entry) -> {
+			if (this.entries.remove(key, entry)) {
+				this.totalWeight.addAndGet(-entry.weight);
+			}
+		});
+	}
+
+	/**
+	 * Reset the hit, miss and eviction counts to zero.
+	 */
+	public void clearStatistics() {
+		this.hitCount.set(0);
+		this.missCount.set(0);
+		this.evictionCount.set(0);
+	}
+
+	/**
+	 * Return the maximum number of entries.
+	 */
+	public int getMaxSize() {
+		return this.maxSize;
+	}
+
+	/**
+	 * Return the maximum total weight of all entries, in bytes.
+	 */
+	public long getMaxWeight() {
+		return this.maxWeight;
+	}
+
+	/**
+	 * Return the current number of entries.
+	 */
+	public int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Return the current total weight of all entries, in bytes.
+	 */
+	public long getWeight() {
+		return this.totalWeight.get();
+	}
+
+	/**
+	 * Return the number of lookups that have been served from the cache.
+	 */
+	public long getHitCount() {
+		return this.hitCount.get();
+	}
+
+	/**
+	 * Return the number of lookups that required reading the metadata.
+	 */
+	public long getMissCount() {
+		return this.missCount.get();
+	}
+
+	/**
+	 * Return the number of entries that have been evicted due to the cache bounds.
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount.get();
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringCreator(this)
+				.append("size", size())
+				.append("maxSize", getMaxSize())
+				.append("weight", getWeight())
+				.append("maxWeight", getMaxWeight())
+				.append("hitCount", getHitCount())
+				.append("missCount", getMissCount())
+				.append("evictionCount", getEvictionCount())
+				.toString();
+	}
+
+
+	private static int getWeight(MetadataReader metadataReader) {
+		if (metadataReader instanceof SimpleMetadataReader) {
+			return ((SimpleMetadataReader) metadataReader).getContentLength();
+		}
+		if (metadataReader instanceof IndexedMetadataReader) {
+			return ((IndexedMetadataReader) metadataReader).getContentLength();
+		}
+		return DEFAULT_WEIGHT;
+	}
+
+	private static int retrieveMaxSize() {
+		try {
+			String maxSize = SpringProperties.getProperty(MAX_SIZE_PROPERTY_NAME);
+			if (StringUtils.hasText(maxSize)) {
+				return Integer.parseInt(maxSize.trim());
+			}
+		}
+		catch (Exception ex) {
+			// ignore
+		}
+		return DEFAULT_MAX_SIZE;
+	}
+
+	private static long retrieveMaxWeight() {
+		try {
+			String maxWeight = SpringProperties.getProperty(MAX_WEIGHT_PROPERTY_NAME);
+			if (StringUtils.hasText(maxWeight)) {
+				return Long.parseLong(maxWeight.trim());
+			}
+		}
+		catch (Exception ex) {
+			// ignore
+		}
+		return DEFAULT_MAX_WEIGHT;
+	}
+
+
+	/**
+	 * Callback for reading the {@link MetadataReader} on a cache miss.
+	 */
+	@FunctionalInterface
+	public interface MetadataReaderLoader {
+
+		/**
+		 * Read the metadata for the given class file.
+		 * @param resource the class file resource
+		 * @return the MetadataReader (never {@code null})
+		 * @throws IOException in case of I/O failure
+		 */
+		MetadataReader load(Resource resource) throws IOException;
+	}
+
+
+	private static final class CacheKey {
+
+		@Nullable
+		private final ClassLoader classLoader;
+
+		private final String location;
+
+		public CacheKey(@Nullable ClassLoader classLoader, String location) {
+			this.classLoader = classLoader;
+			this.location = location;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey otherKey = (CacheKey) other;
+			return (this.classLoader == otherKey.classLoader && this.location.equals(otherKey.location));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.location.hashCode() * 29 + System.identityHashCode(this.classLoader);
+		}
+	}
+
+
+	private static final class CacheEntry {
+
+		private final MetadataReader metadataReader;
+
+		private final int weight;
+
+		private final long lastModified;
+
+		private volatile long lastAccess;
+
+		public CacheEntry(MetadataReader metadataReader, int weight, long lastModified, long lastAccess) {
+			this.metadataReader = metadataReader;
+			this.weight = weight;
+			this.lastModified = lastModified;
+			this.lastAccess = lastAccess;
+		}
+	}
+
+}
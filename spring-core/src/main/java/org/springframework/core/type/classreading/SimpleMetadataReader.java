@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -46,6 +46,8 @@ final class SimpleMetadataReader implements MetadataReader {
 
 	private final AnnotationMetadata annotationMetadata;
 
+	private final int contentLength;
+
 
 	SimpleMetadataReader(Resource resource, @Nullable ClassLoader classLoader) throws IOException {
 		InputStream is = new BufferedInputStream(resource.getInputStream());
@@ -68,6 +70,7 @@ final class SimpleMetadataReader implements MetadataReader {
 		// (since AnnotationMetadataReadingVisitor extends ClassMetadataReadingVisitor)
 		this.classMetadata = visitor;
 		this.resource = resource;
+		this.contentLength = classReader.b.length;
 	}
 
 
@@ -86,4 +89,11 @@ final class SimpleMetadataReader implements MetadataReader {
 		return this.annotationMetadata;
 	}
 
+	/**
+	 * Return the size of the parsed class file in bytes.
+	 */
+	int getContentLength() {
+		return this.contentLength;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -29,6 +29,10 @@ import org.springframework.util.ClassUtils;
  * Simple implementation of the {@link MetadataReaderFactory} interface,
  * creating a new ASM {@link org.springframework.asm.ClassReader} for every request.
  *
+ * <p>As of 5.0.17, class files that are covered by a class metadata index
+ * (as generated by {@code spring-context-indexer} into "META-INF/spring.metadata")
+ * are served from the index instead, without opening the class file.
+ *
  * @author Juergen Hoeller
  * @since 2.5
  */
@@ -36,6 +40,9 @@ public class SimpleMetadataReaderFactory implements MetadataReaderFactory {
 
 	private final ResourceLoader resourceLoader;
 
+	@Nullable
+	private volatile ClassMetadataIndex metadataIndex;
+
 
 	/**
 	 * Create a new SimpleMetadataReaderFactory for the default class loader.
@@ -100,7 +107,21 @@ public class SimpleMetadataReaderFactory implements MetadataReaderFactory {
 
 	@Override
 	public MetadataReader getMetadataReader(Resource resource) throws IOException {
-		return new SimpleMetadataReader(resource, this.resourceLoader.getClassLoader());
+		ClassLoader classLoader = this.resourceLoader.getClassLoader();
+		byte[] metadata = getMetadataIndex().getMetadata(resource);
+		if (metadata != null) {
+			return new IndexedMetadataReader(resource, metadata, classLoader);
+		}
+		return new SimpleMetadataReader(resource, classLoader);
+	}
+
+	private ClassMetadataIndex getMetadataIndex() {
+		ClassMetadataIndex metadataIndex = this.metadataIndex;
+		if (metadataIndex == null) {
+			metadataIndex = ClassMetadataIndex.forClassLoader(this.resourceLoader.getClassLoader());
+			this.metadataIndex = metadataIndex;
+		}
+		return metadataIndex;
 	}
 
 }
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+import org.springframework.tests.Assume;
+import org.springframework.tests.TestGroup;
+import org.springframework.util.StopWatch;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link GeneratedMethodAccessorFactory}.
+ *
+ * @author agent
+ */
+public class GeneratedMethodAccessorFactoryTests {
+
+	private final GeneratedMethodAccessorFactory factory = new GeneratedMethodAccessorFactory();
+
+
+	@Test
+	public void instanceMethod() throws Exception {
+		MethodAccessor accessor = getAccessor("concat", String.class, int.class);
+		assertThat(accessor.toString(), startsWith("GeneratedMethodAccessor"));
+		assertEquals("a1", accessor.invoke(new TestBean(), "a", 1));
+		assertEquals("null1", accessor.invoke(new TestBean(), null, 1));
+	}
+
+	@Test
+	public void staticMethod() throws Exception {
+		MethodAccessor accessor = getAccessor("sum", long.class, double.class);
+		assertEquals(3.5d, accessor.invoke(null, 1L, 2.5d));
+	}
+
+	@Test
+	public void voidMethod() throws Exception {
+		TestBean bean = new TestBean();
+		MethodAccessor accessor = getAccessor("setName", String.class);
+		assertNull(accessor.invoke(bean, "name"));
+		assertEquals("name", bean.name);
+	}
+
+	@Test
+	public void noArgMethod() throws Exception {
+		MethodAccessor accessor = getAccessor("isEnabled");
+		assertEquals(Boolean.TRUE, accessor.invoke(new TestBean()));
+		assertEquals(Boolean.TRUE, accessor.invoke(new TestBean(), (Object[]) null));
+	}
+
+	@Test
+	public void interfaceMethod() throws Exception {
+		MethodAccessor accessor = this.factory.getMethodAccessor(Supplier.class.getMethod("get"));
+		assertThat(accessor.toString(), startsWith("ReflectiveMethodAccessor"));
+
+		accessor = this.factory.getMethodAccessor(TestInterface.class.getMethod("getValue"));
+		assertThat(accessor.toString(), startsWith("GeneratedMethodAccessor"));
+		assertEquals("value", accessor.invoke((TestInterface) () -> "value"));
+	}
+
+	@Test
+	public void accessorIsCached() throws Exception {
+		assertSame(getAccessor("isEnabled"), getAccessor("isEnabled"));
+	}
+
+	@Test
+	public void accessorClassIsGeneratedOncePerMethod() throws Exception {
+		Method method = TestBean.class.getMethod("isEnabled");
+		MethodAccessor accessor = this.factory.getMethodAccessor(method);
+		MethodAccessor otherAccessor = new GeneratedMethodAccessorFactory().getMethodAccessor(method);
+		assertNotSame(accessor, otherAccessor);
+		assertSame(getGeneratedClass(accessor), getGeneratedClass(otherAccessor));
+	}
+
+	@Test
+	public void exceptionIsWrapped() throws Exception {
+		MethodAccessor accessor = getAccessor("fail");
+		try {
+			accessor.invoke(new TestBean());
+			fail("Expected InvocationTargetException");
+		}
+		catch (InvocationTargetException ex) {
+			assertThat(ex.getTargetException(), instanceOf(IOException.class));
+		}
+	}
+
+	@Test
+	public void argumentConversionFallsBackOnReflection() throws Exception {
+		MethodAccessor accessor = getAccessor("sum", long.class, double.class);
+		assertEquals(3.0d, accessor.invoke(null, 1, 2));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void argumentTypeMismatch() throws Exception {
+		getAccessor("concat", String.class, int.class).invoke(new TestBean(), "a", "b");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullPrimitiveArgument() throws Exception {
+		getAccessor("concat", String.class, int.class).invoke(new TestBean(), "a", null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void wrongNumberOfArguments() throws Exception {
+		getAccessor("concat", String.class, int.class).invoke(new TestBean(), "a");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void wrongTarget() throws Exception {
+		getAccessor("isEnabled").invoke("target");
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullTarget() throws Exception {
+		getAccessor("isEnabled").invoke(null);
+	}
+
+	@Test
+	public void nonPublicMethodUsesReflection() throws Exception {
+		Method method = TestBean.class.getDeclaredMethod("secret");
+		MethodAccessor accessor = this.factory.getMethodAccessor(method);
+		assertThat(accessor.toString(), startsWith("ReflectiveMethodAccessor"));
+		assertEquals("secret", accessor.invoke(new TestBean()));
+	}
+
+	@Test
+	public void nonPublicParameterTypeUsesReflection() throws Exception {
+		MethodAccessor accessor = getAccessor("hidden", HiddenType.class);
+		assertThat(accessor.toString(), startsWith("ReflectiveMethodAccessor"));
+		assertEquals("hidden", accessor.invoke(new TestBean(), new HiddenType()));
+	}
+
+	@Test
+	public void invocationPerformance() throws Exception {
+		Assume.group(TestGroup.PERFORMANCE);
+		Method method = TestBean.class.getMethod("concat", String.class, int.class);
+		MethodAccessor reflective = new ReflectiveMethodAccessor(method);
+		MethodAccessor generated = this.factory.getMethodAccessor(method);
+		TestBean bean = new TestBean();
+		Object[] args = new Object[] {"a", 1};
+
+		StopWatch sw = new StopWatch("MethodAccessor");
+		for (int run = 0; run < 3; run++) {
+			sw.start("reflection");
+			for (int i = 0; i < 10000000; i++) {
+				reflective.invoke(bean, args);
+			}
+			sw.stop();
+			sw.start("generated");
+			for (int i = 0; i < 10000000; i++) {
+				generated.invoke(bean, args);
+			}
+			sw.stop();
+		}
+		System.out.println(sw.prettyPrint());
+	}
+
+
+	private MethodAccessor getAccessor(String name, Class<?>... parameterTypes) throws Exception {
+		return this.factory.getMethodAccessor(TestBean.class.getMethod(name, parameterTypes));
+	}
+
+	private Class<?> getGeneratedClass(MethodAccessor accessor) throws Exception {
+		Field field = accessor.getClass().getDeclaredField("generated");
+		field.setAccessible(true);
+		return field.get(accessor).getClass();
+	}
+
+
+	public interface TestInterface {
+
+		String getValue();
+	}
+
+
+	static class HiddenType {
+	}
+
+
+	@SuppressWarnings("unused")
+	public static class TestBean {
+
+		String name;
+
+		public String concat(String value, int count) {
+			return value + count;
+		}
+
+		public static double sum(long a, double b) {
+			return a + b;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public boolean isEnabled() {
+			return true;
+		}
+
+		public void fail() throws IOException {
+			throw new IOException("failure");
+		}
+
+		public String hidden(HiddenType type) {
+			return "hidden";
+		}
+
+		private String secret() {
+			return "secret";
+		}
+	}
+
+}
@@ -26,6 +26,7 @@ import reactor.test.StepVerifier;
 
 import org.springframework.core.ResolvableType;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.buffer.AbstractDataBufferAllocatingTestCase;
@@ -74,4 +75,22 @@ public class ResourceEncoderTests extends AbstractDataBufferAllocatingTestCase {
 				.verify();
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void encodeMemoryMapped() throws Exception {
+		Resource resource = new ClassPathResource("ResourceRegionEncoderTests.txt", getClass());
+		ResourceEncoder encoder = new ResourceEncoder(16);
+		encoder.setMemoryMappedThreshold(0);
+
+		Flux<DataBuffer> output = encoder.encode(Mono.just(resource), this.bufferFactory,
+				ResolvableType.forClass(Resource.class),
+				null, Collections.emptyMap());
+
+		StepVerifier.create(output)
+				.consumeNextWith(stringConsumer("Spring Framework"))
+				.consumeNextWith(stringConsumer(" test resource c"))
+				.consumeNextWith(stringConsumer("ontent."))
+				.expectComplete()
+				.verify();
+	}
+
+}
@@ -85,6 +85,13 @@ public class ResourceRegionEncoderTests extends AbstractDataBufferAllocatingTest
 		shouldEncodeResourceRegion(new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8)));
 	}
 
+	@Test
+	public void shouldEncodeResourceRegionMemoryMapped() throws Exception {
+		this.encoder.setMemoryMappedThreshold(0);
+		shouldEncodeResourceRegion(
+				new ClassPathResource("ResourceRegionEncoderTests.txt", getClass()));
+	}
+
 	private void shouldEncodeResourceRegion(Resource resource) {
 		ResourceRegion region = new ResourceRegion(resource, 0, 6);
 		Flux<DataBuffer> result = this.encoder.encode(Mono.just(region), this.bufferFactory,
@@ -111,6 +111,40 @@ public class StringDecoderTests extends AbstractDataBufferAllocatingTestCase {
 				.verify();
 	}
 
+	@Test
+	public void decodeDelimiterAcrossBuffers() {
+		Flux<DataBuffer> source = Flux.just(
+				stringBuffer("abc\r"),
+				stringBuffer("\ndef\r"),
+				stringBuffer("\n"),
+				stringBuffer("ghi")
+		);
+
+		Flux<String> output = this.decoder.decode(source, ResolvableType.forClass(String.class),
+				null, Collections.emptyMap());
+
+		StepVerifier.create(output)
+				.expectNext("abc")
+				.expectNext("def")
+				.expectNext("ghi")
+				.expectComplete()
+				.verify();
+	}
+
+	@Test
+	public void decodeMultibyteCharacterAcrossBuffers() {
+		Flux<DataBuffer> source = toSingleByteDataBuffers("üéø\nabc");
+
+		Flux<String> output = this.decoder.decode(source, ResolvableType.forClass(String.class),
+				null, Collections.emptyMap());
+
+		StepVerifier.create(output)
+				.expectNext("üéø")
+				.expectNext("abc")
+				.expectComplete()
+				.verify();
+	}
+
 	@Test
 	public void decodeNewLineIncludeDelimiters() {
 		this.decoder = StringDecoder.allMimeTypes(StringDecoder.DEFAULT_DELIMITERS, false);
@@ -513,6 +513,45 @@ public class DataBufferTests extends AbstractDataBufferAllocatingTestCase {
 		release(composite);
 	}
 
+	@Test
+	public void joinAndSlice() {
+		DataBuffer composite = this.bufferFactory.join(Arrays.asList(stringBuffer("ab"),
+				stringBuffer("cd"), stringBuffer("ef")));
+		assertTrue(composite instanceof CompositeDataBuffer);
+		assertEquals(3, DataBufferUtils.toByteBuffers(composite).length);
+		assertEquals(3, composite.indexOf(b -> b == 'd', 0));
+		assertEquals(1, composite.lastIndexOf(b -> b == 'b', 4));
+		assertEquals('e', composite.getByte(4));
+
+		DataBuffer slice = composite.slice(1, 4);
+		byte[] bytes = new byte[4];
+		slice.read(bytes);
+		assertArrayEquals(new byte[] {'b','c','d','e'}, bytes);
+
+		composite.readPosition(1);
+		ByteBuffer[] byteBuffers = DataBufferUtils.toByteBuffers(composite);
+		assertEquals(3, byteBuffers.length);
+		assertEquals(1, byteBuffers[0].remaining());
+		assertEquals(ByteBuffer.wrap(new byte[] {'b','c','d','e','f'}), composite.asByteBuffer());
+
+		release(composite);
+	}
+
+	@Test
+	public void joinAndWrite() {
+		DataBuffer composite = this.bufferFactory.join(Arrays.asList(stringBuffer("ab"),
+				stringBuffer("cd")));
+		composite.write(new byte[] {'e', 'f'});
+		composite.write((byte) 'g');
+		assertEquals(7, composite.readableByteCount());
+
+		byte[] bytes = new byte[7];
+		composite.read(bytes);
+		assertArrayEquals(new byte[] {'a','b','c','d','e','f','g'}, bytes);
+
+		release(composite);
+	}
+
 	@Test
 	public void getByte() {
 		DataBuffer buffer = stringBuffer("abc");
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link PooledDataBufferFactory}.
+ *
+ * @author agent
+ */
+public class PooledDataBufferFactoryTests {
+
+	private final PooledDataBufferFactory factory = new PooledDataBufferFactory();
+
+
+	@Test
+	public void allocateBuffer() {
+		DataBuffer buffer = this.factory.allocateBuffer(100);
+		assertTrue(buffer instanceof PooledDataBuffer);
+		assertEquals(100, buffer.capacity());
+		assertEquals(1, this.factory.getActiveBufferCount());
+		DataBufferUtils.release(buffer);
+		assertEquals(0, this.factory.getActiveBufferCount());
+	}
+
+	@Test
+	public void releasedBufferIsReused() {
+		DataBuffer buffer = this.factory.allocateBuffer(256);
+		ByteBuffer nativeBuffer = ((DefaultDataBuffer) buffer).getNativeBuffer();
+		assertTrue(DataBufferUtils.release(buffer));
+
+		DataBuffer reused = this.factory.allocateBuffer(200);
+		assertEquals(0, reused.readableByteCount());
+		assertEquals(200, reused.capacity());
+		assertTrue(nativeBuffer.array() == ((DefaultDataBuffer) reused).getNativeBuffer().array());
+		assertEquals(2, this.factory.getAllocationCount());
+		assertEquals(1, this.factory.getThreadCacheHitCount());
+		DataBufferUtils.release(reused);
+	}
+
+	@Test
+	public void releasedBufferReusedAcrossThreads() throws Exception {
+		PooledDataBufferFactory factory =
+				new PooledDataBufferFactory(false, PooledDataBufferFactory.DEFAULT_MAX_POOLED_CAPACITY, 1024 * 1024);
+		DataBuffer buffer = factory.allocateBuffer(64 * 1024);
+		DataBufferUtils.release(buffer);
+		assertEquals(64 * 1024, factory.getPooledMemory());
+
+		CompletableFuture.runAsync(() -> DataBufferUtils.release(factory.allocateBuffer(64 * 1024))).get();
+		assertEquals(1, factory.getSharedPoolHitCount());
+		assertEquals(64 * 1024, factory.getPooledMemory());
+	}
+
+	@Test
+	public void sharedPoolBoundedByMaxPooledMemory() {
+		PooledDataBufferFactory factory = new PooledDataBufferFactory(false, 1024 * 1024, 128 * 1024);
+		DataBuffer buffer1 = factory.allocateBuffer(100 * 1024);
+		DataBuffer buffer2 = factory.allocateBuffer(100 * 1024);
+		DataBufferUtils.release(buffer1);
+		DataBufferUtils.release(buffer2);
+		assertEquals(128 * 1024, factory.getPooledMemory());
+		assertEquals(2, factory.getReleaseCount());
+		assertEquals(0, factory.getActiveBufferCount());
+	}
+
+	@Test
+	public void threadCacheBoundedByMaxPooledMemory() {
+		PooledDataBufferFactory factory = new PooledDataBufferFactory(false, 1024 * 1024, 1024);
+		DataBuffer buffer1 = factory.allocateBuffer(1024);
+		DataBuffer buffer2 = factory.allocateBuffer(1024);
+		DataBufferUtils.release(buffer1);
+		DataBufferUtils.release(buffer2);
+		assertEquals(1024, factory.getPooledMemory());
+	}
+
+	@Test
+	public void disposeDropsPooledMemory() {
+		DataBuffer buffer1 = this.factory.allocateBuffer(1024);
+		DataBuffer buffer2 = this.factory.allocateBuffer(100 * 1024);
+		DataBuffer buffer3 = this.factory.allocateBuffer(1024);
+		DataBufferUtils.release(buffer1);
+		DataBufferUtils.release(buffer2);
+		assertEquals(129 * 1024, this.factory.getPooledMemory());
+
+		this.factory.dispose();
+		assertEquals(0, this.factory.getPooledMemory());
+		DataBufferUtils.release(buffer3);
+		assertEquals(0, this.factory.getPooledMemory());
+		DataBufferUtils.release(this.factory.allocateBuffer(1024));
+		assertEquals(0, this.factory.getPooledMemory());
+		assertEquals(0, this.factory.getThreadCacheHitCount());
+	}
+
+	@Test
+	public void largeBuffersAreNotPooled() {
+		PooledDataBufferFactory factory = new PooledDataBufferFactory(false, 1024, 1024 * 1024);
+		DataBuffer buffer = factory.allocateBuffer(2000);
+		assertEquals(2000, buffer.capacity());
+		DataBufferUtils.release(buffer);
+		assertEquals(0, factory.getPooledMemory());
+	}
+
+	@Test
+	public void growingBufferRecyclesPreviousNativeBuffer() {
+		DataBuffer buffer = this.factory.allocateBuffer(64);
+		byte[] bytes = new byte[100];
+		Arrays.fill(bytes, (byte) 'a');
+		buffer.write(bytes);
+		assertEquals(128, buffer.capacity());
+		assertEquals(100, buffer.readableByteCount());
+
+		DataBuffer other = this.factory.allocateBuffer(64);
+		assertEquals(1, this.factory.getThreadCacheHitCount());
+		DataBufferUtils.release(buffer);
+		DataBufferUtils.release(other);
+	}
+
+	@Test
+	public void growingSlicedBufferRecyclesPreviousNativeBufferOnRelease() {
+		DataBuffer buffer = this.factory.allocateBuffer(64).write("foo".getBytes(StandardCharsets.UTF_8));
+		DataBuffer slice = buffer.slice(0, 3);
+		byte[] bytes = new byte[100];
+		Arrays.fill(bytes, (byte) 'a');
+		buffer.write(bytes);
+		assertEquals(128, buffer.capacity());
+
+		// The slice still refers to the previous native buffer
+		DataBuffer other = this.factory.allocateBuffer(64);
+		assertEquals(0, this.factory.getThreadCacheHitCount());
+		byte[] result = new byte[3];
+		slice.read(result);
+		assertEquals("foo", new String(result, StandardCharsets.UTF_8));
+		DataBufferUtils.release(other);
+		DataBufferUtils.release(slice);
+
+		DataBufferUtils.release(this.factory.allocateBuffer(64));
+		DataBufferUtils.release(this.factory.allocateBuffer(128));
+		assertEquals(2, this.factory.getThreadCacheHitCount());
+	}
+
+	@Test
+	public void joinReleasesPooledBuffersWithComposite() {
+		DataBuffer foo = this.factory.allocateBuffer(3).write("foo".getBytes(StandardCharsets.UTF_8));
+		DataBuffer bar = this.factory.allocateBuffer(3).write("bar".getBytes(StandardCharsets.UTF_8));
+		DataBuffer result = this.factory.join(Arrays.asList(foo, bar));
+		assertEquals(6, result.readableByteCount());
+		// The joined buffer is a composite which holds on to the pooled buffers
+		assertEquals(2, this.factory.getActiveBufferCount());
+		DataBufferUtils.release(result);
+		assertEquals(0, this.factory.getActiveBufferCount());
+	}
+
+	@Test
+	public void leakListenerNotifiedOfUnreleasedBuffer() throws Exception {
+		Throwable[] leak = new Throwable[1];
+		this.factory.setLeakDetectionEnabled(true);
+		this.factory.setLeakListener(allocationSite -> leak[0] = allocationSite);
+
+		this.factory.allocateBuffer(64);
+		for (int i = 0; i < 50 && leak[0] == null; i++) {
+			System.gc();
+			Thread.sleep(10);
+			DataBufferUtils.release(this.factory.allocateBuffer(64));
+		}
+		assertNotNull(leak[0]);
+		assertEquals(1, this.factory.getLeakCount());
+		assertEquals(0, this.factory.getActiveBufferCount());
+	}
+
+}
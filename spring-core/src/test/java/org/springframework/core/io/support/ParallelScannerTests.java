@@ -0,0 +1,101 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.core.io.support;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ParallelScanner}.
+ *
+ * @author agent
+ */
+public class ParallelScannerTests {
+
+	private final ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+
+	private final ParallelScanner scanner = new ParallelScanner(this.forkJoinPool);
+
+
+	@After
+	public void shutdown() {
+		this.forkJoinPool.shutdownNow();
+	}
+
+
+	@Test
+	public void resultsInOrderOfItems() throws IOException {
+		List<Integer> items = Arrays.asList(5, 3, 8, 1, 9, 2, 7);
+		assertEquals(Arrays.asList(10, 6, 16, 2, 18, 4, 14), this.scanner.map(items, item -> item * 2));
+	}
+
+	@Test
+	public void nestedItemsProcessedOnSamePool() throws IOException {
+		List<List<String>> results = this.scanner.map(Arrays.asList("a", "b"), item ->
+				this.scanner.map(Arrays.asList(1, 2), nested -> {
+					assertSame(this.forkJoinPool, ForkJoinTask.getPool());
+					return item + nested;
+				}));
+		assertEquals(Arrays.asList(Arrays.asList("a1", "a2"), Arrays.asList("b1", "b2")), results);
+	}
+
+	@Test
+	public void contextClassLoaderOfCaller() throws IOException {
+		Thread currentThread = Thread.currentThread();
+		ClassLoader originalClassLoader = currentThread.getContextClassLoader();
+		ClassLoader classLoader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+		currentThread.setContextClassLoader(classLoader);
+		try {
+			List<ClassLoader> results = this.scanner.map(Arrays.asList(1, 2, 3, 4),
+					item -> Thread.currentThread().getContextClassLoader());
+			assertEquals(Arrays.asList(classLoader, classLoader, classLoader, classLoader), results);
+		}
+		finally {
+			currentThread.setContextClassLoader(originalClassLoader);
+		}
+	}
+
+	@Test(expected = FileNotFoundException.class)
+	public void ioExceptionPropagated() throws IOException {
+		this.scanner.map(Arrays.asList(1, 2, 3), item -> {
+			if (item == 2) {
+				throw new FileNotFoundException("item " + item);
+			}
+			return item;
+		});
+	}
+
+	@Test
+	public void sharedInstanceUsesDedicatedPool() {
+		ForkJoinPool forkJoinPool = ParallelScanner.getSharedInstance().getForkJoinPool();
+		assertNotSame(ForkJoinPool.commonPool(), forkJoinPool);
+		assertSame(forkJoinPool, ParallelScanner.getSharedInstance().getForkJoinPool());
+	}
+
+}
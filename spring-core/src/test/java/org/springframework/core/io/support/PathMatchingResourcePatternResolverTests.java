@@ -20,6 +20,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 import org.junit.Ignore;
@@ -118,6 +119,41 @@ public class PathMatchingResourcePatternResolverTests {
 		assertTrue("Could not find aspectj_1_5_0.dtd in the root of the aspectjweaver jar", found);
 	}
 
+	@Test
+	public void parallelScanningInJar() throws IOException {
+		PathMatchingResourcePatternResolver parallelResolver = new PathMatchingResourcePatternResolver();
+		parallelResolver.setParallelScanning(true);
+		Resource[] resources = parallelResolver.getResources("classpath*:org/reactivestreams/*.class");
+		assertProtocolAndFilenames(resources, "jar", CLASSES_IN_REACTIVESTREAMS);
+		for (int i = 1; i < resources.length; i++) {
+			assertTrue(resources[i - 1].getURL().toString().compareTo(resources[i].getURL().toString()) < 0);
+		}
+		// Second search goes against the cached entry index of the jar file
+		assertArrayEquals(resources, parallelResolver.getResources("classpath*:org/reactivestreams/*.class"));
+	}
+
+	@Test
+	public void parallelScanningOnFileSystem() throws IOException {
+		String testClass = getClass().getResource(getClass().getSimpleName() + ".class").toString();
+		String pattern = testClass.substring(0, testClass.indexOf("/io/support/")) + "/**/*.class";
+		PathMatchingResourcePatternResolver parallelResolver = new PathMatchingResourcePatternResolver();
+		parallelResolver.setParallelScanning(true);
+		Resource[] resources = parallelResolver.getResources(pattern);
+		assertTrue(resources.length > 0);
+		assertArrayEquals(resolver.getResources(pattern), resources);
+	}
+
+	@Test
+	public void parallelScanningWithMultipleRoots() throws IOException {
+		String pattern = "classpath*:org/**/*.class";
+		PathMatchingResourcePatternResolver parallelResolver = new PathMatchingResourcePatternResolver();
+		parallelResolver.setParallelScanning(true);
+		Resource[] resources = parallelResolver.getResources(pattern);
+		assertEquals(new LinkedHashSet<>(Arrays.asList(resolver.getResources(pattern))),
+				new LinkedHashSet<>(Arrays.asList(resources)));
+		assertArrayEquals(resources, parallelResolver.getResources(pattern));
+	}
+
 
 	private void assertProtocolAndFilenames(Resource[] resources, String protocol, String... filenames)
 			throws IOException {
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.core.metrics.BufferingApplicationStartup.BufferedStartupStep;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link BufferingApplicationStartup}.
+ *
+ * @author agent
+ */
+public class BufferingApplicationStartupTests {
+
+	private final BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(10);
+
+
+	@Test
+	public void nestedStepsOnSameThread() {
+		StartupStep outer = this.applicationStartup.start("outer").tag("name", "value");
+		StartupStep inner = this.applicationStartup.start("inner");
+		inner.end();
+		StartupStep sibling = this.applicationStartup.start("sibling");
+		sibling.end();
+		outer.end();
+		StartupStep next = this.applicationStartup.start("next");
+		next.end();
+
+		assertNull(outer.getParentId());
+		assertEquals(Long.valueOf(outer.getId()), inner.getParentId());
+		assertEquals(Long.valueOf(outer.getId()), sibling.getParentId());
+		assertNull(next.getParentId());
+
+		List<BufferedStartupStep> steps = this.applicationStartup.getBufferedSteps();
+		assertEquals(4, steps.size());
+		assertEquals("outer", steps.get(0).getName());
+		assertEquals(Thread.currentThread().getName(), steps.get(0).getThreadName());
+		assertThat(steps.get(0).getDuration(),
+				greaterThanOrEqualTo(steps.get(1).getDuration() + steps.get(2).getDuration()));
+	}
+
+	@Test
+	public void stepsOnOtherThreadAreNotNested() throws Exception {
+		StartupStep outer = this.applicationStartup.start("outer");
+		StartupStep[] other = new StartupStep[1];
+		Thread thread = new Thread(() -> {
+			other[0] = this.applicationStartup.start("other");
+			other[0].end();
+		});
+		thread.start();
+		thread.join();
+		outer.end();
+
+		assertNull(other[0].getParentId());
+		assertEquals(2, this.applicationStartup.getBufferedSteps().size());
+	}
+
+	@Test
+	public void endedParentIsSkipped() {
+		StartupStep outer = this.applicationStartup.start("outer");
+		StartupStep inner = this.applicationStartup.start("inner");
+		outer.end();
+		StartupStep next = this.applicationStartup.start("next");
+		next.end();
+		inner.end();
+
+		assertEquals(Long.valueOf(inner.getId()), next.getParentId());
+		StartupStep last = this.applicationStartup.start("last");
+		assertNull(last.getParentId());
+	}
+
+	@Test
+	public void capacityLimitsBufferedSteps() {
+		for (int i = 0; i < 15; i++) {
+			this.applicationStartup.start("step" + i).end();
+		}
+		assertEquals(10, this.applicationStartup.getBufferedSteps().size());
+		assertEquals("step0", this.applicationStartup.getBufferedSteps().get(0).getName());
+
+		this.applicationStartup.clear();
+		assertTrue(this.applicationStartup.getBufferedSteps().isEmpty());
+		this.applicationStartup.start("again").end();
+		assertEquals(1, this.applicationStartup.getBufferedSteps().size());
+	}
+
+	@Test
+	public void tagsAndEndAfterEndAreRejected() {
+		StartupStep step = this.applicationStartup.start("step").tag("key", () -> "value");
+		step.end();
+
+		StartupStep.Tag tag = step.getTags().iterator().next();
+		assertEquals("key", tag.getKey());
+		assertEquals("value", tag.getValue());
+		try {
+			step.tag("other", "value");
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			// expected
+		}
+		try {
+			step.end();
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			// expected
+		}
+	}
+
+	@Test
+	public void flameGraph() {
+		StartupStep outer = this.applicationStartup.start("outer");
+		this.applicationStartup.start("inner").tag("beanName", "a;b").end();
+		outer.end();
+
+		String[] lines = this.applicationStartup.toFlameGraph().split("\n");
+		assertEquals(2, lines.length);
+		assertTrue(lines[0], lines[0].matches("outer \\d+"));
+		assertTrue(lines[1], lines[1].matches("outer;inner\\[beanName=a,b\\] \\d+"));
+	}
+
+	@Test
+	public void json() {
+		StartupStep outer = this.applicationStartup.start("outer");
+		this.applicationStartup.start("inner").tag("message", "say \"hi\"\n").end();
+		outer.end();
+
+		String json = this.applicationStartup.toJson();
+		assertThat(json, startsWith("{\"traceEvents\":["));
+		assertThat(json, containsString("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":1,\"args\":{\"name\":\"" +
+				Thread.currentThread().getName() + "\"}}"));
+		assertThat(json, containsString("{\"name\":\"outer\",\"ph\":\"X\",\"pid\":1,\"tid\":1,\"ts\":"));
+		assertThat(json, containsString("\"args\":{\"id\":" + outer.getId() + "}}"));
+		assertThat(json, containsString("\"args\":{\"id\":" + (outer.getId() + 1) + ",\"parentId\":" +
+				outer.getId() + ",\"message\":\"say \\\"hi\\\"\\u000a\"}}"));
+		assertThat(json, endsWith("]}\n"));
+	}
+
+	@Test
+	public void defaultApplicationStartupIsNoOp() {
+		StartupStep step = ApplicationStartup.DEFAULT.start("step").tag("key", "value");
+		step.end();
+		assertFalse(step.getTags().iterator().hasNext());
+	}
+
+}
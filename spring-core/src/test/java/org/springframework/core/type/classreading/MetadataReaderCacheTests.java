@@ -0,0 +1,158 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotationMetadataTests;
+import org.springframework.core.type.AnnotationTypeFilterTests;
+import org.springframework.core.type.AspectJTypeFilterTests;
+import org.springframework.core.type.AssignableTypeFilterTests;
+import org.springframework.core.type.Scope;
+import org.springframework.core.type.TestAutowired;
+import org.springframework.core.type.TestQualifier;
+import org.springframework.util.FileCopyUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link MetadataReaderCache}.
+ *
+ * @author agent
+ */
+public class MetadataReaderCacheTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private final MetadataReaderCache cache = new MetadataReaderCache(4, Long.MAX_VALUE);
+
+
+	@Test
+	public void sharedAcrossFactories() throws IOException {
+		CachingMetadataReaderFactory factory1 = new CachingMetadataReaderFactory();
+		factory1.setSharedCache(this.cache);
+		CachingMetadataReaderFactory factory2 = new CachingMetadataReaderFactory();
+		factory2.setSharedCache(this.cache);
+
+		MetadataReader reader = factory1.getMetadataReader(Scope.class.getName());
+		assertSame(reader, factory2.getMetadataReader(Scope.class.getName()));
+		assertEquals(1, this.cache.size());
+		assertEquals(1, this.cache.getHitCount());
+		assertEquals(1, this.cache.getMissCount());
+		assertTrue(this.cache.getWeight() > 0);
+
+		factory2.clearCache();
+		assertEquals(1, this.cache.size());
+		assertSame(reader, factory2.getMetadataReader(Scope.class.getName()));
+		assertEquals(2, this.cache.getHitCount());
+	}
+
+	@Test
+	public void modifiedClassFileIsReadAgain() throws IOException {
+		File classFile = this.temporaryFolder.newFile("Scope.class");
+		FileCopyUtils.copy(getClassResource(Scope.class).getInputStream(), new FileOutputStream(classFile));
+		Resource resource = new FileSystemResource(classFile);
+		MetadataReader reader = getMetadataReader(resource, null);
+		assertSame(reader, getMetadataReader(resource, null));
+
+		assertTrue(classFile.setLastModified(resource.lastModified() - 10000));
+		assertNotSame(reader, getMetadataReader(resource, null));
+		assertEquals(2, this.cache.getMissCount());
+		assertEquals(1, this.cache.size());
+	}
+
+	@Test
+	public void classFileInJarIsNotTimestamped() throws IOException {
+		Resource resource = new ClassPathResource("org/junit/Test.class") {
+			@Override
+			public long lastModified() {
+				throw new IllegalStateException("No timestamp check expected for a class file in a jar");
+			}
+		};
+		MetadataReader reader = getMetadataReader(resource, null);
+		assertSame(reader, getMetadataReader(resource, null));
+		assertEquals(1, this.cache.getHitCount());
+	}
+
+	@Test
+	public void cachedPerClassLoader() throws IOException {
+		Resource resource = getClassResource(Scope.class);
+		ClassLoader classLoader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+		MetadataReader reader = getMetadataReader(resource, getClass().getClassLoader());
+		assertNotSame(reader, getMetadataReader(resource, classLoader));
+		assertEquals(2, this.cache.size());
+
+		this.cache.evict(classLoader);
+		assertEquals(1, this.cache.size());
+		assertSame(reader, getMetadataReader(resource, getClass().getClassLoader()));
+	}
+
+	@Test
+	public void leastRecentlyUsedEntriesAreEvicted() throws IOException {
+		Resource first = getClassResource(Scope.class);
+		MetadataReader reader = getMetadataReader(first, null);
+		getMetadataReader(getClassResource(TestAutowired.class), null);
+		getMetadataReader(getClassResource(TestQualifier.class), null);
+		getMetadataReader(getClassResource(AnnotationMetadataTests.class), null);
+		assertSame(reader, getMetadataReader(first, null));
+
+		getMetadataReader(getClassResource(AnnotationTypeFilterTests.class), null);
+		assertEquals(3, this.cache.size());
+		assertEquals(2, this.cache.getEvictionCount());
+		assertSame(reader, getMetadataReader(first, null));
+		getMetadataReader(getClassResource(TestAutowired.class), null);
+		assertEquals(6, this.cache.getMissCount());
+	}
+
+	@Test
+	public void weightBoundIsEnforced() throws IOException {
+		Resource resource = getClassResource(AspectJTypeFilterTests.class);
+		long weight = new SimpleMetadataReaderFactory().getMetadataReader(resource).getResource().contentLength();
+		MetadataReaderCache cache = new MetadataReaderCache(100, weight);
+		SimpleMetadataReaderFactory factory = new SimpleMetadataReaderFactory();
+		cache.getMetadataReader(resource, null, factory::getMetadataReader);
+		cache.getMetadataReader(getClassResource(AssignableTypeFilterTests.class), null, factory::getMetadataReader);
+		assertTrue(cache.getWeight() <= weight);
+		assertTrue(cache.getEvictionCount() > 0);
+
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getWeight());
+	}
+
+
+	private MetadataReader getMetadataReader(Resource resource, ClassLoader classLoader) throws IOException {
+		return this.cache.getMetadataReader(resource, classLoader, new SimpleMetadataReaderFactory()::getMetadataReader);
+	}
+
+	private static Resource getClassResource(Class<?> clazz) {
+		return new ClassPathResource(clazz.getName().replace('.', '/') + ".class");
+	}
+
+}
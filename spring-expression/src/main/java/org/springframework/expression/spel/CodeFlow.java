@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -60,6 +60,13 @@ public class CodeFlow implements Opcodes {
 	 */
 	private final Deque<List<String>> compilationScopes;
 
+	/**
+	 * Local variables holding the active context objects of enclosing selection
+	 * or projection loops, innermost first. Code loading the target of an
+	 * expression component loads the innermost one, if any, instead of the root.
+	 */
+	private final Deque<Integer> activeContextObjects = new ArrayDeque<>();
+
 	/**
 	 * As SpEL ast nodes are called to generate code for the main evaluation method
 	 * they can register to add a field to this class. Any registered FieldAdders
@@ -85,9 +92,10 @@ public class CodeFlow implements Opcodes {
 
 	/**
 	 * When code generation requires an intermediate variable within a method,
-	 * this method records the next available variable (variable 0 is 'this').
+	 * this method records the next available variable (variable 0 is 'this',
+	 * variables 1 and 2 hold the root object and the evaluation context).
 	 */
-	private int nextFreeVariableId = 1;
+	private int nextFreeVariableId = 3;
 
 
 	/**
@@ -105,11 +113,32 @@ public class CodeFlow implements Opcodes {
 
 	/**
 	 * Push the byte code to load the target (i.e. what was passed as the first argument
-	 * to CompiledExpression.getValue(target, context))
+	 * to CompiledExpression.getValue(target, context), or the current element when
+	 * within a selection or projection loop)
 	 * @param mv the visitor into which the load instruction should be inserted
 	 */
 	public void loadTarget(MethodVisitor mv) {
-		mv.visitVarInsn(ALOAD, 1);
+		Integer activeContextObject = this.activeContextObjects.peek();
+		mv.visitVarInsn(ALOAD, (activeContextObject != null ? activeContextObject : 1));
+	}
+
+	/**
+	 * Make the given local variable the active context object, i.e. the target
+	 * loaded by {@link #loadTarget} until {@link #popActiveContextObject()} is called.
+	 * @param variableId the local variable holding the active context object
+	 * @since 5.0.17
+	 * @see #nextFreeVariableId()
+	 */
+	public void pushActiveContextObject(int variableId) {
+		this.activeContextObjects.push(variableId);
+	}
+
+	/**
+	 * Return to the previous active context object.
+	 * @since 5.0.17
+	 */
+	public void popActiveContextObject() {
+		this.activeContextObjects.pop();
 	}
 
 	/**
@@ -20,8 +20,10 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+import org.springframework.asm.MethodVisitor;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.CodeFlow;
 import org.springframework.expression.spel.ExpressionState;
 import org.springframework.expression.spel.SpelNode;
 import org.springframework.lang.Nullable;
@@ -164,4 +166,90 @@ public class InlineMap extends SpelNodeImpl {
 		return (Map<Object, Object>) this.constant.getValue();
 	}
 
+	@Override
+	public boolean isCompilable() {
+		if (isConstant()) {
+			return true;
+		}
+		for (int c = 0, max = getChildCount(); c < max; c++) {
+			SpelNodeImpl child = this.children[c];
+			if (!(c % 2 == 0 && child instanceof PropertyOrFieldReference) && !child.isCompilable()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow codeflow) {
+		final String className = codeflow.getClassName();
+		if (isConstant()) {
+			// Build the map once in the static initializer, like a constant inline list
+			final String constantFieldName = "inlineMap$" + codeflow.nextFieldId();
+			codeflow.registerNewField((cw, cflow) ->
+					cw.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, constantFieldName, "Ljava/util/Map;", null, null));
+			codeflow.registerNewClinit((mVisitor, cflow) -> {
+				generateMapCode(className, constantFieldName, mVisitor, cflow, true);
+				mVisitor.visitFieldInsn(PUTSTATIC, className, constantFieldName, "Ljava/util/Map;");
+			});
+			mv.visitFieldInsn(GETSTATIC, className, constantFieldName, "Ljava/util/Map;");
+		}
+		else {
+			generateMapCode(className, "", mv, codeflow, false);
+		}
+		codeflow.pushDescriptor("Ljava/util/Map");
+	}
+
+	private void generateMapCode(String className, String constantFieldName, MethodVisitor mv,
+			CodeFlow codeflow, boolean clinit) {
+
+		mv.visitTypeInsn(NEW, "java/util/LinkedHashMap");
+		mv.visitInsn(DUP);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/util/LinkedHashMap", "<init>", "()V", false);
+		int childCount = getChildCount();
+		for (int c = 0; c < childCount; c++) {
+			mv.visitInsn(DUP);
+			SpelNodeImpl keyChild = this.children[c++];
+			if (keyChild instanceof PropertyOrFieldReference) {
+				mv.visitLdcInsn(((PropertyOrFieldReference) keyChild).getName());
+			}
+			else {
+				generateChildCode(keyChild, className, constantFieldName, mv, codeflow, clinit);
+			}
+			generateChildCode(this.children[c], className, constantFieldName, mv, codeflow, clinit);
+			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map", "put",
+					"(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", true);
+			mv.visitInsn(POP);
+		}
+		if (clinit) {
+			mv.visitMethodInsn(INVOKESTATIC, "java/util/Collections", "unmodifiableMap",
+					"(Ljava/util/Map;)Ljava/util/Map;", false);
+		}
+	}
+
+	private void generateChildCode(SpelNodeImpl child, String className, String constantFieldName,
+			MethodVisitor mv, CodeFlow codeflow, boolean clinit) {
+
+		// Within the static initializer, nested constant lists and maps are built directly
+		// since calling back into generateCode() would register another clinit adder.
+		if (clinit && child instanceof InlineList) {
+			((InlineList) child).generateClinitCode(className, constantFieldName, mv, codeflow, true);
+		}
+		else if (clinit && child instanceof InlineMap) {
+			((InlineMap) child).generateMapCode(className, constantFieldName, mv, codeflow, true);
+		}
+		else {
+			codeflow.enterCompilationScope();
+			child.generateCode(mv, codeflow);
+			String lastDesc = codeflow.lastDescriptor();
+			if ("V".equals(lastDesc)) {
+				mv.visitInsn(ACONST_NULL);
+			}
+			else {
+				CodeFlow.insertBoxIfNecessary(mv, lastDesc);
+			}
+			codeflow.exitCompilationScope();
+		}
+	}
+
 }
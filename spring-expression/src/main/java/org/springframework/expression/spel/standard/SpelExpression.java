@@ -77,6 +77,10 @@ public class SpelExpression implements Expression {
 	// give up trying to compile it when it just doesn't seem to be possible.
 	private final AtomicInteger failedAttempts = new AtomicInteger(0);
 
+	// The shared cache that compiles this expression in the background, if any
+	@Nullable
+	private SpelExpressionCache compilationCache;
+
 
 	/**
 	 * Construct an expression, only used by the parser.
@@ -107,6 +111,15 @@ public class SpelExpression implements Expression {
 		return this.evaluationContext;
 	}
 
+	/**
+	 * Let the given cache trigger the compilation of this expression in the background,
+	 * instead of compiling it in the evaluating thread. To be called before returning it.
+	 * @since 5.0.17
+	 */
+	void setCompilationCache(SpelExpressionCache compilationCache) {
+		this.compilationCache = compilationCache;
+	}
+
 
 	// implementing Expression
 
@@ -483,7 +496,11 @@ public class SpelExpression implements Expression {
 	 * @param expressionState the expression state used to determine compilation mode
 	 */
 	private void checkCompile(ExpressionState expressionState) {
-		this.interpretedCount.incrementAndGet();
+		int interpretedCount = this.interpretedCount.incrementAndGet();
+		if (this.compilationCache != null) {
+			this.compilationCache.expressionInterpreted(this, interpretedCount);
+			return;
+		}
 		SpelCompilerMode compilerMode = expressionState.getConfiguration().getCompilerMode();
 		if (compilerMode != SpelCompilerMode.OFF) {
 			if (compilerMode == SpelCompilerMode.IMMEDIATE) {
@@ -512,7 +529,7 @@ public class SpelExpression implements Expression {
 			// Previously compiled
 			return true;
 		}
-		if (this.failedAttempts.get() > FAILED_ATTEMPTS_THRESHOLD) {
+		if (isCompilationAbandoned()) {
 			// Don't try again
 			return false;
 		}
@@ -537,6 +554,21 @@ public class SpelExpression implements Expression {
 		}
 	}
 
+	/**
+	 * Return whether compilation of this expression has been given up on
+	 * after too many failed attempts.
+	 */
+	boolean isCompilationAbandoned() {
+		return (this.failedAttempts.get() > FAILED_ATTEMPTS_THRESHOLD);
+	}
+
+	/**
+	 * Return whether this expression is currently compiled.
+	 */
+	boolean isCompiled() {
+		return (this.compiledAst != null);
+	}
+
 	/**
 	 * Cause an expression to revert to being interpreted if it has been using a compiled
 	 * form. It also resets the compilation attempt failure count (an expression is normally no
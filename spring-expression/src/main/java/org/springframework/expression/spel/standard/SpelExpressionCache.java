@@ -0,0 +1,551 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel.standard;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.core.style.ToStringCreator;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.ParserContext;
+import org.springframework.expression.common.CompositeStringExpression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Concurrent cache for parsed SpEL expressions which may be shared across
+ * components evaluating SpEL from trusted sources, e.g. cache key and condition
+ * evaluation, event listener conditions and bean definition expressions.
+ *
+ * <p>An expression string is parsed once per compiler ClassLoader, parser
+ * configuration and template parser context, and all callers asking for it
+ * receive the same {@link Expression} instance. Returned expressions therefore
+ * must not be modified, e.g. through {@link SpelExpression#setEvaluationContext};
+ * callers should rather pass an evaluation context into every evaluation call.
+ * Expressions parsed in {@link SpelCompilerMode#IMMEDIATE} mode are not cached:
+ * once compiled for the types of one caller, they would fail for the types of
+ * another caller instead of reverting to interpreted evaluation.
+ *
+ * <p>For parsers in {@link SpelCompilerMode#MIXED} mode, the cache compiles an
+ * expression in the background every time a {@linkplain #getCompileThreshold()
+ * threshold} number of interpreted evaluations has been reached, instead of
+ * compiling it in the evaluating thread. As in mixed mode, a compiled expression
+ * that fails at evaluation time reverts to interpreted evaluation and may get
+ * compiled again once its type assumptions have settled. Expressions that keep
+ * failing to compile are given up on, as in mixed mode.
+ *
+ * <p>The cache is bounded by a maximum number of entries. Once exceeded, the least
+ * recently used entries are evicted. The entries for a ClassLoader can be
+ * {@linkplain #evict(ClassLoader) evicted} before that ClassLoader is discarded.
+ * Expressions from untrusted sources, e.g. message selectors sent by clients,
+ * should not be cached here.
+ *
+ * <p>A JVM-wide instance is available through {@link #getSharedInstance()},
+ * configured through the {@value #MAX_SIZE_PROPERTY_NAME} and
+ * {@value #COMPILE_THRESHOLD_PROPERTY_NAME} properties, and used by Spring's
+ * expression-evaluating components by default. It compiles expressions on a
+ * single daemon thread of its own which is started on demand.
+ *
+ * @author agent
+ * @since 5.0.17
+ */
+public class SpelExpressionCache {
+
+	/**
+	 * System property that instructs Spring to not use a shared cache, i.e.
+	 * to always return {@code null} from {@link #getSharedInstance()}.
+	 */
+	public static final String IGNORE_SHARED_CACHE_PROPERTY_NAME = "spring.expression.cache.ignore";
+
+	/**
+	 * System property for the maximum number of entries of the shared cache.
+	 */
+	public static final String MAX_SIZE_PROPERTY_NAME = "spring.expression.cache.maxSize";
+
+	/**
+	 * System property for the number of interpreted evaluations after which
+	 * the shared cache compiles an expression parsed in mixed mode, with 0
+	 * leaving compilation to the expression itself.
+	 */
+	public static final String COMPILE_THRESHOLD_PROPERTY_NAME = "spring.expression.cache.compileThreshold";
+
+	/** Default maximum number of entries for the shared cache: 4096 */
+	public static final int DEFAULT_MAX_SIZE = 4096;
+
+	/** Default compile threshold for the shared cache: 100, as in mixed mode */
+	public static final int DEFAULT_COMPILE_THRESHOLD = 100;
+
+	@Nullable
+	private static final SpelExpressionCache sharedInstance =
+			(SpringProperties.getFlag(IGNORE_SHARED_CACHE_PROPERTY_NAME) ? null :
+					new SpelExpressionCache(retrieveMaxSize(), retrieveCompileThreshold(), createCompileExecutor()));
+
+
+	private final int maxSize;
+
+	private final int compileThreshold;
+
+	private final Executor compileExecutor;
+
+	private final ConcurrentMap<CacheKey, CacheEntry> entries = new ConcurrentHashMap<>(256);
+
+	private final AtomicLong accessCounter = new AtomicLong();
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	private final AtomicLong compileCount = new AtomicLong();
+
+	private final AtomicLong compileFailureCount = new AtomicLong();
+
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+
+	/**
+	 * Create a new {@code SpelExpressionCache} with the given settings.
+	 * @param maxSize the maximum number of entries
+	 * @param compileThreshold the number of interpreted evaluations after which
+	 * an expression parsed in mixed mode gets compiled, or 0 to leave compilation
+	 * to the expression itself
+	 * @param compileExecutor the executor to compile expressions with
+	 */
+	public SpelExpressionCache(int maxSize, int compileThreshold, Executor compileExecutor) {
+		Assert.isTrue(maxSize > 0, "'maxSize' must be positive");
+		Assert.isTrue(compileThreshold >= 0, "'compileThreshold' must not be negative");
+		Assert.notNull(compileExecutor, "Executor must not be null");
+		this.maxSize = maxSize;
+		this.compileThreshold = compileThreshold;
+		this.compileExecutor = compileExecutor;
+	}
+
+
+	/**
+	 * Return the JVM-wide shared cache.
+	 * @return the shared cache, or {@code null} if disabled through the
+	 * {@value #IGNORE_SHARED_CACHE_PROPERTY_NAME} property
+	 */
+	@Nullable
+	public static SpelExpressionCache getSharedInstance() {
+		return sharedInstance;
+	}
+
+
+	/**
+	 * Return the cached {@link Expression} for the given expression string,
+	 * parsing it with the configuration of the given parser if not cached yet.
+	 * <p>Expressions parsed by a subclass of {@link SpelExpressionParser} or
+	 * in {@link SpelCompilerMode#IMMEDIATE} mode are never cached.
+	 * @param parser the parser whose configuration to parse with
+	 * @param expressionString the raw expression string to parse
+	 * @return the expression (never {@code null})
+	 * @throws ParseException if an exception occurred during parsing
+	 */
+	public Expression getExpression(SpelExpressionParser parser, String expressionString) throws ParseException {
+		return getExpression(parser, expressionString, null);
+	}
+
+	/**
+	 * Return the cached {@link Expression} for the given expression string,
+	 * parsing it with the configuration of the given parser and the given
+	 * parser context if not cached yet.
+	 * <p>Expressions parsed by a subclass of {@link SpelExpressionParser} or
+	 * in {@link SpelCompilerMode#IMMEDIATE} mode are never cached.
+	 * @param parser the parser whose configuration to parse with
+	 * @param expressionString the raw expression string to parse
+	 * @param context a context for influencing this expression parsing routine (optional)
+	 * @return the expression (never {@code null})
+	 * @throws ParseException if an exception occurred during parsing
+	 */
+	public Expression getExpression(SpelExpressionParser parser, String expressionString,
+			@Nullable ParserContext context) throws ParseException {
+
+		SpelParserConfiguration configuration = parser.getConfiguration();
+		if (parser.getClass() != SpelExpressionParser.class ||
+				configuration.getCompilerMode() == SpelCompilerMode.IMMEDIATE) {
+			return (context != null ? parser.parseExpression(expressionString, context) :
+					parser.parseExpression(expressionString));
+		}
+
+		ClassLoader compilerClassLoader = configuration.getCompilerClassLoader();
+		if (compilerClassLoader == null) {
+			// Resolve the ClassLoader in the calling thread, not in the compiling thread
+			compilerClassLoader = ClassUtils.getDefaultClassLoader();
+		}
+		CacheKey key = new CacheKey(configuration, compilerClassLoader, expressionString,
+				(context != null && context.isTemplate() ? context : null));
+
+		CacheEntry entry = this.entries.get(key);
+		if (entry != null) {
+			entry.lastAccess = this.accessCounter.incrementAndGet();
+			this.hitCount.incrementAndGet();
+			return entry.expression;
+		}
+		this.missCount.incrementAndGet();
+		Expression expression = parse(configuration, compilerClassLoader, expressionString, context);
+		CacheEntry existing = this.entries.putIfAbsent(key,
+				new CacheEntry(expression, this.accessCounter.incrementAndGet()));
+		if (existing != null) {
+			return existing.expression;
+		}
+		if (this.entries.size() > this.maxSize) {
+			evict();
+		}
+		return expression;
+	}
+
+	private Expression parse(SpelParserConfiguration configuration, @Nullable ClassLoader compilerClassLoader,
+			String expressionString, @Nullable ParserContext context) {
+
+		SpelParserConfiguration configurationToUse = new SpelParserConfiguration(
+				configuration.getCompilerMode(), compilerClassLoader,
+				configuration.isAutoGrowNullReferences(), configuration.isAutoGrowCollections(),
+				configuration.getMaximumAutoGrowSize());
+		Expression expression = new SpelExpressionParser(configurationToUse).parseExpression(expressionString, context);
+		// Background compilation instead of compiling in the evaluating thread, for mixed mode only
+		if (this.compileThreshold > 0 && configuration.getCompilerMode() == SpelCompilerMode.MIXED) {
+			if (expression instanceof SpelExpression) {
+				((SpelExpression) expression).setCompilationCache(this);
+			}
+			else if (expression instanceof CompositeStringExpression) {
+				for (Expression part : ((CompositeStringExpression) expression).getExpressions()) {
+					if (part instanceof SpelExpression) {
+						((SpelExpression) part).setCompilationCache(this);
+					}
+				}
+			}
+		}
+		return expression;
+	}
+
+	/**
+	 * Callback from a {@link SpelExpression} parsed by this cache after
+	 * an interpreted evaluation.
+	 * @param expression the expression that has been evaluated
+	 * @param interpretedCount the number of interpreted evaluations so far
+	 */
+	void expressionInterpreted(SpelExpression expression, int interpretedCount) {
+		if (interpretedCount % this.compileThreshold == 0 && !expression.isCompilationAbandoned()) {
+			try {
+				this.compileExecutor.execute(() -> compile(expression));
+			}
+			catch (RejectedExecutionException ex) {
+				// Try again after the next round of interpreted evaluations
+			}
+		}
+	}
+
+	private void compile(SpelExpression expression) {
+		if (expression.isCompiled() || expression.isCompilationAbandoned()) {
+			return;
+		}
+		if (expression.compileExpression()) {
+			this.compileCount.incrementAndGet();
+		}
+		else {
+			this.compileFailureCount.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Evict the least recently used entries until the cache is within its bounds again.
+	 * <p>Evicts a few entries below the bounds, so that eviction does not have to
+	 * happen again right on the next miss. Only one thread evicts at any time.
+	 */
+	private void evict() {
+		if (!this.evictionLock.tryLock()) {
+			return;
+		}
+		try {
+			int targetSize = this.maxSize - Math.max(this.maxSize / 10, 1);
+			if (this.entries.size() <= targetSize) {
+				return;
+			}
+			List<Map.Entry<CacheKey, CacheEntry>> candidates = new ArrayList<>(this.entries.entrySet());
+			candidates.sort(Comparator.comparingLong(candidate -> candidate.getValue().lastAccess));
+			for (Map.Entry<CacheKey, CacheEntry> candidate : candidates) {
+				if (this.entries.size() <= targetSize) {
+					break;
+				}
+				if (this.entries.remove(candidate.getKey(), candidate.getValue())) {
+					this.evictionCount.incrementAndGet();
+				}
+			}
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Remove all entries for the given ClassLoader, e.g. when it is about to be discarded.
+	 * @param classLoader the ClassLoader to remove the entries for
+	 */
+	public void evict(@Nullable ClassLoader classLoader) {
+		this.entries.keySet().removeIf(key -> key.compilerClassLoader == classLoader);
+	}
+
+	/**
+	 * Remove all entries from this cache.
+	 */
+	public void clear() {
+		this.entries.clear();
+	}
+
+	/**
+	 * Reset the hit, miss, eviction and compilation counts to zero.
+	 */
+	public void clearStatistics() {
+		this.hitCount.set(0);
+		this.missCount.set(0);
+		this.evictionCount.set(0);
+		this.compileCount.set(0);
+		this.compileFailureCount.set(0);
+	}
+
+	/**
+	 * Return the maximum number of entries.
+	 */
+	public int getMaxSize() {
+		return this.maxSize;
+	}
+
+	/**
+	 * Return the number of interpreted evaluations after which an expression
+	 * parsed in mixed mode gets compiled, or 0 if this cache leaves compilation
+	 * to the expression itself.
+	 */
+	public int getCompileThreshold() {
+		return this.compileThreshold;
+	}
+
+	/**
+	 * Return the current number of entries.
+	 */
+	public int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Return the number of lookups that have been served from the cache.
+	 */
+	public long getHitCount() {
+		return this.hitCount.get();
+	}
+
+	/**
+	 * Return the number of lookups that required parsing the expression.
+	 */
+	public long getMissCount() {
+		return this.missCount.get();
+	}
+
+	/**
+	 * Return the number of entries that have been evicted due to the cache bounds.
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount.get();
+	}
+
+	/**
+	 * Return the number of successful expression compilations, including
+	 * recompilations after a compiled expression reverted to interpreted mode.
+	 */
+	public long getCompileCount() {
+		return this.compileCount.get();
+	}
+
+	/**
+	 * Return the number of unsuccessful compilation attempts, e.g. for
+	 * expressions containing elements that are not compilable. Expressions
+	 * are not compiled again once they have been given up on.
+	 */
+	public long getCompileFailureCount() {
+		return this.compileFailureCount.get();
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringCreator(this)
+				.append("size", size())
+				.append("maxSize", getMaxSize())
+				.append("compileThreshold", getCompileThreshold())
+				.append("hitCount", getHitCount())
+				.append("missCount", getMissCount())
+				.append("evictionCount", getEvictionCount())
+				.append("compileCount", getCompileCount())
+				.append("compileFailureCount", getCompileFailureCount())
+				.toString();
+	}
+
+
+	/**
+	 * Create the executor for the shared cache: a single daemon thread,
+	 * started on demand and stopped again once idle for a minute.
+	 */
+	private static Executor createCompileExecutor() {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(1024), new CompileThreadFactory());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	private static int retrieveMaxSize() {
+		try {
+			String maxSize = SpringProperties.getProperty(MAX_SIZE_PROPERTY_NAME);
+			if (StringUtils.hasText(maxSize)) {
+				return Integer.parseInt(maxSize.trim());
+			}
+		}
+		catch (Exception ex) {
+			// ignore
+		}
+		return DEFAULT_MAX_SIZE;
+	}
+
+	private static int retrieveCompileThreshold() {
+		try {
+			String compileThreshold = SpringProperties.getProperty(COMPILE_THRESHOLD_PROPERTY_NAME);
+			if (StringUtils.hasText(compileThreshold)) {
+				return Integer.parseInt(compileThreshold.trim());
+			}
+		}
+		catch (Exception ex) {
+			// ignore
+		}
+		return DEFAULT_COMPILE_THRESHOLD;
+	}
+
+
+	private static final class CacheKey {
+
+		private final SpelCompilerMode compilerMode;
+
+		@Nullable
+		private final ClassLoader compilerClassLoader;
+
+		private final boolean autoGrowNullReferences;
+
+		private final boolean autoGrowCollections;
+
+		private final int maximumAutoGrowSize;
+
+		private final String expressionString;
+
+		@Nullable
+		private final String expressionPrefix;
+
+		@Nullable
+		private final String expressionSuffix;
+
+		public CacheKey(SpelParserConfiguration configuration, @Nullable ClassLoader compilerClassLoader,
+				String expressionString, @Nullable ParserContext templateContext) {
+
+			this.compilerMode = configuration.getCompilerMode();
+			this.compilerClassLoader = compilerClassLoader;
+			this.autoGrowNullReferences = configuration.isAutoGrowNullReferences();
+			this.autoGrowCollections = configuration.isAutoGrowCollections();
+			this.maximumAutoGrowSize = configuration.getMaximumAutoGrowSize();
+			this.expressionString = expressionString;
+			this.expressionPrefix = (templateContext != null ? templateContext.getExpressionPrefix() : null);
+			this.expressionSuffix = (templateContext != null ? templateContext.getExpressionSuffix() : null);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey otherKey = (CacheKey) other;
+			return (this.compilerMode == otherKey.compilerMode &&
+					this.compilerClassLoader == otherKey.compilerClassLoader &&
+					this.autoGrowNullReferences == otherKey.autoGrowNullReferences &&
+					this.autoGrowCollections == otherKey.autoGrowCollections &&
+					this.maximumAutoGrowSize == otherKey.maximumAutoGrowSize &&
+					this.expressionString.equals(otherKey.expressionString) &&
+					ObjectUtils.nullSafeEquals(this.expressionPrefix, otherKey.expressionPrefix) &&
+					ObjectUtils.nullSafeEquals(this.expressionSuffix, otherKey.expressionSuffix));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.expressionString.hashCode() * 29 + System.identityHashCode(this.compilerClassLoader);
+		}
+	}
+
+
+	private static final class CacheEntry {
+
+		private final Expression expression;
+
+		private volatile long lastAccess;
+
+		public CacheEntry(Expression expression, long lastAccess) {
+			this.expression = expression;
+			this.lastAccess = lastAccess;
+		}
+	}
+
+
+	/**
+	 * Creates the compiler thread of the shared cache, without letting it inherit
+	 * the access control context and context ClassLoader of the thread that
+	 * triggered its creation.
+	 */
+	private static class CompileThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger threadCount = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable task) {
+			return AccessController.doPrivileged((PrivilegedAction<Thread>) () -> {
+				Thread thread = new Thread(task, "spring-spel-compile-" + this.threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				thread.setContextClassLoader(SpelExpressionCache.class.getClassLoader());
+				return thread;
+			});
+		}
+	}
+
+}
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -441,6 +442,121 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 		assertEquals("op", o);
 	}
 
+	@Test
+	public void selection() throws Exception {
+		expression = parser.parseExpression("{'a','bb','ccc','dd'}.?[length() > 1]");
+		assertEquals("[bb, ccc, dd]", expression.getValue().toString());
+		assertCanCompile(expression);
+		assertEquals("[bb, ccc, dd]", expression.getValue().toString());
+
+		expression = parser.parseExpression("{'a','bb','ccc','dd'}.^[length() > 1]");
+		assertEquals("bb", expression.getValue());
+		assertCanCompile(expression);
+		assertEquals("bb", expression.getValue());
+
+		expression = parser.parseExpression("{'a','bb','ccc','dd'}.$[length() > 1]");
+		assertEquals("dd", expression.getValue());
+		assertCanCompile(expression);
+		assertEquals("dd", expression.getValue());
+
+		expression = parser.parseExpression("{'a','bb'}.^[length() > 5]");
+		assertNull(expression.getValue());
+		assertCanCompile(expression);
+		assertNull(expression.getValue());
+
+		expression = parser.parseExpression("{1,2,3,4}.?[#this > 2]");
+		assertEquals("[3, 4]", expression.getValue().toString());
+		assertCanCompile(expression);
+		assertEquals("[3, 4]", expression.getValue().toString());
+
+		expression = parser.parseExpression("#root.?[length() > 1].size()");
+		assertEquals(2, expression.getValue(Arrays.asList("a", "bb", "ccc")));
+		assertCanCompile(expression);
+		assertEquals(2, expression.getValue(Arrays.asList("a", "bb", "ccc")));
+		assertEquals(1, expression.getValue(Collections.singleton("bb")));
+
+		// Selection over arrays and maps is not compilable
+		expression = parser.parseExpression("#root.?[#this > 1]");
+		assertEquals(1, ((Integer[]) expression.getValue(new Integer[] {1, 2})).length);
+		assertCantCompile(expression);
+		expression = parser.parseExpression("#root.?[value > 1]");
+		assertEquals(1, ((Map<?, ?>) expression.getValue(Collections.singletonMap("a", 2))).size());
+		assertCantCompile(expression);
+	}
+
+	@Test
+	public void projection() throws Exception {
+		expression = parser.parseExpression("{'a','bb','ccc'}.![length()]");
+		assertEquals("[1, 2, 3]", expression.getValue().toString());
+		assertCanCompile(expression);
+		assertEquals("[1, 2, 3]", expression.getValue().toString());
+
+		expression = parser.parseExpression("{'a','bb','ccc'}.![length() * 2]");
+		assertEquals("[2, 4, 6]", expression.getValue().toString());
+		assertCanCompile(expression);
+		assertEquals("[2, 4, 6]", expression.getValue().toString());
+
+		expression = parser.parseExpression("{{1,2},{3,4}}.![#this.?[#this > 1]]");
+		assertEquals("[[2], [3, 4]]", expression.getValue().toString());
+		assertCanCompile(expression);
+		assertEquals("[[2], [3, 4]]", expression.getValue().toString());
+
+		expression = parser.parseExpression("#root.![#this.length()]");
+		assertEquals("[1, 2]", expression.getValue(Arrays.asList("a", "bb")).toString());
+		assertCanCompile(expression);
+		assertEquals("[1, 2]", expression.getValue(Arrays.asList("a", "bb")).toString());
+		assertEquals("[3]", expression.getValue(Collections.singleton("ccc")).toString());
+
+		expression = parser.parseExpression("#root?.![length()]");
+		assertEquals("[1]", expression.getValue(Collections.singletonList("a")).toString());
+		assertCanCompile(expression);
+		assertNull(expression.getValue((Object) null));
+	}
+
+	@Test
+	public void selectionAndProjectionFallBackToInterpreterInMixedMode() throws Exception {
+		SpelParserConfiguration configuration =
+				new SpelParserConfiguration(SpelCompilerMode.MIXED, ClassLoader.getSystemClassLoader());
+		SpelExpression expression = new SpelExpressionParser(configuration).parseRaw("#root.![#this.toString()]");
+		assertEquals("[a, bb]", expression.getValue(Arrays.asList("a", "bb")).toString());
+		assertTrue(expression.compileExpression());
+		assertEquals("[ccc]", expression.getValue(Collections.singletonList("ccc")).toString());
+
+		// A map operand does not match the compiled code, so it gets evaluated in interpreted mode
+		assertEquals("[a=1]", expression.getValue(Collections.singletonMap("a", 1)).toString());
+		assertEquals("[ccc]", expression.getValue(Collections.singletonList("ccc")).toString());
+	}
+
+	@Test
+	public void inlineMap() throws Exception {
+		expression = parser.parseExpression("{a:1,b:'x'}");
+		assertEquals("{a=1, b=x}", expression.getValue().toString());
+		assertCanCompile(expression);
+		assertEquals("{a=1, b=x}", expression.getValue().toString());
+
+		expression = parser.parseExpression("{a:{b:{1,2}},'c':null,3:4L}");
+		assertEquals("{a={b=[1, 2]}, c=null, 3=4}", expression.getValue().toString());
+		assertCanCompile(expression);
+		assertEquals("{a={b=[1, 2]}, c=null, 3=4}", expression.getValue().toString());
+
+		expression = parser.parseExpression("{a:1,b:'x'}['b']");
+		assertEquals("x", expression.getValue());
+		assertCanCompile(expression);
+		assertEquals("x", expression.getValue());
+
+		expression = parser.parseExpression("{a:1,b:'x'}[#root]");
+		assertEquals("x", expression.getValue("b"));
+		assertCanCompile(expression);
+		assertEquals("x", expression.getValue("b"));
+		assertEquals(1, expression.getValue("a"));
+
+		expression = parser.parseExpression("{name:'x',len:#root.length(),list:{1,2}}");
+		assertEquals("{name=x, len=3, list=[1, 2]}", expression.getValue("abc").toString());
+		assertCanCompile(expression);
+		assertEquals("{name=x, len=3, list=[1, 2]}", expression.getValue("abc").toString());
+		assertEquals("{name=x, len=2, list=[1, 2]}", expression.getValue("ab").toString());
+	}
+
 	@Test
 	public void intLiteral() throws Exception {
 		expression = parser.parseExpression("42");
@@ -1023,7 +1139,7 @@ public class SpelCompilationCoverageTests extends AbstractExpressionTests {
 
 		expression = parser.parseExpression("#negate(#ints.?[#this<2][0])");
 		assertEquals("-1", expression.getValue(context, Integer.class).toString());
-		// Selection isn't compilable.
+		// Selection over an array isn't compilable.
 		assertFalse(((SpelNodeImpl)((SpelExpression) expression).getAST()).isCompilable());
 	}
 
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel.standard;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+
+import org.junit.Test;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.ParserContext;
+import org.springframework.expression.common.CompositeStringExpression;
+import org.springframework.expression.common.TemplateParserContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link SpelExpressionCache}.
+ *
+ * @author agent
+ */
+public class SpelExpressionCacheTests {
+
+	private final SpelExpressionCache cache = new SpelExpressionCache(10, 3, Runnable::run);
+
+	private final SpelExpressionParser mixedParser =
+			new SpelExpressionParser(new SpelParserConfiguration(SpelCompilerMode.MIXED, getClass().getClassLoader()));
+
+
+	@Test
+	public void sameExpressionForEquivalentParsers() {
+		Expression expression = this.cache.getExpression(new SpelExpressionParser(), "length()");
+		assertSame(expression, this.cache.getExpression(new SpelExpressionParser(), "length()"));
+		assertEquals(1, this.cache.size());
+		assertEquals(1, this.cache.getHitCount());
+		assertEquals(1, this.cache.getMissCount());
+
+		assertNotSame(expression, this.cache.getExpression(new SpelExpressionParser(), "toString()"));
+		assertNotSame(expression, this.cache.getExpression(
+				new SpelExpressionParser(new SpelParserConfiguration(true, true)), "length()"));
+		assertEquals(3, this.cache.size());
+		assertEquals(3, this.cache.getMissCount());
+	}
+
+	@Test
+	public void separateExpressionPerClassLoader() {
+		ClassLoader classLoader = getClass().getClassLoader();
+		ClassLoader otherClassLoader = new URLClassLoader(new URL[0], classLoader);
+		Expression expression = this.cache.getExpression(
+				new SpelExpressionParser(new SpelParserConfiguration(null, classLoader)), "length()");
+		Expression otherExpression = this.cache.getExpression(
+				new SpelExpressionParser(new SpelParserConfiguration(null, otherClassLoader)), "length()");
+		assertNotSame(expression, otherExpression);
+		assertEquals(2, this.cache.size());
+
+		this.cache.evict(otherClassLoader);
+		assertEquals(1, this.cache.size());
+		assertSame(expression, this.cache.getExpression(
+				new SpelExpressionParser(new SpelParserConfiguration(null, classLoader)), "length()"));
+	}
+
+	@Test
+	public void templateExpressions() {
+		SpelExpressionParser parser = new SpelExpressionParser();
+		ParserContext context = new TemplateParserContext();
+		Expression expression = this.cache.getExpression(parser, "#{length()} chars", context);
+		assertTrue(expression instanceof CompositeStringExpression);
+		assertEquals("3 chars", expression.getValue("abc"));
+		assertSame(expression, this.cache.getExpression(parser, "#{length()} chars", context));
+		assertNotSame(expression, this.cache.getExpression(
+				parser, "#{length()} chars", new TemplateParserContext("${", "}")));
+	}
+
+	@Test
+	public void compileAfterThreshold() {
+		SpelExpression expression = (SpelExpression) this.cache.getExpression(this.mixedParser, "length()");
+		assertEquals(3, expression.getValue("abc"));
+		assertEquals(2, expression.getValue("ab"));
+		assertFalse(expression.isCompiled());
+		assertEquals(1, expression.getValue("a"));
+		assertTrue(expression.isCompiled());
+		assertEquals(1, this.cache.getCompileCount());
+		assertEquals(4, expression.getValue("abcd"));
+	}
+
+	@Test
+	public void revertToInterpretedAndRecompile() {
+		SpelExpression expression = (SpelExpression) this.cache.getExpression(this.mixedParser, "size()");
+		for (int i = 0; i < 3; i++) {
+			expression.getValue(new ArrayList<>(Arrays.asList(1, 2)));
+		}
+		assertTrue(expression.isCompiled());
+
+		// The compiled expression expects an ArrayList target
+		assertEquals(1, expression.getValue(new LinkedList<>(Arrays.asList(1))));
+		assertFalse(expression.isCompiled());
+		assertEquals(1, expression.getValue(new LinkedList<>(Arrays.asList(1))));
+		assertEquals(1, expression.getValue(new LinkedList<>(Arrays.asList(1))));
+		assertTrue(expression.isCompiled());
+		assertEquals(2, this.cache.getCompileCount());
+		assertEquals(1, expression.getValue(new LinkedList<>(Arrays.asList(1))));
+	}
+
+	@Test
+	public void compileFailure() {
+		SpelExpression expression = (SpelExpression) this.cache.getExpression(this.mixedParser, "#root?.length()");
+		for (int i = 0; i < 3; i++) {
+			assertNull(expression.getValue((Object) null));
+		}
+		assertFalse(expression.isCompiled());
+		assertEquals(0, this.cache.getCompileCount());
+		assertEquals(1, this.cache.getCompileFailureCount());
+	}
+
+	@Test
+	public void compilationGivenUpAfterFailedAttempts() {
+		SpelExpression expression = (SpelExpression) this.cache.getExpression(this.mixedParser, "#root?.length()");
+		for (int i = 0; i < 1000; i++) {
+			assertNull(expression.getValue((Object) null));
+		}
+		assertTrue(expression.isCompilationAbandoned());
+		long failureCount = this.cache.getCompileFailureCount();
+		assertTrue(failureCount < 1000 / 3);
+
+		for (int i = 0; i < 300; i++) {
+			assertNull(expression.getValue((Object) null));
+		}
+		assertEquals(failureCount, this.cache.getCompileFailureCount());
+	}
+
+	@Test
+	public void noCompilationWithZeroThreshold() {
+		SpelExpressionCache cache = new SpelExpressionCache(10, 0, Runnable::run);
+		SpelExpression expression = (SpelExpression) cache.getExpression(
+				new SpelExpressionParser(new SpelParserConfiguration(SpelCompilerMode.MIXED, null)), "length()");
+		for (int i = 0; i < 5; i++) {
+			expression.getValue("abc");
+		}
+		assertFalse(expression.isCompiled());
+		assertEquals(0, cache.getCompileCount());
+	}
+
+	@Test
+	public void offCompilerModeIsRetained() {
+		SpelExpressionParser parser = new SpelExpressionParser(new SpelParserConfiguration(SpelCompilerMode.OFF, null));
+		SpelExpression expression = (SpelExpression) this.cache.getExpression(parser, "length()");
+		for (int i = 0; i < 5; i++) {
+			expression.getValue("abc");
+		}
+		assertFalse(expression.isCompiled());
+		assertEquals(0, this.cache.getCompileCount());
+	}
+
+	@Test
+	public void immediateCompilerModeIsNotCached() {
+		SpelExpressionParser parser = new SpelExpressionParser(
+				new SpelParserConfiguration(SpelCompilerMode.IMMEDIATE, getClass().getClassLoader()));
+		SpelExpression expression = (SpelExpression) this.cache.getExpression(parser, "length()");
+		assertNotSame(expression, this.cache.getExpression(parser, "length()"));
+		assertEquals(0, this.cache.size());
+		expression.getValue("abc");
+		expression.getValue("abc");
+		assertTrue(expression.isCompiled());
+		assertEquals(0, this.cache.getCompileCount());
+	}
+
+	@Test
+	public void parserSubclassIsNotCached() {
+		SpelExpressionParser parser = new SpelExpressionParser() {};
+		assertNotSame(this.cache.getExpression(parser, "length()"),
+				this.cache.getExpression(parser, "length()"));
+		assertEquals(0, this.cache.size());
+	}
+
+	@Test
+	public void evictLeastRecentlyUsed() {
+		SpelExpressionParser parser = new SpelExpressionParser();
+		Expression first = this.cache.getExpression(parser, "0");
+		for (int i = 1; i < 10; i++) {
+			this.cache.getExpression(parser, Integer.toString(i));
+		}
+		assertSame(first, this.cache.getExpression(parser, "0"));
+		this.cache.getExpression(parser, "10");
+
+		assertEquals(9, this.cache.size());
+		assertEquals(2, this.cache.getEvictionCount());
+		assertSame(first, this.cache.getExpression(parser, "0"));
+		this.cache.clear();
+		assertEquals(0, this.cache.size());
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,8 +24,10 @@ import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.core.MethodAccessorFactory;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.lang.Nullable;
 import org.springframework.messaging.converter.GenericMessageConverter;
 import org.springframework.messaging.converter.MessageConverter;
 import org.springframework.messaging.handler.invocation.HandlerMethodArgumentResolver;
@@ -71,6 +73,9 @@ public class DefaultMessageHandlerMethodFactory
 
 	private BeanFactory beanFactory;
 
+	@Nullable
+	private MethodAccessorFactory methodAccessorFactory;
+
 
 	/**
 	 * Set the {@link ConversionService} to use to convert the original
@@ -122,6 +127,16 @@ public class DefaultMessageHandlerMethodFactory
 		this.argumentResolvers.addResolvers(argumentResolvers);
 	}
 
+	/**
+	 * Set the {@link MethodAccessorFactory} to use for invoking handler methods,
+	 * e.g. a {@link org.springframework.core.GeneratedMethodAccessorFactory}.
+	 * <p>By default handler methods are invoked via reflection.
+	 * @since 5.0.17
+	 */
+	public void setMethodAccessorFactory(@Nullable MethodAccessorFactory methodAccessorFactory) {
+		this.methodAccessorFactory = methodAccessorFactory;
+	}
+
 	/**
 	 * A {@link BeanFactory} only needs to be available for placeholder resolution
 	 * in handler method arguments; it's optional otherwise.
@@ -146,6 +161,7 @@ public class DefaultMessageHandlerMethodFactory
 	public InvocableHandlerMethod createInvocableHandlerMethod(Object bean, Method method) {
 		InvocableHandlerMethod handlerMethod = new InvocableHandlerMethod(bean, method);
 		handlerMethod.setMessageMethodArgumentResolvers(this.argumentResolvers);
+		handlerMethod.setMethodAccessorFactory(this.methodAccessorFactory);
 		return handlerMethod;
 	}
 
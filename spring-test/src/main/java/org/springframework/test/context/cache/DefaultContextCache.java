@@ -32,6 +32,7 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.core.style.ToStringCreator;
+import org.springframework.core.type.classreading.MetadataReaderCache;
 import org.springframework.lang.Nullable;
 import org.springframework.test.annotation.DirtiesContext.HierarchyMode;
 import org.springframework.test.context.MergedContextConfiguration;
@@ -283,11 +284,18 @@ public class DefaultContextCache implements ContextCache {
 
 	/**
 	 * {@inheritDoc}
+	 * <p>Also logs the statistics of the {@link MetadataReaderCache#getSharedInstance()
+	 * shared class metadata cache} which the cached contexts read their
+	 * configuration classes and scanned components through.
 	 */
 	@Override
 	public void logStatistics() {
 		if (statsLogger.isDebugEnabled()) {
 			statsLogger.debug("Spring test ApplicationContext cache statistics: " + this);
+			MetadataReaderCache metadataReaderCache = MetadataReaderCache.getSharedInstance();
+			if (metadataReaderCache != null) {
+				statsLogger.debug("Spring class metadata cache statistics: " + metadataReaderCache);
+			}
 		}
 	}
 
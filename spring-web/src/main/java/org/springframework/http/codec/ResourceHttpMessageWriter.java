@@ -55,6 +55,10 @@ import org.springframework.util.MimeTypeUtils;
  * <p>Also an implementation of {@code HttpMessageWriter} with support for writing one
  * or more {@link ResourceRegion}'s based on the HTTP ranges specified in the request.
  *
+ * <p>File-based resources, as well as single regions of them, are transferred
+ * through {@link ZeroCopyHttpOutputMessage#writeWith(File, long, long)} when
+ * the underlying server supports it.
+ *
  * <p>For reading to a Resource, use {@link ResourceDecoder} wrapped with
  * {@link DecoderHttpMessageReader}.
  *
@@ -89,6 +93,24 @@ public class ResourceHttpMessageWriter implements HttpMessageWriter<Resource> {
 	}
 
 
+	/**
+	 * Set the size, in bytes, from which file-based resources and resource
+	 * regions that cannot be transferred through {@link ZeroCopyHttpOutputMessage}
+	 * are written from memory-mapped buffers instead of being copied chunk by chunk.
+	 * This applies to servers without zero-copy support, and to multipart
+	 * "byteranges" responses.
+	 * <p>By default this is set to -1, i.e. memory-mapping is not used.
+	 * @param memoryMappedThreshold the threshold in bytes, or -1 to disable
+	 * @since 5.0.17
+	 * @see ResourceEncoder#setMemoryMappedThreshold(long)
+	 * @see ResourceRegionEncoder#setMemoryMappedThreshold(long)
+	 */
+	public void setMemoryMappedThreshold(long memoryMappedThreshold) {
+		this.encoder.setMemoryMappedThreshold(memoryMappedThreshold);
+		this.regionEncoder.setMemoryMappedThreshold(memoryMappedThreshold);
+	}
+
+
 	@Override
 	public boolean canWrite(ResolvableType elementType, @Nullable MediaType mediaType) {
 		return this.encoder.canEncode(elementType, mediaType);
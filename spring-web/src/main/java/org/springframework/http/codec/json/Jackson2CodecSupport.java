@@ -27,11 +27,14 @@ import java.util.Map;
 import com.fasterxml.jackson.annotation.JsonView;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.type.TypeFactory;
 
 import org.springframework.core.GenericTypeResolver;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.ResolvableType;
+import org.springframework.http.converter.json.Jackson2ObjectReaderWriterCache;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.MimeType;
@@ -66,6 +69,9 @@ public abstract class Jackson2CodecSupport {
 
 	private final List<MimeType> mimeTypes;
 
+	private final Jackson2ObjectReaderWriterCache readerWriterCache =
+			new Jackson2ObjectReaderWriterCache(this::getObjectMapper, this::getJavaType);
+
 
 	/**
 	 * Constructor with a Jackson {@link ObjectMapper} to use.
@@ -99,6 +105,34 @@ public abstract class Jackson2CodecSupport {
 		return typeFactory.constructType(GenericTypeResolver.resolveType(type, contextClass));
 	}
 
+	/**
+	 * Return a (cached) {@code ObjectReader} for the given element type.
+	 * @param elementType the element type to read
+	 * @param hints hints for the decoding, possibly with a {@link #JSON_VIEW_HINT}
+	 * @since 5.0.17
+	 */
+	protected ObjectReader getObjectReader(ResolvableType elementType, @Nullable Map<String, Object> hints) {
+		MethodParameter param = getParameter(elementType);
+		Class<?> contextClass = (param != null ? param.getContainingClass() : null);
+		return this.readerWriterCache.getObjectReader(elementType.getType(), contextClass, getJsonView(hints));
+	}
+
+	/**
+	 * Return a (cached) {@code ObjectWriter} for the given element type,
+	 * bound to that type if it is a container type.
+	 * @param elementType the element type to write
+	 * @param hints hints for the encoding, possibly with a {@link #JSON_VIEW_HINT}
+	 * @since 5.0.17
+	 */
+	protected ObjectWriter getObjectWriter(ResolvableType elementType, @Nullable Map<String, Object> hints) {
+		return this.readerWriterCache.getObjectWriter(elementType.getType(), null, getJsonView(hints));
+	}
+
+	@Nullable
+	private Class<?> getJsonView(@Nullable Map<String, Object> hints) {
+		return (hints != null ? (Class<?>) hints.get(JSON_VIEW_HINT) : null);
+	}
+
 	protected Map<String, Object> getHints(ResolvableType resolvableType) {
 		MethodParameter param = getParameter(resolvableType);
 		if (param != null) {
@@ -17,6 +17,7 @@
 package org.springframework.http.codec.json;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
@@ -28,16 +29,23 @@ import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.async.ByteArrayFeeder;
 import com.fasterxml.jackson.databind.util.TokenBuffer;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.SynchronousSink;
 
 import org.springframework.core.codec.DecodingException;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
 import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.lang.Nullable;
 
 /**
  * {@link Function} to transform a JSON stream of arbitrary size, byte array
  * chunks into a {@code Flux<TokenBuffer>} where each token buffer is a
  * well-formed JSON object.
  *
+ * <p>Token buffers are parsed on demand: each input buffer is only parsed up
+ * to the next complete JSON object (or array element), and the next input
+ * buffer is not requested until the current one has been fully consumed.
+ *
  * @author Arjen Poutsma
  * @author Rossen Stoyanchev
  * @since 5.0
@@ -48,74 +56,156 @@ class Jackson2Tokenizer {
 
 	private final boolean tokenizeArrayElements;
 
+	private final int maxInMemorySize;
+
 	private TokenBuffer tokenBuffer;
 
 	private int objectDepth;
 
 	private int arrayDepth;
 
+	// Number of bytes fed to the parser before the current input
+	private long inputOffset;
+
+	// Parser location at the start of the current input
+	private long inputLocation;
+
+	private long totalByteCount;
+
+	// Byte offset in the input at which the current token buffer started
+	private long tokenBufferOffset;
+
 	// TODO: change to ByteBufferFeeder when supported by Jackson
 	// See https://github.com/FasterXML/jackson-core/issues/478
 	private final ByteArrayFeeder inputFeeder;
 
 
-	private Jackson2Tokenizer(JsonParser parser, boolean tokenizeArrayElements) {
+	private Jackson2Tokenizer(JsonParser parser, boolean tokenizeArrayElements, int maxInMemorySize) {
 		this.parser = parser;
 		this.tokenizeArrayElements = tokenizeArrayElements;
+		this.maxInMemorySize = maxInMemorySize;
 		this.tokenBuffer = new TokenBuffer(parser);
 		this.inputFeeder = (ByteArrayFeeder) this.parser.getNonBlockingInputFeeder();
 	}
 
 
 	private Flux<TokenBuffer> tokenize(DataBuffer dataBuffer) {
-		byte[] bytes = new byte[dataBuffer.readableByteCount()];
-		dataBuffer.read(bytes);
-		DataBufferUtils.release(dataBuffer);
+		ByteBuffer[] byteBuffers = DataBufferUtils.toByteBuffers(dataBuffer);
+		return Flux.generate(() -> 0,
+				(Integer index, SynchronousSink<TokenBuffer> sink) -> nextTokenBuffer(byteBuffers, index, sink),
+				index -> DataBufferUtils.release(dataBuffer));
+	}
 
+	/**
+	 * Emit the next complete token buffer, feeding the remaining components of
+	 * the current input to the parser as necessary. Completes the sink once
+	 * all components have been parsed.
+	 * @return the index of the next component to feed
+	 */
+	private int nextTokenBuffer(ByteBuffer[] byteBuffers, int index, SynchronousSink<TokenBuffer> sink) {
 		try {
-			this.inputFeeder.feedInput(bytes, 0, bytes.length);
-			return parseTokenBufferFlux();
+			while (true) {
+				TokenBuffer result = parseTokenBuffer();
+				if (result != null) {
+					sink.next(result);
+					return index;
+				}
+				if (index == byteBuffers.length) {
+					sink.complete();
+					return index;
+				}
+				feedInput(byteBuffers[index++]);
+			}
 		}
 		catch (JsonProcessingException ex) {
-			return Flux.error(new DecodingException("JSON decoding error: " + ex.getOriginalMessage(), ex));
+			sink.error(new DecodingException("JSON decoding error: " + ex.getOriginalMessage(), ex));
 		}
-		catch (IOException ex) {
-			return Flux.error(ex);
+		catch (IOException | DataBufferLimitException ex) {
+			sink.error(ex);
 		}
+		return index;
+	}
+
+	/**
+	 * Feed the given buffer to the parser, passing its backing array directly
+	 * if available. The parser is done with the input once it reports
+	 * {@link JsonToken#NOT_AVAILABLE}, so the buffer can be released after
+	 * {@link #parseTokenBuffer parsing}.
+	 */
+	private void feedInput(ByteBuffer byteBuffer) throws IOException {
+		int length = byteBuffer.remaining();
+		if (byteBuffer.hasArray()) {
+			int start = byteBuffer.arrayOffset() + byteBuffer.position();
+			this.inputFeeder.feedInput(byteBuffer.array(), start, start + length);
+		}
+		else {
+			byte[] bytes = new byte[length];
+			byteBuffer.get(bytes);
+			this.inputFeeder.feedInput(bytes, 0, length);
+		}
+		this.inputOffset = this.totalByteCount;
+		this.inputLocation = this.parser.getCurrentLocation().getByteOffset();
+		this.totalByteCount += length;
+	}
+
+	private long getCurrentOffset() {
+		long offset = this.inputOffset + (this.parser.getCurrentLocation().getByteOffset() - this.inputLocation);
+		// Location is not reliable after end of input
+		return Math.min(offset, this.totalByteCount);
 	}
 
 	private Flux<TokenBuffer> endOfInput() {
 		this.inputFeeder.endOfInput();
 		try {
-			return parseTokenBufferFlux();
+			List<TokenBuffer> result = new ArrayList<>();
+			TokenBuffer tokenBuffer;
+			while ((tokenBuffer = parseTokenBuffer()) != null) {
+				result.add(tokenBuffer);
+			}
+			return Flux.fromIterable(result);
 		}
 		catch (JsonProcessingException ex) {
 			return Flux.error(new DecodingException("JSON decoding error: " + ex.getOriginalMessage(), ex));
 		}
-		catch (IOException ex) {
+		catch (IOException | DataBufferLimitException ex) {
 			return Flux.error(ex);
 		}
 	}
 
-	private Flux<TokenBuffer> parseTokenBufferFlux() throws IOException {
-		List<TokenBuffer> result = new ArrayList<>();
-
+	/**
+	 * Parse tokens until the next token buffer is complete.
+	 * @return the completed token buffer, or {@code null} if more input is needed
+	 */
+	@Nullable
+	private TokenBuffer parseTokenBuffer() throws IOException {
 		while (true) {
 			JsonToken token = this.parser.nextToken();
 			// SPR-16151: Smile data format uses null to separate documents
 			if (token == JsonToken.NOT_AVAILABLE ||
 					(token == null && (token = this.parser.nextToken()) == null)) {
-				break;
+				checkInMemorySize();
+				return null;
 			}
 			updateDepth(token);
-			if (!this.tokenizeArrayElements) {
-				processTokenNormal(token, result);
+			boolean complete = (!this.tokenizeArrayElements ?
+					processTokenNormal(token) : processTokenArray(token));
+			if (complete) {
+				checkInMemorySize();
+				TokenBuffer result = this.tokenBuffer;
+				this.tokenBuffer = new TokenBuffer(this.parser);
+				this.tokenBufferOffset = getCurrentOffset();
+				return result;
 			}
-			else {
-				processTokenArray(token, result);
+		}
+	}
+
+	private void checkInMemorySize() {
+		if (this.maxInMemorySize >= 0) {
+			if (getCurrentOffset() - this.tokenBufferOffset > this.maxInMemorySize) {
+				throw new DataBufferLimitException(
+						"Exceeded limit on max bytes per JSON object: " + this.maxInMemorySize);
 			}
 		}
-		return Flux.fromIterable(result);
 	}
 
 	private void updateDepth(JsonToken token) {
@@ -135,25 +225,19 @@ class Jackson2Tokenizer {
 		}
 	}
 
-	private void processTokenNormal(JsonToken token, List<TokenBuffer> result) throws IOException {
+	private boolean processTokenNormal(JsonToken token) throws IOException {
 		this.tokenBuffer.copyCurrentEvent(this.parser);
 
-		if ((token.isStructEnd() || token.isScalarValue()) && this.objectDepth == 0 && this.arrayDepth == 0) {
-			result.add(this.tokenBuffer);
-			this.tokenBuffer = new TokenBuffer(this.parser);
-		}
+		return ((token.isStructEnd() || token.isScalarValue()) && this.objectDepth == 0 && this.arrayDepth == 0);
 	}
 
-	private void processTokenArray(JsonToken token, List<TokenBuffer> result) throws IOException {
+	private boolean processTokenArray(JsonToken token) throws IOException {
 		if (!isTopLevelArrayToken(token)) {
 			this.tokenBuffer.copyCurrentEvent(this.parser);
 		}
 
-		if (this.objectDepth == 0 && (this.arrayDepth == 0 || this.arrayDepth == 1) &&
-				(token == JsonToken.END_OBJECT || token.isScalarValue())) {
-			result.add(this.tokenBuffer);
-			this.tokenBuffer = new TokenBuffer(this.parser);
-		}
+		return (this.objectDepth == 0 && (this.arrayDepth == 0 || this.arrayDepth == 1) &&
+				(token == JsonToken.END_OBJECT || token.isScalarValue()));
 	}
 
 	private boolean isTopLevelArrayToken(JsonToken token) {
@@ -173,10 +257,30 @@ class Jackson2Tokenizer {
 	public static Flux<TokenBuffer> tokenize(
 			Flux<DataBuffer> dataBuffers, JsonFactory jsonFactory, boolean tokenizeArrayElements) {
 
+		return tokenize(dataBuffers, jsonFactory, tokenizeArrayElements, -1);
+	}
+
+	/**
+	 * Tokenize the given {@code Flux<DataBuffer>} into {@code Flux<TokenBuffer>}.
+	 * @param dataBuffers the source data buffers
+	 * @param jsonFactory the factory to use
+	 * @param tokenizeArrayElements if {@code true} and the "top level" JSON object is
+	 * an array, each element is returned individually immediately after it is received
+	 * @param maxInMemorySize the maximum number of input bytes a single token buffer
+	 * may span, or -1 for no limit; exceeding it results in a
+	 * {@link DataBufferLimitException}
+	 * @return the resulting token buffers
+	 * @since 5.0.17
+	 */
+	public static Flux<TokenBuffer> tokenize(Flux<DataBuffer> dataBuffers, JsonFactory jsonFactory,
+			boolean tokenizeArrayElements, int maxInMemorySize) {
+
 		try {
 			JsonParser parser = jsonFactory.createNonBlockingByteArrayParser();
-			Jackson2Tokenizer tokenizer = new Jackson2Tokenizer(parser, tokenizeArrayElements);
-			return dataBuffers.flatMap(tokenizer::tokenize, Flux::error, tokenizer::endOfInput);
+			Jackson2Tokenizer tokenizer = new Jackson2Tokenizer(parser, tokenizeArrayElements, maxInMemorySize);
+			// One input buffer at a time: the parser must be done with it before the next is fed
+			return dataBuffers.concatMap(tokenizer::tokenize, 1)
+					.concatWith(Flux.defer(tokenizer::endOfInput));
 		}
 		catch (IOException ex) {
 			return Flux.error(ex);
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.protobuf;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.google.protobuf.Message;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.MimeType;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Base class providing support methods for Protobuf encoding and decoding.
+ *
+ * @author agent
+ * @since 5.0.17
+ */
+public abstract class ProtobufCodecSupport {
+
+	static final List<MimeType> MIME_TYPES = Collections.unmodifiableList(
+			Arrays.asList(
+					new MimeType("application", "x-protobuf"),
+					new MimeType("application", "octet-stream")));
+
+	static final String DELIMITED_KEY = "delimited";
+
+	static final String DELIMITED_VALUE = "true";
+
+
+	private static final Map<Class<?>, Message> defaultInstanceCache = new ConcurrentReferenceHashMap<>();
+
+
+	protected boolean supportsMimeType(@Nullable MimeType mimeType) {
+		return (mimeType == null || MIME_TYPES.stream().anyMatch(m -> m.isCompatibleWith(mimeType)));
+	}
+
+	protected List<MimeType> getMimeTypes() {
+		return MIME_TYPES;
+	}
+
+	/**
+	 * Return the default instance of the given message class, obtained via its
+	 * static {@code getDefaultInstance()} method and cached per class. The
+	 * default instance gives access to the message {@code Parser} and descriptor
+	 * without further reflective calls.
+	 * @param messageClass the message class
+	 * @return the default instance
+	 */
+	protected static Message getDefaultInstance(Class<?> messageClass) {
+		Message instance = defaultInstanceCache.get(messageClass);
+		if (instance == null) {
+			Method method = ReflectionUtils.findMethod(messageClass, "getDefaultInstance");
+			if (method == null) {
+				throw new IllegalStateException("No getDefaultInstance() method on " + messageClass.getName());
+			}
+			instance = (Message) ReflectionUtils.invokeMethod(method, null);
+			if (instance == null) {
+				throw new IllegalStateException("No default instance for " + messageClass.getName());
+			}
+			defaultInstanceCache.put(messageClass, instance);
+		}
+		return instance;
+	}
+
+}
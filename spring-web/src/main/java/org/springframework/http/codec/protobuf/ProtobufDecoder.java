@@ -0,0 +1,306 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.protobuf;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.ExtensionRegistry;
+import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.MimeType;
+
+/**
+ * A {@code Decoder} that reads {@link com.google.protobuf.Message}s using
+ * <a href="https://developers.google.com/protocol-buffers/">Google Protocol Buffers</a>.
+ *
+ * <p>Flux deserialized via
+ * {@link #decode(Publisher, ResolvableType, MimeType, Map)} are expected to use
+ * <a href="https://developers.google.com/protocol-buffers/docs/techniques?hl=en#streaming">
+ * delimited Protobuf messages</a> with the size of each message specified before
+ * the message itself. Single values deserialized via
+ * {@link #decodeToMono(Publisher, ResolvableType, MimeType, Map)} are expected
+ * to use regular Protobuf message format (without the size prepended before the message).
+ *
+ * <p>Messages are parsed with the {@code Parser} of the target message class,
+ * which is looked up once per class rather than reflectively for each message.
+ *
+ * <p>To generate {@code Message} Java classes, you need to install the {@code protoc} binary.
+ *
+ * <p>This decoder requires Protobuf 3 or higher, and supports
+ * {@code "application/x-protobuf"} and {@code "application/octet-stream"} with the official
+ * {@code "com.google.protobuf:protobuf-java"} library.
+ *
+ * @author agent
+ * @since 5.0.17
+ * @see ProtobufEncoder
+ */
+public class ProtobufDecoder extends ProtobufCodecSupport implements Decoder<Message> {
+
+	/** The default max size for aggregating messages: 64 KB */
+	public static final int DEFAULT_MESSAGE_MAX_SIZE = 64 * 1024;
+
+
+	private final ExtensionRegistry extensionRegistry;
+
+	private int maxMessageSize = DEFAULT_MESSAGE_MAX_SIZE;
+
+
+	/**
+	 * Construct a new {@code ProtobufDecoder}.
+	 */
+	public ProtobufDecoder() {
+		this(ExtensionRegistry.newInstance());
+	}
+
+	/**
+	 * Construct a new {@code ProtobufDecoder} with an initializer that allows the
+	 * registration of message extensions.
+	 * @param extensionRegistry a message extension registry
+	 */
+	public ProtobufDecoder(ExtensionRegistry extensionRegistry) {
+		Assert.notNull(extensionRegistry, "ExtensionRegistry must not be null");
+		this.extensionRegistry = extensionRegistry;
+	}
+
+
+	/**
+	 * The max size allowed per message.
+	 * <p>By default this is set to {@link #DEFAULT_MESSAGE_MAX_SIZE}; a value
+	 * of -1 means unlimited. Exceeding it results in a
+	 * {@link DataBufferLimitException}.
+	 */
+	public void setMaxMessageSize(int maxMessageSize) {
+		this.maxMessageSize = maxMessageSize;
+	}
+
+	/**
+	 * Return the {@link #setMaxMessageSize configured} message size limit.
+	 */
+	public int getMaxMessageSize() {
+		return this.maxMessageSize;
+	}
+
+
+	@Override
+	public boolean canDecode(ResolvableType elementType, @Nullable MimeType mimeType) {
+		return (Message.class.isAssignableFrom(elementType.resolve(Object.class)) && supportsMimeType(mimeType));
+	}
+
+	@Override
+	public Flux<Message> decode(Publisher<DataBuffer> inputStream, ResolvableType elementType,
+			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+
+		return Flux.defer(() -> {
+			MessageDecoderFunction decoderFunction = new MessageDecoderFunction(getParser(elementType));
+			return Flux.from(inputStream)
+					.flatMapIterable(decoderFunction)
+					.doOnTerminate(decoderFunction::discard)
+					.doOnCancel(decoderFunction::discard);
+		});
+	}
+
+	@Override
+	public Mono<Message> decodeToMono(Publisher<DataBuffer> inputStream, ResolvableType elementType,
+			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+
+		return DataBufferUtils.join(inputStream).map(dataBuffer -> {
+			try {
+				int size = dataBuffer.readableByteCount();
+				if (this.maxMessageSize >= 0 && size > this.maxMessageSize) {
+					throw new DataBufferLimitException("The number of bytes to read for message " +
+							"(" + size + ") exceeds the configured limit (" + this.maxMessageSize + ")");
+				}
+				return parse(getParser(elementType), dataBuffer, size);
+			}
+			finally {
+				DataBufferUtils.release(dataBuffer);
+			}
+		});
+	}
+
+	@Override
+	public List<MimeType> getDecodableMimeTypes() {
+		return getMimeTypes();
+	}
+
+
+	private static Parser<? extends Message> getParser(ResolvableType elementType) {
+		return getDefaultInstance(elementType.resolve(Object.class)).getParserForType();
+	}
+
+	/**
+	 * Parse a message from the next {@code size} readable bytes of the given
+	 * buffer, without copying them, and advance its read position.
+	 */
+	private Message parse(Parser<? extends Message> parser, DataBuffer dataBuffer, int size) {
+		try {
+			int readPosition = dataBuffer.readPosition();
+			CodedInputStream input = CodedInputStream.newInstance(dataBuffer.asByteBuffer(readPosition, size));
+			Message message = parser.parseFrom(input, this.extensionRegistry);
+			dataBuffer.readPosition(readPosition + size);
+			return message;
+		}
+		catch (IOException ex) {
+			throw new DecodingException("Could not read Protobuf message: " + ex.getMessage(), ex);
+		}
+	}
+
+
+	/**
+	 * Function that splits varint-delimited messages out of a stream of data
+	 * buffers. Messages contained in a single input buffer are parsed in place;
+	 * only messages spanning input buffers are aggregated.
+	 */
+	private class MessageDecoderFunction implements Function<DataBuffer, Iterable<? extends Message>> {
+
+		private final Parser<? extends Message> parser;
+
+		@Nullable
+		private DataBuffer output;
+
+		private int messageBytesToRead;
+
+		private int offset;
+
+		public MessageDecoderFunction(Parser<? extends Message> parser) {
+			this.parser = parser;
+		}
+
+		@Override
+		public Iterable<? extends Message> apply(DataBuffer input) {
+			try {
+				List<Message> messages = new ArrayList<>();
+				while (input.readableByteCount() > 0) {
+					if (this.output == null) {
+						if (!readMessageSize(input)) {
+							break;
+						}
+						if (this.messageBytesToRead < 0) {
+							throw new DecodingException("Cannot parse message size: negative size");
+						}
+						if (maxMessageSize >= 0 && this.messageBytesToRead > maxMessageSize) {
+							throw new DataBufferLimitException("The number of bytes to read for message " +
+									"(" + this.messageBytesToRead + ") exceeds the configured limit " +
+									"(" + maxMessageSize + ")");
+						}
+						if (this.messageBytesToRead <= input.readableByteCount()) {
+							messages.add(parse(this.parser, input, this.messageBytesToRead));
+							continue;
+						}
+						this.output = input.factory().allocateBuffer(this.messageBytesToRead);
+					}
+					int chunkBytesToRead = Math.min(this.messageBytesToRead, input.readableByteCount());
+					int readPosition = input.readPosition();
+					this.output.write(input.asByteBuffer(readPosition, chunkBytesToRead));
+					input.readPosition(readPosition + chunkBytesToRead);
+					this.messageBytesToRead -= chunkBytesToRead;
+					if (this.messageBytesToRead == 0) {
+						DataBuffer output = this.output;
+						this.output = null;
+						try {
+							messages.add(parse(this.parser, output, output.readableByteCount()));
+						}
+						finally {
+							DataBufferUtils.release(output);
+						}
+					}
+				}
+				return messages;
+			}
+			finally {
+				DataBufferUtils.release(input);
+			}
+		}
+
+		/**
+		 * Parse message size as a varint from the input stream, updating
+		 * {@code messageBytesToRead} and {@code offset} fields if needed to allow
+		 * processing of upcoming chunks. Inspired from
+		 * {@link CodedInputStream#readRawVarint32(int, java.io.InputStream)}.
+		 * @return {@code true} when the message size is parsed successfully,
+		 * {@code false} when the message size is truncated
+		 * @see <a href="https://developers.google.com/protocol-buffers/docs/encoding#varints">Base 128 Varints</a>
+		 */
+		private boolean readMessageSize(DataBuffer input) {
+			if (this.offset == 0) {
+				if (input.readableByteCount() == 0) {
+					return false;
+				}
+				int firstByte = input.read();
+				if ((firstByte & 0x80) == 0) {
+					this.messageBytesToRead = firstByte;
+					return true;
+				}
+				this.messageBytesToRead = firstByte & 0x7f;
+				this.offset = 7;
+			}
+
+			if (this.offset < 32) {
+				for (; this.offset < 32; this.offset += 7) {
+					if (input.readableByteCount() == 0) {
+						return false;
+					}
+					int b = input.read();
+					this.messageBytesToRead |= (b & 0x7f) << this.offset;
+					if ((b & 0x80) == 0) {
+						this.offset = 0;
+						return true;
+					}
+				}
+			}
+			// Keep reading up to 64 bits.
+			for (; this.offset < 64; this.offset += 7) {
+				if (input.readableByteCount() == 0) {
+					return false;
+				}
+				int b = input.read();
+				if ((b & 0x80) == 0) {
+					this.offset = 0;
+					return true;
+				}
+			}
+			this.offset = 0;
+			throw new DecodingException("Cannot parse message size: malformed varint");
+		}
+
+		public void discard() {
+			DataBuffer output = this.output;
+			if (output != null) {
+				this.output = null;
+				DataBufferUtils.release(output);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.protobuf;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.Message;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@code HttpMessageWriter} that can write a protobuf {@link Message} and adds
+ * {@code X-Protobuf-Schema}, {@code X-Protobuf-Message} headers and a
+ * {@code delimited=true} parameter is added to the content type if a flux is serialized.
+ *
+ * <p>For {@code HttpMessageReader}, just use
+ * {@code new DecoderHttpMessageReader(new ProtobufDecoder())}.
+ *
+ * @author agent
+ * @since 5.0.17
+ * @see ProtobufEncoder
+ */
+public class ProtobufHttpMessageWriter extends EncoderHttpMessageWriter<Message> {
+
+	private static final String X_PROTOBUF_SCHEMA_HEADER = "X-Protobuf-Schema";
+
+	private static final String X_PROTOBUF_MESSAGE_HEADER = "X-Protobuf-Message";
+
+
+	/**
+	 * Create a new {@code ProtobufHttpMessageWriter} with a default {@link ProtobufEncoder}.
+	 */
+	public ProtobufHttpMessageWriter() {
+		super(new ProtobufEncoder());
+	}
+
+	/**
+	 * Create a new {@code ProtobufHttpMessageWriter} with the given encoder.
+	 * @param encoder the Protobuf message encoder to use
+	 */
+	public ProtobufHttpMessageWriter(Encoder<Message> encoder) {
+		super(encoder);
+	}
+
+
+	@Override
+	public Mono<Void> write(Publisher<? extends Message> inputStream, ResolvableType elementType,
+			@Nullable MediaType mediaType, ReactiveHttpOutputMessage message, Map<String, Object> hints) {
+
+		try {
+			Descriptors.Descriptor descriptor =
+					ProtobufCodecSupport.getDefaultInstance(elementType.resolve(Object.class)).getDescriptorForType();
+			HttpHeaders headers = message.getHeaders();
+			headers.set(X_PROTOBUF_SCHEMA_HEADER, descriptor.getFile().getName());
+			headers.set(X_PROTOBUF_MESSAGE_HEADER, descriptor.getFullName());
+			if (!(inputStream instanceof Mono)) {
+				MediaType contentType = headers.getContentType();
+				if (contentType == null) {
+					contentType = (mediaType != null && mediaType.isConcrete() &&
+							!mediaType.equals(MediaType.APPLICATION_OCTET_STREAM) ? mediaType :
+							MediaType.asMediaType(ProtobufCodecSupport.MIME_TYPES.get(0)));
+				}
+				Map<String, String> parameters = new HashMap<>(contentType.getParameters());
+				parameters.put(ProtobufCodecSupport.DELIMITED_KEY, ProtobufCodecSupport.DELIMITED_VALUE);
+				headers.setContentType(new MediaType(contentType.getType(), contentType.getSubtype(), parameters));
+			}
+			return super.write(inputStream, elementType, mediaType, message, hints);
+		}
+		catch (Exception ex) {
+			return Mono.error(new IllegalStateException("Could not write Protobuf message: " + ex.getMessage(), ex));
+		}
+	}
+
+}
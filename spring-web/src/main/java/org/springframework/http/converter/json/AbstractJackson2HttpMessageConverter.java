@@ -33,6 +33,7 @@ import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationConfig;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -80,6 +81,9 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 	@Nullable
 	private PrettyPrinter ssePrettyPrinter;
 
+	private final Jackson2ObjectReaderWriterCache readerWriterCache =
+			new Jackson2ObjectReaderWriterCache(this::getObjectMapper, this::getJavaType);
+
 
 	protected AbstractJackson2HttpMessageConverter(ObjectMapper objectMapper) {
 		this.objectMapper = objectMapper;
@@ -213,28 +217,27 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 	protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage)
 			throws IOException, HttpMessageNotReadableException {
 
-		JavaType javaType = getJavaType(clazz, null);
-		return readJavaType(javaType, inputMessage);
+		return readJavaType(clazz, null, inputMessage);
 	}
 
 	@Override
 	public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage)
 			throws IOException, HttpMessageNotReadableException {
 
-		JavaType javaType = getJavaType(type, contextClass);
-		return readJavaType(javaType, inputMessage);
+		return readJavaType(type, contextClass, inputMessage);
 	}
 
-	private Object readJavaType(JavaType javaType, HttpInputMessage inputMessage) throws IOException {
+	private Object readJavaType(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage)
+			throws IOException {
+
 		try {
+			Class<?> deserializationView = null;
 			if (inputMessage instanceof MappingJacksonInputMessage) {
-				Class<?> deserializationView = ((MappingJacksonInputMessage) inputMessage).getDeserializationView();
-				if (deserializationView != null) {
-					return this.objectMapper.readerWithView(deserializationView).forType(javaType).
-							readValue(inputMessage.getBody());
-				}
+				deserializationView = ((MappingJacksonInputMessage) inputMessage).getDeserializationView();
 			}
-			return this.objectMapper.readValue(inputMessage.getBody(), javaType);
+			ObjectReader objectReader =
+					this.readerWriterCache.getObjectReader(type, contextClass, deserializationView);
+			return objectReader.readValue(inputMessage.getBody());
 		}
 		catch (InvalidDefinitionException ex) {
 			throw new HttpMessageConversionException("Type definition error: " + ex.getType(), ex);
@@ -257,7 +260,7 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 			Object value = object;
 			Class<?> serializationView = null;
 			FilterProvider filters = null;
-			JavaType javaType = null;
+			Type valueType = null;
 
 			if (object instanceof MappingJacksonValue) {
 				MappingJacksonValue container = (MappingJacksonValue) object;
@@ -266,17 +269,13 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 				filters = container.getFilters();
 			}
 			if (type != null && TypeUtils.isAssignable(type, value.getClass())) {
-				javaType = getJavaType(type, null);
+				valueType = type;
 			}
 
-			ObjectWriter objectWriter = (serializationView != null ?
-					this.objectMapper.writerWithView(serializationView) : this.objectMapper.writer());
+			ObjectWriter objectWriter = this.readerWriterCache.getObjectWriter(valueType, null, serializationView);
 			if (filters != null) {
 				objectWriter = objectWriter.with(filters);
 			}
-			if (javaType != null && javaType.isContainerType()) {
-				objectWriter = objectWriter.forType(javaType);
-			}
 			SerializationConfig config = objectWriter.getConfig();
 			if (contentType != null && contentType.isCompatibleWith(MediaType.TEXT_EVENT_STREAM) &&
 					config.isEnabled(SerializationFeature.INDENT_OUTPUT)) {
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.converter.json;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Bounded cache of ready-to-use Jackson {@link ObjectReader} and
+ * {@link ObjectWriter} instances per target type, context class and JSON view,
+ * avoiding type resolution and reader/writer construction on every read or
+ * write. Used by {@link AbstractJackson2HttpMessageConverter} as well as by the
+ * reactive Jackson codecs.
+ *
+ * <p>Cached instances are tied to the configuration of the {@code ObjectMapper}
+ * at the time they were created, and are transparently re-created if the
+ * {@code ObjectMapper} or its configuration changes afterwards. Once the cache
+ * limit is reached, the least recently used instances are evicted.
+ *
+ * @author agent
+ * @since 5.0.17
+ */
+public class Jackson2ObjectReaderWriterCache {
+
+	/** Default maximum number of cached readers, and of cached writers: 256 */
+	public static final int DEFAULT_CACHE_LIMIT = 256;
+
+
+	private final Supplier<ObjectMapper> objectMapperSupplier;
+
+	private final BiFunction<Type, Class<?>, JavaType> javaTypeResolver;
+
+	private final LruCache<ObjectReader> readerCache;
+
+	private final LruCache<ObjectWriter> writerCache;
+
+
+	/**
+	 * Create a new cache with the {@link #DEFAULT_CACHE_LIMIT default cache limit}.
+	 * @param objectMapperSupplier supplier for the current {@code ObjectMapper}
+	 * @param javaTypeResolver function to resolve a type against a context class
+	 * (which may be {@code null}) into a Jackson {@link JavaType}
+	 */
+	public Jackson2ObjectReaderWriterCache(Supplier<ObjectMapper> objectMapperSupplier,
+			BiFunction<Type, Class<?>, JavaType> javaTypeResolver) {
+
+		this(objectMapperSupplier, javaTypeResolver, DEFAULT_CACHE_LIMIT);
+	}
+
+	/**
+	 * Create a new cache with the given cache limit.
+	 * @param objectMapperSupplier supplier for the current {@code ObjectMapper}
+	 * @param javaTypeResolver function to resolve a type against a context class
+	 * (which may be {@code null}) into a Jackson {@link JavaType}
+	 * @param cacheLimit the maximum number of cached readers, and of cached
+	 * writers; once reached, the least recently used instances are evicted
+	 */
+	public Jackson2ObjectReaderWriterCache(Supplier<ObjectMapper> objectMapperSupplier,
+			BiFunction<Type, Class<?>, JavaType> javaTypeResolver, int cacheLimit) {
+
+		Assert.notNull(objectMapperSupplier, "ObjectMapper supplier must not be null");
+		Assert.notNull(javaTypeResolver, "JavaType resolver must not be null");
+		this.objectMapperSupplier = objectMapperSupplier;
+		this.javaTypeResolver = javaTypeResolver;
+		this.readerCache = new LruCache<>(cacheLimit);
+		this.writerCache = new LruCache<>(cacheLimit);
+	}
+
+
+	/**
+	 * Return an {@code ObjectReader} for the given type.
+	 * @param type the target type
+	 * @param contextClass a context class for the target type (can be {@code null})
+	 * @param jsonView the JSON view to read with (can be {@code null})
+	 * @return the reader to use
+	 */
+	public ObjectReader getObjectReader(Type type, @Nullable Class<?> contextClass, @Nullable Class<?> jsonView) {
+		ObjectMapper objectMapper = this.objectMapperSupplier.get();
+		MapperConfig<?> config = objectMapper.getDeserializationConfig();
+		CacheKey key = new CacheKey(type, contextClass, jsonView);
+		CacheEntry<ObjectReader> entry = this.readerCache.get(key);
+		if (entry != null && entry.config == config) {
+			return entry.value;
+		}
+		JavaType javaType = this.javaTypeResolver.apply(type, contextClass);
+		ObjectReader reader = (jsonView != null ?
+				objectMapper.readerWithView(jsonView).forType(javaType) : objectMapper.readerFor(javaType));
+		this.readerCache.put(key, new CacheEntry<>(reader, config));
+		return reader;
+	}
+
+	/**
+	 * Return an {@code ObjectWriter} for the given type. The writer is only
+	 * bound to the type if it is a container type.
+	 * @param type the declared type of the value, or {@code null} to write
+	 * based on the runtime type of the value
+	 * @param contextClass a context class for the type (can be {@code null})
+	 * @param jsonView the JSON view to write with (can be {@code null})
+	 * @return the writer to use
+	 */
+	public ObjectWriter getObjectWriter(@Nullable Type type, @Nullable Class<?> contextClass,
+			@Nullable Class<?> jsonView) {
+
+		ObjectMapper objectMapper = this.objectMapperSupplier.get();
+		MapperConfig<?> config = objectMapper.getSerializationConfig();
+		CacheKey key = new CacheKey(type, contextClass, jsonView);
+		CacheEntry<ObjectWriter> entry = this.writerCache.get(key);
+		if (entry != null && entry.config == config) {
+			return entry.value;
+		}
+		ObjectWriter writer = (jsonView != null ? objectMapper.writerWithView(jsonView) : objectMapper.writer());
+		if (type != null) {
+			JavaType javaType = this.javaTypeResolver.apply(type, contextClass);
+			if (javaType.isContainerType()) {
+				writer = writer.forType(javaType);
+			}
+		}
+		this.writerCache.put(key, new CacheEntry<>(writer, config));
+		return writer;
+	}
+
+	/**
+	 * Remove all cached readers and writers.
+	 */
+	public void clear() {
+		this.readerCache.clear();
+		this.writerCache.clear();
+	}
+
+
+	private static final class CacheKey {
+
+		@Nullable
+		private final Type type;
+
+		@Nullable
+		private final Class<?> contextClass;
+
+		@Nullable
+		private final Class<?> jsonView;
+
+		CacheKey(@Nullable Type type, @Nullable Class<?> contextClass, @Nullable Class<?> jsonView) {
+			this.type = type;
+			this.contextClass = contextClass;
+			this.jsonView = jsonView;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey otherKey = (CacheKey) other;
+			return (ObjectUtils.nullSafeEquals(this.type, otherKey.type) &&
+					this.contextClass == otherKey.contextClass && this.jsonView == otherKey.jsonView);
+		}
+
+		@Override
+		public int hashCode() {
+			return (ObjectUtils.nullSafeHashCode(this.type) * 31 +
+					ObjectUtils.nullSafeHashCode(this.contextClass)) * 31 +
+					ObjectUtils.nullSafeHashCode(this.jsonView);
+		}
+	}
+
+
+	/**
+	 * Concurrent map of cache entries, bounded by evicting the least recently
+	 * used entries. Access order is only tracked once the cache is half full.
+	 */
+	private static final class LruCache<T> {
+
+		private final int sizeLimit;
+
+		private final Map<CacheKey, CacheEntry<T>> cache = new ConcurrentHashMap<>(64);
+
+		private final Queue<CacheKey> queue = new ConcurrentLinkedQueue<>();
+
+		private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+		LruCache(int sizeLimit) {
+			this.sizeLimit = sizeLimit;
+		}
+
+		@Nullable
+		CacheEntry<T> get(CacheKey key) {
+			CacheEntry<T> entry = this.cache.get(key);
+			if (entry != null && this.cache.size() >= this.sizeLimit / 2) {
+				this.lock.readLock().lock();
+				try {
+					if (this.queue.remove(key)) {
+						this.queue.add(key);
+					}
+				}
+				finally {
+					this.lock.readLock().unlock();
+				}
+			}
+			return entry;
+		}
+
+		void put(CacheKey key, CacheEntry<T> entry) {
+			if (this.sizeLimit <= 0) {
+				return;
+			}
+			this.lock.writeLock().lock();
+			try {
+				if (this.cache.put(key, entry) != null) {
+					this.queue.remove(key);
+				}
+				this.queue.add(key);
+				while (this.queue.size() > this.sizeLimit) {
+					CacheKey leastUsed = this.queue.poll();
+					if (leastUsed != null) {
+						this.cache.remove(leastUsed);
+					}
+				}
+			}
+			finally {
+				this.lock.writeLock().unlock();
+			}
+		}
+
+		void clear() {
+			this.lock.writeLock().lock();
+			try {
+				this.cache.clear();
+				this.queue.clear();
+			}
+			finally {
+				this.lock.writeLock().unlock();
+			}
+		}
+	}
+
+
+	private static final class CacheEntry<T> {
+
+		private final T value;
+
+		private final MapperConfig<?> config;
+
+		CacheEntry(T value, MapperConfig<?> config) {
+			this.value = value;
+			this.config = config;
+		}
+	}
+
+}
@@ -108,6 +108,14 @@ public class ServletHttpHandlerAdapter implements Servlet {
 		return this.servletPath;
 	}
 
+	/**
+	 * Set the factory to use for request body buffers as well as for the
+	 * buffers that encoders allocate for the response body.
+	 * <p>By default this is a non-pooling {@link DefaultDataBufferFactory}.
+	 * Consider a {@link org.springframework.core.io.buffer.PooledDataBufferFactory
+	 * PooledDataBufferFactory} to recycle buffers under streaming load.
+	 * @since 5.0.17
+	 */
 	public void setDataBufferFactory(DataBufferFactory dataBufferFactory) {
 		Assert.notNull(dataBufferFactory, "DataBufferFactory must not be null");
 		this.dataBufferFactory = dataBufferFactory;
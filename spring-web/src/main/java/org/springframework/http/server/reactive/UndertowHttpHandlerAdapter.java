@@ -54,6 +54,14 @@ public class UndertowHttpHandlerAdapter implements io.undertow.server.HttpHandle
 	}
 
 
+	/**
+	 * Set the factory to use for the buffers that encoders allocate for the
+	 * response body. Request body buffers are taken from Undertow's own pool.
+	 * <p>By default this is a non-pooling {@link DefaultDataBufferFactory}.
+	 * Consider a {@link org.springframework.core.io.buffer.PooledDataBufferFactory
+	 * PooledDataBufferFactory} to recycle buffers under streaming load.
+	 * @since 5.0.17
+	 */
 	public void setDataBufferFactory(DataBufferFactory bufferFactory) {
 		Assert.notNull(bufferFactory, "DataBufferFactory must not be null");
 		this.bufferFactory = bufferFactory;
@@ -25,15 +25,20 @@ import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.core.MethodClassKey;
 import org.springframework.core.MethodParameter;
 import org.springframework.lang.Nullable;
 import org.springframework.web.bind.support.WebDataBinderFactory;
 import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.HandlerMethod;
 
 /**
  * Resolves method parameters by delegating to a list of registered
  * {@link HandlerMethodArgumentResolver HandlerMethodArgumentResolvers}.
- * Previously resolved method parameters are cached for faster lookups.
+ * Previously resolved method parameters are cached for faster lookups, as are
+ * the resolvers for all parameters of a {@link HandlerMethod}, so that an
+ * {@link InvocableHandlerMethod} can resolve its arguments without looking up
+ * each parameter on every invocation.
  *
  * @author Rossen Stoyanchev
  * @author Juergen Hoeller
@@ -49,12 +54,16 @@ public class HandlerMethodArgumentResolverComposite implements HandlerMethodArgu
 	private final Map<MethodParameter, HandlerMethodArgumentResolver> argumentResolverCache =
 			new ConcurrentHashMap<>(256);
 
+	private final Map<MethodClassKey, HandlerMethodArgumentResolver[]> handlerMethodResolverCache =
+			new ConcurrentHashMap<>(256);
+
 
 	/**
 	 * Add the given {@link HandlerMethodArgumentResolver}.
 	 */
 	public HandlerMethodArgumentResolverComposite addResolver(HandlerMethodArgumentResolver resolver) {
 		this.argumentResolvers.add(resolver);
+		this.handlerMethodResolverCache.clear();
 		return this;
 	}
 
@@ -67,6 +76,7 @@ public class HandlerMethodArgumentResolverComposite implements HandlerMethodArgu
 
 		if (resolvers != null) {
 			Collections.addAll(this.argumentResolvers, resolvers);
+			this.handlerMethodResolverCache.clear();
 		}
 		return this;
 	}
@@ -79,6 +89,7 @@ public class HandlerMethodArgumentResolverComposite implements HandlerMethodArgu
 
 		if (resolvers != null) {
 			this.argumentResolvers.addAll(resolvers);
+			this.handlerMethodResolverCache.clear();
 		}
 		return this;
 	}
@@ -96,6 +107,7 @@ public class HandlerMethodArgumentResolverComposite implements HandlerMethodArgu
 	 */
 	public void clear() {
 		this.argumentResolvers.clear();
+		this.handlerMethodResolverCache.clear();
 	}
 
 
@@ -127,6 +139,28 @@ public class HandlerMethodArgumentResolverComposite implements HandlerMethodArgu
 		return resolver.resolveArgument(parameter, mavContainer, webRequest, binderFactory);
 	}
 
+	/**
+	 * Return the resolvers for the parameters of the given handler method, in
+	 * the order of its {@link HandlerMethod#getMethodParameters() parameters},
+	 * with {@code null} for parameters not supported by any registered resolver.
+	 * <p>The resolvers are determined once per method and bean type, and the
+	 * returned array is shared and must not be modified.
+	 * @param handlerMethod the handler method to resolve arguments for
+	 */
+	HandlerMethodArgumentResolver[] getArgumentResolvers(HandlerMethod handlerMethod) {
+		MethodClassKey cacheKey = new MethodClassKey(handlerMethod.getMethod(), handlerMethod.getBeanType());
+		HandlerMethodArgumentResolver[] resolvers = this.handlerMethodResolverCache.get(cacheKey);
+		if (resolvers == null) {
+			MethodParameter[] parameters = handlerMethod.getMethodParameters();
+			resolvers = new HandlerMethodArgumentResolver[parameters.length];
+			for (int i = 0; i < parameters.length; i++) {
+				resolvers[i] = getArgumentResolver(parameters[i]);
+			}
+			this.handlerMethodResolverCache.put(cacheKey, resolvers);
+		}
+		return resolvers;
+	}
+
 	/**
 	 * Find a registered {@link HandlerMethodArgumentResolver} that supports
 	 * the given method parameter.
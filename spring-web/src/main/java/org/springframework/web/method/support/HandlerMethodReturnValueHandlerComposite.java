@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,9 +16,12 @@
 
 package org.springframework.web.method.support;
 
+import java.lang.reflect.Executable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -40,6 +43,9 @@ public class HandlerMethodReturnValueHandlerComposite implements HandlerMethodRe
 
 	private final List<HandlerMethodReturnValueHandler> returnValueHandlers = new ArrayList<>();
 
+	private final Map<ReturnTypeKey, HandlerMethodReturnValueHandler> returnValueHandlerCache =
+			new ConcurrentHashMap<>(256);
+
 
 	/**
 	 * Return a read-only list with the registered handlers, or an empty list.
@@ -54,17 +60,32 @@ public class HandlerMethodReturnValueHandlerComposite implements HandlerMethodRe
 	 */
 	@Override
 	public boolean supportsReturnType(MethodParameter returnType) {
-		return getReturnValueHandler(returnType) != null;
+		return getReturnValueHandler(returnType, false) != null;
 	}
 
+	/**
+	 * Find the first registered handler that supports the given return type,
+	 * optionally considering async handlers only. The result is cached per
+	 * return type, also taking into account the actual type of the return
+	 * value, if exposed through {@link MethodParameter#getParameterType()}.
+	 */
 	@Nullable
-	private HandlerMethodReturnValueHandler getReturnValueHandler(MethodParameter returnType) {
-		for (HandlerMethodReturnValueHandler handler : this.returnValueHandlers) {
-			if (handler.supportsReturnType(returnType)) {
-				return handler;
+	private HandlerMethodReturnValueHandler getReturnValueHandler(MethodParameter returnType, boolean asyncOnly) {
+		ReturnTypeKey cacheKey = new ReturnTypeKey(returnType, asyncOnly);
+		HandlerMethodReturnValueHandler result = this.returnValueHandlerCache.get(cacheKey);
+		if (result == null) {
+			for (HandlerMethodReturnValueHandler handler : this.returnValueHandlers) {
+				if (asyncOnly && !(handler instanceof AsyncHandlerMethodReturnValueHandler)) {
+					continue;
+				}
+				if (handler.supportsReturnType(returnType)) {
+					result = handler;
+					this.returnValueHandlerCache.put(cacheKey, result);
+					break;
+				}
 			}
 		}
-		return null;
+		return result;
 	}
 
 	/**
@@ -85,15 +106,7 @@ public class HandlerMethodReturnValueHandlerComposite implements HandlerMethodRe
 	@Nullable
 	private HandlerMethodReturnValueHandler selectHandler(@Nullable Object value, MethodParameter returnType) {
 		boolean isAsyncValue = isAsyncReturnValue(value, returnType);
-		for (HandlerMethodReturnValueHandler handler : this.returnValueHandlers) {
-			if (isAsyncValue && !(handler instanceof AsyncHandlerMethodReturnValueHandler)) {
-				continue;
-			}
-			if (handler.supportsReturnType(returnType)) {
-				return handler;
-			}
-		}
-		return null;
+		return getReturnValueHandler(returnType, isAsyncValue);
 	}
 
 	private boolean isAsyncReturnValue(@Nullable Object value, MethodParameter returnType) {
@@ -111,6 +124,7 @@ public class HandlerMethodReturnValueHandlerComposite implements HandlerMethodRe
 	 */
 	public HandlerMethodReturnValueHandlerComposite addHandler(HandlerMethodReturnValueHandler handler) {
 		this.returnValueHandlers.add(handler);
+		this.returnValueHandlerCache.clear();
 		return this;
 	}
 
@@ -122,8 +136,67 @@ public class HandlerMethodReturnValueHandlerComposite implements HandlerMethodRe
 
 		if (handlers != null) {
 			this.returnValueHandlers.addAll(handlers);
+			this.returnValueHandlerCache.clear();
 		}
 		return this;
 	}
 
+
+	/**
+	 * Cache key for a return type along with the type of the actual return
+	 * value, if exposed through {@link MethodParameter#getParameterType()}.
+	 * Does not hold on to the given {@code MethodParameter}, which may in turn
+	 * hold on to the return value, but takes its implementation class into
+	 * account since subclasses may expose different type information.
+	 */
+	private static final class ReturnTypeKey {
+
+		private final Executable executable;
+
+		private final int parameterIndex;
+
+		private final int nestingLevel;
+
+		private final Class<?> containingClass;
+
+		private final Class<?> parameterType;
+
+		private final Class<?> methodParameterClass;
+
+		private final boolean asyncOnly;
+
+		public ReturnTypeKey(MethodParameter returnType, boolean asyncOnly) {
+			this.executable = returnType.getExecutable();
+			this.parameterIndex = returnType.getParameterIndex();
+			this.nestingLevel = returnType.getNestingLevel();
+			this.containingClass = returnType.getContainingClass();
+			this.parameterType = returnType.getParameterType();
+			this.methodParameterClass = returnType.getClass();
+			this.asyncOnly = asyncOnly;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof ReturnTypeKey)) {
+				return false;
+			}
+			ReturnTypeKey otherKey = (ReturnTypeKey) other;
+			return (this.parameterType == otherKey.parameterType && this.asyncOnly == otherKey.asyncOnly &&
+					this.methodParameterClass == otherKey.methodParameterClass &&
+					this.containingClass == otherKey.containingClass &&
+					this.parameterIndex == otherKey.parameterIndex &&
+					this.nestingLevel == otherKey.nestingLevel &&
+					this.executable.equals(otherKey.executable));
+		}
+
+		@Override
+		public int hashCode() {
+			return ((this.executable.hashCode() * 31 + this.parameterType.hashCode()) * 31 +
+					(this.asyncOnly ? 1 : 0));
+		}
+	}
+
 }
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * Prefix tree over the segments of URL path patterns, used to narrow down the
+ * values (e.g. request mappings) whose patterns may match a given lookup path
+ * by walking the path once, rather than evaluating every registered pattern.
+ *
+ * <p>Patterns may use either {@link org.springframework.util.AntPathMatcher}
+ * or {@link org.springframework.web.util.pattern.PathPattern} syntax. Each
+ * segment is indexed as a literal, as a single-segment wildcard (e.g.
+ * {@code *}, {@code {id}}, {@code foo*}), or as the start of a catch-all
+ * (e.g. {@code **}, {@code {*path}}) which ends the indexed part of the pattern.
+ *
+ * <p>The index is conservative: the returned candidates are a superset of the
+ * values whose patterns actually match, and still need to be checked against
+ * the path with the actual matcher. Literal segments are compared
+ * case-insensitively and ignoring surrounding whitespace, empty segments are
+ * ignored (allowing for trailing slash matching), and a final literal segment
+ * also matches path segments with a file extension (allowing for suffix
+ * pattern matching).
+ *
+ * <p>This class is not thread-safe and requires external synchronization if
+ * modified concurrently with lookups.
+ *
+ * @author agent
+ * @since 5.0.17
+ * @param <T> the type of values registered against the patterns
+ */
+public class PathPatternIndex<T> {
+
+	private final Node<T> root = new Node<>();
+
+	private final List<T> unindexedValues = new ArrayList<>();
+
+	private final Map<T, List<List<T>>> registrations = new HashMap<>();
+
+
+	/**
+	 * Register a value under the given pattern. A value may be registered
+	 * under any number of patterns.
+	 * @param pattern the URL path pattern
+	 * @param value the value to return as candidate for paths that may match
+	 */
+	public void add(String pattern, T value) {
+		Node<T> node = this.root;
+		for (String segment : StringUtils.tokenizeToStringArray(pattern, "/")) {
+			if (isCatchAll(segment)) {
+				register(node.getPrefixValues(), value);
+				return;
+			}
+			node = (isWildcard(segment) ? node.getWildcardChild() : node.getLiteralChild(fold(segment)));
+		}
+		register(node.getExactValues(), value);
+	}
+
+	/**
+	 * Register a value to return as candidate for every path, e.g. for a
+	 * mapping without URL patterns.
+	 * @param value the value to register
+	 */
+	public void addUnindexed(T value) {
+		register(this.unindexedValues, value);
+	}
+
+	private void register(List<T> values, T value) {
+		values.add(value);
+		this.registrations.computeIfAbsent(value, key -> new ArrayList<>(1)).add(values);
+	}
+
+	/**
+	 * Remove all registrations of the given value.
+	 * @param value the value to remove
+	 */
+	public void remove(T value) {
+		List<List<T>> lists = this.registrations.remove(value);
+		if (lists != null) {
+			for (List<T> values : lists) {
+				values.remove(value);
+			}
+		}
+	}
+
+	/**
+	 * Return the values whose patterns may match the given path.
+	 * @param lookupPath the path to match, e.g. a decoded lookup path
+	 * @return the candidate values, never {@code null}
+	 */
+	public Collection<T> getCandidates(String lookupPath) {
+		return getCandidates(Arrays.asList(StringUtils.tokenizeToStringArray(lookupPath, "/")));
+	}
+
+	/**
+	 * Return the values whose patterns may match the given path, comparing
+	 * the {@link PathContainer.PathSegment#valueToMatch() values to match}
+	 * of its path segments.
+	 * @param path the path to match
+	 * @return the candidate values, never {@code null}
+	 */
+	public Collection<T> getCandidates(PathContainer path) {
+		List<String> segments = new ArrayList<>();
+		for (PathContainer.Element element : path.elements()) {
+			if (element instanceof PathContainer.PathSegment) {
+				segments.add(((PathContainer.PathSegment) element).valueToMatch());
+			}
+		}
+		return getCandidates(segments);
+	}
+
+	private Collection<T> getCandidates(List<String> segments) {
+		Set<T> candidates = new LinkedHashSet<>(this.unindexedValues);
+		List<String> folded = new ArrayList<>(segments.size());
+		for (String segment : segments) {
+			segment = fold(segment);
+			if (!segment.isEmpty()) {
+				folded.add(segment);
+			}
+		}
+		collect(this.root, folded, 0, candidates);
+		return candidates;
+	}
+
+	private void collect(Node<T> node, List<String> segments, int index, Set<T> candidates) {
+		candidates.addAll(node.prefixValues);
+		if (index == segments.size()) {
+			candidates.addAll(node.exactValues);
+			if (node.wildcardChild != null) {
+				// AntPathMatcher: "/a/*" also matches "/a/"
+				candidates.addAll(node.wildcardChild.exactValues);
+			}
+			return;
+		}
+		String segment = segments.get(index);
+		Node<T> literalChild = node.literalChildren.get(segment);
+		if (literalChild != null) {
+			collect(literalChild, segments, index + 1, candidates);
+		}
+		if (index == segments.size() - 1) {
+			// Suffix pattern match: "/a/b" also matches "/a/b.json"
+			int dotIndex = segment.indexOf('.');
+			while (dotIndex > 0) {
+				literalChild = node.literalChildren.get(segment.substring(0, dotIndex));
+				if (literalChild != null) {
+					collect(literalChild, segments, index + 1, candidates);
+				}
+				dotIndex = segment.indexOf('.', dotIndex + 1);
+			}
+		}
+		if (node.wildcardChild != null) {
+			collect(node.wildcardChild, segments, index + 1, candidates);
+		}
+	}
+
+	/**
+	 * Remove all registrations.
+	 */
+	public void clear() {
+		this.root.clear();
+		this.unindexedValues.clear();
+		this.registrations.clear();
+	}
+
+
+	private static boolean isCatchAll(String segment) {
+		if (segment.contains("**") || segment.startsWith("{*")) {
+			return true;
+		}
+		// A variable spanning segments, e.g. with a regex containing '/'
+		int depth = 0;
+		for (int i = 0; i < segment.length(); i++) {
+			char c = segment.charAt(i);
+			if (c == '{') {
+				depth++;
+			}
+			else if (c == '}') {
+				depth--;
+			}
+		}
+		return (depth != 0);
+	}
+
+	private static boolean isWildcard(String segment) {
+		for (int i = 0; i < segment.length(); i++) {
+			char c = segment.charAt(i);
+			if (c == '*' || c == '?' || c == '{' || c == '}') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Fold the given segment into a key for case-insensitive comparison, as
+	 * {@link String#equalsIgnoreCase} does, without allocating if unchanged.
+	 */
+	private static String fold(String segment) {
+		String trimmed = segment.trim();
+		for (int i = 0; i < trimmed.length(); i++) {
+			char c = trimmed.charAt(i);
+			if (fold(c) != c) {
+				char[] chars = trimmed.toCharArray();
+				for (int j = i; j < chars.length; j++) {
+					chars[j] = fold(chars[j]);
+				}
+				return new String(chars);
+			}
+		}
+		return trimmed;
+	}
+
+	private static char fold(char c) {
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+
+
+	private static class Node<T> {
+
+		private Map<String, Node<T>> literalChildren = Collections.emptyMap();
+
+		@Nullable
+		private Node<T> wildcardChild;
+
+		private List<T> exactValues = Collections.emptyList();
+
+		private List<T> prefixValues = Collections.emptyList();
+
+		public Node<T> getLiteralChild(String segment) {
+			if (this.literalChildren.isEmpty()) {
+				this.literalChildren = new HashMap<>(4);
+			}
+			return this.literalChildren.computeIfAbsent(segment, key -> new Node<>());
+		}
+
+		public Node<T> getWildcardChild() {
+			if (this.wildcardChild == null) {
+				this.wildcardChild = new Node<>();
+			}
+			return this.wildcardChild;
+		}
+
+		public List<T> getExactValues() {
+			if (this.exactValues.isEmpty()) {
+				this.exactValues = new ArrayList<>(1);
+			}
+			return this.exactValues;
+		}
+
+		public List<T> getPrefixValues() {
+			if (this.prefixValues.isEmpty()) {
+				this.prefixValues = new ArrayList<>(1);
+			}
+			return this.prefixValues;
+		}
+
+		public void clear() {
+			this.literalChildren = Collections.emptyMap();
+			this.wildcardChild = null;
+			this.exactValues = Collections.emptyList();
+			this.prefixValues = Collections.emptyList();
+		}
+	}
+
+}
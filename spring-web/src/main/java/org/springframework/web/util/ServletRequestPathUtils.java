@@ -0,0 +1,146 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.server.RequestPath;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Utility class to parse the path of an {@link HttpServletRequest} to a
+ * {@link RequestPath} and cache it in a request attribute for further access,
+ * e.g. for matching against parsed
+ * {@link org.springframework.web.util.pattern.PathPattern PathPatterns}.
+ *
+ * <p>The {@link RequestPath#pathWithinApplication() path within the application}
+ * excludes the context path and, in the case of a prefix based Servlet mapping
+ * such as "/myServlet/*", the servlet path. The path is not decoded.
+ *
+ * @author agent
+ * @since 5.0.17
+ */
+public abstract class ServletRequestPathUtils {
+
+	/**
+	 * Name of the request attribute that holds the parsed {@link RequestPath}.
+	 */
+	public static final String PATH_ATTRIBUTE = ServletRequestPathUtils.class.getName() + ".PATH";
+
+
+	/**
+	 * Parse the {@link HttpServletRequest#getRequestURI() requestURI} of the
+	 * request, taking into account {@code RequestDispatcher} includes, and
+	 * cache the resulting {@link RequestPath} in the
+	 * {@link #PATH_ATTRIBUTE} request attribute.
+	 * @param request the current request
+	 * @return the parsed path
+	 */
+	public static RequestPath parseAndCache(HttpServletRequest request) {
+		RequestPath requestPath = parse(request);
+		request.setAttribute(PATH_ATTRIBUTE, requestPath);
+		return requestPath;
+	}
+
+	/**
+	 * Return a {@link #parseAndCache previously} parsed {@link RequestPath}.
+	 * @param request the current request
+	 * @return the parsed path
+	 * @throws IllegalArgumentException if the path has not been parsed
+	 */
+	public static RequestPath getParsedRequestPath(ServletRequest request) {
+		RequestPath path = (RequestPath) request.getAttribute(PATH_ATTRIBUTE);
+		Assert.notNull(path, () -> "Expected parsed RequestPath in request attribute \"" + PATH_ATTRIBUTE + "\".");
+		return path;
+	}
+
+	/**
+	 * Set the cached, parsed {@link RequestPath} to the given value, e.g. to
+	 * restore a previously parsed path after an include or forward.
+	 * @param requestPath the value to set to, or {@code null} to remove it
+	 * @param request the current request
+	 */
+	public static void setParsedRequestPath(@Nullable RequestPath requestPath, ServletRequest request) {
+		if (requestPath != null) {
+			request.setAttribute(PATH_ATTRIBUTE, requestPath);
+		}
+		else {
+			request.removeAttribute(PATH_ATTRIBUTE);
+		}
+	}
+
+	/**
+	 * Check for a {@link #parseAndCache previously} parsed {@link RequestPath}.
+	 * @param request the current request
+	 */
+	public static boolean hasParsedRequestPath(ServletRequest request) {
+		return (request.getAttribute(PATH_ATTRIBUTE) != null);
+	}
+
+	/**
+	 * Remove the cached, parsed {@link RequestPath}, if any.
+	 * @param request the current request
+	 */
+	public static void clearParsedRequestPath(ServletRequest request) {
+		request.removeAttribute(PATH_ATTRIBUTE);
+	}
+
+
+	private static RequestPath parse(HttpServletRequest request) {
+		String requestUri = (String) request.getAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE);
+		String contextPath;
+		String servletPath;
+		String pathInfo;
+		if (requestUri != null) {
+			contextPath = (String) request.getAttribute(WebUtils.INCLUDE_CONTEXT_PATH_ATTRIBUTE);
+			servletPath = (String) request.getAttribute(WebUtils.INCLUDE_SERVLET_PATH_ATTRIBUTE);
+			pathInfo = (String) request.getAttribute(WebUtils.INCLUDE_PATH_INFO_ATTRIBUTE);
+		}
+		else {
+			requestUri = request.getRequestURI();
+			contextPath = request.getContextPath();
+			servletPath = request.getServletPath();
+			pathInfo = request.getPathInfo();
+		}
+		return RequestPath.parse(requestUri, getApplicationPath(requestUri, contextPath, servletPath, pathInfo));
+	}
+
+	/**
+	 * Determine the portion of the request URI to treat as the context path:
+	 * the actual context path, plus the servlet path if the servlet is mapped
+	 * by prefix, e.g. "/myServlet/*", which is recognized by a non-null path
+	 * info, and the servlet path is not encoded in the request URI.
+	 */
+	@Nullable
+	private static String getApplicationPath(String requestUri, @Nullable String contextPath,
+			@Nullable String servletPath, @Nullable String pathInfo) {
+
+		if (pathInfo == null || !StringUtils.hasLength(servletPath)) {
+			return contextPath;
+		}
+		String applicationPath = (contextPath != null ? contextPath : "") + servletPath;
+		if (requestUri.startsWith(applicationPath) && (requestUri.length() == applicationPath.length() ||
+				requestUri.charAt(applicationPath.length()) == '/')) {
+			return applicationPath;
+		}
+		return contextPath;
+	}
+
+}
@@ -16,6 +16,7 @@
 
 package org.springframework.http.codec;
 
+import java.io.File;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.Map;
@@ -25,10 +26,12 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
 import org.springframework.mock.http.server.reactive.test.MockServerHttpRequest;
 import org.springframework.mock.http.server.reactive.test.MockServerHttpResponse;
 import org.springframework.util.MimeTypeUtils;
@@ -92,6 +95,22 @@ public class ResourceHttpMessageWriterTests {
 		StepVerifier.create(this.response.getBodyAsString()).expectNext("Spring").expectComplete().verify();
 	}
 
+	@Test
+	public void writeSingleRegionZeroCopy() throws Exception {
+		Resource resource = new ClassPathResource("ResourceHttpMessageWriterTests.txt", getClass());
+		ZeroCopyResponse response = new ZeroCopyResponse();
+		MockServerHttpRequest request = get("/").range(of(7, 15)).build();
+
+		Mono<Void> mono = this.writer.write(Mono.just(resource), null, null, TEXT_PLAIN, request, response, HINTS);
+		StepVerifier.create(mono).expectComplete().verify();
+
+		assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE), is("bytes 7-15/39"));
+		assertThat(response.getHeaders().getContentLength(), is(9L));
+		assertThat(response.file, is(resource.getFile()));
+		assertThat(response.position, is(7L));
+		assertThat(response.count, is(9L));
+	}
+
 	@Test
 	public void writeMultipleRegions() throws Exception {
 
@@ -150,4 +169,22 @@ public class ResourceHttpMessageWriterTests {
 		return HttpRange.createByteRange(first, last);
 	}
 
+
+	private static class ZeroCopyResponse extends MockServerHttpResponse implements ZeroCopyHttpOutputMessage {
+
+		private File file;
+
+		private long position;
+
+		private long count;
+
+		@Override
+		public Mono<Void> writeWith(File file, long position, long count) {
+			this.file = file;
+			this.position = position;
+			this.count = count;
+			return setComplete();
+		}
+	}
+
 }
@@ -18,6 +18,7 @@ package org.springframework.http.codec.json;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
 import java.util.function.Consumer;
 
@@ -35,6 +36,7 @@ import reactor.test.StepVerifier;
 import org.springframework.core.codec.DecodingException;
 import org.springframework.core.io.buffer.AbstractDataBufferAllocatingTestCase;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
 
 import static java.util.Arrays.*;
 import static java.util.Collections.*;
@@ -187,6 +189,47 @@ public class Jackson2TokenizerTests extends AbstractDataBufferAllocatingTestCase
 	}
 
 
+	@Test
+	public void tokenizeArrayElementsOnDemand() {
+		Flux<DataBuffer> source = Flux.just(stringBuffer("[{\"foo\": 1},{\"foo\": 2},{\"foo\": 3}]"));
+		Flux<TokenBuffer> tokens = Jackson2Tokenizer.tokenize(source, this.jsonFactory, true);
+
+		StepVerifier.create(tokens, 1)
+				.expectNextCount(1)
+				.expectNoEvent(Duration.ofMillis(50))
+				.thenRequest(1)
+				.expectNextCount(1)
+				.thenCancel()
+				.verify();
+	}
+
+	@Test
+	public void maxInMemorySize() {
+		String element = "{\"foo\": \"foofoo\", \"bar\": \"barbar\"}";
+		Flux<DataBuffer> source = Flux.just(stringBuffer("[" + element + ","),
+				stringBuffer(element + "," + element + "]"));
+		Flux<TokenBuffer> tokens = Jackson2Tokenizer.tokenize(source, this.jsonFactory, true, 40);
+
+		StepVerifier.create(tokens).expectNextCount(3).verifyComplete();
+	}
+
+	@Test
+	public void maxInMemorySizeExceeded() {
+		Flux<DataBuffer> source = Flux.just(stringBuffer("[{\"foo\": \"foofoo\","),
+				stringBuffer("\"bar\": \"barbar\"}]"));
+		Flux<TokenBuffer> tokens = Jackson2Tokenizer.tokenize(source, this.jsonFactory, true, 20);
+
+		StepVerifier.create(tokens).expectError(DataBufferLimitException.class).verify();
+	}
+
+	@Test
+	public void maxInMemorySizeExceededWithinBuffer() {
+		Flux<DataBuffer> source = Flux.just(stringBuffer("{\"foo\": \"foofoo\", \"bar\": \"barbar\"}"));
+		Flux<TokenBuffer> tokens = Jackson2Tokenizer.tokenize(source, this.jsonFactory, false, 20);
+
+		StepVerifier.create(tokens).expectError(DataBufferLimitException.class).verify();
+	}
+
 	private void testTokenize(List<String> source, List<String> expected, boolean tokenizeArrayElements) {
 		Flux<TokenBuffer> tokenBufferFlux = Jackson2Tokenizer.tokenize(
 				Flux.fromIterable(source).map(this::stringBuffer),
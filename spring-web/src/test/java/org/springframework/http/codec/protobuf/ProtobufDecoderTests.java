@@ -0,0 +1,243 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.protobuf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.google.protobuf.Message;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.AbstractDataBufferAllocatingTestCase;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.protobuf.Msg;
+import org.springframework.protobuf.SecondMsg;
+import org.springframework.util.MimeType;
+
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.*;
+import static org.springframework.core.ResolvableType.forClass;
+
+/**
+ * Unit tests for {@link ProtobufDecoder}.
+ *
+ * @author agent
+ */
+public class ProtobufDecoderTests extends AbstractDataBufferAllocatingTestCase {
+
+	private final static MimeType PROTOBUF_MIME_TYPE = new MimeType("application", "x-protobuf");
+
+	private final SecondMsg secondMsg = SecondMsg.newBuilder().setBlah(123).build();
+
+	private final Msg testMsg1 = Msg.newBuilder().setFoo("Foo").setBlah(this.secondMsg).build();
+
+	private final Msg testMsg2 = Msg.newBuilder().setFoo("Bar").setBlah(SecondMsg.newBuilder().setBlah(456)).build();
+
+	private final ProtobufDecoder decoder = new ProtobufDecoder();
+
+
+	@Test
+	public void canDecode() {
+		assertTrue(this.decoder.canDecode(forClass(Msg.class), null));
+		assertTrue(this.decoder.canDecode(forClass(Msg.class), PROTOBUF_MIME_TYPE));
+		assertTrue(this.decoder.canDecode(forClass(Msg.class), MimeType.valueOf("application/octet-stream")));
+		assertFalse(this.decoder.canDecode(forClass(Msg.class), MimeType.valueOf("application/json")));
+		assertFalse(this.decoder.canDecode(forClass(Object.class), PROTOBUF_MIME_TYPE));
+	}
+
+	@Test
+	public void decodeToMono() {
+		Mono<DataBuffer> input = Mono.fromCallable(() -> wrap(this.testMsg1.toByteArray()));
+		Mono<Message> result = this.decoder.decodeToMono(input, forClass(Msg.class), null, emptyMap());
+
+		StepVerifier.create(result)
+				.expectNext(this.testMsg1)
+				.verifyComplete();
+	}
+
+	@Test
+	public void decodeToMonoWithLargerMessageThanMaxSize() {
+		this.decoder.setMaxMessageSize(1);
+		Mono<DataBuffer> input = Mono.fromCallable(() -> wrap(this.testMsg1.toByteArray()));
+		Mono<Message> result = this.decoder.decodeToMono(input, forClass(Msg.class), null, emptyMap());
+
+		StepVerifier.create(result)
+				.expectError(DataBufferLimitException.class)
+				.verify();
+	}
+
+	@Test
+	public void decodeChunksToMono() {
+		byte[] full = this.testMsg1.toByteArray();
+		byte[] chunk1 = Arrays.copyOfRange(full, 0, full.length / 2);
+		byte[] chunk2 = Arrays.copyOfRange(full, chunk1.length, full.length);
+
+		Flux<DataBuffer> input = Flux.just(chunk1, chunk2).map(this::wrap);
+		Mono<Message> result = this.decoder.decodeToMono(input, forClass(Msg.class), null, emptyMap());
+
+		StepVerifier.create(result)
+				.expectNext(this.testMsg1)
+				.verifyComplete();
+	}
+
+	@Test
+	public void decode() {
+		Flux<DataBuffer> input = Flux.just(this.testMsg1, this.testMsg2)
+				.map(msg -> wrap(delimited(msg)));
+
+		StepVerifier.create(this.decoder.decode(input, forClass(Msg.class), null, emptyMap()))
+				.expectNext(this.testMsg1)
+				.expectNext(this.testMsg2)
+				.verifyComplete();
+	}
+
+	@Test
+	public void decodeMessagesInSingleBuffer() {
+		Flux<DataBuffer> input = Flux.defer(() -> {
+			byte[] bytes = concat(delimited(this.testMsg1), delimited(this.testMsg2));
+			return Flux.just(wrap(bytes));
+		});
+
+		StepVerifier.create(this.decoder.decode(input, forClass(Msg.class), null, emptyMap()))
+				.expectNext(this.testMsg1)
+				.expectNext(this.testMsg2)
+				.verifyComplete();
+	}
+
+	@Test
+	public void decodeSplitChunks() {
+		Flux<DataBuffer> input = Flux.defer(() -> {
+			byte[] bytes = concat(delimited(this.testMsg1), delimited(this.testMsg2));
+			return Flux.range(0, bytes.length).map(i -> wrap(new byte[] {bytes[i]}));
+		});
+
+		StepVerifier.create(this.decoder.decode(input, forClass(Msg.class), null, emptyMap()))
+				.expectNext(this.testMsg1)
+				.expectNext(this.testMsg2)
+				.verifyComplete();
+	}
+
+	@Test  // multi-byte varint split across buffers
+	public void decodeLargeMessageWithSplitSize() {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 300; i++) {
+			builder.append('x');
+		}
+		Msg largeMsg = Msg.newBuilder().setFoo(builder.toString()).setBlah(this.secondMsg).build();
+
+		Flux<DataBuffer> input = Flux.defer(() -> {
+			byte[] bytes = concat(delimited(largeMsg), delimited(this.testMsg1));
+			return Flux.just(Arrays.copyOfRange(bytes, 0, 1), Arrays.copyOfRange(bytes, 1, 100),
+					Arrays.copyOfRange(bytes, 100, bytes.length)).map(this::wrap);
+		});
+
+		StepVerifier.create(this.decoder.decode(input, forClass(Msg.class), null, emptyMap()))
+				.expectNext(largeMsg)
+				.expectNext(this.testMsg1)
+				.verifyComplete();
+	}
+
+	@Test
+	public void decodeMergedAndSplitChunks() {
+		Flux<DataBuffer> input = Flux.defer(() -> {
+			byte[] bytes = concat(delimited(this.testMsg1), delimited(this.testMsg2));
+			int split = delimited(this.testMsg1).length + 3;
+			return Flux.just(Arrays.copyOfRange(bytes, 0, split),
+					Arrays.copyOfRange(bytes, split, bytes.length)).map(this::wrap);
+		});
+
+		StepVerifier.create(this.decoder.decode(input, forClass(Msg.class), null, emptyMap()))
+				.expectNext(this.testMsg1)
+				.expectNext(this.testMsg2)
+				.verifyComplete();
+	}
+
+	@Test
+	public void decodeWithLargerMessageThanMaxSize() {
+		this.decoder.setMaxMessageSize(1);
+		Flux<DataBuffer> input = Flux.just(this.testMsg1, this.testMsg2)
+				.map(msg -> wrap(delimited(msg)));
+
+		StepVerifier.create(this.decoder.decode(input, forClass(Msg.class), null, emptyMap()))
+				.expectError(DataBufferLimitException.class)
+				.verify();
+	}
+
+	@Test
+	public void decodeWithUnlimitedMaxSize() {
+		this.decoder.setMaxMessageSize(-1);
+		Flux<DataBuffer> input = Flux.just(this.testMsg1, this.testMsg2)
+				.map(msg -> wrap(delimited(msg)));
+
+		StepVerifier.create(this.decoder.decode(input, forClass(Msg.class), null, emptyMap()))
+				.expectNext(this.testMsg1)
+				.expectNext(this.testMsg2)
+				.verifyComplete();
+	}
+
+	@Test
+	public void decodeInvalidMessage() {
+		Flux<DataBuffer> input = Flux.defer(() -> Flux.just(wrap(new byte[] {2, (byte) 0xff, (byte) 0xff})));
+
+		StepVerifier.create(this.decoder.decode(input, forClass(Msg.class), null, emptyMap()))
+				.expectError(DecodingException.class)
+				.verify();
+	}
+
+	@Test
+	public void decodeIncompleteMessageReleasesAggregatedBuffer() {
+		Flux<DataBuffer> input = Flux.defer(() -> {
+			byte[] bytes = delimited(this.testMsg1);
+			return Flux.just(wrap(Arrays.copyOfRange(bytes, 0, bytes.length - 1)));
+		});
+
+		StepVerifier.create(this.decoder.decode(input, ResolvableType.forClass(Msg.class), null, emptyMap()))
+				.verifyComplete();
+	}
+
+
+	private DataBuffer wrap(byte[] bytes) {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(bytes.length);
+		buffer.write(bytes);
+		return buffer;
+	}
+
+	private static byte[] delimited(Msg msg) {
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			msg.writeDelimitedTo(out);
+			return out.toByteArray();
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static byte[] concat(byte[] first, byte[] second) {
+		byte[] result = Arrays.copyOf(first, first.length + second.length);
+		System.arraycopy(second, 0, result, first.length, second.length);
+		return result;
+	}
+
+}
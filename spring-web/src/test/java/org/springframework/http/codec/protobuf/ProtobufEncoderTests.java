@@ -0,0 +1,131 @@
+/*
+ * Copyright 2002-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.protobuf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.core.io.buffer.AbstractDataBufferAllocatingTestCase;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.test.MockServerHttpResponse;
+import org.springframework.protobuf.Msg;
+import org.springframework.protobuf.SecondMsg;
+import org.springframework.util.MimeType;
+
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.*;
+import static org.springframework.core.ResolvableType.forClass;
+
+/**
+ * Unit tests for {@link ProtobufEncoder} and {@link ProtobufHttpMessageWriter}.
+ *
+ * @author agent
+ */
+public class ProtobufEncoderTests extends AbstractDataBufferAllocatingTestCase {
+
+	private final static MimeType PROTOBUF_MIME_TYPE = new MimeType("application", "x-protobuf");
+
+	private final Msg testMsg1 = Msg.newBuilder().setFoo("Foo").setBlah(SecondMsg.newBuilder().setBlah(123)).build();
+
+	private final Msg testMsg2 = Msg.newBuilder().setFoo("Bar").setBlah(SecondMsg.newBuilder().setBlah(456)).build();
+
+	private final ProtobufEncoder encoder = new ProtobufEncoder();
+
+
+	@Test
+	public void canEncode() {
+		assertTrue(this.encoder.canEncode(forClass(Msg.class), null));
+		assertTrue(this.encoder.canEncode(forClass(Msg.class), PROTOBUF_MIME_TYPE));
+		assertTrue(this.encoder.canEncode(forClass(Msg.class), MediaType.APPLICATION_OCTET_STREAM));
+		assertFalse(this.encoder.canEncode(forClass(Msg.class), MediaType.APPLICATION_JSON));
+		assertFalse(this.encoder.canEncode(forClass(Object.class), PROTOBUF_MIME_TYPE));
+	}
+
+	@Test
+	public void encode() {
+		Mono<Msg> input = Mono.just(this.testMsg1);
+
+		StepVerifier.create(this.encoder.encode(input, this.bufferFactory, forClass(Msg.class), null, emptyMap()))
+				.consumeNextWith(dataBuffer -> {
+					try {
+						assertEquals(this.testMsg1.getSerializedSize(), dataBuffer.readableByteCount());
+						assertEquals(this.testMsg1, Msg.parseFrom(dataBuffer.asInputStream()));
+					}
+					catch (IOException ex) {
+						throw new UncheckedIOException(ex);
+					}
+					finally {
+						DataBufferUtils.release(dataBuffer);
+					}
+				})
+				.verifyComplete();
+	}
+
+	@Test
+	public void encodeStream() {
+		Flux<Msg> input = Flux.just(this.testMsg1, this.testMsg2);
+
+		StepVerifier.create(this.encoder.encode(input, this.bufferFactory, forClass(Msg.class), null, emptyMap()))
+				.consumeNextWith(dataBuffer -> readDelimited(dataBuffer, this.testMsg1))
+				.consumeNextWith(dataBuffer -> readDelimited(dataBuffer, this.testMsg2))
+				.verifyComplete();
+	}
+
+	@Test
+	public void writeStreamWithHeaders() {
+		MockServerHttpResponse response = new MockServerHttpResponse();
+		ProtobufHttpMessageWriter writer = new ProtobufHttpMessageWriter();
+		Flux<Msg> input = Flux.just(this.testMsg1, this.testMsg2);
+
+		writer.write(input, forClass(Msg.class), null, response, emptyMap()).block();
+
+		assertEquals(new MediaType("application", "x-protobuf", Collections.singletonMap("delimited", "true")),
+				response.getHeaders().getContentType());
+		assertEquals("sample.proto", response.getHeaders().getFirst("X-Protobuf-Schema"));
+		assertEquals("Msg", response.getHeaders().getFirst("X-Protobuf-Message"));
+
+		StepVerifier.create(response.getBody())
+				.consumeNextWith(dataBuffer -> readDelimited(dataBuffer, this.testMsg1))
+				.consumeNextWith(dataBuffer -> readDelimited(dataBuffer, this.testMsg2))
+				.verifyComplete();
+	}
+
+
+	private void readDelimited(DataBuffer dataBuffer, Msg expected) {
+		try {
+			InputStream inputStream = dataBuffer.asInputStream();
+			assertEquals(expected, Msg.parseDelimitedFrom(inputStream));
+			assertEquals(-1, inputStream.read());
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		finally {
+			DataBufferUtils.release(dataBuffer);
+		}
+	}
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.converter.json;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.Test;
+
+import org.springframework.core.ResolvableType;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link Jackson2ObjectReaderWriterCache}.
+ *
+ * @author agent
+ */
+public class Jackson2ObjectReaderWriterCacheTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final Jackson2ObjectReaderWriterCache cache =
+			new Jackson2ObjectReaderWriterCache(() -> this.objectMapper, this::getJavaType);
+
+
+	@Test
+	public void readerIsCached() throws Exception {
+		ObjectReader reader = this.cache.getObjectReader(String.class, null, null);
+		assertEquals("foo", reader.readValue("\"foo\""));
+		assertSame(reader, this.cache.getObjectReader(String.class, null, null));
+		assertNotSame(reader, this.cache.getObjectReader(Integer.class, null, null));
+	}
+
+	@Test
+	public void readerPerJsonView() {
+		ObjectReader reader = this.cache.getObjectReader(String.class, null, null);
+		ObjectReader viewReader = this.cache.getObjectReader(String.class, null, MyJacksonView.class);
+		assertNotSame(reader, viewReader);
+		assertEquals(MyJacksonView.class, viewReader.getConfig().getActiveView());
+		assertSame(viewReader, this.cache.getObjectReader(String.class, null, MyJacksonView.class));
+	}
+
+	@Test
+	public void writerBoundToContainerType() {
+		Type listType = ResolvableType.forClassWithGenerics(List.class, String.class).getType();
+		ObjectWriter writer = this.cache.getObjectWriter(listType, null, null);
+		assertTrue(writer.hasPrefetchedSerializer());
+		assertSame(writer, this.cache.getObjectWriter(listType, null, null));
+		assertFalse(this.cache.getObjectWriter(String.class, null, null).hasPrefetchedSerializer());
+	}
+
+	@Test
+	public void writerRecreatedAfterConfigurationChange() {
+		ObjectWriter writer = this.cache.getObjectWriter(null, null, null);
+		assertFalse(writer.isEnabled(SerializationFeature.INDENT_OUTPUT));
+
+		this.objectMapper.configure(SerializationFeature.INDENT_OUTPUT, true);
+		ObjectWriter other = this.cache.getObjectWriter(null, null, null);
+		assertNotSame(writer, other);
+		assertTrue(other.isEnabled(SerializationFeature.INDENT_OUTPUT));
+	}
+
+	@Test
+	public void cacheLimit() {
+		Jackson2ObjectReaderWriterCache cache =
+				new Jackson2ObjectReaderWriterCache(() -> this.objectMapper, this::getJavaType, 1);
+		ObjectReader reader = cache.getObjectReader(String.class, null, null);
+		assertSame(reader, cache.getObjectReader(String.class, null, null));
+		ObjectReader otherReader = cache.getObjectReader(Integer.class, null, null);
+		assertSame(otherReader, cache.getObjectReader(Integer.class, null, null));
+		assertNotSame(reader, cache.getObjectReader(String.class, null, null));
+	}
+
+	@Test
+	public void leastRecentlyUsedEvicted() {
+		Jackson2ObjectReaderWriterCache cache =
+				new Jackson2ObjectReaderWriterCache(() -> this.objectMapper, this::getJavaType, 2);
+		ObjectReader stringReader = cache.getObjectReader(String.class, null, null);
+		ObjectReader integerReader = cache.getObjectReader(Integer.class, null, null);
+		assertSame(stringReader, cache.getObjectReader(String.class, null, null));
+		cache.getObjectReader(Long.class, null, null);
+		assertSame(stringReader, cache.getObjectReader(String.class, null, null));
+		assertNotSame(integerReader, cache.getObjectReader(Integer.class, null, null));
+	}
+
+
+	private JavaType getJavaType(Type type, Class<?> contextClass) {
+		return this.objectMapper.getTypeFactory().constructType(type);
+	}
+
+
+	private interface MyJacksonView {
+	}
+
+}
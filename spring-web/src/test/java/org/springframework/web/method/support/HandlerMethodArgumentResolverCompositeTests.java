@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import org.springframework.core.MethodParameter;
+import org.springframework.web.method.HandlerMethod;
 
 import static org.junit.Assert.*;
 
@@ -72,6 +73,21 @@ public class HandlerMethodArgumentResolverCompositeTests {
 		assertEquals("Didn't use the first registered resolver", Integer.valueOf(1), resolvedValue);
 	}
 
+	@Test
+	public void getArgumentResolversForHandlerMethod() throws Exception {
+		StubArgumentResolver intResolver = registerResolver(Integer.class, null);
+		Method method = getClass().getDeclaredMethod("handle", Integer.class, String.class);
+		HandlerMethod handlerMethod = new HandlerMethod(this, method);
+
+		HandlerMethodArgumentResolver[] resolvers = this.resolvers.getArgumentResolvers(handlerMethod);
+		assertArrayEquals(new HandlerMethodArgumentResolver[] {intResolver, null}, resolvers);
+		assertSame(resolvers, this.resolvers.getArgumentResolvers(new HandlerMethod(this, method)));
+
+		StubArgumentResolver stringResolver = registerResolver(String.class, null);
+		resolvers = this.resolvers.getArgumentResolvers(handlerMethod);
+		assertArrayEquals(new HandlerMethodArgumentResolver[] {intResolver, stringResolver}, resolvers);
+	}
+
 	@Test(expected = IllegalArgumentException.class)
 	public void noSuitableArgumentResolver() throws Exception {
 		this.resolvers.resolveArgument(paramStr, null, null, null);
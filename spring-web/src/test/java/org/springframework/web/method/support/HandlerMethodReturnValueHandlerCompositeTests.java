@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,10 +20,13 @@ import org.junit.Before;
 import org.junit.Test;
 
 import org.springframework.core.MethodParameter;
+import org.springframework.web.method.HandlerMethod;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -108,6 +111,30 @@ public class HandlerMethodReturnValueHandlerCompositeTests {
 		verifyNoMoreInteractions(responseBodyHandler);
 	}
 
+	@Test
+	public void handleReturnValueWithCachedHandler() throws Exception {
+		this.handlers.handleReturnValue(55, this.integerType, this.mavContainer, null);
+		this.handlers.handleReturnValue(56, this.integerType, this.mavContainer, null);
+
+		verify(this.integerHandler, times(1)).supportsReturnType(this.integerType);
+		verify(this.integerHandler).handleReturnValue(55, this.integerType, this.mavContainer, null);
+		verify(this.integerHandler).handleReturnValue(56, this.integerType, this.mavContainer, null);
+	}
+
+	@Test
+	public void supportsReturnTypeWithActualReturnValueType() throws Exception {
+		HandlerMethod handlerMethod = new HandlerMethod(this, getClass().getDeclaredMethod("handleObject"));
+
+		HandlerMethodReturnValueHandler stringHandler = mock(HandlerMethodReturnValueHandler.class);
+		when(stringHandler.supportsReturnType(any())).thenAnswer(invocation ->
+				((MethodParameter) invocation.getArgument(0)).getParameterType() == String.class);
+		this.handlers.addHandler(stringHandler);
+
+		assertTrue(this.handlers.supportsReturnType(handlerMethod.getReturnValueType("value")));
+		assertFalse(this.handlers.supportsReturnType(handlerMethod.getReturnValueType(55)));
+		assertTrue(this.handlers.supportsReturnType(handlerMethod.getReturnValueType("value")));
+	}
+
 	@Test(expected = IllegalArgumentException.class)
 	public void noSuitableReturnValueHandler() throws Exception {
 		this.handlers.handleReturnValue("value", this.stringType, null, null);
@@ -122,6 +149,10 @@ public class HandlerMethodReturnValueHandlerCompositeTests {
 		return null;
 	}
 
+	private Object handleObject() {
+		return null;
+	}
+
 	private Promise<Integer> handlePromise() {
 		return null;
 	}
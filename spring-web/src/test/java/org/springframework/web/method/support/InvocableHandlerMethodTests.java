@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,11 +17,14 @@
 package org.springframework.web.method.support;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
 
 import org.springframework.core.MethodParameter;
+import org.springframework.core.ReflectiveMethodAccessor;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.mock.web.test.MockHttpServletRequest;
 import org.springframework.mock.web.test.MockHttpServletResponse;
@@ -31,6 +34,8 @@ import org.springframework.web.context.request.ServletWebRequest;
 
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 /**
  * Test fixture for {@link InvocableHandlerMethod} unit tests.
@@ -86,6 +91,27 @@ public class InvocableHandlerMethodTests {
 		assertEquals("null-null", returnValue);
 	}
 
+	@Test
+	public void resolveArgWithResolversBoundOncePerMethod() throws Exception {
+		StubArgumentResolver intResolver = spy(new StubArgumentResolver(Integer.class, 99));
+		StubArgumentResolver stringResolver = spy(new StubArgumentResolver(String.class, "value"));
+
+		HandlerMethodArgumentResolverComposite composite = new HandlerMethodArgumentResolverComposite();
+		composite.addResolver(intResolver);
+		composite.addResolver(stringResolver);
+
+		for (int i = 0; i < 3; i++) {
+			InvocableHandlerMethod handlerMethod = new InvocableHandlerMethod(this.handlerMethod);
+			handlerMethod.setHandlerMethodArgumentResolvers(composite);
+			assertEquals("99-value", handlerMethod.invokeForRequest(webRequest, null));
+		}
+
+		verify(intResolver, times(2)).supportsParameter(any());
+		verify(stringResolver, times(1)).supportsParameter(any());
+		assertEquals(3, intResolver.getResolvedParameters().size());
+		assertEquals(3, stringResolver.getResolvedParameters().size());
+	}
+
 	@Test
 	public void cannotResolveArg() throws Exception {
 		try {
@@ -119,6 +145,20 @@ public class InvocableHandlerMethodTests {
 		assertEquals("2-value2", returnValue);
 	}
 
+	@Test
+	public void invokeWithMethodAccessorFactory() throws Exception {
+		List<Method> methods = new ArrayList<>();
+		handlerMethod.setMethodAccessorFactory(method -> {
+			methods.add(method);
+			return new ReflectiveMethodAccessor(method);
+		});
+
+		Object returnValue = handlerMethod.invokeForRequest(webRequest, null, 99, "value");
+		assertEquals("99-value", returnValue);
+		assertEquals(1, methods.size());
+		assertEquals(handlerMethod.getMethod(), methods.get(0));
+	}
+
 	@Test
 	public void exceptionInResolvingArg() throws Exception {
 		HandlerMethodArgumentResolverComposite composite = new HandlerMethodArgumentResolverComposite();
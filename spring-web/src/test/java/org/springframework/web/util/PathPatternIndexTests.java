@@ -0,0 +1,219 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.tests.Assume;
+import org.springframework.tests.TestGroup;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StopWatch;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link PathPatternIndex}.
+ *
+ * @author agent
+ */
+public class PathPatternIndexTests {
+
+	private static final List<String> PATTERNS = Arrays.asList(
+			"", "/", "/a", "/a/b", "/a/b/", "/a/*", "/a/{id}", "/a/{id}/c", "/a/b*", "/a/?",
+			"/a/**", "/a/**/c", "/a/{*rest}", "/{x}/b", "/*/b/c", "/**", "/a/b.html", "/A/B",
+			"/a/{id:\\d+}", "/a/{name:[a-z]+}.{ext}", "/x/y/z", "/x/{y}/z", "/a/b/c/d");
+
+	private static final List<String> PATHS = Arrays.asList(
+			"", "/", "/a", "/a/", "/a/b", "/a/b/", "/a/B", "/a/b.json", "/a/b.html", "/a/b.html.json",
+			"/a/123", "/a/foo.txt", "/a/b/c", "/a/b/c/d", "/a/b/c/d/e", "/z/b", "/z/b/c", "/x/y/z",
+			"/x/q/z", "/a//b", "/q");
+
+
+	private final PathPatternIndex<String> index = new PathPatternIndex<>();
+
+
+	@Test
+	public void literalPatterns() {
+		this.index.add("/a/b", "ab");
+		this.index.add("/a/c", "ac");
+		this.index.add("/a", "a");
+
+		assertThat(this.index.getCandidates("/a/b"), contains("ab"));
+		assertThat(this.index.getCandidates("/a/c"), contains("ac"));
+		assertThat(this.index.getCandidates("/a"), contains("a"));
+		assertThat(this.index.getCandidates("/a/d"), empty());
+		assertThat(this.index.getCandidates("/a/b/c"), empty());
+	}
+
+	@Test
+	public void wildcardPatterns() {
+		this.index.add("/a/{id}", "id");
+		this.index.add("/a/*/c", "c");
+		this.index.add("/a/b", "ab");
+
+		assertThat(this.index.getCandidates("/a/b"), containsInAnyOrder("ab", "id"));
+		assertThat(this.index.getCandidates("/a/x"), contains("id"));
+		assertThat(this.index.getCandidates("/a/x/c"), contains("c"));
+		assertThat(this.index.getCandidates("/a/x/d"), empty());
+	}
+
+	@Test
+	public void catchAllPatterns() {
+		this.index.add("/a/**", "ant");
+		this.index.add("/a/{*rest}", "capture");
+		this.index.add("/b/**/c", "middle");
+
+		assertThat(this.index.getCandidates("/a"), containsInAnyOrder("ant", "capture"));
+		assertThat(this.index.getCandidates("/a/b/c/d"), containsInAnyOrder("ant", "capture"));
+		assertThat(this.index.getCandidates("/b/c"), contains("middle"));
+		assertThat(this.index.getCandidates("/c"), empty());
+	}
+
+	@Test
+	public void unindexed() {
+		this.index.addUnindexed("all");
+		this.index.add("/a", "a");
+
+		assertThat(this.index.getCandidates("/a"), contains("all", "a"));
+		assertThat(this.index.getCandidates("/b"), contains("all"));
+	}
+
+	@Test
+	public void multiplePatternsPerValue() {
+		this.index.add("/a", "value");
+		this.index.add("/{x}", "value");
+
+		assertThat(this.index.getCandidates("/a"), contains("value"));
+	}
+
+	@Test
+	public void remove() {
+		this.index.add("/a", "a");
+		this.index.add("/{x}", "a");
+		this.index.add("/{x}", "x");
+		this.index.addUnindexed("all");
+
+		this.index.remove("a");
+		this.index.remove("all");
+		assertThat(this.index.getCandidates("/a"), contains("x"));
+
+		this.index.clear();
+		assertThat(this.index.getCandidates("/a"), empty());
+	}
+
+	@Test
+	public void caseInsensitiveAndSuffixAndTrailingSlash() {
+		this.index.add("/a/b", "ab");
+
+		assertThat(this.index.getCandidates("/A/B"), contains("ab"));
+		assertThat(this.index.getCandidates("/a/b.json"), contains("ab"));
+		assertThat(this.index.getCandidates("/a/b/"), contains("ab"));
+		assertThat(this.index.getCandidates("/a/b.json/c"), empty());
+	}
+
+	@Test
+	public void pathContainerUsesValueToMatch() {
+		this.index.add("/a/b", "ab");
+
+		assertThat(this.index.getCandidates(PathContainer.parsePath("/a;x=1/b")), contains("ab"));
+		assertThat(this.index.getCandidates(PathContainer.parsePath("/%61/b")), contains("ab"));
+	}
+
+	@Test
+	public void candidatesIncludeAntPathMatcherMatches() {
+		AntPathMatcher matcher = new AntPathMatcher();
+		PATTERNS.forEach(pattern -> this.index.add(pattern, pattern));
+		for (String path : PATHS) {
+			Collection<String> candidates = this.index.getCandidates(path);
+			for (String pattern : PATTERNS) {
+				boolean matches = matcher.match(pattern, path) ||
+						(!pattern.contains(".") && matcher.match(pattern + ".*", path)) ||
+						(!pattern.endsWith("/") && matcher.match(pattern + "/", path));
+				if (matches) {
+					assertThat("Pattern '" + pattern + "' for path '" + path + "'", candidates, hasItem(pattern));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void candidatesIncludePathPatternMatches() {
+		PathPatternParser parser = new PathPatternParser();
+		parser.setCaseSensitive(false);
+		List<PathPattern> patterns = new ArrayList<>();
+		for (String pattern : PATTERNS) {
+			if (!pattern.contains("/**/")) {
+				PathPattern pathPattern = parser.parse(pattern);
+				patterns.add(pathPattern);
+				this.index.add(pathPattern.getPatternString(), pattern);
+			}
+		}
+		for (String path : PATHS) {
+			PathContainer pathContainer = PathContainer.parsePath(path);
+			Collection<String> candidates = this.index.getCandidates(pathContainer);
+			for (PathPattern pattern : patterns) {
+				if (pattern.matches(pathContainer)) {
+					assertThat("Pattern '" + pattern + "' for path '" + path + "'",
+							candidates, hasItem(pattern.getPatternString()));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void lookupPerformance() {
+		Assume.group(TestGroup.PERFORMANCE);
+		for (int mappingCount : new int[] {10, 1000, 10000}) {
+			PathPatternParser parser = new PathPatternParser();
+			PathPatternIndex<PathPattern> index = new PathPatternIndex<>();
+			List<PathPattern> patterns = new ArrayList<>();
+			for (int i = 0; i < mappingCount; i++) {
+				PathPattern pattern = parser.parse("/api/resource" + i + "/{id}/items/{item}");
+				patterns.add(pattern);
+				index.add(pattern.getPatternString(), pattern);
+			}
+			PathContainer path = PathContainer.parsePath("/api/resource" + (mappingCount / 2) + "/42/items/7");
+
+			StopWatch sw = new StopWatch("PathPatternIndex with " + mappingCount + " mappings");
+			sw.start("index");
+			for (int i = 0; i < 10000; i++) {
+				for (PathPattern pattern : index.getCandidates(path)) {
+					pattern.matches(path);
+				}
+			}
+			sw.stop();
+			sw.start("scan");
+			for (int i = 0; i < 10000; i++) {
+				for (PathPattern pattern : patterns) {
+					pattern.matches(path);
+				}
+			}
+			sw.stop();
+			System.out.println(sw.prettyPrint());
+		}
+	}
+
+}
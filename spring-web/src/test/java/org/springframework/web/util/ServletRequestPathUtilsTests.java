@@ -0,0 +1,94 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import org.junit.Test;
+
+import org.springframework.http.server.RequestPath;
+import org.springframework.mock.web.test.MockHttpServletRequest;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ServletRequestPathUtils}.
+ *
+ * @author agent
+ */
+public class ServletRequestPathUtilsTests {
+
+	@Test
+	public void parseAndCache() {
+		testParseAndCache("/app/a%20b/c", "/app", "", null, "/a%20b/c");
+		testParseAndCache("/a/b;c=d", "", "/a/b", null, "/a/b;c=d");
+		testParseAndCache("/app/servlet/a/b", "/app", "/servlet", "/a/b", "/a/b");
+		testParseAndCache("/app/servlet", "/app", "/servlet", "", "");
+		testParseAndCache("/app/s%20t/a", "/app", "/s t", "/a", "/s%20t/a");
+	}
+
+	private void testParseAndCache(String requestUri, String contextPath, String servletPath,
+			String pathInfo, String pathWithinApplication) {
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", requestUri);
+		request.setContextPath(contextPath);
+		request.setServletPath(servletPath);
+		request.setPathInfo(pathInfo);
+
+		RequestPath requestPath = ServletRequestPathUtils.parseAndCache(request);
+
+		assertEquals(requestUri, requestPath.value());
+		assertEquals(pathWithinApplication, requestPath.pathWithinApplication().value());
+		assertSame(requestPath, ServletRequestPathUtils.getParsedRequestPath(request));
+	}
+
+	@Test
+	public void parseAndCacheWithInclude() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/a");
+		request.setContextPath("/app");
+		request.setAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE, "/app/b/c");
+		request.setAttribute(WebUtils.INCLUDE_CONTEXT_PATH_ATTRIBUTE, "/app");
+		request.setAttribute(WebUtils.INCLUDE_SERVLET_PATH_ATTRIBUTE, "/b/c");
+
+		RequestPath requestPath = ServletRequestPathUtils.parseAndCache(request);
+
+		assertEquals("/app", requestPath.contextPath().value());
+		assertEquals("/b/c", requestPath.pathWithinApplication().value());
+	}
+
+	@Test
+	public void setAndClear() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/a");
+		assertFalse(ServletRequestPathUtils.hasParsedRequestPath(request));
+
+		RequestPath requestPath = ServletRequestPathUtils.parseAndCache(request);
+		assertTrue(ServletRequestPathUtils.hasParsedRequestPath(request));
+
+		ServletRequestPathUtils.setParsedRequestPath(null, request);
+		assertFalse(ServletRequestPathUtils.hasParsedRequestPath(request));
+
+		ServletRequestPathUtils.setParsedRequestPath(requestPath, request);
+		assertSame(requestPath, ServletRequestPathUtils.getParsedRequestPath(request));
+
+		ServletRequestPathUtils.clearParsedRequestPath(request);
+		assertFalse(ServletRequestPathUtils.hasParsedRequestPath(request));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void getParsedRequestPathWhenNotParsed() {
+		ServletRequestPathUtils.getParsedRequestPath(new MockHttpServletRequest("GET", "/a"));
+	}
+
+}
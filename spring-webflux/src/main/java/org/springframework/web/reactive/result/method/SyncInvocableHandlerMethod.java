@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,7 @@ import java.util.stream.Collectors;
 import reactor.core.publisher.MonoProcessor;
 
 import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodAccessorFactory;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.lang.Nullable;
 import org.springframework.web.method.HandlerMethod;
@@ -89,6 +90,16 @@ public class SyncInvocableHandlerMethod extends HandlerMethod {
 		return this.delegate.getParameterNameDiscoverer();
 	}
 
+	/**
+	 * Set the {@link MethodAccessorFactory} to obtain the accessor for
+	 * invoking the handler method from.
+	 * <p>By default the method is invoked via reflection.
+	 * @since 5.0.17
+	 */
+	public void setMethodAccessorFactory(@Nullable MethodAccessorFactory methodAccessorFactory) {
+		this.delegate.setMethodAccessorFactory(methodAccessorFactory);
+	}
+
 
 	/**
 	 * Invoke the method for the given exchange.
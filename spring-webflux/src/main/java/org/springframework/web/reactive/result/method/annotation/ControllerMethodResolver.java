@@ -32,6 +32,7 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.MethodAccessorFactory;
 import org.springframework.core.MethodIntrospector;
 import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
@@ -112,6 +113,9 @@ class ControllerMethodResolver {
 
 	private final Map<Class<?>, SessionAttributesHandler> sessionAttributesHandlerCache = new ConcurrentHashMap<>(64);
 
+	@Nullable
+	private MethodAccessorFactory methodAccessorFactory;
+
 
 	ControllerMethodResolver(ArgumentResolverConfigurer customResolvers, ReactiveAdapterRegistry adapterRegistry,
 			ConfigurableApplicationContext context, List<HttpMessageReader<?>> readers) {
@@ -130,6 +134,15 @@ class ControllerMethodResolver {
 		initControllerAdviceCaches(context);
 	}
 
+
+	/**
+	 * Set the {@link MethodAccessorFactory} to apply to the handler methods
+	 * returned from this resolver.
+	 */
+	public void setMethodAccessorFactory(@Nullable MethodAccessorFactory methodAccessorFactory) {
+		this.methodAccessorFactory = methodAccessorFactory;
+	}
+
 	private List<SyncHandlerMethodArgumentResolver> initBinderResolvers(
 			ArgumentResolverConfigurer customResolvers, ReactiveAdapterRegistry adapterRegistry,
 			ConfigurableApplicationContext context) {
@@ -262,6 +275,7 @@ class ControllerMethodResolver {
 		InvocableHandlerMethod invocable = new InvocableHandlerMethod(handlerMethod);
 		invocable.setArgumentResolvers(this.requestMappingResolvers);
 		invocable.setReactiveAdapterRegistry(this.reactiveAdapterRegistry);
+		invocable.setMethodAccessorFactory(this.methodAccessorFactory);
 		return invocable;
 	}
 
@@ -295,6 +309,7 @@ class ControllerMethodResolver {
 	private SyncInvocableHandlerMethod getInitBinderMethod(Object bean, Method method) {
 		SyncInvocableHandlerMethod invocable = new SyncInvocableHandlerMethod(bean, method);
 		invocable.setArgumentResolvers(this.initBinderResolvers);
+		invocable.setMethodAccessorFactory(this.methodAccessorFactory);
 		return invocable;
 	}
 
@@ -328,6 +343,7 @@ class ControllerMethodResolver {
 	private InvocableHandlerMethod createAttributeMethod(Object bean, Method method) {
 		InvocableHandlerMethod invocable = new InvocableHandlerMethod(bean, method);
 		invocable.setArgumentResolvers(this.modelAttributeResolvers);
+		invocable.setMethodAccessorFactory(this.methodAccessorFactory);
 		return invocable;
 	}
 
@@ -364,6 +380,7 @@ class ControllerMethodResolver {
 
 		InvocableHandlerMethod invocable = new InvocableHandlerMethod(targetBean, targetMethod);
 		invocable.setArgumentResolvers(this.exceptionHandlerResolvers);
+		invocable.setMethodAccessorFactory(this.methodAccessorFactory);
 		return invocable;
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package org.springframework.web.servlet.config.annotation;
 import org.springframework.lang.Nullable;
 import org.springframework.util.PathMatcher;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Helps with configuring HandlerMappings path matching options such as trailing
@@ -53,6 +54,9 @@ public class PathMatchConfigurer {
 	@Nullable
 	private PathMatcher pathMatcher;
 
+	@Nullable
+	private PathPatternParser patternParser;
+
 
 	/**
 	 * Whether to use suffix pattern match (".*") when matching patterns to
@@ -110,6 +114,23 @@ public class PathMatchConfigurer {
 		return this;
 	}
 
+	/**
+	 * Enable use of parsed {@link org.springframework.web.util.pattern.PathPattern
+	 * PathPatterns} as an alternative to String pattern matching with the
+	 * {@link #setPathMatcher PathMatcher}, for request mappings, view controller
+	 * mappings, and resource mappings.
+	 * <p>Suffix pattern matching does not apply to parsed patterns, and the
+	 * {@link #setUseTrailingSlashMatch trailing slash match} option is applied
+	 * to the parser.
+	 * <p>By default this is not set.
+	 * @since 5.0.17
+	 * @see org.springframework.web.servlet.handler.AbstractHandlerMapping#setPatternParser
+	 */
+	public PathMatchConfigurer setPatternParser(PathPatternParser patternParser) {
+		this.patternParser = patternParser;
+		return this;
+	}
+
 
 	@Nullable
 	public Boolean isUseSuffixPatternMatch() {
@@ -136,4 +157,13 @@ public class PathMatchConfigurer {
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Return the {@link PathPatternParser} to use, if configured.
+	 * @since 5.0.17
+	 */
+	@Nullable
+	public PathPatternParser getPatternParser() {
+		return this.patternParser;
+	}
+
 }
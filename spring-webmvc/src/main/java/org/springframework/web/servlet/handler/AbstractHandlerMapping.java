@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,6 +27,7 @@ import javax.servlet.http.HttpServletResponse;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.core.Ordered;
+import org.springframework.http.server.RequestPath;
 import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
@@ -43,7 +44,10 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Abstract base class for {@link org.springframework.web.servlet.HandlerMapping}
@@ -67,6 +71,8 @@ import org.springframework.web.util.UrlPathHelper;
  */
 public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport implements HandlerMapping, Ordered {
 
+	private static final UrlPathHelper rawPathHelper = new UrlPathHelper();
+
 	@Nullable
 	private Object defaultHandler;
 
@@ -74,6 +80,9 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	@Nullable
+	private PathPatternParser patternParser;
+
 	private final List<Object> interceptors = new ArrayList<>();
 
 	private final List<HandlerInterceptor> adaptedInterceptors = new ArrayList<>();
@@ -152,6 +161,11 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 	/**
 	 * Set the PathMatcher implementation to use for matching URL paths
 	 * against registered URL patterns. Default is AntPathMatcher.
+	 * <p>Note that {@link AbstractHandlerMethodMapping} narrows down the mappings
+	 * to check through an index of their URL patterns only with a plain
+	 * {@code AntPathMatcher}. With any other {@code PathMatcher}, including
+	 * subclasses of {@code AntPathMatcher}, every mapping is checked for a
+	 * request without a direct path match.
 	 * @see org.springframework.util.AntPathMatcher
 	 */
 	public void setPathMatcher(PathMatcher pathMatcher) {
@@ -168,6 +182,44 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Enable use of pre-parsed {@link PathPattern}s as an alternative to
+	 * String pattern matching with {@link AntPathMatcher}. The syntax is
+	 * largely the same but the {@code PathPattern} syntax is more tailored for
+	 * web applications, and its implementation is more efficient.
+	 * <p>When this property is set, URL patterns are parsed once at startup
+	 * and matched against the parsed
+	 * {@link ServletRequestPathUtils#parseAndCache(HttpServletRequest) RequestPath}
+	 * of the request, and the {@link #setUrlPathHelper UrlPathHelper} and
+	 * {@link #setPathMatcher PathMatcher} are not used for request mapping.
+	 * <p>By default this is not set.
+	 * @param patternParser the parser to use
+	 * @since 5.0.17
+	 */
+	public void setPatternParser(@Nullable PathPatternParser patternParser) {
+		this.patternParser = patternParser;
+	}
+
+	/**
+	 * Return the {@link #setPatternParser(PathPatternParser) configured}
+	 * {@code PathPatternParser}, or {@code null}.
+	 * @since 5.0.17
+	 */
+	@Nullable
+	public PathPatternParser getPatternParser() {
+		return this.patternParser;
+	}
+
+	/**
+	 * Return "true" if this {@code HandlerMapping} has been
+	 * {@link #setPatternParser enabled} to use parsed {@code PathPattern}s.
+	 * @since 5.0.17
+	 */
+	@Override
+	public boolean usesPathPatterns() {
+		return (getPatternParser() != null);
+	}
+
 	/**
 	 * Set the interceptors to apply for all handlers mapped by this handler mapping.
 	 * <p>Supported interceptor types are HandlerInterceptor, WebRequestInterceptor, and MappedInterceptor.
@@ -389,6 +441,29 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 	@Nullable
 	protected abstract Object getHandlerInternal(HttpServletRequest request) throws Exception;
 
+	/**
+	 * Initialize the path to use for request mapping.
+	 * <p>When parsed patterns are {@link #usesPathPatterns() enabled}, this is
+	 * the encoded path within the application from the parsed {@code RequestPath},
+	 * without ";" (semicolon) content. The {@code RequestPath} is expected to
+	 * have been parsed by the {@link org.springframework.web.servlet.DispatcherServlet},
+	 * and is parsed and cached here otherwise.
+	 * <p>Otherwise, for String pattern matching with a {@code PathMatcher},
+	 * this is the lookup path from the {@link #getUrlPathHelper() UrlPathHelper}.
+	 * @param request the current request
+	 * @return the lookup path
+	 * @since 5.0.17
+	 */
+	protected String initLookupPath(HttpServletRequest request) {
+		if (usesPathPatterns()) {
+			RequestPath requestPath = (ServletRequestPathUtils.hasParsedRequestPath(request) ?
+					ServletRequestPathUtils.getParsedRequestPath(request) :
+					ServletRequestPathUtils.parseAndCache(request));
+			return rawPathHelper.removeSemicolonContent(requestPath.pathWithinApplication().value());
+		}
+		return this.urlPathHelper.getLookupPathForRequest(request);
+	}
+
 	/**
 	 * Build a {@link HandlerExecutionChain} for the given handler, including
 	 * applicable interceptors.
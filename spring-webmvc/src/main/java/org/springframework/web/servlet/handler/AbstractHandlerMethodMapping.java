@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -35,7 +35,9 @@ import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.core.MethodIntrospector;
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.Nullable;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.LinkedMultiValueMap;
@@ -44,6 +46,8 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsUtils;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.PathPatternIndex;
+import org.springframework.web.util.ServletRequestPathUtils;
 
 /**
  * Abstract base class for {@link HandlerMapping} implementations that define
@@ -309,7 +313,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	 */
 	@Override
 	protected HandlerMethod getHandlerInternal(HttpServletRequest request) throws Exception {
-		String lookupPath = getUrlPathHelper().getLookupPathForRequest(request);
+		String lookupPath = initLookupPath(request);
 		if (logger.isDebugEnabled()) {
 			logger.debug("Looking up handler method for path " + lookupPath);
 		}
@@ -348,8 +352,19 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			addMatchingMappings(directPathMatches, matches, request);
 		}
 		if (matches.isEmpty()) {
-			// No choice but to go through all mappings...
-			addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, request);
+			if (usesPathPatterns()) {
+				// Go through the mappings whose patterns may match the parsed path...
+				PathContainer path = ServletRequestPathUtils.getParsedRequestPath(request).pathWithinApplication();
+				addMatchingMappings(this.mappingRegistry.getCandidateMappings(path), matches, request);
+			}
+			else if (getPathMatcher().getClass() == AntPathMatcher.class) {
+				// Go through the mappings whose patterns may match...
+				addMatchingMappings(this.mappingRegistry.getCandidateMappings(lookupPath), matches, request);
+			}
+			else {
+				// No choice but to go through all mappings...
+				addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, request);
+			}
 		}
 
 		if (!matches.isEmpty()) {
@@ -452,6 +467,10 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 	/**
 	 * Extract and return the URL paths contained in a mapping.
+	 * <p>Besides registering direct URL paths, the returned patterns are used
+	 * to index the mapping, so that request lookups only need to check the
+	 * mappings whose patterns may match the lookup path. A mapping without
+	 * patterns is checked for every request.
 	 */
 	protected abstract Set<String> getMappingPathPatterns(T mapping);
 
@@ -487,6 +506,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final MultiValueMap<String, T> urlLookup = new LinkedMultiValueMap<>();
 
+		private final PathPatternIndex<T> patternIndex = new PathPatternIndex<>();
+
 		private final Map<String, List<HandlerMethod>> nameLookup = new ConcurrentHashMap<>();
 
 		private final Map<HandlerMethod, CorsConfiguration> corsLookup = new ConcurrentHashMap<>();
@@ -510,6 +531,25 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.urlLookup.get(urlPath);
 		}
 
+		/**
+		 * Return the mappings whose path patterns may match the given lookup
+		 * path, including all mappings without path patterns. Not thread-safe.
+		 * @see #acquireReadLock()
+		 */
+		public Collection<T> getCandidateMappings(String lookupPath) {
+			return this.patternIndex.getCandidates(lookupPath);
+		}
+
+		/**
+		 * Variant of {@link #getCandidateMappings(String)} for a parsed path.
+		 * Not thread-safe.
+		 * @since 5.0.17
+		 * @see #acquireReadLock()
+		 */
+		public Collection<T> getCandidateMappings(PathContainer path) {
+			return this.patternIndex.getCandidates(path);
+		}
+
 		/**
 		 * Return handler methods by mapping name. Thread-safe for concurrent use.
 		 */
@@ -555,6 +595,16 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					this.urlLookup.add(url, mapping);
 				}
 
+				Set<String> patterns = getMappingPathPatterns(mapping);
+				if (patterns.isEmpty()) {
+					this.patternIndex.addUnindexed(mapping);
+				}
+				else {
+					for (String pattern : patterns) {
+						this.patternIndex.add(pattern, mapping);
+					}
+				}
+
 				String name = null;
 				if (getNamingStrategy() != null) {
 					name = getNamingStrategy().getName(handlerMethod, mapping);
@@ -631,6 +681,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				}
 
 				this.mappingLookup.remove(definition.getMapping());
+				this.patternIndex.remove(definition.getMapping());
 
 				for (String url : definition.getDirectUrls()) {
 					List<T> list = this.urlLookup.get(url);
@@ -16,6 +16,7 @@
 
 package org.springframework.web.servlet.handler;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -27,10 +28,16 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.UriUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Abstract base class for URL-mapped {@link org.springframework.web.servlet.HandlerMapping}
@@ -47,6 +54,10 @@ import org.springframework.web.servlet.HandlerExecutionChain;
  * current request path. The most exact match is defined as the longest
  * path pattern that matches the current request path.
  *
+ * <p>If a {@link #setPatternParser PathPatternParser} is set, the URL paths are
+ * parsed to {@link PathPattern}s at registration, and matched against the
+ * parsed {@code RequestPath} of the request instead.
+ *
  * @author Juergen Hoeller
  * @author Arjen Poutsma
  * @since 16.04.2003
@@ -62,6 +73,8 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 
 	private final Map<String, Object> handlerMap = new LinkedHashMap<>();
 
+	private final Map<PathPattern, Object> pathPatternHandlerMap = new LinkedHashMap<>();
+
 
 	/**
 	 * Set the root handler for this handler mapping, that is,
@@ -85,6 +98,9 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 	 * Whether to match to URLs irrespective of the presence of a trailing slash.
 	 * If enabled a URL pattern such as "/users" also matches to "/users/".
 	 * <p>The default value is {@code false}.
+	 * <p>This does not apply to parsed patterns, for which trailing slash
+	 * matching is determined by the {@code matchOptionalTrailingSeparator}
+	 * property of the {@link #setPatternParser PathPatternParser}.
 	 */
 	public void setUseTrailingSlashMatch(boolean useTrailingSlashMatch) {
 		this.useTrailingSlashMatch = useTrailingSlashMatch;
@@ -119,8 +135,10 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 	@Override
 	@Nullable
 	protected Object getHandlerInternal(HttpServletRequest request) throws Exception {
-		String lookupPath = getUrlPathHelper().getLookupPathForRequest(request);
-		Object handler = lookupHandler(lookupPath, request);
+		String lookupPath = initLookupPath(request);
+		Object handler = (usesPathPatterns() ?
+				lookupHandler(ServletRequestPathUtils.getParsedRequestPath(request), lookupPath, request) :
+				lookupHandler(lookupPath, request));
 		if (handler == null) {
 			// We need to care for the default handler directly, since we need to
 			// expose the PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE for it as well.
@@ -238,6 +256,68 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 		return null;
 	}
 
+	/**
+	 * Look up a handler instance for the given parsed request path, if
+	 * {@link #usesPathPatterns() parsed patterns} are enabled.
+	 * <p>Supports direct matches against the lookup path, and matches against
+	 * the registered URL paths parsed as {@link PathPattern}s, selecting the
+	 * most specific one as per {@link PathPattern#SPECIFICITY_COMPARATOR}.
+	 * The exposed path within the mapping is decoded as with the default
+	 * {@link org.springframework.web.util.UrlPathHelper} settings.
+	 * @param path the parsed request path
+	 * @param lookupPath the encoded lookup path, see {@link #initLookupPath}
+	 * @param request current HTTP request (to expose the path within the mapping to)
+	 * @return the associated handler instance, or {@code null} if not found
+	 * @since 5.0.17
+	 */
+	@Nullable
+	protected Object lookupHandler(RequestPath path, String lookupPath, HttpServletRequest request)
+			throws Exception {
+
+		// Direct match?
+		Object handler = this.handlerMap.get(lookupPath);
+		if (handler != null) {
+			handler = resolveHandler(handler);
+			validateHandler(handler, request);
+			String decodedPath = UriUtils.decode(lookupPath, StandardCharsets.UTF_8);
+			return buildPathExposingHandler(handler, lookupPath, decodedPath, null);
+		}
+
+		// Pattern match?
+		PathContainer pathWithinApplication = path.pathWithinApplication();
+		List<PathPattern> matchingPatterns = new ArrayList<>();
+		for (PathPattern pattern : this.pathPatternHandlerMap.keySet()) {
+			if (pattern.matches(pathWithinApplication)) {
+				matchingPatterns.add(pattern);
+			}
+		}
+		if (matchingPatterns.isEmpty()) {
+			return null;
+		}
+		matchingPatterns.sort(PathPattern.SPECIFICITY_COMPARATOR);
+		if (logger.isDebugEnabled()) {
+			logger.debug("Matching patterns for request [" + lookupPath + "] are " + matchingPatterns);
+		}
+		PathPattern bestMatch = matchingPatterns.get(0);
+		handler = resolveHandler(this.pathPatternHandlerMap.get(bestMatch));
+		validateHandler(handler, request);
+		PathContainer pathWithinMapping = bestMatch.extractPathWithinPattern(pathWithinApplication);
+		String decodedPathWithinMapping = UriUtils.decode(pathWithinMapping.value(), StandardCharsets.UTF_8);
+		PathPattern.PathMatchInfo matchInfo = bestMatch.matchAndExtract(pathWithinApplication);
+		Map<String, String> uriTemplateVariables = (matchInfo != null ? matchInfo.getUriVariables() : null);
+		return buildPathExposingHandler(handler, bestMatch.getPatternString(),
+				decodedPathWithinMapping, uriTemplateVariables);
+	}
+
+	private Object resolveHandler(Object handler) {
+		// Bean name or resolved handler?
+		if (handler instanceof String) {
+			String handlerName = (String) handler;
+			return obtainApplicationContext().getBean(handlerName);
+		}
+		return handler;
+	}
+
 	/**
 	 * Validate the given handler against the current request.
 	 * <p>The default implementation is empty. Can be overridden in subclasses,
@@ -297,7 +377,13 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 	@Override
 	@Nullable
 	public RequestMatchResult match(HttpServletRequest request, String pattern) {
-		String lookupPath = getUrlPathHelper().getLookupPathForRequest(request);
+		String lookupPath = initLookupPath(request);
+		PathPatternParser patternParser = getPatternParser();
+		if (patternParser != null) {
+			PathPattern pathPattern = patternParser.parse(pattern);
+			PathContainer path = ServletRequestPathUtils.getParsedRequestPath(request).pathWithinApplication();
+			return (pathPattern.matches(path) ? new RequestMatchResult(pathPattern, path) : null);
+		}
 		if (getPathMatcher().match(pattern, lookupPath)) {
 			return new RequestMatchResult(pattern, lookupPath, getPathMatcher());
 		}
@@ -368,6 +454,9 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 			}
 			else {
 				this.handlerMap.put(urlPath, resolvedHandler);
+				if (getPatternParser() != null) {
+					this.pathPatternHandlerMap.put(getPatternParser().parse(urlPath), resolvedHandler);
+				}
 				if (logger.isInfoEnabled()) {
 					logger.info("Mapped URL path [" + urlPath + "] onto " + getHandlerDescription(handler));
 				}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -33,6 +33,7 @@ import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.http.server.RequestPath;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -43,6 +44,7 @@ import org.springframework.web.servlet.DispatcherServlet;
 import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
 
 /**
  * Helper class to get information from the {@code HandlerMapping} that would
@@ -68,6 +70,8 @@ public class HandlerMappingIntrospector
 	@Nullable
 	private List<HandlerMapping> handlerMappings;
 
+	private boolean parseRequestPath;
+
 
 	/**
 	 * Constructor for use with {@link ApplicationContextAware}.
@@ -84,6 +88,7 @@ public class HandlerMappingIntrospector
 	@Deprecated
 	public HandlerMappingIntrospector(ApplicationContext context) {
 		this.handlerMappings = initHandlerMappings(context);
+		this.parseRequestPath = initParseRequestPath(this.handlerMappings);
 	}
 
 
@@ -105,6 +110,7 @@ public class HandlerMappingIntrospector
 		if (this.handlerMappings == null) {
 			Assert.notNull(this.applicationContext, "No ApplicationContext");
 			this.handlerMappings = initHandlerMappings(this.applicationContext);
+			this.parseRequestPath = initParseRequestPath(this.handlerMappings);
 		}
 	}
 
@@ -122,48 +128,81 @@ public class HandlerMappingIntrospector
 	@Nullable
 	public MatchableHandlerMapping getMatchableHandlerMapping(HttpServletRequest request) throws Exception {
 		Assert.notNull(this.handlerMappings, "Handler mappings not initialized");
-		HttpServletRequest wrapper = new RequestAttributeChangeIgnoringWrapper(request);
-		for (HandlerMapping handlerMapping : this.handlerMappings) {
-			Object handler = handlerMapping.getHandler(wrapper);
-			if (handler == null) {
-				continue;
-			}
-			if (handlerMapping instanceof MatchableHandlerMapping) {
-				return ((MatchableHandlerMapping) handlerMapping);
+		RequestPath previousPath = parseRequestPath(request);
+		try {
+			HttpServletRequest wrapper = new RequestAttributeChangeIgnoringWrapper(request);
+			for (HandlerMapping handlerMapping : this.handlerMappings) {
+				Object handler = handlerMapping.getHandler(wrapper);
+				if (handler == null) {
+					continue;
+				}
+				if (handlerMapping instanceof MatchableHandlerMapping) {
+					return ((MatchableHandlerMapping) handlerMapping);
+				}
+				throw new IllegalStateException("HandlerMapping is not a MatchableHandlerMapping");
 			}
-			throw new IllegalStateException("HandlerMapping is not a MatchableHandlerMapping");
+			return null;
+		}
+		finally {
+			restoreRequestPath(previousPath, request);
 		}
-		return null;
 	}
 
 	@Override
 	@Nullable
 	public CorsConfiguration getCorsConfiguration(HttpServletRequest request) {
 		Assert.notNull(this.handlerMappings, "Handler mappings not initialized");
-		HttpServletRequest wrapper = new RequestAttributeChangeIgnoringWrapper(request);
-		for (HandlerMapping handlerMapping : this.handlerMappings) {
-			HandlerExecutionChain handler = null;
-			try {
-				handler = handlerMapping.getHandler(wrapper);
-			}
-			catch (Exception ex) {
-				// Ignore
-			}
-			if (handler == null) {
-				continue;
-			}
-			if (handler.getInterceptors() != null) {
-				for (HandlerInterceptor interceptor : handler.getInterceptors()) {
-					if (interceptor instanceof CorsConfigurationSource) {
-						return ((CorsConfigurationSource) interceptor).getCorsConfiguration(wrapper);
+		RequestPath previousPath = parseRequestPath(request);
+		try {
+			HttpServletRequest wrapper = new RequestAttributeChangeIgnoringWrapper(request);
+			for (HandlerMapping handlerMapping : this.handlerMappings) {
+				HandlerExecutionChain handler = null;
+				try {
+					handler = handlerMapping.getHandler(wrapper);
+				}
+				catch (Exception ex) {
+					// Ignore
+				}
+				if (handler == null) {
+					continue;
+				}
+				if (handler.getInterceptors() != null) {
+					for (HandlerInterceptor interceptor : handler.getInterceptors()) {
+						if (interceptor instanceof CorsConfigurationSource) {
+							return ((CorsConfigurationSource) interceptor).getCorsConfiguration(wrapper);
+						}
 					}
 				}
+				if (handler.getHandler() instanceof CorsConfigurationSource) {
+					return ((CorsConfigurationSource) handler.getHandler()).getCorsConfiguration(wrapper);
+				}
 			}
-			if (handler.getHandler() instanceof CorsConfigurationSource) {
-				return ((CorsConfigurationSource) handler.getHandler()).getCorsConfiguration(wrapper);
-			}
+			return null;
+		}
+		finally {
+			restoreRequestPath(previousPath, request);
+		}
+	}
+
+	/**
+	 * Parse the request path if any of the HandlerMappings uses parsed patterns,
+	 * since the wrapper passed to them ignores request attribute changes.
+	 * @return the previously parsed path, if any, to restore afterwards
+	 */
+	@Nullable
+	private RequestPath parseRequestPath(HttpServletRequest request) {
+		RequestPath previousPath = null;
+		if (this.parseRequestPath) {
+			previousPath = (RequestPath) request.getAttribute(ServletRequestPathUtils.PATH_ATTRIBUTE);
+			ServletRequestPathUtils.parseAndCache(request);
+		}
+		return previousPath;
+	}
+
+	private void restoreRequestPath(@Nullable RequestPath previousPath, HttpServletRequest request) {
+		if (this.parseRequestPath) {
+			ServletRequestPathUtils.setParsedRequestPath(previousPath, request);
 		}
-		return null;
 	}
 
 
@@ -178,6 +217,15 @@ public class HandlerMappingIntrospector
 		return Collections.unmodifiableList(initFallback(applicationContext));
 	}
 
+	private static boolean initParseRequestPath(List<HandlerMapping> handlerMappings) {
+		for (HandlerMapping handlerMapping : handlerMappings) {
+			if (handlerMapping.usesPathPatterns()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	private static List<HandlerMapping> initFallback(ApplicationContext applicationContext) {
 		Properties props;
 		String path = "DispatcherServlet.properties";
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,8 +18,11 @@ package org.springframework.web.servlet.handler;
 
 import java.util.Map;
 
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.PathMatcher;
+import org.springframework.web.util.pattern.PathPattern;
 
 /**
  * Container for the result from request pattern matching via
@@ -31,12 +34,21 @@ import org.springframework.util.PathMatcher;
  */
 public class RequestMatchResult {
 
+	@Nullable
 	private final String matchingPattern;
 
+	@Nullable
 	private final String lookupPath;
 
+	@Nullable
 	private final PathMatcher pathMatcher;
 
+	@Nullable
+	private final PathPattern pathPattern;
+
+	@Nullable
+	private final PathContainer path;
+
 
 	/**
 	 * Create an instance with a matching pattern.
@@ -52,15 +64,41 @@ public class RequestMatchResult {
 		this.matchingPattern = matchingPattern;
 		this.lookupPath = lookupPath;
 		this.pathMatcher = pathMatcher;
+		this.pathPattern = null;
+		this.path = null;
+	}
+
+	/**
+	 * Create an instance with a matching, parsed pattern.
+	 * @param pathPattern the matching pattern
+	 * @param path the parsed path within the application of the request
+	 * @since 5.0.17
+	 */
+	public RequestMatchResult(PathPattern pathPattern, PathContainer path) {
+		Assert.notNull(pathPattern, "'pathPattern' is required");
+		Assert.notNull(path, "'path' is required");
+		this.matchingPattern = null;
+		this.lookupPath = null;
+		this.pathMatcher = null;
+		this.pathPattern = pathPattern;
+		this.path = path;
 	}
 
 
 	/**
 	 * Extract URI template variables from the matching pattern as defined in
-	 * {@link PathMatcher#extractUriTemplateVariables}.
+	 * {@link PathMatcher#extractUriTemplateVariables}, or from the matching
+	 * {@link PathPattern}, in which case the variables are decoded.
 	 * @return a map with URI template variables
 	 */
 	public Map<String, String> extractUriTemplateVariables() {
+		if (this.pathPattern != null && this.path != null) {
+			PathPattern.PathMatchInfo matchInfo = this.pathPattern.matchAndExtract(this.path);
+			Assert.state(matchInfo != null, "Pattern does not match the path");
+			return matchInfo.getUriVariables();
+		}
+		Assert.state(this.pathMatcher != null && this.matchingPattern != null && this.lookupPath != null,
+				"No PathMatcher result");
 		return this.pathMatcher.extractUriTemplateVariables(this.matchingPattern, this.lookupPath);
 	}
 
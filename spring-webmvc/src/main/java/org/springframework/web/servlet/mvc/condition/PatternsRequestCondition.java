@@ -27,16 +27,24 @@ import java.util.List;
 import java.util.Set;
 import javax.servlet.http.HttpServletRequest;
 
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.PathMatcher;
 import org.springframework.util.StringUtils;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * A logical disjunction (' || ') request condition that matches a request
  * against a set of URL path patterns.
  *
+ * <p>Patterns are matched with a {@link PathMatcher} against the lookup path
+ * of the request by default or, if created with a {@link PathPatternParser},
+ * as parsed {@link PathPattern}s against the parsed {@code RequestPath}.
+ *
  * @author Rossen Stoyanchev
  * @since 3.1
  */
@@ -54,6 +62,11 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 
 	private final List<String> fileExtensions = new ArrayList<>();
 
+	@Nullable
+	private final PathPatternParser patternParser;
+
+	private final List<PathPattern> pathPatterns;
+
 
 	/**
 	 * Creates a new instance with the given URL patterns.
@@ -97,6 +110,41 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 				useTrailingSlashMatch, fileExtensions);
 	}
 
+	/**
+	 * Create a new instance with the given URL patterns parsed with the given
+	 * {@link PathPatternParser}. Each pattern that is not empty and does not
+	 * start with "/" is prepended with "/".
+	 * <p>The parsed patterns are matched against the
+	 * {@link ServletRequestPathUtils#getParsedRequestPath parsed RequestPath}
+	 * of the request rather than with a {@link PathMatcher}. Suffix pattern
+	 * matching does not apply, while trailing slash matching is determined by
+	 * the {@link PathPatternParser#setMatchOptionalTrailingSeparator
+	 * matchOptionalTrailingSeparator} property of the parser.
+	 * @param patterns the URL patterns to use; if 0, the condition will match to every request.
+	 * @param patternParser the parser to parse the patterns with
+	 * @since 5.0.17
+	 */
+	public PatternsRequestCondition(String[] patterns, PathPatternParser patternParser) {
+		this(parse(prependLeadingSlash(Arrays.asList(patterns)), patternParser), patternParser);
+	}
+
+	/**
+	 * Private constructor accepting a list of parsed patterns.
+	 */
+	private PatternsRequestCondition(List<PathPattern> pathPatterns, PathPatternParser patternParser) {
+		Set<String> patterns = new LinkedHashSet<>(pathPatterns.size());
+		for (PathPattern pathPattern : pathPatterns) {
+			patterns.add(pathPattern.getPatternString());
+		}
+		this.patterns = Collections.unmodifiableSet(patterns);
+		this.pathHelper = new UrlPathHelper();
+		this.pathMatcher = new AntPathMatcher();
+		this.useSuffixPatternMatch = false;
+		this.useTrailingSlashMatch = patternParser.isMatchOptionalTrailingSeparator();
+		this.patternParser = patternParser;
+		this.pathPatterns = pathPatterns;
+	}
+
 	/**
 	 * Private constructor accepting a collection of patterns.
 	 */
@@ -109,6 +157,8 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		this.pathMatcher = (pathMatcher != null ? pathMatcher : new AntPathMatcher());
 		this.useSuffixPatternMatch = useSuffixPatternMatch;
 		this.useTrailingSlashMatch = useTrailingSlashMatch;
+		this.patternParser = null;
+		this.pathPatterns = Collections.emptyList();
 
 		if (fileExtensions != null) {
 			for (String fileExtension : fileExtensions) {
@@ -132,10 +182,28 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		return result;
 	}
 
+	private static List<PathPattern> parse(Collection<String> patterns, PathPatternParser patternParser) {
+		List<PathPattern> result = new ArrayList<>(patterns.size());
+		for (String pattern : patterns) {
+			result.add(patternParser.parse(pattern));
+		}
+		return result;
+	}
+
 	public Set<String> getPatterns() {
 		return this.patterns;
 	}
 
+	/**
+	 * Return the parsed patterns, in the same order as {@link #getPatterns()},
+	 * if this condition was created with a {@link PathPatternParser}, or an
+	 * empty list otherwise.
+	 * @since 5.0.17
+	 */
+	public List<PathPattern> getPathPatterns() {
+		return this.pathPatterns;
+	}
+
 	@Override
 	protected Collection<String> getContent() {
 		return this.patterns;
@@ -158,6 +226,9 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 */
 	@Override
 	public PatternsRequestCondition combine(PatternsRequestCondition other) {
+		if (this.patternParser != null) {
+			return combinePathPatterns(this.patternParser, other);
+		}
 		Set<String> result = new LinkedHashSet<>();
 		if (!this.patterns.isEmpty() && !other.patterns.isEmpty()) {
 			for (String pattern1 : this.patterns) {
@@ -179,6 +250,29 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 				this.useSuffixPatternMatch, this.useTrailingSlashMatch, this.fileExtensions);
 	}
 
+	private PatternsRequestCondition combinePathPatterns(
+			PathPatternParser patternParser, PatternsRequestCondition other) {
+
+		List<PathPattern> result = new ArrayList<>();
+		if (!this.pathPatterns.isEmpty() && !other.pathPatterns.isEmpty()) {
+			for (PathPattern pattern1 : this.pathPatterns) {
+				for (PathPattern pattern2 : other.pathPatterns) {
+					result.add(pattern1.combine(pattern2));
+				}
+			}
+		}
+		else if (!this.pathPatterns.isEmpty()) {
+			result.addAll(this.pathPatterns);
+		}
+		else if (!other.pathPatterns.isEmpty()) {
+			result.addAll(other.pathPatterns);
+		}
+		else {
+			result.add(patternParser.parse(""));
+		}
+		return new PatternsRequestCondition(result, patternParser);
+	}
+
 	/**
 	 * Checks if any of the patterns match the given request and returns an instance
 	 * that is guaranteed to contain matching patterns, sorted via
@@ -201,6 +295,11 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		if (this.patterns.isEmpty()) {
 			return this;
 		}
+		if (this.patternParser != null) {
+			PathContainer path = ServletRequestPathUtils.getParsedRequestPath(request).pathWithinApplication();
+			List<PathPattern> matches = getMatchingPathPatterns(path);
+			return (!matches.isEmpty() ? new PatternsRequestCondition(matches, this.patternParser) : null);
+		}
 		String lookupPath = this.pathHelper.getLookupPathForRequest(request);
 		List<String> matches = getMatchingPatterns(lookupPath);
 		return (!matches.isEmpty() ?
@@ -218,6 +317,13 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 * @return a collection of matching patterns sorted with the closest match at the top
 	 */
 	public List<String> getMatchingPatterns(String lookupPath) {
+		if (this.patternParser != null) {
+			List<String> matches = new ArrayList<>();
+			for (PathPattern pattern : getMatchingPathPatterns(PathContainer.parsePath(lookupPath))) {
+				matches.add(pattern.getPatternString());
+			}
+			return matches;
+		}
 		List<String> matches = new ArrayList<>();
 		for (String pattern : this.patterns) {
 			String match = getMatchingPattern(pattern, lookupPath);
@@ -231,6 +337,19 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 		return matches;
 	}
 
+	private List<PathPattern> getMatchingPathPatterns(PathContainer path) {
+		List<PathPattern> matches = new ArrayList<>();
+		for (PathPattern pattern : this.pathPatterns) {
+			if (pattern.matches(path)) {
+				matches.add(pattern);
+			}
+		}
+		if (matches.size() > 1) {
+			matches.sort(PathPattern.SPECIFICITY_COMPARATOR);
+		}
+		return matches;
+	}
+
 	@Nullable
 	private String getMatchingPattern(String pattern, String lookupPath) {
 		if (pattern.equals(lookupPath)) {
@@ -275,10 +394,19 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	 */
 	@Override
 	public int compareTo(PatternsRequestCondition other, HttpServletRequest request) {
+		if (this.patternParser != null) {
+			return compareCollections(this.pathPatterns, other.pathPatterns, PathPattern.SPECIFICITY_COMPARATOR);
+		}
 		String lookupPath = this.pathHelper.getLookupPathForRequest(request);
 		Comparator<String> patternComparator = this.pathMatcher.getPatternComparator(lookupPath);
-		Iterator<String> iterator = this.patterns.iterator();
-		Iterator<String> iteratorOther = other.patterns.iterator();
+		return compareCollections(this.patterns, other.patterns, patternComparator);
+	}
+
+	private static <P> int compareCollections(
+			Collection<P> patterns, Collection<P> otherPatterns, Comparator<? super P> patternComparator) {
+
+		Iterator<P> iterator = patterns.iterator();
+		Iterator<P> iteratorOther = otherPatterns.iterator();
 		while (iterator.hasNext() && iteratorOther.hasNext()) {
 			int result = patternComparator.compare(iterator.next(), iteratorOther.next());
 			if (result != 0) {
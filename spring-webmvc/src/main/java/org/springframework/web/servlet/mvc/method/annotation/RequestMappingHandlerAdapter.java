@@ -33,6 +33,7 @@ import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodAccessorFactory;
 import org.springframework.core.MethodIntrospector;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.core.ReactiveAdapterRegistry;
@@ -177,6 +178,9 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 
 	private ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
+	@Nullable
+	private MethodAccessorFactory methodAccessorFactory;
+
 	@Nullable
 	private ConfigurableBeanFactory beanFactory;
 
@@ -542,6 +546,18 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		this.parameterNameDiscoverer = parameterNameDiscoverer;
 	}
 
+	/**
+	 * Set the {@link MethodAccessorFactory} to use for invoking controller
+	 * methods, including {@code @ModelAttribute} and {@code @InitBinder}
+	 * methods, e.g. a {@link org.springframework.core.GeneratedMethodAccessorFactory}
+	 * to call them through generated classes rather than via reflection.
+	 * <p>By default methods are invoked via reflection.
+	 * @since 5.0.17
+	 */
+	public void setMethodAccessorFactory(@Nullable MethodAccessorFactory methodAccessorFactory) {
+		this.methodAccessorFactory = methodAccessorFactory;
+	}
+
 	/**
 	 * A {@link ConfigurableBeanFactory} is expected for resolving expressions
 	 * in method argument default values.
@@ -866,6 +882,7 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 			}
 			invocableMethod.setDataBinderFactory(binderFactory);
 			invocableMethod.setParameterNameDiscoverer(this.parameterNameDiscoverer);
+			invocableMethod.setMethodAccessorFactory(this.methodAccessorFactory);
 
 			ModelAndViewContainer mavContainer = new ModelAndViewContainer();
 			mavContainer.addAllAttributes(RequestContextUtils.getInputFlashMap(request));
@@ -944,6 +961,7 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 			attrMethod.setHandlerMethodArgumentResolvers(this.argumentResolvers);
 		}
 		attrMethod.setParameterNameDiscoverer(this.parameterNameDiscoverer);
+		attrMethod.setMethodAccessorFactory(this.methodAccessorFactory);
 		attrMethod.setDataBinderFactory(factory);
 		return attrMethod;
 	}
@@ -979,6 +997,7 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		}
 		binderMethod.setDataBinderFactory(new DefaultDataBinderFactory(this.webBindingInitializer));
 		binderMethod.setParameterNameDiscoverer(this.parameterNameDiscoverer);
+		binderMethod.setMethodAccessorFactory(this.methodAccessorFactory);
 		return binderMethod;
 	}
 
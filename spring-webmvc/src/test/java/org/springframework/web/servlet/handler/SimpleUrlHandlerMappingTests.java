@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,6 +31,7 @@ import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.util.WebUtils;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.junit.Assert.*;
 
@@ -90,6 +91,35 @@ public class SimpleUrlHandlerMappingTests {
 		assertSame(controller, hec.getHandler());
 	}
 
+	@Test
+	public void urlMappingWithPathPatterns() throws Exception {
+		SimpleUrlHandlerMapping handlerMapping = new SimpleUrlHandlerMapping();
+		handlerMapping.setPatternParser(new PathPatternParser());
+		Object resources = new Object();
+		Object welcome = new Object();
+		Map<String, Object> urlMap = new LinkedHashMap<>();
+		urlMap.put("/resources/**", resources);
+		urlMap.put("/welcome", welcome);
+		handlerMapping.setUrlMap(urlMap);
+		handlerMapping.setApplicationContext(new StaticApplicationContext());
+		assertTrue(handlerMapping.usesPathPatterns());
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/resources/css/a%20b.css");
+		request.setContextPath("/app");
+		HandlerExecutionChain hec = getHandler(handlerMapping, request);
+		assertNotNull(hec);
+		assertSame(resources, hec.getHandler());
+		assertEquals("/resources/**", request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+		assertEquals("css/a b.css", request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE));
+
+		request = new MockHttpServletRequest("GET", "/welcome");
+		hec = getHandler(handlerMapping, request);
+		assertNotNull(hec);
+		assertSame(welcome, hec.getHandler());
+
+		assertNull(handlerMapping.getHandler(new MockHttpServletRequest("GET", "/welcome.html")));
+	}
+
 	private void checkMappings(String beanName) throws Exception {
 		MockServletContext sc = new MockServletContext("");
 		XmlWebApplicationContext wac = new XmlWebApplicationContext();
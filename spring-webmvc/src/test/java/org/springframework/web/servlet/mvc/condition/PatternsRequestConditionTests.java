@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.web.servlet.mvc.condition;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import javax.servlet.http.HttpServletRequest;
@@ -23,6 +24,8 @@ import javax.servlet.http.HttpServletRequest;
 import org.junit.Test;
 
 import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.junit.Assert.*;
 
@@ -212,4 +215,77 @@ public class PatternsRequestConditionTests {
 		assertEquals(1, match1.compareTo(match2, request));
 	}
 
+	@Test
+	public void pathPatternsCombine() {
+		PathPatternParser parser = new PathPatternParser();
+		PatternsRequestCondition c1 = new PatternsRequestCondition(new String[] {"/t1", "t2"}, parser);
+		PatternsRequestCondition c2 = new PatternsRequestCondition(new String[] {"/m1"}, parser);
+
+		PatternsRequestCondition combined = c1.combine(c2);
+		assertEquals(new PatternsRequestCondition("/t1/m1", "/t2/m1"), combined);
+		assertEquals(2, combined.getPathPatterns().size());
+
+		PatternsRequestCondition empty = new PatternsRequestCondition(new String[0], parser);
+		assertEquals(new PatternsRequestCondition(""), empty.combine(empty));
+	}
+
+	@Test
+	public void pathPatternsMatch() {
+		PathPatternParser parser = new PathPatternParser();
+		PatternsRequestCondition condition =
+				new PatternsRequestCondition(new String[] {"/foo/*", "/foo/{id}", "/foo/bar"}, parser);
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/foo/bar");
+		request.setContextPath("/app");
+		ServletRequestPathUtils.parseAndCache(request);
+		PatternsRequestCondition match = condition.getMatchingCondition(request);
+
+		assertNotNull(match);
+		assertEquals(Arrays.asList("/foo/bar", "/foo/{id}", "/foo/*"), new ArrayList<>(match.getPatterns()));
+		assertEquals("/foo/bar", match.getPathPatterns().get(0).getPatternString());
+		assertEquals(Arrays.asList("/foo/bar", "/foo/{id}", "/foo/*"), condition.getMatchingPatterns("/foo/bar"));
+
+		request = new MockHttpServletRequest("GET", "/foo/bar.json");
+		ServletRequestPathUtils.parseAndCache(request);
+		match = condition.getMatchingCondition(request);
+
+		assertNotNull(match);
+		assertEquals("No suffix pattern matching", Arrays.asList("/foo/{id}", "/foo/*"),
+				new ArrayList<>(match.getPatterns()));
+	}
+
+	@Test
+	public void pathPatternsMatchTrailingSlash() {
+		PathPatternParser parser = new PathPatternParser();
+		PatternsRequestCondition condition = new PatternsRequestCondition(new String[] {"/foo"}, parser);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo/");
+		ServletRequestPathUtils.parseAndCache(request);
+
+		assertNotNull(condition.getMatchingCondition(request));
+
+		parser.setMatchOptionalTrailingSeparator(false);
+		condition = new PatternsRequestCondition(new String[] {"/foo"}, parser);
+
+		assertNull(condition.getMatchingCondition(request));
+	}
+
+	@Test
+	public void pathPatternsCompare() {
+		PathPatternParser parser = new PathPatternParser();
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo");
+		ServletRequestPathUtils.parseAndCache(request);
+
+		PatternsRequestCondition c1 = new PatternsRequestCondition(new String[] {"/fo*"}, parser);
+		PatternsRequestCondition c2 = new PatternsRequestCondition(new String[] {"/foo"}, parser);
+
+		assertEquals(1, c1.getMatchingCondition(request).compareTo(c2.getMatchingCondition(request), request));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void pathPatternsMatchWithoutParsedRequestPath() {
+		PatternsRequestCondition condition =
+				new PatternsRequestCondition(new String[] {"/foo"}, new PathPatternParser());
+		condition.getMatchingCondition(new MockHttpServletRequest("GET", "/foo"));
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -57,7 +57,9 @@ import org.springframework.web.servlet.mvc.condition.ParamsRequestCondition;
 import org.springframework.web.servlet.mvc.condition.PatternsRequestCondition;
 import org.springframework.web.servlet.mvc.condition.ProducesRequestCondition;
 import org.springframework.web.servlet.mvc.condition.RequestMethodsRequestCondition;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
@@ -367,6 +369,26 @@ public class RequestMappingInfoHandlerMappingTests {
 		assertEquals("cars", uriVariables.get("cars"));
 	}
 
+	@Test
+	public void handleMatchWithPathPatterns() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/cars;colors=red,blue/a%2Fb");
+		request.setContextPath("/app");
+		ServletRequestPathUtils.parseAndCache(request);
+
+		RequestMappingInfo.BuilderConfiguration config = new RequestMappingInfo.BuilderConfiguration();
+		config.setPatternParser(new PathPatternParser());
+		RequestMappingInfo key = RequestMappingInfo.paths("/{cars}/{id}", "/**").options(config).build();
+		this.handlerMapping.handleMatch(key, "/cars/a%2Fb", request);
+
+		MultiValueMap<String, String> matrixVariables = getMatrixVariables(request, "cars");
+		Map<String, String> uriVariables = getUriTemplateVariables(request);
+
+		assertEquals("/{cars}/{id}", request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+		assertEquals("cars", uriVariables.get("cars"));
+		assertEquals("a/b", uriVariables.get("id"));
+		assertEquals(Arrays.asList("red", "blue"), matrixVariables.get("colors"));
+	}
+
 
 	private HandlerMethod getHandler(MockHttpServletRequest request) throws Exception {
 		HandlerExecutionChain chain = this.handlerMapping.getHandler(request);